@@ -17,6 +17,7 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -55,6 +56,9 @@ import io.reactivex.functions.Function8;
 import io.reactivex.functions.Function9;
 import io.reactivex.functions.LongConsumer;
 import io.reactivex.functions.Predicate;
+import io.reactivex.functions.ToDoubleFunction;
+import io.reactivex.functions.ToIntFunction;
+import io.reactivex.functions.ToLongFunction;
 import io.reactivex.internal.functions.Functions;
 import io.reactivex.internal.functions.ObjectHelper;
 import io.reactivex.internal.fuseable.ScalarCallable;
@@ -73,6 +77,9 @@ import io.reactivex.internal.util.ExceptionHelper;
 import io.reactivex.internal.util.HashMapSupplier;
 import io.reactivex.parallel.ParallelFlowable;
 import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.primitive.DoubleFlowable;
+import io.reactivex.primitive.IntFlowable;
+import io.reactivex.primitive.LongFlowable;
 import io.reactivex.schedulers.Schedulers;
 import io.reactivex.schedulers.Timed;
 import io.reactivex.subscribers.SafeSubscriber;
@@ -9748,6 +9755,78 @@ public abstract class Flowable<T> implements Publisher<T> {
         return RxJavaPlugins.onAssembly(new FlowableMap<T, R>(this, mapper));
     }
 
+    /**
+     * Maps the items of this Flowable into primitive ints, returning an {@link IntFlowable} whose
+     * operators don't box the values.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source {@code Publisher}'s backpressure
+     *  behavior.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code mapToInt} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param mapper
+     *            a function computing the int value of each item emitted by the Publisher
+     * @return the new IntFlowable instance
+     * @see IntFlowable#boxed()
+     */
+    @CheckReturnValue
+    @Experimental
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final IntFlowable mapToInt(ToIntFunction<? super T> mapper) {
+        return IntFlowable.fromPublisher(this, mapper);
+    }
+
+    /**
+     * Maps the items of this Flowable into primitive longs, returning an {@link LongFlowable} whose
+     * operators don't box the values.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source {@code Publisher}'s backpressure
+     *  behavior.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code mapToLong} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param mapper
+     *            a function computing the long value of each item emitted by the Publisher
+     * @return the new LongFlowable instance
+     * @see LongFlowable#boxed()
+     */
+    @CheckReturnValue
+    @Experimental
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final LongFlowable mapToLong(ToLongFunction<? super T> mapper) {
+        return LongFlowable.fromPublisher(this, mapper);
+    }
+
+    /**
+     * Maps the items of this Flowable into primitive doubles, returning an {@link DoubleFlowable} whose
+     * operators don't box the values.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source {@code Publisher}'s backpressure
+     *  behavior.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code mapToDouble} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param mapper
+     *            a function computing the double value of each item emitted by the Publisher
+     * @return the new DoubleFlowable instance
+     * @see DoubleFlowable#boxed()
+     */
+    @CheckReturnValue
+    @Experimental
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final DoubleFlowable mapToDouble(ToDoubleFunction<? super T> mapper) {
+        return DoubleFlowable.fromPublisher(this, mapper);
+    }
+
     /**
      * Returns a Flowable that represents all of the emissions <em>and</em> notifications from the source
      * Publisher into emissions marked with their original types within {@link Notification} objects.
@@ -10187,6 +10266,91 @@ public abstract class Flowable<T> implements Publisher<T> {
         return RxJavaPlugins.onAssembly(new FlowableOnBackpressureBufferStrategy<T>(this, capacity, onOverflow, overflowStrategy));
     }
 
+    /**
+     * Instructs a Publisher that is emitting items faster than its Subscriber can consume them to buffer these
+     * items, in serialized form and outside of the Java heap, until they can be emitted.
+     * <p>
+     * The items are serialized into direct {@link java.nio.ByteBuffer}s until they take up {@code maxOffHeapBytes}
+     * bytes; beyond that, they spill into a memory-mapped temporary file which is deleted once the sequence
+     * terminates or gets cancelled. Items are deserialized one by one as the downstream requests them, hence a
+     * long stall of the downstream doesn't retain a growing number of objects on the heap. Items arriving while
+     * the buffer is empty and the downstream has outstanding requests are relayed without serialization.
+     * <p>
+     * An exception from the current Flowable is signalled immediately, skipping the buffered items.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and consumes the source {@code Publisher} in an unbounded
+     *  manner (i.e., not applying backpressure to it).</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code onBackpressureBuffer} does not operate by default on a particular {@link Scheduler}.</dd>
+     *  <dt><b>Error handling:</b></dt>
+     *  <dd>If the serializer, the deserializer or the temporary file fails, the source is cancelled and the
+     *  failure is signalled to the downstream.</dd>
+     * </dl>
+     *
+     * @param serializer the function turning an item into bytes, called on the source's thread, not null
+     * @param deserializer the function turning the bytes back into an item, called on the thread of the
+     *                     downstream's request or of the source, not null
+     * @param maxOffHeapBytes the number of bytes allocated as direct buffers before spilling to a file,
+     *                        0 to buffer in the file only
+     * @return the new Flowable instance
+     * @see <a href="http://reactivex.io/documentation/operators/backpressure.html">ReactiveX operators documentation: backpressure operators</a>
+     */
+    @CheckReturnValue
+    @Experimental
+    @BackpressureSupport(BackpressureKind.SPECIAL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Flowable<T> onBackpressureBuffer(Function<? super T, byte[]> serializer,
+            Function<byte[], ? extends T> deserializer, long maxOffHeapBytes) {
+        return onBackpressureBuffer(serializer, deserializer, maxOffHeapBytes, false);
+    }
+
+    /**
+     * Instructs a Publisher that is emitting items faster than its Subscriber can consume them to buffer these
+     * items, in serialized form and outside of the Java heap, until they can be emitted, optionally delaying
+     * an exception until all buffered items have been emitted.
+     * <p>
+     * The items are serialized into direct {@link java.nio.ByteBuffer}s until they take up {@code maxOffHeapBytes}
+     * bytes; beyond that, they spill into a memory-mapped temporary file which is deleted once the sequence
+     * terminates or gets cancelled. Items are deserialized one by one as the downstream requests them.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and consumes the source {@code Publisher} in an unbounded
+     *  manner (i.e., not applying backpressure to it).</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code onBackpressureBuffer} does not operate by default on a particular {@link Scheduler}.</dd>
+     *  <dt><b>Error handling:</b></dt>
+     *  <dd>If the serializer, the deserializer or the temporary file fails, the source is cancelled and the
+     *  failure is signalled to the downstream.</dd>
+     * </dl>
+     *
+     * @param serializer the function turning an item into bytes, called on the source's thread, not null
+     * @param deserializer the function turning the bytes back into an item, called on the thread of the
+     *                     downstream's request or of the source, not null
+     * @param maxOffHeapBytes the number of bytes allocated as direct buffers before spilling to a file,
+     *                        0 to buffer in the file only
+     * @param delayError
+     *                if true, an exception from the current Flowable is delayed until all buffered elements have been
+     *                consumed by the downstream; if false, an exception is immediately signalled to the downstream, skipping
+     *                any buffered element
+     * @return the new Flowable instance
+     * @see <a href="http://reactivex.io/documentation/operators/backpressure.html">ReactiveX operators documentation: backpressure operators</a>
+     */
+    @CheckReturnValue
+    @Experimental
+    @BackpressureSupport(BackpressureKind.SPECIAL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Flowable<T> onBackpressureBuffer(Function<? super T, byte[]> serializer,
+            Function<byte[], ? extends T> deserializer, long maxOffHeapBytes, boolean delayError) {
+        ObjectHelper.requireNonNull(serializer, "serializer is null");
+        ObjectHelper.requireNonNull(deserializer, "deserializer is null");
+        if (maxOffHeapBytes < 0L) {
+            throw new IllegalArgumentException("maxOffHeapBytes >= 0 required but it was " + maxOffHeapBytes);
+        }
+        return RxJavaPlugins.onAssembly(new FlowableOnBackpressureBufferOffHeap<T>(this, serializer, deserializer,
+                maxOffHeapBytes, delayError));
+    }
+
     /**
      * Instructs a Publisher that is emitting items faster than its Subscriber can consume them to discard,
      * rather than emit, those items that its Subscriber is not prepared to observe.
@@ -11029,6 +11193,47 @@ public abstract class Flowable<T> implements Publisher<T> {
         return FlowableReplay.createFrom(this);
     }
 
+    /**
+     * Returns a {@link ConnectableFlowable} that shares a single subscription to the underlying Publisher
+     * that will replay all of its items and notifications to any future {@link Subscriber}, storing the items
+     * in serialized form in a memory-mapped temporary file instead of on the Java heap.
+     * <p>
+     * The items are appended to segments of the file through the {@code serializer}; the most recent
+     * {@link #bufferSize()} items are also kept as they are so that Subscribers keeping up with the source don't
+     * deserialize them. Older items are deserialized from a view of the mapped segment, without copying the bytes,
+     * one by one as the Subscribers request them. The file is deleted right after its creation and its storage
+     * is released when the connection gets garbage collected.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>This operator supports backpressure. Note that the upstream requests are determined by the child
+     *  Subscriber which requests the largest amount: i.e., two child Subscribers with requests of 10 and 100 will
+     *  request 100 elements from the underlying Publisher sequence.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>This version of {@code replay} does not operate by default on a particular {@link Scheduler}.</dd>
+     *  <dt><b>Error handling:</b></dt>
+     *  <dd>If the {@code serializer} fails, the replay terminates with its exception. If the {@code deserializer}
+     *  fails, the exception is signalled to the Subscriber being replayed to.</dd>
+     * </dl>
+     *
+     * @param serializer the function turning an item into bytes, called on the source's thread, not null
+     * @param deserializer the function turning the bytes back into an item; it receives a {@link ByteBuffer}
+     *                     positioned at the bytes of the item which it must not retain, not null
+     * @return a {@link ConnectableFlowable} that upon connection causes the source Publisher to emit its
+     *         items to its {@link Subscriber}s
+     * @see <a href="http://reactivex.io/documentation/operators/replay.html">ReactiveX operators documentation: Replay</a>
+     * @since 2.1 - experimental
+     */
+    @CheckReturnValue
+    @Experimental
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final ConnectableFlowable<T> replay(Function<? super T, byte[]> serializer,
+            Function<? super ByteBuffer, ? extends T> deserializer) {
+        ObjectHelper.requireNonNull(serializer, "serializer is null");
+        ObjectHelper.requireNonNull(deserializer, "deserializer is null");
+        return FlowableReplay.createMapped(this, serializer, deserializer);
+    }
+
     /**
      * Returns a Flowable that emits items that are the results of invoking a specified selector on the items
      * emitted by a {@link ConnectableFlowable} that shares a single subscription to the source Publisher.
@@ -15,6 +15,7 @@ package io.reactivex;
 
 import org.reactivestreams.Publisher;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -9238,6 +9239,42 @@ public abstract class Observable<T> implements ObservableSource<T> {
         return ObservableReplay.createFrom(this);
     }
 
+    /**
+     * Returns a {@link ConnectableObservable} that shares a single subscription to the underlying ObservableSource
+     * that will replay all of its items and notifications to any future {@link Observer}, storing the items
+     * in serialized form in a memory-mapped temporary file instead of on the Java heap.
+     * <p>
+     * The items are appended to segments of the file through the {@code serializer}; the most recent
+     * {@link #bufferSize()} items are also kept as they are so that Observers keeping up with the source don't
+     * deserialize them. Older items are deserialized from a view of the mapped segment, without copying the bytes.
+     * The file is deleted right after its creation and its storage is released when the connection gets
+     * garbage collected.
+     * <dl>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>This version of {@code replay} does not operate by default on a particular {@link Scheduler}.</dd>
+     *  <dt><b>Error handling:</b></dt>
+     *  <dd>If the {@code serializer} fails, the replay terminates with its exception. If the {@code deserializer}
+     *  fails, the exception is signalled to the Observer being replayed to.</dd>
+     * </dl>
+     *
+     * @param serializer the function turning an item into bytes, called on the source's thread, not null
+     * @param deserializer the function turning the bytes back into an item; it receives a {@link ByteBuffer}
+     *                     positioned at the bytes of the item which it must not retain, not null
+     * @return a {@link ConnectableObservable} that upon connection causes the source ObservableSource to emit its
+     *         items to its {@link Observer}s
+     * @see <a href="http://reactivex.io/documentation/operators/replay.html">ReactiveX operators documentation: Replay</a>
+     * @since 2.1 - experimental
+     */
+    @CheckReturnValue
+    @Experimental
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final ConnectableObservable<T> replay(Function<? super T, byte[]> serializer,
+            Function<? super ByteBuffer, ? extends T> deserializer) {
+        ObjectHelper.requireNonNull(serializer, "serializer is null");
+        ObjectHelper.requireNonNull(deserializer, "deserializer is null");
+        return ObservableReplay.createMapped(this, serializer, deserializer);
+    }
+
     /**
      * Returns an Observable that emits items that are the results of invoking a specified selector on the items
      * emitted by a {@link ConnectableObservable} that shares a single subscription to the source ObservableSource.
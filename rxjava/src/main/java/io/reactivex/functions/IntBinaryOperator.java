@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.functions;
+
+/**
+ * A functional interface (callback) that computes a primitive int value from two primitive int values.
+ */
+public interface IntBinaryOperator {
+    /**
+     * Calculate a value based on the input values.
+     * @param t1 the first primitive int value
+     * @param t2 the second primitive int value
+     * @return the primitive int result value
+     * @throws Exception on error
+     */
+    int apply(int t1, int t2) throws Exception;
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.functions;
+
+/**
+ * A functional interface (callback) that computes a primitive double value from an object.
+ * @param <T> the input value type
+ */
+public interface ToDoubleFunction<T> {
+    /**
+     * Apply some calculation to the input value and return a primitive double.
+     * @param t the input value
+     * @return the primitive double output value
+     * @throws Exception on error
+     */
+    double apply(T t) throws Exception;
+}
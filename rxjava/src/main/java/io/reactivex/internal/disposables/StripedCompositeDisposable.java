@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.disposables;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.CompositeException;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.util.ExceptionHelper;
+import io.reactivex.internal.util.OpenHashSet;
+import io.reactivex.internal.util.Pow2;
+
+/**
+ * A disposable container with O(1) add and removal complexity which splits its contents into
+ * stripes guarded by their own monitor once adds and removals start to contend, so that concurrent
+ * adds and removals of different Disposables rarely block each other.
+ * <p>
+ * The Disposables are held by a single set, created by the first add, until a few adds or removals
+ * found another thread working on it; then they are moved to as many stripes as available processors,
+ * at most 16, by default. A Disposable always goes to the stripe selected by its identity hash.
+ */
+public final class StripedCompositeDisposable implements Disposable, DisposableContainer {
+
+    /** The number of stripes, a power of two. */
+    static final int STRIPES = Pow2.roundToPowerOfTwo(Math.min(16, Runtime.getRuntime().availableProcessors()));
+
+    /** The number of contended adds and removals after which the single set is split into stripes. */
+    static final int SPLIT_THRESHOLD = 4;
+
+    /** The initial capacity of the set of a stripe after the split. */
+    static final int STRIPE_CAPACITY = 4;
+
+    /** The number of stripes after the split minus one. */
+    final int mask;
+
+    /** The stripes, a single one until contention has been detected. */
+    volatile Stripe[] stripes;
+
+    volatile boolean disposed;
+
+    /**
+     * Creates an empty StripedCompositeDisposable.
+     */
+    public StripedCompositeDisposable() {
+        this(STRIPES);
+    }
+
+    /**
+     * Creates an empty StripedCompositeDisposable with the given number of stripes.
+     * @param stripes the number of stripes, rounded up to a power of two
+     */
+    public StripedCompositeDisposable(int stripes) {
+        this.mask = Pow2.roundToPowerOfTwo(ObjectHelper.verifyPositive(stripes, "stripes")) - 1;
+        this.stripes = new Stripe[] { new Stripe() };
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+
+        List<Throwable> errors = null;
+        Stripe[] a = stripes;
+        for (;;) {
+            for (Stripe s : a) {
+                OpenHashSet<Disposable> set;
+                synchronized (s) {
+                    set = s.set;
+                    s.set = null;
+                }
+                errors = dispose(set, errors);
+            }
+            // the single set may have been split meanwhile
+            Stripe[] b = stripes;
+            if (b == a) {
+                break;
+            }
+            a = b;
+        }
+        if (errors != null) {
+            if (errors.size() == 1) {
+                throw ExceptionHelper.wrapOrThrow(errors.get(0));
+            }
+            throw new CompositeException(errors);
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    public boolean add(Disposable d) {
+        ObjectHelper.requireNonNull(d, "d is null");
+        while (!disposed) {
+            Stripe[] a = stripes;
+            Stripe s = a[stripeIndex(d, a.length - 1)];
+            boolean single = a.length <= mask;
+            boolean contended = single && s.getAndIncrement() != 0;
+            boolean split = false;
+            try {
+                synchronized (s) {
+                    if (s.moved) {
+                        continue;
+                    }
+                    // dispose() sweeps the stripe after setting the flag
+                    if (disposed) {
+                        break;
+                    }
+                    OpenHashSet<Disposable> set = s.set;
+                    if (set == null) {
+                        set = single ? new OpenHashSet<Disposable>() : new OpenHashSet<Disposable>(STRIPE_CAPACITY);
+                        s.set = set;
+                    }
+                    set.add(d);
+                    if (contended) {
+                        split = ++s.contended == SPLIT_THRESHOLD;
+                    }
+                }
+            } finally {
+                if (single) {
+                    s.decrementAndGet();
+                }
+            }
+            if (split) {
+                split(s);
+            }
+            return true;
+        }
+        d.dispose();
+        return false;
+    }
+
+    @Override
+    public boolean remove(Disposable d) {
+        if (delete(d)) {
+            d.dispose();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean delete(Disposable d) {
+        ObjectHelper.requireNonNull(d, "Disposable item is null");
+        while (!disposed) {
+            Stripe[] a = stripes;
+            Stripe s = a[stripeIndex(d, a.length - 1)];
+            boolean single = a.length <= mask;
+            boolean contended = single && s.getAndIncrement() != 0;
+            boolean removed;
+            boolean split = false;
+            try {
+                synchronized (s) {
+                    if (s.moved) {
+                        continue;
+                    }
+                    if (disposed) {
+                        return false;
+                    }
+                    OpenHashSet<Disposable> set = s.set;
+                    removed = set != null && set.remove(d);
+                    if (contended) {
+                        split = ++s.contended == SPLIT_THRESHOLD;
+                    }
+                }
+            } finally {
+                if (single) {
+                    s.decrementAndGet();
+                }
+            }
+            if (split) {
+                split(s);
+            }
+            return removed;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of currently held Disposables.
+     * @return the number of currently held Disposables
+     */
+    public int size() {
+        outer:
+        while (!disposed) {
+            int n = 0;
+            for (Stripe s : stripes) {
+                synchronized (s) {
+                    if (s.moved) {
+                        continue outer;
+                    }
+                    OpenHashSet<Disposable> set = s.set;
+                    if (set != null) {
+                        n += set.size();
+                    }
+                }
+            }
+            return disposed ? 0 : n;
+        }
+        return 0;
+    }
+
+    /**
+     * Moves the contents of the single stripe to the final stripes.
+     * @param single the single stripe
+     */
+    void split(Stripe single) {
+        int m = mask;
+        Stripe[] b = new Stripe[m + 1];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = new Stripe();
+        }
+        synchronized (single) {
+            if (single.moved || disposed) {
+                return;
+            }
+            OpenHashSet<Disposable> set = single.set;
+            if (set != null) {
+                for (Object o : set.keys()) {
+                    if (o != null) {
+                        Disposable d = (Disposable)o;
+                        Stripe s = b[stripeIndex(d, m)];
+                        if (s.set == null) {
+                            s.set = new OpenHashSet<Disposable>(STRIPE_CAPACITY);
+                        }
+                        s.set.add(d);
+                    }
+                }
+            }
+            single.set = null;
+            // the threads waiting for the single stripe retry with the new stripes
+            single.moved = true;
+            stripes = b;
+        }
+    }
+
+    static int stripeIndex(Disposable d, int mask) {
+        int h = System.identityHashCode(d) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+    /**
+     * Disposes the contents of the OpenHashSet by suppressing non-fatal
+     * Throwables into the errors list.
+     * @param set the OpenHashSet to dispose elements of, may be null
+     * @param errors the list of errors so far, may be null
+     * @return the list of errors, null if there were none
+     */
+    static List<Throwable> dispose(OpenHashSet<Disposable> set, List<Throwable> errors) {
+        if (set == null) {
+            return errors;
+        }
+        Object[] array = set.keys();
+        for (Object o : array) {
+            if (o instanceof Disposable) {
+                try {
+                    ((Disposable) o).dispose();
+                } catch (Throwable ex) {
+                    Exceptions.throwIfFatal(ex);
+                    if (errors == null) {
+                        errors = new ArrayList<Throwable>();
+                    }
+                    errors.add(ex);
+                }
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * A set of Disposables guarded by the monitor of the stripe; the single stripe also counts
+     * the threads working on it to detect contention.
+     */
+    static final class Stripe extends AtomicInteger {
+
+        private static final long serialVersionUID = -2946452127432128474L;
+
+        /** The Disposables of the stripe, guarded by this. */
+        OpenHashSet<Disposable> set;
+
+        /** The number of contended adds and removals, guarded by this. */
+        int contended;
+
+        /** Set once the contents moved to other stripes, guarded by this. */
+        boolean moved;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package io.reactivex.internal.fuseable;
+
+import io.reactivex.annotations.NonNull;
+
+/**
+ * Extension of the SimplePlainQueue interface which can move several elements per call,
+ * updating the queue indexes once per batch instead of once per element.
+ *
+ * @param <T> the value type to offer and poll, not null
+ */
+public interface SimpleBulkQueue<T> extends SimplePlainQueue<T> {
+
+    /**
+     * Polls at most the given number of elements and hands them over to the consumer
+     * in the queue order.
+     * <p>
+     * The consumer index is updated once the call returns, hence the queue may appear
+     * non-empty while the consumer runs. Use it from the consumer thread only.
+     * @param consumer the consumer receiving the polled elements
+     * @param limit the maximum number of elements to poll, positive
+     * @return the number of elements polled, zero if the queue was empty
+     */
+    int drain(@NonNull BulkConsumer<? super T> consumer, int limit);
+
+    /**
+     * Offers at most the given number of elements generated by the supplier, stopping early
+     * if the queue has no more room.
+     * <p>
+     * The supplier is called only if the element can be stored. Use it from a producer
+     * thread only.
+     * @param supplier the supplier of the elements to offer, should not return null
+     * @param limit the maximum number of elements to offer, positive
+     * @return the number of elements offered, zero if the queue was full
+     */
+    int fill(@NonNull BulkSupplier<? extends T> supplier, int limit);
+
+    /**
+     * Receives the elements drained from a SimpleBulkQueue.
+     *
+     * @param <T> the value type
+     */
+    interface BulkConsumer<T> {
+        /**
+         * Consume the next polled element.
+         * @param t the element, not null
+         */
+        void accept(@NonNull T t);
+    }
+
+    /**
+     * Generates the elements to fill a SimpleBulkQueue with.
+     *
+     * @param <T> the value type
+     */
+    interface BulkSupplier<T> {
+        /**
+         * Returns the next element to offer.
+         * @return the element, not null
+         */
+        @NonNull
+        T get();
+    }
+}
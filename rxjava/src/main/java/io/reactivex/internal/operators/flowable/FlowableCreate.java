@@ -27,6 +27,7 @@ import io.reactivex.functions.Cancellable;
 import io.reactivex.internal.disposables.CancellableDisposable;
 import io.reactivex.internal.disposables.SequentialDisposable;
 import io.reactivex.internal.fuseable.SimplePlainQueue;
+import io.reactivex.internal.queue.MpscLinkedArrayQueue;
 import io.reactivex.internal.queue.SpscLinkedArrayQueue;
 import io.reactivex.internal.subscriptions.SubscriptionHelper;
 import io.reactivex.internal.util.AtomicThrowable;
@@ -103,7 +104,7 @@ public final class FlowableCreate<T> extends Flowable<T> {
         SerializedEmitter(BaseEmitter<T> emitter) {
             this.emitter = emitter;
             this.error = new AtomicThrowable();
-            this.queue = new SpscLinkedArrayQueue<T>(16);
+            this.queue = new MpscLinkedArrayQueue<T>(16);
         }
 
         @Override
@@ -121,10 +122,7 @@ public final class FlowableCreate<T> extends Flowable<T> {
                     return;
                 }
             } else {
-                SimplePlainQueue<T> q = queue;
-                synchronized (q) {
-                    q.offer(t);
-                }
+                queue.offer(t);
                 if (getAndIncrement() != 0) {
                     return;
                 }
@@ -27,7 +27,7 @@ import io.reactivex.exceptions.MissingBackpressureException;
 import io.reactivex.functions.Function;
 import io.reactivex.internal.functions.ObjectHelper;
 import io.reactivex.internal.fuseable.QueueSubscription;
-import io.reactivex.internal.fuseable.SimplePlainQueue;
+import io.reactivex.internal.fuseable.SimpleBulkQueue;
 import io.reactivex.internal.fuseable.SimpleQueue;
 import io.reactivex.internal.queue.SpscArrayQueue;
 import io.reactivex.internal.queue.SpscLinkedArrayQueue;
@@ -67,7 +67,8 @@ public final class FlowableFlatMap<T, U> extends AbstractFlowableWithUpstream<T,
         return new MergeSubscriber<T, U>(s, mapper, delayErrors, maxConcurrency, bufferSize);
     }
 
-    static final class MergeSubscriber<T, U> extends AtomicInteger implements FlowableSubscriber<T>, Subscription {
+    static final class MergeSubscriber<T, U> extends AtomicInteger
+    implements FlowableSubscriber<T>, Subscription, SimpleBulkQueue.BulkConsumer<U> {
 
         private static final long serialVersionUID = -2117620485640801370L;
 
@@ -77,7 +78,7 @@ public final class FlowableFlatMap<T, U> extends AbstractFlowableWithUpstream<T,
         final int maxConcurrency;
         final int bufferSize;
 
-        volatile SimplePlainQueue<U> queue;
+        volatile SimpleBulkQueue<U> queue;
 
         volatile boolean done;
 
@@ -222,7 +223,7 @@ public final class FlowableFlatMap<T, U> extends AbstractFlowableWithUpstream<T,
         }
 
         SimpleQueue<U> getMainQueue() {
-            SimplePlainQueue<U> q = queue;
+            SimpleBulkQueue<U> q = queue;
             if (q == null) {
                 if (maxConcurrency == Integer.MAX_VALUE) {
                     q = new SpscLinkedArrayQueue<U>(bufferSize);
@@ -382,7 +383,7 @@ public final class FlowableFlatMap<T, U> extends AbstractFlowableWithUpstream<T,
                 if (checkTerminate()) {
                     return;
                 }
-                SimplePlainQueue<U> svq = queue;
+                SimpleBulkQueue<U> svq = queue;
 
                 long r = requested.get();
                 boolean unbounded = r == Long.MAX_VALUE;
@@ -390,35 +391,22 @@ public final class FlowableFlatMap<T, U> extends AbstractFlowableWithUpstream<T,
                 long replenishMain = 0;
 
                 if (svq != null) {
-                    for (;;) {
-                        long scalarEmission = 0;
-                        U o = null;
-                        while (r != 0L) {
-                            o = svq.poll();
+                    while (r != 0L) {
+                        int c = svq.drain(this, (int)Math.min(r, bufferSize));
 
-                            if (checkTerminate()) {
-                                return;
-                            }
-                            if (o == null) {
-                                break;
-                            }
-
-                            child.onNext(o);
-
-                            replenishMain++;
-                            scalarEmission++;
-                            r--;
-                        }
-                        if (scalarEmission != 0L) {
-                            if (unbounded) {
-                                r = Long.MAX_VALUE;
-                            } else {
-                                r = requested.addAndGet(-scalarEmission);
-                            }
+                        if (checkTerminate()) {
+                            return;
                         }
-                        if (r == 0L || o == null) {
+                        if (c == 0) {
                             break;
                         }
+
+                        replenishMain += c;
+                        if (unbounded) {
+                            r = Long.MAX_VALUE;
+                        } else {
+                            r = requested.addAndGet(-c);
+                        }
                     }
                 }
 
@@ -472,7 +460,6 @@ public final class FlowableFlatMap<T, U> extends AbstractFlowableWithUpstream<T,
                         @SuppressWarnings("unchecked")
                         InnerSubscriber<T, U> is = (InnerSubscriber<T, U>)inner[j];
 
-                        U o = null;
                         for (;;) {
                             if (checkTerminate()) {
                                 return;
@@ -482,34 +469,54 @@ public final class FlowableFlatMap<T, U> extends AbstractFlowableWithUpstream<T,
                                 break;
                             }
                             long produced = 0;
-                            while (r != 0L) {
-
-                                try {
-                                    o = q.poll();
-                                } catch (Throwable ex) {
-                                    Exceptions.throwIfFatal(ex);
-                                    is.dispose();
-                                    errs.addThrowable(ex);
+                            boolean empty = false;
+                            if (q instanceof SimpleBulkQueue) {
+                                SimpleBulkQueue<U> bq = (SimpleBulkQueue<U>)q;
+                                while (r != 0L) {
+                                    int c = bq.drain(this, (int)Math.min(r, bufferSize));
+
                                     if (checkTerminate()) {
                                         return;
                                     }
-                                    removeInner(is);
-                                    innerCompleted = true;
-                                    i++;
-                                    continue sourceLoop;
-                                }
-                                if (o == null) {
-                                    break;
+                                    if (c == 0) {
+                                        empty = true;
+                                        break;
+                                    }
+
+                                    r -= c;
+                                    produced += c;
                                 }
+                            } else {
+                                while (r != 0L) {
+                                    U o;
+                                    try {
+                                        o = q.poll();
+                                    } catch (Throwable ex) {
+                                        Exceptions.throwIfFatal(ex);
+                                        is.dispose();
+                                        errs.addThrowable(ex);
+                                        if (checkTerminate()) {
+                                            return;
+                                        }
+                                        removeInner(is);
+                                        innerCompleted = true;
+                                        i++;
+                                        continue sourceLoop;
+                                    }
+                                    if (o == null) {
+                                        empty = true;
+                                        break;
+                                    }
 
-                                child.onNext(o);
+                                    child.onNext(o);
 
-                                if (checkTerminate()) {
-                                    return;
-                                }
+                                    if (checkTerminate()) {
+                                        return;
+                                    }
 
-                                r--;
-                                produced++;
+                                    r--;
+                                    produced++;
+                                }
                             }
                             if (produced != 0L) {
                                 if (!unbounded) {
@@ -519,7 +526,7 @@ public final class FlowableFlatMap<T, U> extends AbstractFlowableWithUpstream<T,
                                 }
                                 is.requestMore(produced);
                             }
-                            if (r == 0 || o == null) {
+                            if (r == 0 || empty) {
                                 break;
                             }
                         }
@@ -559,6 +566,13 @@ public final class FlowableFlatMap<T, U> extends AbstractFlowableWithUpstream<T,
             }
         }
 
+        @Override
+        public void accept(U u) {
+            if (!cancelled && (delayErrors || errs.get() == null)) {
+                actual.onNext(u);
+            }
+        }
+
         boolean checkTerminate() {
             if (cancelled) {
                 clearScalarQueue();
@@ -23,11 +23,11 @@ import io.reactivex.CompletableSource;
 import io.reactivex.Flowable;
 import io.reactivex.FlowableSubscriber;
 import io.reactivex.annotations.Nullable;
-import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.exceptions.Exceptions;
 import io.reactivex.functions.Function;
 import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.disposables.StripedCompositeDisposable;
 import io.reactivex.internal.functions.ObjectHelper;
 import io.reactivex.internal.subscriptions.BasicIntQueueSubscription;
 import io.reactivex.internal.subscriptions.SubscriptionHelper;
@@ -72,7 +72,7 @@ public final class FlowableFlatMapCompletable<T> extends AbstractFlowableWithUps
 
         final boolean delayErrors;
 
-        final CompositeDisposable set;
+        final StripedCompositeDisposable set;
 
         final int maxConcurrency;
 
@@ -87,7 +87,7 @@ public final class FlowableFlatMapCompletable<T> extends AbstractFlowableWithUps
             this.mapper = mapper;
             this.delayErrors = delayErrors;
             this.errors = new AtomicThrowable();
-            this.set = new CompositeDisposable();
+            this.set = new StripedCompositeDisposable();
             this.maxConcurrency = maxConcurrency;
             this.lazySet(1);
         }
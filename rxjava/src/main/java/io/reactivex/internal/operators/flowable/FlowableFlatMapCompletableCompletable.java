@@ -20,11 +20,11 @@ import io.reactivex.CompletableObserver;
 import io.reactivex.CompletableSource;
 import io.reactivex.Flowable;
 import io.reactivex.FlowableSubscriber;
-import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.exceptions.Exceptions;
 import io.reactivex.functions.Function;
 import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.disposables.StripedCompositeDisposable;
 import io.reactivex.internal.functions.ObjectHelper;
 import io.reactivex.internal.fuseable.FuseToFlowable;
 import io.reactivex.internal.subscriptions.SubscriptionHelper;
@@ -76,7 +76,7 @@ public final class FlowableFlatMapCompletableCompletable<T> extends Completable
 
         final boolean delayErrors;
 
-        final CompositeDisposable set;
+        final StripedCompositeDisposable set;
 
         final int maxConcurrency;
 
@@ -91,7 +91,7 @@ public final class FlowableFlatMapCompletableCompletable<T> extends Completable
             this.mapper = mapper;
             this.delayErrors = delayErrors;
             this.errors = new AtomicThrowable();
-            this.set = new CompositeDisposable();
+            this.set = new StripedCompositeDisposable();
             this.maxConcurrency = maxConcurrency;
             this.lazySet(1);
         }
@@ -20,13 +20,13 @@ import io.reactivex.Flowable;
 import io.reactivex.FlowableSubscriber;
 import io.reactivex.SingleObserver;
 import io.reactivex.SingleSource;
-import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.exceptions.Exceptions;
 import io.reactivex.functions.Function;
 import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.disposables.StripedCompositeDisposable;
 import io.reactivex.internal.functions.ObjectHelper;
-import io.reactivex.internal.queue.SpscLinkedArrayQueue;
+import io.reactivex.internal.queue.MpscLinkedArrayQueue;
 import io.reactivex.internal.subscriptions.SubscriptionHelper;
 import io.reactivex.internal.util.AtomicThrowable;
 import io.reactivex.internal.util.BackpressureHelper;
@@ -72,7 +72,7 @@ public final class FlowableFlatMapSingle<T, R> extends AbstractFlowableWithUpstr
 
         final AtomicLong requested;
 
-        final CompositeDisposable set;
+        final StripedCompositeDisposable set;
 
         final AtomicInteger active;
 
@@ -80,7 +80,7 @@ public final class FlowableFlatMapSingle<T, R> extends AbstractFlowableWithUpstr
 
         final Function<? super T, ? extends SingleSource<? extends R>> mapper;
 
-        final AtomicReference<SpscLinkedArrayQueue<R>> queue;
+        final AtomicReference<MpscLinkedArrayQueue<R>> queue;
 
         Subscription s;
 
@@ -93,10 +93,10 @@ public final class FlowableFlatMapSingle<T, R> extends AbstractFlowableWithUpstr
             this.delayErrors = delayErrors;
             this.maxConcurrency = maxConcurrency;
             this.requested = new AtomicLong();
-            this.set = new CompositeDisposable();
+            this.set = new StripedCompositeDisposable();
             this.errors = new AtomicThrowable();
             this.active = new AtomicInteger(1);
-            this.queue = new AtomicReference<SpscLinkedArrayQueue<R>>();
+            this.queue = new AtomicReference<MpscLinkedArrayQueue<R>>();
         }
 
         @Override
@@ -178,7 +178,7 @@ public final class FlowableFlatMapSingle<T, R> extends AbstractFlowableWithUpstr
                 if (requested.get() != 0) {
                     actual.onNext(value);
 
-                    SpscLinkedArrayQueue<R> q = queue.get();
+                    MpscLinkedArrayQueue<R> q = queue.get();
 
                     if (d && (q == null || q.isEmpty())) {
                         Throwable ex = errors.terminate();
@@ -194,19 +194,15 @@ public final class FlowableFlatMapSingle<T, R> extends AbstractFlowableWithUpstr
                         s.request(1);
                     }
                 } else {
-                    SpscLinkedArrayQueue<R> q = getOrCreateQueue();
-                    synchronized (q) {
-                        q.offer(value);
-                    }
+                    MpscLinkedArrayQueue<R> q = getOrCreateQueue();
+                    q.offer(value);
                 }
                 if (decrementAndGet() == 0) {
                     return;
                 }
             } else {
-                SpscLinkedArrayQueue<R> q = getOrCreateQueue();
-                synchronized (q) {
-                    q.offer(value);
-                }
+                MpscLinkedArrayQueue<R> q = getOrCreateQueue();
+                q.offer(value);
                 active.decrementAndGet();
                 if (getAndIncrement() != 0) {
                     return;
@@ -215,13 +211,13 @@ public final class FlowableFlatMapSingle<T, R> extends AbstractFlowableWithUpstr
             drainLoop();
         }
 
-        SpscLinkedArrayQueue<R> getOrCreateQueue() {
+        MpscLinkedArrayQueue<R> getOrCreateQueue() {
             for (;;) {
-                SpscLinkedArrayQueue<R> current = queue.get();
+                MpscLinkedArrayQueue<R> current = queue.get();
                 if (current != null) {
                     return current;
                 }
-                current = new SpscLinkedArrayQueue<R>(Flowable.bufferSize());
+                current = new MpscLinkedArrayQueue<R>(Flowable.bufferSize());
                 if (queue.compareAndSet(null, current)) {
                     return current;
                 }
@@ -253,7 +249,7 @@ public final class FlowableFlatMapSingle<T, R> extends AbstractFlowableWithUpstr
         }
 
         void clear() {
-            SpscLinkedArrayQueue<R> q = queue.get();
+            MpscLinkedArrayQueue<R> q = queue.get();
             if (q != null) {
                 q.clear();
             }
@@ -263,7 +259,7 @@ public final class FlowableFlatMapSingle<T, R> extends AbstractFlowableWithUpstr
             int missed = 1;
             Subscriber<? super R> a = actual;
             AtomicInteger n = active;
-            AtomicReference<SpscLinkedArrayQueue<R>> qr = queue;
+            AtomicReference<MpscLinkedArrayQueue<R>> qr = queue;
 
             for (;;) {
                 long r = requested.get();
@@ -286,7 +282,7 @@ public final class FlowableFlatMapSingle<T, R> extends AbstractFlowableWithUpstr
                     }
 
                     boolean d = n.get() == 0;
-                    SpscLinkedArrayQueue<R> q = qr.get();
+                    MpscLinkedArrayQueue<R> q = qr.get();
                     R v = q != null ? q.poll() : null;
                     boolean empty = v == null;
 
@@ -326,7 +322,7 @@ public final class FlowableFlatMapSingle<T, R> extends AbstractFlowableWithUpstr
                     }
 
                     boolean d = n.get() == 0;
-                    SpscLinkedArrayQueue<R> q = qr.get();
+                    MpscLinkedArrayQueue<R> q = qr.get();
                     boolean empty = q == null || q.isEmpty();
 
                     if (d && empty) {
@@ -24,6 +24,7 @@ import io.reactivex.Scheduler.Worker;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.exceptions.MissingBackpressureException;
 import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.schedulers.SharedIntervalTimer;
 import io.reactivex.internal.schedulers.TrampolineScheduler;
 import io.reactivex.internal.subscriptions.SubscriptionHelper;
 import io.reactivex.internal.util.BackpressureHelper;
@@ -53,7 +54,7 @@ public final class FlowableInterval extends Flowable<Long> {
             is.setResource(worker);
             worker.schedulePeriodically(is, initialDelay, period, unit);
         } else {
-            Disposable d = sch.schedulePeriodicallyDirect(is, initialDelay, period, unit);
+            Disposable d = SharedIntervalTimer.schedulePeriodicallyDirect(sch, is, initialDelay, period, unit);
             is.setResource(d);
         }
     }
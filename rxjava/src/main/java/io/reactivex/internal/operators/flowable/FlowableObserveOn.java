@@ -27,8 +27,9 @@ import io.reactivex.exceptions.Exceptions;
 import io.reactivex.exceptions.MissingBackpressureException;
 import io.reactivex.internal.fuseable.ConditionalSubscriber;
 import io.reactivex.internal.fuseable.QueueSubscription;
+import io.reactivex.internal.fuseable.SimpleBulkQueue;
 import io.reactivex.internal.fuseable.SimpleQueue;
-import io.reactivex.internal.queue.SpscArrayQueue;
+import io.reactivex.internal.queue.PaddedSpscArrayQueue;
 import io.reactivex.internal.subscriptions.BasicIntQueueSubscription;
 import io.reactivex.internal.subscriptions.SubscriptionHelper;
 import io.reactivex.internal.util.BackpressureHelper;
@@ -66,7 +67,7 @@ final Scheduler scheduler;
 
     abstract static class BaseObserveOnSubscriber<T>
     extends BasicIntQueueSubscription<T>
-    implements FlowableSubscriber<T>, Runnable {
+    implements FlowableSubscriber<T>, Runnable, SimpleBulkQueue.BulkConsumer<T> {
         private static final long serialVersionUID = -8241002408341274697L;
 
         final Worker worker;
@@ -226,6 +227,15 @@ final Scheduler scheduler;
             return false;
         }
 
+        /**
+         * Returns true if a bulk drain should drop the rest of its items because
+         * {@link #checkTerminated(boolean, boolean, Subscriber)} would stop before them.
+         * @return true if the sequence has been cancelled or is about to fail eagerly
+         */
+        final boolean isTerminating() {
+            return cancelled || (!delayError && done && error != null);
+        }
+
         @Override
         public final int requestFusion(int requestedMode) {
             if ((requestedMode & ASYNC) != 0) {
@@ -293,7 +303,7 @@ final Scheduler scheduler;
                     }
                 }
 
-                queue = new SpscArrayQueue<T>(prefetch);
+                queue = new PaddedSpscArrayQueue<T>(prefetch);
 
                 actual.onSubscribe(this);
 
@@ -364,12 +374,20 @@ final Scheduler scheduler;
             }
         }
 
+        @Override
+        public void accept(T t) {
+            if (!isTerminating()) {
+                actual.onNext(t);
+            }
+        }
+
         @Override
         void runAsync() {
             int missed = 1;
 
             final Subscriber<? super T> a = actual;
             final SimpleQueue<T> q = queue;
+            final SimpleBulkQueue<T> bq = q instanceof SimpleBulkQueue ? (SimpleBulkQueue<T>)q : null;
 
             long e = produced;
 
@@ -379,34 +397,49 @@ final Scheduler scheduler;
 
                 while (e != r) {
                     boolean d = done;
-                    T v;
 
-                    try {
-                        v = q.poll();
-                    } catch (Throwable ex) {
-                        Exceptions.throwIfFatal(ex);
+                    if (bq != null) {
+                        if (checkTerminated(d, bq.isEmpty(), a)) {
+                            return;
+                        }
 
-                        s.cancel();
-                        q.clear();
+                        int n = bq.drain(this, (int)Math.min(r - e, limit - e));
+                        if (n == 0) {
+                            break;
+                        }
 
-                        a.onError(ex);
-                        worker.dispose();
-                        return;
-                    }
+                        e += n;
+                    } else {
+                        T v;
 
-                    boolean empty = v == null;
+                        try {
+                            v = q.poll();
+                        } catch (Throwable ex) {
+                            Exceptions.throwIfFatal(ex);
 
-                    if (checkTerminated(d, empty, a)) {
-                        return;
-                    }
+                            s.cancel();
+                            q.clear();
 
-                    if (empty) {
-                        break;
-                    }
+                            a.onError(ex);
+                            worker.dispose();
+                            return;
+                        }
 
-                    a.onNext(v);
+                        boolean empty = v == null;
+
+                        if (checkTerminated(d, empty, a)) {
+                            return;
+                        }
+
+                        if (empty) {
+                            break;
+                        }
+
+                        a.onNext(v);
+
+                        e++;
+                    }
 
-                    e++;
                     if (e == limit) {
                         if (r != Long.MAX_VALUE) {
                             r = requested.addAndGet(-e);
@@ -492,6 +525,9 @@ final Scheduler scheduler;
 
         long consumed;
 
+        /** The number of items the actual accepted during the current bulk drain. */
+        int accepted;
+
         ObserveOnConditionalSubscriber(
                 ConditionalSubscriber<? super T> actual,
                 Worker worker,
@@ -532,7 +568,7 @@ final Scheduler scheduler;
                     }
                 }
 
-                queue = new SpscArrayQueue<T>(prefetch);
+                queue = new PaddedSpscArrayQueue<T>(prefetch);
 
                 actual.onSubscribe(this);
 
@@ -602,12 +638,20 @@ final Scheduler scheduler;
             }
         }
 
+        @Override
+        public void accept(T t) {
+            if (!isTerminating() && actual.tryOnNext(t)) {
+                accepted++;
+            }
+        }
+
         @Override
         void runAsync() {
             int missed = 1;
 
             final ConditionalSubscriber<? super T> a = actual;
             final SimpleQueue<T> q = queue;
+            final SimpleBulkQueue<T> bq = q instanceof SimpleBulkQueue ? (SimpleBulkQueue<T>)q : null;
 
             long emitted = produced;
             long polled = consumed;
@@ -618,34 +662,50 @@ final Scheduler scheduler;
 
                 while (emitted != r) {
                     boolean d = done;
-                    T v;
-                    try {
-                        v = q.poll();
-                    } catch (Throwable ex) {
-                        Exceptions.throwIfFatal(ex);
 
-                        s.cancel();
-                        q.clear();
+                    if (bq != null) {
+                        if (checkTerminated(d, bq.isEmpty(), a)) {
+                            return;
+                        }
 
-                        a.onError(ex);
-                        worker.dispose();
-                        return;
-                    }
-                    boolean empty = v == null;
+                        accepted = 0;
+                        int n = bq.drain(this, (int)Math.min(r - emitted, limit - polled));
+                        if (n == 0) {
+                            break;
+                        }
 
-                    if (checkTerminated(d, empty, a)) {
-                        return;
-                    }
+                        emitted += accepted;
+                        polled += n;
+                    } else {
+                        T v;
+                        try {
+                            v = q.poll();
+                        } catch (Throwable ex) {
+                            Exceptions.throwIfFatal(ex);
+
+                            s.cancel();
+                            q.clear();
+
+                            a.onError(ex);
+                            worker.dispose();
+                            return;
+                        }
+                        boolean empty = v == null;
 
-                    if (empty) {
-                        break;
-                    }
+                        if (checkTerminated(d, empty, a)) {
+                            return;
+                        }
 
-                    if (a.tryOnNext(v)) {
-                        emitted++;
-                    }
+                        if (empty) {
+                            break;
+                        }
+
+                        if (a.tryOnNext(v)) {
+                            emitted++;
+                        }
 
-                    polled++;
+                        polled++;
+                    }
 
                     if (polled == limit) {
                         s.request(polled);
@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package io.reactivex.internal.operators.flowable;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.queue.OffHeapByteQueue;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Buffers the items the downstream is not ready for in serialized form outside of the Java heap,
+ * see {@link OffHeapByteQueue}.
+ *
+ * @param <T> the value type
+ */
+public final class FlowableOnBackpressureBufferOffHeap<T> extends AbstractFlowableWithUpstream<T, T> {
+
+    /** The size of the direct buffer and file segments holding the serialized items. */
+    static final int SEGMENT_SIZE = 64 * 1024;
+
+    final Function<? super T, byte[]> serializer;
+
+    final Function<byte[], ? extends T> deserializer;
+
+    final long maxOffHeapBytes;
+
+    final boolean delayError;
+
+    public FlowableOnBackpressureBufferOffHeap(Flowable<T> source, Function<? super T, byte[]> serializer,
+            Function<byte[], ? extends T> deserializer, long maxOffHeapBytes, boolean delayError) {
+        super(source);
+        this.serializer = serializer;
+        this.deserializer = deserializer;
+        this.maxOffHeapBytes = maxOffHeapBytes;
+        this.delayError = delayError;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> s) {
+        OffHeapByteQueue q = new OffHeapByteQueue(SEGMENT_SIZE, maxOffHeapBytes, null);
+        source.subscribe(new OffHeapBufferSubscriber<T>(s, serializer, deserializer, q, delayError));
+    }
+
+    static final class OffHeapBufferSubscriber<T> extends AtomicInteger implements FlowableSubscriber<T>, Subscription {
+
+        private static final long serialVersionUID = -7360958893185658446L;
+
+        final Subscriber<? super T> actual;
+
+        final Function<? super T, byte[]> serializer;
+
+        final Function<byte[], ? extends T> deserializer;
+
+        final OffHeapByteQueue queue;
+
+        final boolean delayError;
+
+        final AtomicLong requested;
+
+        Subscription s;
+
+        volatile boolean cancelled;
+
+        volatile boolean done;
+        Throwable error;
+
+        OffHeapBufferSubscriber(Subscriber<? super T> actual, Function<? super T, byte[]> serializer,
+                Function<byte[], ? extends T> deserializer, OffHeapByteQueue queue, boolean delayError) {
+            this.actual = actual;
+            this.serializer = serializer;
+            this.deserializer = deserializer;
+            this.queue = queue;
+            this.delayError = delayError;
+            this.requested = new AtomicLong();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            if (get() == 0 && compareAndSet(0, 1)) {
+                // nothing is buffered and there is demand: skip the serialization
+                if (requested.get() != 0L && queue.isEmpty()) {
+                    actual.onNext(t);
+                    BackpressureHelper.produced(requested, 1);
+                    if (decrementAndGet() == 0) {
+                        return;
+                    }
+                } else {
+                    enqueue(t);
+                }
+            } else {
+                enqueue(t);
+                if (getAndIncrement() != 0) {
+                    return;
+                }
+            }
+            drainLoop();
+        }
+
+        void enqueue(T t) {
+            try {
+                byte[] bytes = ObjectHelper.requireNonNull(serializer.apply(t), "The serializer returned a null array");
+                queue.offer(bytes);
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                s.cancel();
+                error = ex;
+                done = true;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            error = t;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                s.cancel();
+
+                if (getAndIncrement() == 0) {
+                    queue.clear();
+                    queue.dispose();
+                }
+            }
+        }
+
+        void drain() {
+            if (getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        void drainLoop() {
+            int missed = 1;
+            final OffHeapByteQueue q = queue;
+            final Subscriber<? super T> a = actual;
+            for (;;) {
+
+                long r = requested.get();
+
+                long e = 0L;
+
+                while (e != r) {
+                    boolean d = done;
+                    byte[] bytes = q.poll();
+                    boolean empty = bytes == null;
+
+                    if (checkTerminated(d, empty, a)) {
+                        return;
+                    }
+
+                    if (empty) {
+                        break;
+                    }
+
+                    T v;
+
+                    try {
+                        v = ObjectHelper.requireNonNull(deserializer.apply(bytes), "The deserializer returned a null value");
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        cancelled = true;
+                        s.cancel();
+                        q.clear();
+                        q.dispose();
+                        a.onError(ex);
+                        return;
+                    }
+
+                    a.onNext(v);
+
+                    e++;
+                }
+
+                if (e == r && checkTerminated(done, q.isEmpty(), a)) {
+                    return;
+                }
+
+                if (e != 0L) {
+                    if (r != Long.MAX_VALUE) {
+                        requested.addAndGet(-e);
+                    }
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        boolean checkTerminated(boolean d, boolean empty, Subscriber<? super T> a) {
+            if (cancelled) {
+                queue.clear();
+                queue.dispose();
+                return true;
+            }
+            if (d) {
+                Throwable e = error;
+                if (e != null && (!delayError || empty)) {
+                    queue.clear();
+                    queue.dispose();
+                    a.onError(e);
+                    return true;
+                }
+                if (empty) {
+                    queue.dispose();
+                    a.onComplete();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.concurrent.Callable;
@@ -41,9 +42,10 @@ import io.reactivex.internal.subscriptions.EmptySubscription;
 import io.reactivex.internal.subscriptions.SubscriptionHelper;
 import io.reactivex.internal.util.BackpressureHelper;
 import io.reactivex.internal.util.ExceptionHelper;
+import io.reactivex.internal.util.MappedAppendLog;
 import io.reactivex.internal.util.NotificationLite;
+import io.reactivex.internal.util.ReplayRing;
 import io.reactivex.plugins.RxJavaPlugins;
-import io.reactivex.schedulers.Timed;
 
 public final class FlowableReplay<T> extends ConnectableFlowable<T> implements HasUpstreamPublisher<T>, Disposable {
     /** The source observable. */
@@ -141,6 +143,20 @@ public final class FlowableReplay<T> extends ConnectableFlowable<T> implements H
         return create(source, new ScheduledReplayBufferTask<T>(bufferSize, maxAge, unit, scheduler));
     }
 
+    /**
+     * Creates a replaying ConnectableObservable with an unbounded buffer storing the values
+     * in a memory-mapped temporary file.
+     * @param <T> the value type
+     * @param source the source Flowable to use
+     * @param serializer the function turning a value into bytes
+     * @param deserializer the function turning a view of the bytes back into a value
+     * @return the new ConnectableFlowable instance
+     */
+    public static <T> ConnectableFlowable<T> createMapped(Flowable<T> source,
+            Function<? super T, byte[]> serializer, Function<? super ByteBuffer, ? extends T> deserializer) {
+        return create(source, new MappedReplayBufferTask<T>(serializer, deserializer));
+    }
+
     /**
      * Creates a OperatorReplay instance to replay values of the given source observable.
      * @param source the source observable
@@ -400,7 +416,14 @@ public final class FlowableReplay<T> extends ConnectableFlowable<T> implements H
         @Override
         public void onNext(T t) {
             if (!done) {
-                buffer.next(t);
+                try {
+                    buffer.next(t);
+                } catch (Throwable ex) {
+                    Exceptions.throwIfFatal(ex);
+                    SubscriptionHelper.cancel(this);
+                    onError(ex);
+                    return;
+                }
                 for (InnerSubscription<T> rp : subscribers.get()) {
                     buffer.replay(rp);
                 }
@@ -622,8 +645,10 @@ public final class FlowableReplay<T> extends ConnectableFlowable<T> implements H
         /**
          * Adds a regular value to the buffer.
          * @param value the next value to store
+         * @throws Exception if the value couldn't be stored, the buffer
+         * is then expected to be terminated via {@link #error(Throwable)}
          */
-        void next(T value);
+        void next(T value) throws Exception;
         /**
          * Adds a terminal exception to the buffer.
          * @param e the Throwable instance
@@ -739,104 +764,150 @@ public final class FlowableReplay<T> extends ConnectableFlowable<T> implements H
     }
 
     /**
-     * Represents a node in a bounded replay buffer's linked list.
-     */
-    static final class Node extends AtomicReference<Node> {
-
-        private static final long serialVersionUID = 245354315435971818L;
-        final Object value;
-        final long index;
-
-        Node(Object value, long index) {
-            this.value = value;
-            this.index = index;
-        }
-    }
-
-    /**
-     * Base class for bounded buffering with options to specify an
-     * enter and leave transforms and custom truncation behavior.
+     * Holds an unbounded log of values in a memory-mapped file and the terminal event.
      *
      * @param <T> the value type
      */
-    static class BoundedReplayBuffer<T> extends AtomicReference<Node> implements ReplayBuffer<T> {
-
-        private static final long serialVersionUID = 2346567790059478686L;
+    static final class MappedReplayBuffer<T> implements ReplayBuffer<T> {
+        final MappedAppendLog<T> log;
+        /** The terminal NotificationLite, set after the last value has been appended. */
+        volatile Object terminal;
 
-        Node tail;
-        int size;
+        MappedReplayBuffer(MappedAppendLog<T> log) {
+            this.log = log;
+        }
 
-        long index;
+        @Override
+        public void next(T value) throws Exception {
+            log.append(value);
+        }
 
-        BoundedReplayBuffer() {
-            Node n = new Node(null, 0);
-            tail = n;
-            set(n);
+        @Override
+        public void error(Throwable e) {
+            terminal = NotificationLite.error(e);
+            log.close();
         }
 
-        /**
-         * Add a new node to the linked list.
-         * @param n the Node instance to add
-         */
-        final void addLast(Node n) {
-            tail.set(n);
-            tail = n;
-            size++;
+        @Override
+        public void complete() {
+            terminal = NotificationLite.complete();
+            log.close();
         }
-        /**
-         * Remove the first node from the linked list.
-         */
-        final void removeFirst() {
-            Node head = get();
-            Node next = head.get();
-            if (next == null) {
-                throw new IllegalStateException("Empty list!");
-            }
-            size--;
-            // can't just move the head because it would retain the very first value
-            // can't null out the head's value because of late replayers would see null
-            setFirst(next);
-        }
-        /* test */ final void removeSome(int n) {
-            Node head = get();
-            while (n > 0) {
-                head = head.get();
-                n--;
-                size--;
+
+        @Override
+        public void replay(InnerSubscription<T> output) {
+            synchronized (output) {
+                if (output.emitting) {
+                    output.missed = true;
+                    return;
+                }
+                output.emitting = true;
             }
+            final MappedAppendLog<T> b = log;
+            final Subscriber<? super T> child = output.child;
+
+            for (;;) {
+                if (output.isDisposed()) {
+                    return;
+                }
+
+                MappedAppendLog.Cursor c = output.index();
+                if (c == null) {
+                    c = new MappedAppendLog.Cursor();
+                    output.index = c;
+                }
+
+                long r = output.get();
+                long r0 = r; // NOPMD
+                long e = 0L;
+
+                for (;;) {
+                    Object o = terminal;
+                    long index = c.index();
+                    long s = b.size();
+
+                    if (o != null && index == s) {
+                        output.dispose();
+                        NotificationLite.accept(o, child);
+                        return;
+                    }
+
+                    if (r == 0L || index == s) {
+                        break;
+                    }
 
-            setFirst(head);
+                    T v;
+                    try {
+                        v = b.read(c);
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        output.dispose();
+                        child.onError(ex);
+                        return;
+                    }
+                    try {
+                        child.onNext(v);
+                    } catch (Throwable err) {
+                        Exceptions.throwIfFatal(err);
+                        output.dispose();
+                        child.onError(err);
+                        return;
+                    }
+                    if (output.isDisposed()) {
+                        return;
+                    }
+                    r--;
+                    e++;
+                }
+                if (e != 0L) {
+                    if (r0 != Long.MAX_VALUE) {
+                        output.produced(e);
+                    }
+                }
+
+                synchronized (output) {
+                    if (!output.missed) {
+                        output.emitting = false;
+                        return;
+                    }
+                    output.missed = false;
+                }
+            }
         }
-        /**
-         * Arranges the given node is the new head from now on.
-         * @param n the Node instance to set as first
-         */
-        final void setFirst(Node n) {
-            set(n);
+    }
+
+    /**
+     * Base class for bounded buffering which keeps the values in a ring, with options to time stamp
+     * the values and custom truncation behavior; the terminal event is held separately.
+     *
+     * @param <T> the value type
+     */
+    static class BoundedReplayBuffer<T> implements ReplayBuffer<T> {
+        final ReplayRing<T> ring;
+        /** The terminal NotificationLite, set after the last value has been appended. */
+        volatile Object terminal;
+
+        BoundedReplayBuffer(int limit, boolean timed) {
+            this.ring = new ReplayRing<T>(limit, timed);
         }
 
         @Override
         public final void next(T value) {
-            Object o = enterTransform(NotificationLite.next(value));
-            Node n = new Node(o, ++index);
-            addLast(n);
-            truncate();
+            long now = now();
+            ring.append(value, now);
+            truncate(now);
         }
 
         @Override
         public final void error(Throwable e) {
-            Object o = enterTransform(NotificationLite.error(e));
-            Node n = new Node(o, ++index);
-            addLast(n);
             truncateFinal();
+            terminal = NotificationLite.error(e);
         }
 
         @Override
         public final void complete() {
-            Object o = enterTransform(NotificationLite.complete());
-            Node n = new Node(o, ++index);
-            addLast(n);
             truncateFinal();
+            terminal = NotificationLite.complete();
         }
 
         @Override
@@ -848,58 +919,77 @@ public final class FlowableReplay<T> extends ConnectableFlowable<T> implements H
                 }
                 output.emitting = true;
             }
+            final ReplayRing<T> b = ring;
+            final Subscriber<? super T> child = output.child;
+
             for (;;) {
                 if (output.isDisposed()) {
+                    output.index = null;
                     return;
                 }
 
                 long r = output.get();
                 boolean unbounded = r == Long.MAX_VALUE; // NOPMD
                 long e = 0L;
+                long skipped = 0L;
 
-                Node node = output.index();
-                if (node == null) {
-                    node = getHead();
-                    output.index = node;
+                ReplayRing.Cursor c = output.index();
+                if (c == null) {
+                    c = getHead();
+                    output.index = c;
 
-                    BackpressureHelper.add(output.totalRequested, node.index);
+                    BackpressureHelper.add(output.totalRequested, c.index());
                 }
 
-                while (r != 0) {
-                    Node v = node.get();
-                    if (v != null) {
-                        Object o = leaveTransform(v.value);
-                        try {
-                            if (NotificationLite.accept(o, output.child)) {
-                                output.index = null;
-                                return;
-                            }
-                        } catch (Throwable err) {
-                            Exceptions.throwIfFatal(err);
-                            output.index = null;
-                            output.dispose();
-                            if (!NotificationLite.isError(o) && !NotificationLite.isComplete(o)) {
-                                output.child.onError(err);
-                            }
-                            return;
-                        }
-                        e++;
-                        r--;
-                        node = v;
-                    } else {
+                for (;;) {
+                    Object o = terminal;
+                    long index = c.index();
+
+                    if (o != null && index == b.tail()) {
+                        output.index = null;
+                        output.dispose();
+                        NotificationLite.accept(o, child);
+                        return;
+                    }
+
+                    if (r == 0L) {
+                        break;
+                    }
+
+                    T v = b.poll(c);
+                    if (v == null) {
                         break;
                     }
+                    // a slow child continues with the oldest value still retained
+                    skipped += c.index() - index - 1;
+
+                    try {
+                        child.onNext(v);
+                    } catch (Throwable err) {
+                        Exceptions.throwIfFatal(err);
+                        output.index = null;
+                        output.dispose();
+                        child.onError(err);
+                        return;
+                    }
                     if (output.isDisposed()) {
+                        output.index = null;
                         return;
                     }
+                    r--;
+                    e++;
                 }
 
                 if (e != 0L) {
-                    output.index = node;
                     if (!unbounded) {
                         output.produced(e);
                     }
                 }
+                if (skipped != 0L) {
+                    // the skipped values count as requested so the upstream demand follows the child
+                    BackpressureHelper.add(output.totalRequested, skipped);
+                    output.parent.manageRequests();
+                }
 
                 synchronized (output) {
                     if (!output.missed) {
@@ -913,63 +1003,47 @@ public final class FlowableReplay<T> extends ConnectableFlowable<T> implements H
         }
 
         /**
-         * Override this to wrap the NotificationLite object into a
-         * container to be used later by truncate.
-         * @param value the value to transform into the internal representation
-         * @return the transformed value
+         * Override this to time stamp the values.
+         * @return the time stamp of a value appended now
          */
-        Object enterTransform(Object value) {
-            return value;
-        }
-        /**
-         * Override this to unwrap the transformed value into a
-         * NotificationLite object.
-         * @param value the input value to transform to the external representation
-         * @return the transformed value
-         */
-        Object leaveTransform(Object value) {
-            return value;
+        long now() {
+            return 0L;
         }
         /**
          * Override this method to truncate a non-terminated buffer
-         * based on its current properties.
+         * based on its current properties; the ring itself drops
+         * the values beyond its size limit.
+         * @param now the time stamp of the value just appended
          */
-        void truncate() {
+        void truncate(long now) {
 
         }
         /**
          * Override this method to truncate a terminated buffer
-         * based on its properties (i.e., truncate but the very last node).
+         * based on its properties.
          */
         void truncateFinal() {
 
         }
-        /* test */ final  void collect(Collection<? super T> output) {
-            Node n = getHead();
-            for (;;) {
-                Node next = n.get();
-                if (next != null) {
-                    Object o = next.value;
-                    Object v = leaveTransform(o);
-                    if (NotificationLite.isComplete(v) || NotificationLite.isError(v)) {
-                        break;
-                    }
-                    output.add(NotificationLite.<T>getValue(v));
-                    n = next;
-                } else {
-                    break;
-                }
+        /**
+         * Override this to skip the values a new child shouldn't see.
+         * @return the cursor of a new child
+         */
+        ReplayRing.Cursor getHead() {
+            return ring.cursor();
+        }
+        /* test */ final void collect(Collection<? super T> output) {
+            ReplayRing.Cursor c = getHead();
+            T v;
+            while ((v = ring.poll(c)) != null) {
+                output.add(v);
             }
         }
         /* test */ boolean hasError() {
-            return tail.value != null && NotificationLite.isError(leaveTransform(tail.value));
+            return NotificationLite.isError(terminal);
         }
         /* test */ boolean hasCompleted() {
-            return tail.value != null && NotificationLite.isComplete(leaveTransform(tail.value));
-        }
-
-        Node getHead() {
-            return get();
+            return NotificationLite.isComplete(terminal);
         }
     }
 
@@ -980,22 +1054,11 @@ public final class FlowableReplay<T> extends ConnectableFlowable<T> implements H
      */
     static final class SizeBoundReplayBuffer<T> extends BoundedReplayBuffer<T> {
 
-        private static final long serialVersionUID = -5898283885385201806L;
-
-        final int limit;
         SizeBoundReplayBuffer(int limit) {
-            this.limit = limit;
-        }
-
-        @Override
-        void truncate() {
-            // overflow can be at most one element
-            if (size > limit) {
-                removeFirst();
-            }
+            super(limit, false);
         }
 
-        // no need for final truncation because values are truncated one by one
+        // the ring drops the values beyond the limit one by one
     }
 
     /**
@@ -1005,111 +1068,34 @@ public final class FlowableReplay<T> extends ConnectableFlowable<T> implements H
      */
     static final class SizeAndTimeBoundReplayBuffer<T> extends BoundedReplayBuffer<T> {
 
-        private static final long serialVersionUID = 3457957419649567404L;
         final Scheduler scheduler;
         final long maxAge;
         final TimeUnit unit;
-        final int limit;
         SizeAndTimeBoundReplayBuffer(int limit, long maxAge, TimeUnit unit, Scheduler scheduler) {
+            super(limit, true);
             this.scheduler = scheduler;
-            this.limit = limit;
             this.maxAge = maxAge;
             this.unit = unit;
         }
 
         @Override
-        Object enterTransform(Object value) {
-            return new Timed<Object>(value, scheduler.now(unit), unit);
+        long now() {
+            return scheduler.now(unit);
         }
 
         @Override
-        Object leaveTransform(Object value) {
-            return ((Timed<?>)value).value();
+        void truncate(long now) {
+            ring.trim(now - maxAge);
         }
 
-        @Override
-        void truncate() {
-            long timeLimit = scheduler.now(unit) - maxAge;
-
-            Node prev = get();
-            Node next = prev.get();
-
-            int e = 0;
-            for (;;) {
-                if (next != null) {
-                    if (size > limit) {
-                        e++;
-                        size--;
-                        prev = next;
-                        next = next.get();
-                    } else {
-                        Timed<?> v = (Timed<?>)next.value;
-                        if (v.time() <= timeLimit) {
-                            e++;
-                            size--;
-                            prev = next;
-                            next = next.get();
-                        } else {
-                            break;
-                        }
-                    }
-                } else {
-                    break;
-                }
-            }
-            if (e != 0) {
-                setFirst(prev);
-            }
-        }
         @Override
         void truncateFinal() {
-            long timeLimit = scheduler.now(unit) - maxAge;
-
-            Node prev = get();
-            Node next = prev.get();
-
-            int e = 0;
-            for (;;) {
-                if (next != null && size > 1) {
-                    Timed<?> v = (Timed<?>)next.value;
-                    if (v.time() <= timeLimit) {
-                        e++;
-                        size--;
-                        prev = next;
-                        next = next.get();
-                    } else {
-                        break;
-                    }
-                } else {
-                    break;
-                }
-            }
-            if (e != 0) {
-                setFirst(prev);
-            }
+            ring.trim(scheduler.now(unit) - maxAge);
         }
 
         @Override
-        Node getHead() {
-            long timeLimit = scheduler.now(unit) - maxAge;
-            Node prev = get();
-            Node next = prev.get();
-            for (;;) {
-                if (next == null) {
-                    break;
-                }
-                Timed<?> v = (Timed<?>)next.value;
-                if (NotificationLite.isComplete(v.value()) || NotificationLite.isError(v.value())) {
-                    break;
-                }
-                if (v.time() <= timeLimit) {
-                    prev = next;
-                    next = next.get();
-                } else {
-                    break;
-                }
-            }
-            return prev;
+        ReplayRing.Cursor getHead() {
+            return ring.cursor(scheduler.now(unit) - maxAge);
         }
     }
 
@@ -1196,6 +1182,22 @@ public final class FlowableReplay<T> extends ConnectableFlowable<T> implements H
         }
     }
 
+    static final class MappedReplayBufferTask<T> implements Callable<ReplayBuffer<T>> {
+        private final Function<? super T, byte[]> serializer;
+        private final Function<? super ByteBuffer, ? extends T> deserializer;
+
+        MappedReplayBufferTask(Function<? super T, byte[]> serializer, Function<? super ByteBuffer, ? extends T> deserializer) {
+            this.serializer = serializer;
+            this.deserializer = deserializer;
+        }
+
+        @Override
+        public ReplayBuffer<T> call() {
+            return new MappedReplayBuffer<T>(new MappedAppendLog<T>(serializer, deserializer,
+                    MappedAppendLog.DEFAULT_SEGMENT_SIZE, Flowable.bufferSize(), null));
+        }
+    }
+
     static final class ScheduledReplayBufferTask<T> implements Callable<ReplayBuffer<T>> {
         private final int bufferSize;
         private final long maxAge;
@@ -24,8 +24,7 @@ import io.reactivex.exceptions.Exceptions;
 import io.reactivex.functions.Cancellable;
 import io.reactivex.internal.disposables.CancellableDisposable;
 import io.reactivex.internal.disposables.DisposableHelper;
-import io.reactivex.internal.fuseable.SimpleQueue;
-import io.reactivex.internal.queue.SpscLinkedArrayQueue;
+import io.reactivex.internal.queue.MpscLinkedArrayQueue;
 import io.reactivex.internal.util.AtomicThrowable;
 import io.reactivex.plugins.RxJavaPlugins;
 
@@ -148,14 +147,14 @@ public final class ObservableCreate<T> extends Observable<T> {
 
         final AtomicThrowable error;
 
-        final SpscLinkedArrayQueue<T> queue;
+        final MpscLinkedArrayQueue<T> queue;
 
         volatile boolean done;
 
         SerializedEmitter(ObservableEmitter<T> emitter) {
             this.emitter = emitter;
             this.error = new AtomicThrowable();
-            this.queue = new SpscLinkedArrayQueue<T>(16);
+            this.queue = new MpscLinkedArrayQueue<T>(16);
         }
 
         @Override
@@ -173,10 +172,7 @@ public final class ObservableCreate<T> extends Observable<T> {
                     return;
                 }
             } else {
-                SimpleQueue<T> q = queue;
-                synchronized (q) {
-                    q.offer(t);
-                }
+                queue.offer(t);
                 if (getAndIncrement() != 0) {
                     return;
                 }
@@ -224,7 +220,7 @@ public final class ObservableCreate<T> extends Observable<T> {
 
         void drainLoop() {
             ObservableEmitter<T> e = emitter;
-            SpscLinkedArrayQueue<T> q = queue;
+            MpscLinkedArrayQueue<T> q = queue;
             AtomicThrowable error = this.error;
             int missed = 1;
             for (;;) {
@@ -20,11 +20,11 @@ import io.reactivex.CompletableSource;
 import io.reactivex.ObservableSource;
 import io.reactivex.Observer;
 import io.reactivex.annotations.Nullable;
-import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.exceptions.Exceptions;
 import io.reactivex.functions.Function;
 import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.disposables.StripedCompositeDisposable;
 import io.reactivex.internal.functions.ObjectHelper;
 import io.reactivex.internal.observers.BasicIntQueueDisposable;
 import io.reactivex.internal.util.AtomicThrowable;
@@ -64,7 +64,7 @@ public final class ObservableFlatMapCompletable<T> extends AbstractObservableWit
 
         final boolean delayErrors;
 
-        final CompositeDisposable set;
+        final StripedCompositeDisposable set;
 
         Disposable d;
 
@@ -75,7 +75,7 @@ public final class ObservableFlatMapCompletable<T> extends AbstractObservableWit
             this.mapper = mapper;
             this.delayErrors = delayErrors;
             this.errors = new AtomicThrowable();
-            this.set = new CompositeDisposable();
+            this.set = new StripedCompositeDisposable();
             this.lazySet(1);
         }
 
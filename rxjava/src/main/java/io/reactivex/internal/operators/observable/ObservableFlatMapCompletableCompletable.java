@@ -19,11 +19,11 @@ import io.reactivex.CompletableSource;
 import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import io.reactivex.Observer;
-import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.exceptions.Exceptions;
 import io.reactivex.functions.Function;
 import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.disposables.StripedCompositeDisposable;
 import io.reactivex.internal.functions.ObjectHelper;
 import io.reactivex.internal.fuseable.FuseToObservable;
 import io.reactivex.internal.util.AtomicThrowable;
@@ -69,7 +69,7 @@ public final class ObservableFlatMapCompletableCompletable<T> extends Completabl
 
         final boolean delayErrors;
 
-        final CompositeDisposable set;
+        final StripedCompositeDisposable set;
 
         Disposable d;
 
@@ -80,7 +80,7 @@ public final class ObservableFlatMapCompletableCompletable<T> extends Completabl
             this.mapper = mapper;
             this.delayErrors = delayErrors;
             this.errors = new AtomicThrowable();
-            this.set = new CompositeDisposable();
+            this.set = new StripedCompositeDisposable();
             this.lazySet(1);
         }
 
@@ -18,13 +18,13 @@ import io.reactivex.MaybeSource;
 import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import io.reactivex.Observer;
-import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.exceptions.Exceptions;
 import io.reactivex.functions.Function;
 import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.disposables.StripedCompositeDisposable;
 import io.reactivex.internal.functions.ObjectHelper;
-import io.reactivex.internal.queue.SpscLinkedArrayQueue;
+import io.reactivex.internal.queue.MpscLinkedArrayQueue;
 import io.reactivex.internal.util.AtomicThrowable;
 import io.reactivex.plugins.RxJavaPlugins;
 
@@ -61,7 +61,7 @@ public final class ObservableFlatMapMaybe<T, R> extends AbstractObservableWithUp
 
         final boolean delayErrors;
 
-        final CompositeDisposable set;
+        final StripedCompositeDisposable set;
 
         final AtomicInteger active;
 
@@ -69,7 +69,7 @@ public final class ObservableFlatMapMaybe<T, R> extends AbstractObservableWithUp
 
         final Function<? super T, ? extends MaybeSource<? extends R>> mapper;
 
-        final AtomicReference<SpscLinkedArrayQueue<R>> queue;
+        final AtomicReference<MpscLinkedArrayQueue<R>> queue;
 
         Disposable d;
 
@@ -80,10 +80,10 @@ public final class ObservableFlatMapMaybe<T, R> extends AbstractObservableWithUp
             this.actual = actual;
             this.mapper = mapper;
             this.delayErrors = delayErrors;
-            this.set = new CompositeDisposable();
+            this.set = new StripedCompositeDisposable();
             this.errors = new AtomicThrowable();
             this.active = new AtomicInteger(1);
-            this.queue = new AtomicReference<SpscLinkedArrayQueue<R>>();
+            this.queue = new AtomicReference<MpscLinkedArrayQueue<R>>();
         }
 
         @Override
@@ -154,7 +154,7 @@ public final class ObservableFlatMapMaybe<T, R> extends AbstractObservableWithUp
                 actual.onNext(value);
 
                 boolean d = active.decrementAndGet() == 0;
-                SpscLinkedArrayQueue<R> q = queue.get();
+                MpscLinkedArrayQueue<R> q = queue.get();
 
                 if (d && (q == null || q.isEmpty())) {
                     Throwable ex = errors.terminate();
@@ -169,10 +169,8 @@ public final class ObservableFlatMapMaybe<T, R> extends AbstractObservableWithUp
                     return;
                 }
             } else {
-                SpscLinkedArrayQueue<R> q = getOrCreateQueue();
-                synchronized (q) {
-                    q.offer(value);
-                }
+                MpscLinkedArrayQueue<R> q = getOrCreateQueue();
+                q.offer(value);
                 active.decrementAndGet();
                 if (getAndIncrement() != 0) {
                     return;
@@ -181,13 +179,13 @@ public final class ObservableFlatMapMaybe<T, R> extends AbstractObservableWithUp
             drainLoop();
         }
 
-        SpscLinkedArrayQueue<R> getOrCreateQueue() {
+        MpscLinkedArrayQueue<R> getOrCreateQueue() {
             for (;;) {
-                SpscLinkedArrayQueue<R> current = queue.get();
+                MpscLinkedArrayQueue<R> current = queue.get();
                 if (current != null) {
                     return current;
                 }
-                current = new SpscLinkedArrayQueue<R>(Observable.bufferSize());
+                current = new MpscLinkedArrayQueue<R>(Observable.bufferSize());
                 if (queue.compareAndSet(null, current)) {
                     return current;
                 }
@@ -213,7 +211,7 @@ public final class ObservableFlatMapMaybe<T, R> extends AbstractObservableWithUp
 
             if (get() == 0 && compareAndSet(0, 1)) {
                 boolean d = active.decrementAndGet() == 0;
-                SpscLinkedArrayQueue<R> q = queue.get();
+                MpscLinkedArrayQueue<R> q = queue.get();
 
                 if (d && (q == null || q.isEmpty())) {
                     Throwable ex = errors.terminate();
@@ -241,7 +239,7 @@ public final class ObservableFlatMapMaybe<T, R> extends AbstractObservableWithUp
         }
 
         void clear() {
-            SpscLinkedArrayQueue<R> q = queue.get();
+            MpscLinkedArrayQueue<R> q = queue.get();
             if (q != null) {
                 q.clear();
             }
@@ -251,7 +249,7 @@ public final class ObservableFlatMapMaybe<T, R> extends AbstractObservableWithUp
             int missed = 1;
             Observer<? super R> a = actual;
             AtomicInteger n = active;
-            AtomicReference<SpscLinkedArrayQueue<R>> qr = queue;
+            AtomicReference<MpscLinkedArrayQueue<R>> qr = queue;
 
             for (;;) {
                 for (;;) {
@@ -271,7 +269,7 @@ public final class ObservableFlatMapMaybe<T, R> extends AbstractObservableWithUp
                     }
 
                     boolean d = n.get() == 0;
-                    SpscLinkedArrayQueue<R> q = qr.get();
+                    MpscLinkedArrayQueue<R> q = qr.get();
                     R v = q != null ? q.poll() : null;
                     boolean empty = v == null;
 
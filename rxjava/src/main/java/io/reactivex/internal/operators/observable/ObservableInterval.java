@@ -22,6 +22,7 @@ import io.reactivex.Scheduler;
 import io.reactivex.Scheduler.Worker;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.schedulers.SharedIntervalTimer;
 import io.reactivex.internal.schedulers.TrampolineScheduler;
 
 public final class ObservableInterval extends Observable<Long> {
@@ -49,7 +50,7 @@ public final class ObservableInterval extends Observable<Long> {
             is.setResource(worker);
             worker.schedulePeriodically(is, initialDelay, period, unit);
         } else {
-            Disposable d = sch.schedulePeriodicallyDirect(is, initialDelay, period, unit);
+            Disposable d = SharedIntervalTimer.schedulePeriodicallyDirect(sch, is, initialDelay, period, unit);
             is.setResource(d);
         }
     }
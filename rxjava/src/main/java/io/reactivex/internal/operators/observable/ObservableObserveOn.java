@@ -21,9 +21,10 @@ import io.reactivex.disposables.Disposable;
 import io.reactivex.exceptions.Exceptions;
 import io.reactivex.internal.disposables.DisposableHelper;
 import io.reactivex.internal.fuseable.QueueDisposable;
+import io.reactivex.internal.fuseable.SimpleBulkQueue;
 import io.reactivex.internal.fuseable.SimpleQueue;
 import io.reactivex.internal.observers.BasicIntQueueDisposable;
-import io.reactivex.internal.queue.SpscLinkedArrayQueue;
+import io.reactivex.internal.queue.PaddedSpscLinkedArrayQueue;
 import io.reactivex.internal.schedulers.TrampolineScheduler;
 import io.reactivex.plugins.RxJavaPlugins;
 
@@ -50,7 +51,7 @@ public final class ObservableObserveOn<T> extends AbstractObservableWithUpstream
     }
 
     static final class ObserveOnObserver<T> extends BasicIntQueueDisposable<T>
-    implements Observer<T>, Runnable {
+    implements Observer<T>, Runnable, SimpleBulkQueue.BulkConsumer<T> {
 
         private static final long serialVersionUID = 6576896619930983584L;
         final Observer<? super T> actual;
@@ -104,7 +105,7 @@ public final class ObservableObserveOn<T> extends AbstractObservableWithUpstream
                     }
                 }
 
-                queue = new SpscLinkedArrayQueue<T>(bufferSize);
+                queue = new PaddedSpscLinkedArrayQueue<T>(bufferSize);
 
                 actual.onSubscribe(this);
             }
@@ -165,11 +166,20 @@ public final class ObservableObserveOn<T> extends AbstractObservableWithUpstream
             }
         }
 
+        @Override
+        public void accept(T t) {
+            // drop the rest of the batch if checkTerminated would stop before it
+            if (!cancelled && (delayError || !done || error == null)) {
+                actual.onNext(t);
+            }
+        }
+
         void drainNormal() {
             int missed = 1;
 
             final SimpleQueue<T> q = queue;
             final Observer<? super T> a = actual;
+            final SimpleBulkQueue<T> bq = q instanceof SimpleBulkQueue ? (SimpleBulkQueue<T>)q : null;
 
             for (;;) {
                 if (checkTerminated(done, q.isEmpty(), a)) {
@@ -178,6 +188,18 @@ public final class ObservableObserveOn<T> extends AbstractObservableWithUpstream
 
                 for (;;) {
                     boolean d = done;
+
+                    if (bq != null) {
+                        if (checkTerminated(d, bq.isEmpty(), a)) {
+                            return;
+                        }
+
+                        if (bq.drain(this, bufferSize) == 0) {
+                            break;
+                        }
+                        continue;
+                    }
+
                     T v;
 
                     try {
@@ -13,6 +13,8 @@
 
 package io.reactivex.internal.operators.observable;
 
+import java.nio.ByteBuffer;
+
 import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import io.reactivex.Observer;
@@ -26,6 +28,7 @@ import io.reactivex.internal.disposables.EmptyDisposable;
 import io.reactivex.internal.functions.ObjectHelper;
 import io.reactivex.internal.fuseable.HasUpstreamObservableSource;
 import io.reactivex.internal.util.ExceptionHelper;
+import io.reactivex.internal.util.MappedAppendLog;
 import io.reactivex.internal.util.NotificationLite;
 import io.reactivex.observables.ConnectableObservable;
 import io.reactivex.plugins.RxJavaPlugins;
@@ -131,6 +134,20 @@ public final class ObservableReplay<T> extends ConnectableObservable<T> implemen
         return create(source, new ScheduledReplaySupplier<T>(bufferSize, maxAge, unit, scheduler));
     }
 
+    /**
+     * Creates a replaying ConnectableObservable with an unbounded buffer storing the values
+     * in a memory-mapped temporary file.
+     * @param <T> the value type
+     * @param source the source ObservableSource to use
+     * @param serializer the function turning a value into bytes
+     * @param deserializer the function turning a view of the bytes back into a value
+     * @return the new ConnectableObservable instance
+     */
+    public static <T> ConnectableObservable<T> createMapped(ObservableSource<T> source,
+            Function<? super T, byte[]> serializer, Function<? super ByteBuffer, ? extends T> deserializer) {
+        return create(source, new MappedReplaySupplier<T>(serializer, deserializer));
+    }
+
     /**
      * Creates a OperatorReplay instance to replay values of the given source observable.
      * @param source the source observable
@@ -367,7 +384,14 @@ public final class ObservableReplay<T> extends ConnectableObservable<T> implemen
         @Override
         public void onNext(T t) {
             if (!done) {
-                buffer.next(t);
+                try {
+                    buffer.next(t);
+                } catch (Throwable ex) {
+                    Exceptions.throwIfFatal(ex);
+                    DisposableHelper.dispose(this);
+                    onError(ex);
+                    return;
+                }
                 replay();
             }
         }
@@ -476,8 +500,10 @@ public final class ObservableReplay<T> extends ConnectableObservable<T> implemen
         /**
          * Adds a regular value to the buffer.
          * @param value the value to be stored in the buffer
+         * @throws Exception if the value couldn't be stored, the buffer
+         * is then expected to be terminated via {@link #error(Throwable)}
          */
-        void next(T value);
+        void next(T value) throws Exception;
         /**
          * Adds a terminal exception to the buffer.
          * @param e the error to be stored in the buffer
@@ -568,6 +594,97 @@ public final class ObservableReplay<T> extends ConnectableObservable<T> implemen
         }
     }
 
+    /**
+     * Holds an unbounded log of values in a memory-mapped file and the terminal event.
+     *
+     * @param <T> the value type
+     */
+    static final class MappedReplayBuffer<T> implements ReplayBuffer<T> {
+        final MappedAppendLog<T> log;
+        /** The terminal NotificationLite, set after the last value has been appended. */
+        volatile Object terminal;
+
+        MappedReplayBuffer(MappedAppendLog<T> log) {
+            this.log = log;
+        }
+
+        @Override
+        public void next(T value) throws Exception {
+            log.append(value);
+        }
+
+        @Override
+        public void error(Throwable e) {
+            terminal = NotificationLite.error(e);
+            log.close();
+        }
+
+        @Override
+        public void complete() {
+            terminal = NotificationLite.complete();
+            log.close();
+        }
+
+        @Override
+        public void replay(InnerDisposable<T> output) {
+            if (output.getAndIncrement() != 0) {
+                return;
+            }
+
+            final MappedAppendLog<T> b = log;
+            final Observer<? super T> child = output.child;
+
+            int missed = 1;
+
+            for (;;) {
+                if (output.isDisposed()) {
+                    return;
+                }
+
+                MappedAppendLog.Cursor c = output.index();
+                if (c == null) {
+                    c = new MappedAppendLog.Cursor();
+                    output.index = c;
+                }
+
+                for (;;) {
+                    Object o = terminal;
+                    long index = c.index();
+                    long s = b.size();
+
+                    if (o != null && index == s) {
+                        output.dispose();
+                        NotificationLite.accept(o, child);
+                        return;
+                    }
+
+                    if (index == s) {
+                        break;
+                    }
+
+                    T v;
+                    try {
+                        v = b.read(c);
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        output.dispose();
+                        child.onError(ex);
+                        return;
+                    }
+                    child.onNext(v);
+                    if (output.isDisposed()) {
+                        return;
+                    }
+                }
+
+                missed = output.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
     /**
      * Represents a node in a bounded replay buffer's linked list.
      */
@@ -937,6 +1054,22 @@ public final class ObservableReplay<T> extends ConnectableObservable<T> implemen
         }
     }
 
+    static final class MappedReplaySupplier<T> implements BufferSupplier<T> {
+        private final Function<? super T, byte[]> serializer;
+        private final Function<? super ByteBuffer, ? extends T> deserializer;
+
+        MappedReplaySupplier(Function<? super T, byte[]> serializer, Function<? super ByteBuffer, ? extends T> deserializer) {
+            this.serializer = serializer;
+            this.deserializer = deserializer;
+        }
+
+        @Override
+        public ReplayBuffer<T> call() {
+            return new MappedReplayBuffer<T>(new MappedAppendLog<T>(serializer, deserializer,
+                    MappedAppendLog.DEFAULT_SEGMENT_SIZE, Observable.bufferSize(), null));
+        }
+    }
+
     static final class ScheduledReplaySupplier<T> implements BufferSupplier<T> {
         private final int bufferSize;
         private final long maxAge;
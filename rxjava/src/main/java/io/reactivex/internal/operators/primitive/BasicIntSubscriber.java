@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import org.reactivestreams.Subscription;
+
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.fuseable.IntConditionalSubscriber;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.primitive.IntSubscriber;
+
+/**
+ * Base class for the {@code IntFlowable} operators that relay a IntSubscriber's signals to another
+ * IntSubscriber and pass the requests and the cancellation upstream.
+ *
+ * @param <S> the downstream subscriber type
+ */
+abstract class BasicIntSubscriber<S extends IntSubscriber> implements IntConditionalSubscriber, Subscription {
+
+    final S actual;
+
+    Subscription s;
+
+    boolean done;
+
+    BasicIntSubscriber(S actual) {
+        this.actual = actual;
+    }
+
+    @Override
+    public final void onSubscribe(Subscription s) {
+        if (SubscriptionHelper.validate(this.s, s)) {
+            this.s = s;
+            actual.onSubscribe(this);
+        }
+    }
+
+    @Override
+    public void onNext(int t) {
+        if (!tryOnNext(t)) {
+            s.request(1);
+        }
+    }
+
+    final void fail(Throwable t) {
+        Exceptions.throwIfFatal(t);
+        s.cancel();
+        onError(t);
+    }
+
+    @Override
+    public final void onError(Throwable t) {
+        if (done) {
+            RxJavaPlugins.onError(t);
+            return;
+        }
+        done = true;
+        actual.onError(t);
+    }
+
+    @Override
+    public final void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        actual.onComplete();
+    }
+
+    @Override
+    public final void request(long n) {
+        s.request(n);
+    }
+
+    @Override
+    public final void cancel() {
+        s.cancel();
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import io.reactivex.functions.DoubleUnaryOperator;
+import io.reactivex.internal.fuseable.DoubleConditionalSubscriber;
+import io.reactivex.primitive.DoubleFlowable;
+import io.reactivex.primitive.DoubleSubscriber;
+
+public final class DoubleFlowableMap extends DoubleFlowable {
+
+    final DoubleFlowable source;
+
+    final DoubleUnaryOperator mapper;
+
+    public DoubleFlowableMap(DoubleFlowable source, DoubleUnaryOperator mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected void subscribeActual(DoubleSubscriber s) {
+        if (s instanceof DoubleConditionalSubscriber) {
+            source.subscribe(new MapConditionalSubscriber((DoubleConditionalSubscriber)s, mapper));
+        } else {
+            source.subscribe(new MapSubscriber(s, mapper));
+        }
+    }
+
+    static final class MapSubscriber extends BasicDoubleSubscriber<DoubleSubscriber> {
+
+        final DoubleUnaryOperator mapper;
+
+        MapSubscriber(DoubleSubscriber actual, DoubleUnaryOperator mapper) {
+            super(actual);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onNext(double t) {
+            tryOnNext(t);
+        }
+
+        @Override
+        public boolean tryOnNext(double t) {
+            if (done) {
+                return false;
+            }
+            double v;
+            try {
+                v = mapper.apply(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return false;
+            }
+            actual.onNext(v);
+            return true;
+        }
+    }
+
+    static final class MapConditionalSubscriber extends BasicDoubleSubscriber<DoubleConditionalSubscriber> {
+
+        final DoubleUnaryOperator mapper;
+
+        MapConditionalSubscriber(DoubleConditionalSubscriber actual, DoubleUnaryOperator mapper) {
+            super(actual);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryOnNext(double t) {
+            if (done) {
+                return false;
+            }
+            double v;
+            try {
+                v = mapper.apply(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return false;
+            }
+            return actual.tryOnNext(v);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Subscription;
+
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.DoubleBinaryOperator;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.primitive.DoubleFlowable;
+import io.reactivex.primitive.DoubleSubscriber;
+
+/**
+ * Reduces the values of the source into one value, emitted when the source completes.
+ * Without a seed, an empty source completes without a value.
+ */
+public final class DoubleFlowableReduce extends DoubleFlowable {
+
+    final DoubleFlowable source;
+
+    final boolean hasSeed;
+
+    final double seed;
+
+    final DoubleBinaryOperator reducer;
+
+    public DoubleFlowableReduce(DoubleFlowable source, boolean hasSeed, double seed, DoubleBinaryOperator reducer) {
+        this.source = source;
+        this.hasSeed = hasSeed;
+        this.seed = seed;
+        this.reducer = reducer;
+    }
+
+    @Override
+    protected void subscribeActual(DoubleSubscriber s) {
+        source.subscribe(new ReduceSubscriber(s, hasSeed, seed, reducer));
+    }
+
+    /** The built-in aggregations, selected by the mode. */
+    public static final class Aggregate implements DoubleBinaryOperator {
+
+        public static final Aggregate SUM = new Aggregate(0);
+
+        public static final Aggregate MIN = new Aggregate(1);
+
+        public static final Aggregate MAX = new Aggregate(2);
+
+        final int mode;
+
+        Aggregate(int mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        public double apply(double t1, double t2) {
+            switch (mode) {
+            case 0:
+                return t1 + t2;
+            case 1:
+                return Math.min(t1, t2);
+            default:
+                return Math.max(t1, t2);
+            }
+        }
+    }
+
+    static final class ReduceSubscriber extends AtomicInteger implements DoubleSubscriber, Subscription {
+
+        private static final long serialVersionUID = 887893524274142458L;
+
+        static final int NO_REQUEST_NO_VALUE = 0;
+        static final int NO_REQUEST_HAS_VALUE = 1;
+        static final int HAS_REQUEST_NO_VALUE = 2;
+        static final int HAS_REQUEST_HAS_VALUE = 3;
+        static final int CANCELLED = 4;
+
+        final DoubleSubscriber actual;
+
+        final DoubleBinaryOperator reducer;
+
+        Subscription s;
+
+        double value;
+
+        boolean hasValue;
+
+        boolean done;
+
+        ReduceSubscriber(DoubleSubscriber actual, boolean hasSeed, double seed, DoubleBinaryOperator reducer) {
+            this.actual = actual;
+            this.reducer = reducer;
+            this.value = seed;
+            this.hasValue = hasSeed;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(double t) {
+            if (done) {
+                return;
+            }
+            if (hasValue) {
+                try {
+                    value = reducer.apply(value, t);
+                } catch (Throwable ex) {
+                    Exceptions.throwIfFatal(ex);
+                    s.cancel();
+                    onError(ex);
+                }
+            } else {
+                value = t;
+                hasValue = true;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            if (!hasValue) {
+                actual.onComplete();
+                return;
+            }
+            for (;;) {
+                int state = get();
+                if (state == HAS_REQUEST_NO_VALUE) {
+                    lazySet(HAS_REQUEST_HAS_VALUE);
+                    emit();
+                    return;
+                }
+                if (state != NO_REQUEST_NO_VALUE || compareAndSet(NO_REQUEST_NO_VALUE, NO_REQUEST_HAS_VALUE)) {
+                    return;
+                }
+            }
+        }
+
+        void emit() {
+            DoubleSubscriber a = actual;
+            a.onNext(value);
+            if (get() != CANCELLED) {
+                a.onComplete();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                for (;;) {
+                    int state = get();
+                    if (state == NO_REQUEST_HAS_VALUE) {
+                        if (compareAndSet(NO_REQUEST_HAS_VALUE, HAS_REQUEST_HAS_VALUE)) {
+                            emit();
+                        }
+                        return;
+                    }
+                    if (state != NO_REQUEST_NO_VALUE || compareAndSet(NO_REQUEST_NO_VALUE, HAS_REQUEST_NO_VALUE)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            set(CANCELLED);
+            s.cancel();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import io.reactivex.functions.DoubleBinaryOperator;
+import io.reactivex.internal.fuseable.DoubleConditionalSubscriber;
+import io.reactivex.primitive.DoubleFlowable;
+import io.reactivex.primitive.DoubleSubscriber;
+
+public final class DoubleFlowableScan extends DoubleFlowable {
+
+    final DoubleFlowable source;
+
+    final DoubleBinaryOperator accumulator;
+
+    public DoubleFlowableScan(DoubleFlowable source, DoubleBinaryOperator accumulator) {
+        this.source = source;
+        this.accumulator = accumulator;
+    }
+
+    @Override
+    protected void subscribeActual(DoubleSubscriber s) {
+        source.subscribe(new ScanSubscriber(s, accumulator));
+    }
+
+    static final class ScanSubscriber extends BasicDoubleSubscriber<DoubleSubscriber> {
+
+        final DoubleBinaryOperator accumulator;
+
+        double value;
+
+        boolean hasValue;
+
+        ScanSubscriber(DoubleSubscriber actual, DoubleBinaryOperator accumulator) {
+            super(actual);
+            this.accumulator = accumulator;
+        }
+
+        @Override
+        public boolean tryOnNext(double t) {
+            if (done) {
+                return false;
+            }
+            if (hasValue) {
+                try {
+                    t = accumulator.apply(value, t);
+                } catch (Throwable ex) {
+                    fail(ex);
+                    return false;
+                }
+            } else {
+                hasValue = true;
+            }
+            value = t;
+            DoubleSubscriber a = actual;
+            if (a instanceof DoubleConditionalSubscriber) {
+                return ((DoubleConditionalSubscriber)a).tryOnNext(t);
+            }
+            a.onNext(t);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.internal.fuseable.ConditionalSubscriber;
+import io.reactivex.internal.fuseable.IntConditionalSubscriber;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.primitive.IntFlowable;
+
+/**
+ * Relays the values of a IntFlowable boxed into Integers.
+ */
+public final class IntFlowableBoxed extends Flowable<Integer> {
+
+    final IntFlowable source;
+
+    public IntFlowableBoxed(IntFlowable source) {
+        this.source = source;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void subscribeActual(Subscriber<? super Integer> s) {
+        if (s instanceof ConditionalSubscriber) {
+            source.subscribe(new BoxedConditionalSubscriber((ConditionalSubscriber<? super Integer>)s));
+        } else {
+            source.subscribe(new BoxedSubscriber(s));
+        }
+    }
+
+    abstract static class BaseBoxedSubscriber implements IntConditionalSubscriber, Subscription {
+
+        Subscription s;
+
+        boolean done;
+
+        @Override
+        public final void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.s, s)) {
+                this.s = s;
+                downstream().onSubscribe(this);
+            }
+        }
+
+        abstract Subscriber<? super Integer> downstream();
+
+        @Override
+        public final void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            downstream().onError(t);
+        }
+
+        @Override
+        public final void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            downstream().onComplete();
+        }
+
+        @Override
+        public final void request(long n) {
+            s.request(n);
+        }
+
+        @Override
+        public final void cancel() {
+            s.cancel();
+        }
+    }
+
+    static final class BoxedSubscriber extends BaseBoxedSubscriber {
+
+        final Subscriber<? super Integer> actual;
+
+        BoxedSubscriber(Subscriber<? super Integer> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        Subscriber<? super Integer> downstream() {
+            return actual;
+        }
+
+        @Override
+        public void onNext(int t) {
+            if (!done) {
+                actual.onNext(t);
+            }
+        }
+
+        @Override
+        public boolean tryOnNext(int t) {
+            onNext(t);
+            return !done;
+        }
+    }
+
+    static final class BoxedConditionalSubscriber extends BaseBoxedSubscriber {
+
+        final ConditionalSubscriber<? super Integer> actual;
+
+        BoxedConditionalSubscriber(ConditionalSubscriber<? super Integer> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        Subscriber<? super Integer> downstream() {
+            return actual;
+        }
+
+        @Override
+        public void onNext(int t) {
+            if (!tryOnNext(t)) {
+                s.request(1);
+            }
+        }
+
+        @Override
+        public boolean tryOnNext(int t) {
+            return !done && actual.tryOnNext(t);
+        }
+    }
+}
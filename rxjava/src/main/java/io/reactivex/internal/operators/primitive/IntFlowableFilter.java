@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import io.reactivex.functions.IntPredicate;
+import io.reactivex.internal.fuseable.IntConditionalSubscriber;
+import io.reactivex.primitive.IntFlowable;
+import io.reactivex.primitive.IntSubscriber;
+
+public final class IntFlowableFilter extends IntFlowable {
+
+    final IntFlowable source;
+
+    final IntPredicate predicate;
+
+    public IntFlowableFilter(IntFlowable source, IntPredicate predicate) {
+        this.source = source;
+        this.predicate = predicate;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber s) {
+        if (s instanceof IntConditionalSubscriber) {
+            source.subscribe(new FilterConditionalSubscriber((IntConditionalSubscriber)s, predicate));
+        } else {
+            source.subscribe(new FilterSubscriber(s, predicate));
+        }
+    }
+
+    static final class FilterSubscriber extends BasicIntSubscriber<IntSubscriber> {
+
+        final IntPredicate predicate;
+
+        FilterSubscriber(IntSubscriber actual, IntPredicate predicate) {
+            super(actual);
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean tryOnNext(int t) {
+            if (done) {
+                return false;
+            }
+            boolean b;
+            try {
+                b = predicate.test(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return true;
+            }
+            if (b) {
+                actual.onNext(t);
+            }
+            return b;
+        }
+    }
+
+    static final class FilterConditionalSubscriber extends BasicIntSubscriber<IntConditionalSubscriber> {
+
+        final IntPredicate predicate;
+
+        FilterConditionalSubscriber(IntConditionalSubscriber actual, IntPredicate predicate) {
+            super(actual);
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean tryOnNext(int t) {
+            if (done) {
+                return false;
+            }
+            boolean b;
+            try {
+                b = predicate.test(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return true;
+            }
+            return b && actual.tryOnNext(t);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import io.reactivex.functions.IntUnaryOperator;
+import io.reactivex.internal.fuseable.IntConditionalSubscriber;
+import io.reactivex.primitive.IntFlowable;
+import io.reactivex.primitive.IntSubscriber;
+
+public final class IntFlowableMap extends IntFlowable {
+
+    final IntFlowable source;
+
+    final IntUnaryOperator mapper;
+
+    public IntFlowableMap(IntFlowable source, IntUnaryOperator mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber s) {
+        if (s instanceof IntConditionalSubscriber) {
+            source.subscribe(new MapConditionalSubscriber((IntConditionalSubscriber)s, mapper));
+        } else {
+            source.subscribe(new MapSubscriber(s, mapper));
+        }
+    }
+
+    static final class MapSubscriber extends BasicIntSubscriber<IntSubscriber> {
+
+        final IntUnaryOperator mapper;
+
+        MapSubscriber(IntSubscriber actual, IntUnaryOperator mapper) {
+            super(actual);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onNext(int t) {
+            tryOnNext(t);
+        }
+
+        @Override
+        public boolean tryOnNext(int t) {
+            if (done) {
+                return false;
+            }
+            int v;
+            try {
+                v = mapper.apply(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return false;
+            }
+            actual.onNext(v);
+            return true;
+        }
+    }
+
+    static final class MapConditionalSubscriber extends BasicIntSubscriber<IntConditionalSubscriber> {
+
+        final IntUnaryOperator mapper;
+
+        MapConditionalSubscriber(IntConditionalSubscriber actual, IntUnaryOperator mapper) {
+            super(actual);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryOnNext(int t) {
+            if (done) {
+                return false;
+            }
+            int v;
+            try {
+                v = mapper.apply(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return false;
+            }
+            return actual.tryOnNext(v);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Subscription;
+
+import io.reactivex.internal.fuseable.IntConditionalSubscriber;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.primitive.IntFlowable;
+import io.reactivex.primitive.IntSubscriber;
+
+/**
+ * Emits a range of primitive int values.
+ */
+public final class IntFlowableRange extends IntFlowable {
+    final int start;
+    final int end;
+    public IntFlowableRange(int start, int count) {
+        this.start = start;
+        this.end = start + count;
+    }
+    @Override
+    protected void subscribeActual(IntSubscriber s) {
+        if (s instanceof IntConditionalSubscriber) {
+            s.onSubscribe(new RangeConditionalSubscription((IntConditionalSubscriber)s, start, end));
+        } else {
+            s.onSubscribe(new RangeSubscription(s, start, end));
+        }
+    }
+
+    abstract static class BaseRangeSubscription extends AtomicLong implements Subscription {
+        private static final long serialVersionUID = 219323771538196901L;
+
+        final int end;
+
+        int index;
+
+        volatile boolean cancelled;
+
+        BaseRangeSubscription(int index, int end) {
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public final void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                if (BackpressureHelper.add(this, n) == 0L) {
+                    if (n == Long.MAX_VALUE) {
+                        fastPath();
+                    } else {
+                        slowPath(n);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public final void cancel() {
+            cancelled = true;
+        }
+
+        abstract void fastPath();
+
+        abstract void slowPath(long r);
+    }
+
+    static final class RangeSubscription extends BaseRangeSubscription {
+
+        private static final long serialVersionUID = 117218481103532859L;
+
+        final IntSubscriber actual;
+
+        RangeSubscription(IntSubscriber actual, int index, int end) {
+            super(index, end);
+            this.actual = actual;
+        }
+
+        @Override
+        void fastPath() {
+            int f = end;
+            IntSubscriber a = actual;
+
+            for (int i = index; i != f; i++) {
+                if (cancelled) {
+                    return;
+                }
+                a.onNext(i);
+            }
+            if (cancelled) {
+                return;
+            }
+            a.onComplete();
+        }
+
+        @Override
+        void slowPath(long r) {
+            long e = 0;
+            int f = end;
+            int i = index;
+            IntSubscriber a = actual;
+
+            for (;;) {
+
+                while (e != r && i != f) {
+                    if (cancelled) {
+                        return;
+                    }
+
+                    a.onNext(i);
+
+                    e++;
+                    i++;
+                }
+
+                if (i == f) {
+                    if (!cancelled) {
+                        a.onComplete();
+                    }
+                    return;
+                }
+
+                r = get();
+                if (e == r) {
+                    index = i;
+                    r = addAndGet(-e);
+                    if (r == 0L) {
+                        return;
+                    }
+                    e = 0L;
+                }
+            }
+        }
+    }
+
+    static final class RangeConditionalSubscription extends BaseRangeSubscription {
+
+        private static final long serialVersionUID = 228773647532384326L;
+
+        final IntConditionalSubscriber actual;
+
+        RangeConditionalSubscription(IntConditionalSubscriber actual, int index, int end) {
+            super(index, end);
+            this.actual = actual;
+        }
+
+        @Override
+        void fastPath() {
+            int f = end;
+            IntConditionalSubscriber a = actual;
+
+            for (int i = index; i != f; i++) {
+                if (cancelled) {
+                    return;
+                }
+                a.tryOnNext(i);
+            }
+            if (cancelled) {
+                return;
+            }
+            a.onComplete();
+        }
+
+        @Override
+        void slowPath(long r) {
+            long e = 0;
+            int f = end;
+            int i = index;
+            IntConditionalSubscriber a = actual;
+
+            for (;;) {
+
+                while (e != r && i != f) {
+                    if (cancelled) {
+                        return;
+                    }
+
+                    if (a.tryOnNext(i)) {
+                        e++;
+                    }
+
+                    i++;
+                }
+
+                if (i == f) {
+                    if (!cancelled) {
+                        a.onComplete();
+                    }
+                    return;
+                }
+
+                r = get();
+                if (e == r) {
+                    index = i;
+                    r = addAndGet(-e);
+                    if (r == 0L) {
+                        return;
+                    }
+                    e = 0L;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Subscription;
+
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.IntBinaryOperator;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.primitive.IntFlowable;
+import io.reactivex.primitive.IntSubscriber;
+
+/**
+ * Reduces the values of the source into one value, emitted when the source completes.
+ * Without a seed, an empty source completes without a value.
+ */
+public final class IntFlowableReduce extends IntFlowable {
+
+    final IntFlowable source;
+
+    final boolean hasSeed;
+
+    final int seed;
+
+    final IntBinaryOperator reducer;
+
+    public IntFlowableReduce(IntFlowable source, boolean hasSeed, int seed, IntBinaryOperator reducer) {
+        this.source = source;
+        this.hasSeed = hasSeed;
+        this.seed = seed;
+        this.reducer = reducer;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber s) {
+        source.subscribe(new ReduceSubscriber(s, hasSeed, seed, reducer));
+    }
+
+    /** The built-in aggregations, selected by the mode. */
+    public static final class Aggregate implements IntBinaryOperator {
+
+        public static final Aggregate SUM = new Aggregate(0);
+
+        public static final Aggregate MIN = new Aggregate(1);
+
+        public static final Aggregate MAX = new Aggregate(2);
+
+        final int mode;
+
+        Aggregate(int mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        public int apply(int t1, int t2) {
+            switch (mode) {
+            case 0:
+                return t1 + t2;
+            case 1:
+                return Math.min(t1, t2);
+            default:
+                return Math.max(t1, t2);
+            }
+        }
+    }
+
+    static final class ReduceSubscriber extends AtomicInteger implements IntSubscriber, Subscription {
+
+        private static final long serialVersionUID = 165020124890195348L;
+
+        static final int NO_REQUEST_NO_VALUE = 0;
+        static final int NO_REQUEST_HAS_VALUE = 1;
+        static final int HAS_REQUEST_NO_VALUE = 2;
+        static final int HAS_REQUEST_HAS_VALUE = 3;
+        static final int CANCELLED = 4;
+
+        final IntSubscriber actual;
+
+        final IntBinaryOperator reducer;
+
+        Subscription s;
+
+        int value;
+
+        boolean hasValue;
+
+        boolean done;
+
+        ReduceSubscriber(IntSubscriber actual, boolean hasSeed, int seed, IntBinaryOperator reducer) {
+            this.actual = actual;
+            this.reducer = reducer;
+            this.value = seed;
+            this.hasValue = hasSeed;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(int t) {
+            if (done) {
+                return;
+            }
+            if (hasValue) {
+                try {
+                    value = reducer.apply(value, t);
+                } catch (Throwable ex) {
+                    Exceptions.throwIfFatal(ex);
+                    s.cancel();
+                    onError(ex);
+                }
+            } else {
+                value = t;
+                hasValue = true;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            if (!hasValue) {
+                actual.onComplete();
+                return;
+            }
+            for (;;) {
+                int state = get();
+                if (state == HAS_REQUEST_NO_VALUE) {
+                    lazySet(HAS_REQUEST_HAS_VALUE);
+                    emit();
+                    return;
+                }
+                if (state != NO_REQUEST_NO_VALUE || compareAndSet(NO_REQUEST_NO_VALUE, NO_REQUEST_HAS_VALUE)) {
+                    return;
+                }
+            }
+        }
+
+        void emit() {
+            IntSubscriber a = actual;
+            a.onNext(value);
+            if (get() != CANCELLED) {
+                a.onComplete();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                for (;;) {
+                    int state = get();
+                    if (state == NO_REQUEST_HAS_VALUE) {
+                        if (compareAndSet(NO_REQUEST_HAS_VALUE, HAS_REQUEST_HAS_VALUE)) {
+                            emit();
+                        }
+                        return;
+                    }
+                    if (state != NO_REQUEST_NO_VALUE || compareAndSet(NO_REQUEST_NO_VALUE, HAS_REQUEST_NO_VALUE)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            set(CANCELLED);
+            s.cancel();
+        }
+    }
+}
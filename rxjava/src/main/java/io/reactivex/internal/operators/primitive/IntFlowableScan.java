@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import io.reactivex.functions.IntBinaryOperator;
+import io.reactivex.internal.fuseable.IntConditionalSubscriber;
+import io.reactivex.primitive.IntFlowable;
+import io.reactivex.primitive.IntSubscriber;
+
+public final class IntFlowableScan extends IntFlowable {
+
+    final IntFlowable source;
+
+    final IntBinaryOperator accumulator;
+
+    public IntFlowableScan(IntFlowable source, IntBinaryOperator accumulator) {
+        this.source = source;
+        this.accumulator = accumulator;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber s) {
+        source.subscribe(new ScanSubscriber(s, accumulator));
+    }
+
+    static final class ScanSubscriber extends BasicIntSubscriber<IntSubscriber> {
+
+        final IntBinaryOperator accumulator;
+
+        int value;
+
+        boolean hasValue;
+
+        ScanSubscriber(IntSubscriber actual, IntBinaryOperator accumulator) {
+            super(actual);
+            this.accumulator = accumulator;
+        }
+
+        @Override
+        public boolean tryOnNext(int t) {
+            if (done) {
+                return false;
+            }
+            if (hasValue) {
+                try {
+                    t = accumulator.apply(value, t);
+                } catch (Throwable ex) {
+                    fail(ex);
+                    return false;
+                }
+            } else {
+                hasValue = true;
+            }
+            value = t;
+            IntSubscriber a = actual;
+            if (a instanceof IntConditionalSubscriber) {
+                return ((IntConditionalSubscriber)a).tryOnNext(t);
+            }
+            a.onNext(t);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import io.reactivex.functions.LongPredicate;
+import io.reactivex.internal.fuseable.LongConditionalSubscriber;
+import io.reactivex.primitive.LongFlowable;
+import io.reactivex.primitive.LongSubscriber;
+
+public final class LongFlowableFilter extends LongFlowable {
+
+    final LongFlowable source;
+
+    final LongPredicate predicate;
+
+    public LongFlowableFilter(LongFlowable source, LongPredicate predicate) {
+        this.source = source;
+        this.predicate = predicate;
+    }
+
+    @Override
+    protected void subscribeActual(LongSubscriber s) {
+        if (s instanceof LongConditionalSubscriber) {
+            source.subscribe(new FilterConditionalSubscriber((LongConditionalSubscriber)s, predicate));
+        } else {
+            source.subscribe(new FilterSubscriber(s, predicate));
+        }
+    }
+
+    static final class FilterSubscriber extends BasicLongSubscriber<LongSubscriber> {
+
+        final LongPredicate predicate;
+
+        FilterSubscriber(LongSubscriber actual, LongPredicate predicate) {
+            super(actual);
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean tryOnNext(long t) {
+            if (done) {
+                return false;
+            }
+            boolean b;
+            try {
+                b = predicate.test(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return true;
+            }
+            if (b) {
+                actual.onNext(t);
+            }
+            return b;
+        }
+    }
+
+    static final class FilterConditionalSubscriber extends BasicLongSubscriber<LongConditionalSubscriber> {
+
+        final LongPredicate predicate;
+
+        FilterConditionalSubscriber(LongConditionalSubscriber actual, LongPredicate predicate) {
+            super(actual);
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean tryOnNext(long t) {
+            if (done) {
+                return false;
+            }
+            boolean b;
+            try {
+                b = predicate.test(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return true;
+            }
+            return b && actual.tryOnNext(t);
+        }
+    }
+}
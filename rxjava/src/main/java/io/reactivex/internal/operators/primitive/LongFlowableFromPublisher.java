@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.ToLongFunction;
+import io.reactivex.internal.fuseable.ConditionalSubscriber;
+import io.reactivex.internal.fuseable.LongConditionalSubscriber;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.primitive.LongFlowable;
+import io.reactivex.primitive.LongSubscriber;
+
+/**
+ * Maps the values of a Publisher into primitive longs.
+ *
+ * @param <T> the source value type
+ */
+public final class LongFlowableFromPublisher<T> extends LongFlowable {
+
+    final Publisher<? extends T> source;
+
+    final ToLongFunction<? super T> mapper;
+
+    public LongFlowableFromPublisher(Publisher<? extends T> source, ToLongFunction<? super T> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected void subscribeActual(LongSubscriber s) {
+        source.subscribe(new FromPublisherSubscriber<T>(s, mapper));
+    }
+
+    static final class FromPublisherSubscriber<T> implements ConditionalSubscriber<T>, Subscription {
+
+        final LongSubscriber actual;
+
+        final ToLongFunction<? super T> mapper;
+
+        Subscription s;
+
+        boolean done;
+
+        FromPublisherSubscriber(LongSubscriber actual, ToLongFunction<? super T> mapper) {
+            this.actual = actual;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (!tryOnNext(t) && !done) {
+                s.request(1);
+            }
+        }
+
+        @Override
+        public boolean tryOnNext(T t) {
+            if (done) {
+                return false;
+            }
+            long v;
+            try {
+                v = mapper.apply(t);
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                s.cancel();
+                onError(ex);
+                return false;
+            }
+            LongSubscriber a = actual;
+            if (a instanceof LongConditionalSubscriber) {
+                return ((LongConditionalSubscriber)a).tryOnNext(v);
+            }
+            a.onNext(v);
+            return true;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            s.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            s.cancel();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.operators.primitive;
+
+import io.reactivex.functions.LongUnaryOperator;
+import io.reactivex.internal.fuseable.LongConditionalSubscriber;
+import io.reactivex.primitive.LongFlowable;
+import io.reactivex.primitive.LongSubscriber;
+
+public final class LongFlowableMap extends LongFlowable {
+
+    final LongFlowable source;
+
+    final LongUnaryOperator mapper;
+
+    public LongFlowableMap(LongFlowable source, LongUnaryOperator mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected void subscribeActual(LongSubscriber s) {
+        if (s instanceof LongConditionalSubscriber) {
+            source.subscribe(new MapConditionalSubscriber((LongConditionalSubscriber)s, mapper));
+        } else {
+            source.subscribe(new MapSubscriber(s, mapper));
+        }
+    }
+
+    static final class MapSubscriber extends BasicLongSubscriber<LongSubscriber> {
+
+        final LongUnaryOperator mapper;
+
+        MapSubscriber(LongSubscriber actual, LongUnaryOperator mapper) {
+            super(actual);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onNext(long t) {
+            tryOnNext(t);
+        }
+
+        @Override
+        public boolean tryOnNext(long t) {
+            if (done) {
+                return false;
+            }
+            long v;
+            try {
+                v = mapper.apply(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return false;
+            }
+            actual.onNext(v);
+            return true;
+        }
+    }
+
+    static final class MapConditionalSubscriber extends BasicLongSubscriber<LongConditionalSubscriber> {
+
+        final LongUnaryOperator mapper;
+
+        MapConditionalSubscriber(LongConditionalSubscriber actual, LongUnaryOperator mapper) {
+            super(actual);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryOnNext(long t) {
+            if (done) {
+                return false;
+            }
+            long v;
+            try {
+                v = mapper.apply(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return false;
+            }
+            return actual.tryOnNext(v);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+/*
+ * The code was inspired by the similarly named JCTools class:
+ * https://github.com/JCTools/JCTools/blob/master/jctools-core/src/main/java/org/jctools/queues/atomic
+ */
+
+package io.reactivex.internal.queue;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import io.reactivex.annotations.Nullable;
+import io.reactivex.internal.fuseable.SimpleBulkQueue;
+
+/**
+ * A Multi-Producer-Single-Consumer unbounded queue made of linked fixed-size array chunks.
+ * <p>
+ * The producers claim a slot of the current chunk by an atomic increment of its index and then store
+ * their element into it; the producer finding the chunk full links a new one. Unlike
+ * {@link MpscLinkedQueue}, which allocates a node per element, this queue allocates one chunk per
+ * chunk size elements.
+ * <p>
+ * A {@link #fill(SimpleBulkQueue.BulkSupplier, int)} claims the slots of a chunk with a single atomic
+ * addition, the supplier must therefore neither throw nor return null as the consumer would wait
+ * for the claimed slots forever.
+ *
+ * @param <T> the contained value type
+ */
+public final class MpscLinkedArrayQueue<T> implements SimpleBulkQueue<T> {
+
+    final int chunkSize;
+
+    final AtomicReference<Chunk<T>> producerChunk;
+
+    /** The chunk being consumed, accessed by the consumer only. */
+    Chunk<T> consumerChunk;
+
+    /** The index of the next element to poll in the consumerChunk, accessed by the consumer only. */
+    int consumerIndex;
+
+    public MpscLinkedArrayQueue(int chunkSize) {
+        this.chunkSize = Math.max(2, chunkSize);
+        Chunk<T> c = new Chunk<T>(this.chunkSize);
+        this.consumerChunk = c;
+        this.producerChunk = new AtomicReference<Chunk<T>>(c);
+    }
+
+    @Override
+    public boolean offer(T e) {
+        if (null == e) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        final int size = chunkSize;
+        Chunk<T> c = producerChunk.get();
+        for (;;) {
+            if (c.index < size) {
+                int i = Chunk.INDEX.getAndIncrement(c);
+                if (i < size) {
+                    c.lazySet(i, e); // StoreStore
+                    return true;
+                }
+            }
+            Chunk<T> n = c.next;
+            if (n == null) {
+                n = new Chunk<T>(size);
+                if (!Chunk.NEXT.compareAndSet(c, null, n)) {
+                    n = c.next;
+                }
+            }
+            producerChunk.compareAndSet(c, n);
+            c = n;
+        }
+    }
+
+    @Override
+    public boolean offer(T v1, T v2) {
+        offer(v1);
+        offer(v2);
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public T poll() {
+        Chunk<T> c = consumerChunk;
+        int i = consumerIndex;
+        if (i == chunkSize) {
+            Chunk<T> n = c.next;
+            if (n == null) {
+                return null;
+            }
+            // the consumed chunk becomes garbage
+            c = n;
+            i = 0;
+            consumerChunk = n;
+        }
+        T e = c.get(i);
+        if (e == null) {
+            if (c.index <= i) {
+                consumerIndex = i;
+                return null;
+            }
+            // the slot has been claimed, spin until the producer stores the element
+            while ((e = c.get(i)) == null) { } // NOPMD
+        }
+        c.lazySet(i, null);
+        consumerIndex = i + 1;
+        return e;
+    }
+
+    @Override
+    public int drain(BulkConsumer<? super T> consumer, int limit) {
+        final int size = chunkSize;
+        Chunk<T> c = consumerChunk;
+        int i = consumerIndex;
+        int n = 0;
+        try {
+            while (n < limit) {
+                if (i == size) {
+                    Chunk<T> next = c.next;
+                    if (next == null) {
+                        break;
+                    }
+                    c = next;
+                    i = 0;
+                    consumerChunk = next;
+                }
+                T e = c.get(i);
+                if (e == null) {
+                    if (c.index <= i) {
+                        break;
+                    }
+                    // the slot has been claimed, spin until the producer stores the element
+                    while ((e = c.get(i)) == null) { } // NOPMD
+                }
+                c.lazySet(i, null);
+                i++;
+                n++;
+                consumer.accept(e);
+            }
+        } finally {
+            consumerIndex = i;
+        }
+        return n;
+    }
+
+    @Override
+    public int fill(BulkSupplier<? extends T> supplier, int limit) {
+        final int size = chunkSize;
+        Chunk<T> c = producerChunk.get();
+        int n = 0;
+        while (n < limit) {
+            if (c.index < size) {
+                // claim at most a chunk so the index can't overflow
+                int k = Math.min(limit - n, size);
+                int i = Chunk.INDEX.getAndAdd(c, k);
+                if (i < size) {
+                    int end = Math.min(size, i + k);
+                    for (int j = i; j < end; j++) {
+                        c.lazySet(j, supplier.get()); // StoreStore
+                    }
+                    n += end - i;
+                    continue;
+                }
+            }
+            Chunk<T> next = c.next;
+            if (next == null) {
+                next = new Chunk<T>(size);
+                if (!Chunk.NEXT.compareAndSet(c, null, next)) {
+                    next = c.next;
+                }
+            }
+            producerChunk.compareAndSet(c, next);
+            c = next;
+        }
+        return n;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        Chunk<T> c = consumerChunk;
+        int i = consumerIndex;
+        if (i == chunkSize) {
+            c = c.next;
+            if (c == null) {
+                return true;
+            }
+            i = 0;
+        }
+        return c.index <= i;
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null || !isEmpty()) { } // NOPMD
+    }
+
+    static final class Chunk<T> extends AtomicReferenceArray<T> {
+
+        private static final long serialVersionUID = -3606394856543437652L;
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<Chunk> INDEX =
+                AtomicIntegerFieldUpdater.newUpdater(Chunk.class, "index");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<Chunk, Chunk> NEXT =
+                AtomicReferenceFieldUpdater.newUpdater(Chunk.class, Chunk.class, "next");
+
+        /** The number of claims of the slots, may exceed the length by the number of racing producers. */
+        volatile int index;
+
+        volatile Chunk<T> next;
+
+        Chunk(int size) {
+            super(size);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package io.reactivex.internal.queue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.annotations.Nullable;
+
+/**
+ * A single-producer single-consumer unbounded queue of byte arrays which stores the bytes outside of the
+ * Java heap: in direct ByteBuffer segments up to a byte budget and in segments of a memory-mapped temporary
+ * file beyond it.
+ * <p>
+ * Each array is written as its length followed by its bytes; a length of -1 or less than 4 remaining bytes
+ * mark the end of a segment. Segments left by the consumer are handed back to the producer for reuse, so the
+ * queue allocates only while its backlog grows.
+ * <p>
+ * Call {@link #dispose()} once the queue is no longer used to close and delete the temporary file.
+ * The mapped segments themselves are released when they get garbage collected.
+ */
+public final class OffHeapByteQueue {
+
+    final int segmentSize;
+
+    final long maxOffHeapBytes;
+
+    final File directory;
+
+    /** The number of arrays offered. */
+    final AtomicLong producerIndex;
+
+    /** The number of arrays polled. */
+    final AtomicLong consumerIndex;
+
+    /** The segments the consumer has finished with, reused by the producer. */
+    final SpscLinkedArrayQueue<Segment> released;
+
+    /** The segment being written, accessed by the producer only. */
+    Segment producerSegment;
+
+    /** The bytes of the direct segments in use or waiting for reuse. */
+    final AtomicLong offHeapBytes;
+
+    /** The segment being read, accessed by the consumer only except for the first segment. */
+    Segment consumerSegment;
+
+    /** The temporary file the spilled segments are mapped from, guarded by this. */
+    RandomAccessFile file;
+
+    /** The path of the temporary file if it couldn't be deleted while open, guarded by this. */
+    File path;
+
+    /** The mapped length of the temporary file, guarded by this. */
+    long fileBytes;
+
+    /** Set once the queue has been disposed, guarded by this. */
+    boolean disposed;
+
+    /**
+     * Constructs an empty queue.
+     * @param segmentSize the size of a segment in bytes, at least 8
+     * @param maxOffHeapBytes the number of bytes to allocate as direct buffers before spilling to a file
+     * @param directory the directory of the temporary file, null for the default temporary directory
+     */
+    public OffHeapByteQueue(int segmentSize, long maxOffHeapBytes, @Nullable File directory) {
+        this.segmentSize = Math.max(8, segmentSize);
+        this.maxOffHeapBytes = maxOffHeapBytes;
+        this.directory = directory;
+        this.producerIndex = new AtomicLong();
+        this.consumerIndex = new AtomicLong();
+        this.offHeapBytes = new AtomicLong();
+        this.released = new SpscLinkedArrayQueue<Segment>(16);
+    }
+
+    /**
+     * Appends the bytes to the queue; call from a single producer thread.
+     * @param bytes the bytes to append, not null
+     * @throws IOException if a new segment couldn't be mapped from the temporary file
+     */
+    public void offer(byte[] bytes) throws IOException {
+        int n = bytes.length;
+        Segment s = producerSegment;
+        ByteBuffer w;
+        if (s == null) {
+            s = allocate(n + 4);
+            producerSegment = s;
+            consumerSegment = s;
+            w = s.writer;
+        } else {
+            w = s.writer;
+            if (w.remaining() < n + 4) {
+                if (w.remaining() >= 4) {
+                    w.putInt(-1);
+                }
+                Segment next = allocate(n + 4);
+                s.next = next;
+                producerSegment = next;
+                w = next.writer;
+            }
+        }
+        w.putInt(n);
+        w.put(bytes);
+        producerIndex.lazySet(producerIndex.get() + 1); // ordered store -> the bytes are visible to poll()
+    }
+
+    /**
+     * Removes and returns the oldest bytes in the queue; call from a single consumer thread.
+     * @return the bytes or null if the queue is empty
+     */
+    @Nullable
+    public byte[] poll() {
+        long index = consumerIndex.get();
+        if (index == producerIndex.get()) {
+            return null;
+        }
+        // the producerIndex read above makes the first segment, set by the producer, visible
+        Segment s = consumerSegment;
+        ByteBuffer r = s.reader;
+        int n = r.remaining() >= 4 ? r.getInt() : -1;
+        if (n < 0) {
+            Segment next = s.next;
+            release(s);
+            s = next;
+            consumerSegment = next;
+            r = next.reader;
+            n = r.getInt();
+        }
+        byte[] bytes = new byte[n];
+        r.get(bytes);
+        consumerIndex.lazySet(index + 1);
+        return bytes;
+    }
+
+    /**
+     * Returns true if the queue is empty.
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty() {
+        return producerIndex.get() == consumerIndex.get();
+    }
+
+    /**
+     * Removes all arrays from the queue; call from the consumer thread.
+     */
+    public void clear() {
+        while (poll() != null || !isEmpty()) { } // NOPMD
+    }
+
+    /**
+     * Closes and deletes the temporary file; offers after this fail with an IOException.
+     * Can be called from any thread, repeatedly.
+     */
+    public void dispose() {
+        RandomAccessFile f;
+        File p;
+        synchronized (this) {
+            if (disposed) {
+                return;
+            }
+            disposed = true;
+            f = file;
+            p = path;
+            file = null;
+            path = null;
+        }
+        if (f != null) {
+            try {
+                f.close();
+            } catch (IOException ex) {
+                // the file is deleted anyway
+            }
+            if (p != null && !p.delete()) {
+                p.deleteOnExit();
+            }
+        }
+    }
+
+    void release(Segment s) {
+        if (s.capacity == segmentSize) {
+            s.reader.clear();
+            released.offer(s);
+        } else
+        if (s.direct) {
+            // oversized segments are not reused, give their bytes back to the budget
+            offHeapBytes.addAndGet(-s.capacity);
+        }
+    }
+
+    /**
+     * Returns a segment with room for at least the given number of bytes, reusing a released
+     * one if possible.
+     */
+    Segment allocate(int bytes) throws IOException {
+        if (bytes <= segmentSize) {
+            Segment s = released.poll();
+            if (s != null) {
+                s.writer.clear();
+                s.next = null;
+                return s;
+            }
+        }
+        int size = Math.max(bytes, segmentSize);
+        long used = offHeapBytes.get();
+        if (used + size <= maxOffHeapBytes) {
+            offHeapBytes.addAndGet(size);
+            return new Segment(ByteBuffer.allocateDirect(size), true);
+        }
+        return new Segment(map(size), false);
+    }
+
+    synchronized ByteBuffer map(int size) throws IOException {
+        if (disposed) {
+            throw new IOException("The queue has been disposed");
+        }
+        RandomAccessFile f = file;
+        if (f == null) {
+            File p = File.createTempFile("rx2-buffer-", ".spill", directory);
+            f = new RandomAccessFile(p, "rw");
+            file = f;
+            // unlinking an open file works on Unix only, delete it in dispose() elsewhere
+            if (!p.delete()) {
+                path = p;
+            }
+        }
+        long position = fileBytes;
+        fileBytes = position + size;
+        return f.getChannel().map(FileChannel.MapMode.READ_WRITE, position, size);
+    }
+
+    /**
+     * Returns the number of bytes allocated as direct buffers.
+     * @return the number of bytes allocated as direct buffers
+     */
+    public long offHeapBytes() {
+        return offHeapBytes.get();
+    }
+
+    /**
+     * Returns the number of bytes mapped from the temporary file.
+     * @return the number of bytes mapped from the temporary file
+     */
+    public synchronized long spilledBytes() {
+        return fileBytes;
+    }
+
+    static final class Segment {
+        final int capacity;
+
+        /** The view of the producer. */
+        final ByteBuffer writer;
+
+        /** The view of the consumer. */
+        final ByteBuffer reader;
+
+        /** True for a direct buffer, false for a mapped one. */
+        final boolean direct;
+
+        volatile Segment next;
+
+        Segment(ByteBuffer buffer, boolean direct) {
+            this.capacity = buffer.capacity();
+            this.writer = buffer.duplicate();
+            this.reader = buffer.duplicate();
+            this.direct = direct;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+/*
+ * The code was inspired by the similarly named JCTools class:
+ * https://github.com/JCTools/JCTools/blob/master/jctools-core/src/main/java/org/jctools/queues/atomic
+ */
+
+package io.reactivex.internal.queue;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.reactivex.annotations.Nullable;
+import io.reactivex.internal.fuseable.SimpleBulkQueue;
+import io.reactivex.internal.util.Pow2;
+
+/**
+ * A Single-Producer-Single-Consumer queue backed by a pre-allocated buffer, using the algorithm of
+ * {@link SpscArrayQueue} with the producer and consumer indexes padded onto cache lines of their own.
+ * <p>
+ * The padding avoids the false sharing between a producer and a consumer running on different cores
+ * at the cost of about 400 bytes per instance, hence use it for queues crossing threads.
+ *
+ * @param <E> the element type of the queue
+ */
+public final class PaddedSpscArrayQueue<E> extends PaddedSpscArrayQueuePad2<E> implements SimpleBulkQueue<E> {
+
+    public PaddedSpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (null == e) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        // local load of field to avoid repeated loads after volatile reads
+        final AtomicReferenceArray<E> buffer = this.buffer;
+        final int mask = this.mask;
+        final long index = producerIndex;
+        final int offset = calcElementOffset(index, mask);
+        if (index >= producerLookAhead) {
+            int step = lookAheadStep;
+            if (null == buffer.get(calcElementOffset(index + step, mask))) { // LoadLoad
+                producerLookAhead = index + step;
+            } else if (null != buffer.get(offset)) {
+                return false;
+            }
+        }
+        buffer.lazySet(offset, e); // StoreStore
+        PRODUCER_INDEX.lazySet(this, index + 1); // ordered store -> atomic and ordered for size()
+        return true;
+    }
+
+    @Override
+    public boolean offer(E v1, E v2) {
+        return offer(v1) && offer(v2);
+    }
+
+    @Nullable
+    @Override
+    public E poll() {
+        final AtomicReferenceArray<E> buffer = this.buffer;
+        final long index = consumerIndex;
+        final int offset = calcElementOffset(index, mask);
+        final E e = buffer.get(offset); // LoadLoad
+        if (null == e) {
+            return null;
+        }
+        CONSUMER_INDEX.lazySet(this, index + 1); // ordered store -> atomic and ordered for size()
+        buffer.lazySet(offset, null); // StoreStore
+        return e;
+    }
+
+    @Override
+    public int drain(BulkConsumer<? super E> consumer, int limit) {
+        final AtomicReferenceArray<E> buffer = this.buffer;
+        final int mask = this.mask;
+        final long index = consumerIndex;
+        int n = 0;
+        try {
+            while (n < limit) {
+                final int offset = calcElementOffset(index + n, mask);
+                final E e = buffer.get(offset); // LoadLoad
+                if (null == e) {
+                    break;
+                }
+                buffer.lazySet(offset, null); // StoreStore
+                n++;
+                consumer.accept(e);
+            }
+        } finally {
+            if (n != 0) {
+                CONSUMER_INDEX.lazySet(this, index + n); // one ordered store for the whole batch
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int fill(BulkSupplier<? extends E> supplier, int limit) {
+        final AtomicReferenceArray<E> buffer = this.buffer;
+        final int mask = this.mask;
+        final long index = producerIndex;
+        int n = 0;
+        try {
+            while (n < limit) {
+                final long i = index + n;
+                final int offset = calcElementOffset(i, mask);
+                if (i >= producerLookAhead) {
+                    int step = lookAheadStep;
+                    if (null == buffer.get(calcElementOffset(i + step, mask))) { // LoadLoad
+                        producerLookAhead = i + step;
+                    } else if (null != buffer.get(offset)) {
+                        break;
+                    }
+                }
+                E e = supplier.get();
+                if (null == e) {
+                    throw new NullPointerException("The supplier returned a null value");
+                }
+                buffer.lazySet(offset, e); // StoreStore
+                n++;
+            }
+        } finally {
+            if (n != 0) {
+                PRODUCER_INDEX.lazySet(this, index + n); // one ordered store for the whole batch
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return producerIndex == consumerIndex;
+    }
+
+    @Override
+    public void clear() {
+        // we have to test isEmpty because of the weaker poll() guarantee
+        while (poll() != null || !isEmpty()) { } // NOPMD
+    }
+
+    static int calcElementOffset(long index, int mask) {
+        return (int)index & mask;
+    }
+}
+
+/** The fields read by both sides but never written after construction. */
+class PaddedSpscArrayQueueFields<E> {
+    static final int MAX_LOOK_AHEAD_STEP = Integer.getInteger("jctools.spsc.max.lookahead.step", 4096);
+
+    final AtomicReferenceArray<E> buffer;
+    final int mask;
+    final int lookAheadStep;
+
+    PaddedSpscArrayQueueFields(int capacity) {
+        this.buffer = new AtomicReferenceArray<E>(Pow2.roundToPowerOfTwo(capacity));
+        this.mask = buffer.length() - 1;
+        this.lookAheadStep = Math.min(capacity / 4, MAX_LOOK_AHEAD_STEP);
+    }
+}
+
+/** Pads away the producer fields from the header and the read-only fields. */
+class PaddedSpscArrayQueuePad0<E> extends PaddedSpscArrayQueueFields<E> {
+    volatile long p1, p2, p3, p4, p5, p6, p7;
+    volatile long p8, p9, p10, p11, p12, p13, p14, p15;
+
+    PaddedSpscArrayQueuePad0(int capacity) {
+        super(capacity);
+    }
+}
+
+/** The producer index and its look-ahead limit. */
+class PaddedSpscArrayQueueProducerFields<E> extends PaddedSpscArrayQueuePad0<E> {
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<PaddedSpscArrayQueueProducerFields> PRODUCER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(PaddedSpscArrayQueueProducerFields.class, "producerIndex");
+
+    volatile long producerIndex;
+    long producerLookAhead;
+
+    PaddedSpscArrayQueueProducerFields(int capacity) {
+        super(capacity);
+    }
+}
+
+/** Pads away the producer fields from the consumer fields. */
+class PaddedSpscArrayQueuePad1<E> extends PaddedSpscArrayQueueProducerFields<E> {
+    volatile long p1a, p2a, p3a, p4a, p5a, p6a, p7a;
+    volatile long p8a, p9a, p10a, p11a, p12a, p13a, p14a, p15a;
+
+    PaddedSpscArrayQueuePad1(int capacity) {
+        super(capacity);
+    }
+}
+
+/** The consumer index. */
+class PaddedSpscArrayQueueConsumerFields<E> extends PaddedSpscArrayQueuePad1<E> {
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<PaddedSpscArrayQueueConsumerFields> CONSUMER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(PaddedSpscArrayQueueConsumerFields.class, "consumerIndex");
+
+    volatile long consumerIndex;
+
+    PaddedSpscArrayQueueConsumerFields(int capacity) {
+        super(capacity);
+    }
+}
+
+/** Pads away the consumer fields from the next object on the heap. */
+class PaddedSpscArrayQueuePad2<E> extends PaddedSpscArrayQueueConsumerFields<E> {
+    volatile long q1, q2, q3, q4, q5, q6, q7;
+    volatile long q8, q9, q10, q11, q12, q13, q14, q15;
+
+    PaddedSpscArrayQueuePad2(int capacity) {
+        super(capacity);
+    }
+}
@@ -0,0 +1,349 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+/*
+ * The code was inspired by the similarly named JCTools class:
+ * https://github.com/JCTools/JCTools/blob/master/jctools-core/src/main/java/org/jctools/queues/atomic
+ */
+
+package io.reactivex.internal.queue;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.reactivex.annotations.Nullable;
+import io.reactivex.internal.fuseable.SimpleBulkQueue;
+import io.reactivex.internal.util.Pow2;
+
+/**
+ * A single-producer single-consumer array-backed queue which can allocate new arrays in case the consumer is slower
+ * than the producer, using the algorithm of {@link SpscLinkedArrayQueue} with the producer and consumer
+ * fields padded onto cache lines of their own.
+ * <p>
+ * The padding avoids the false sharing between a producer and a consumer running on different cores
+ * at the cost of about 400 bytes per instance, hence use it for queues crossing threads.
+ * @param <T> the contained value type
+ */
+public final class PaddedSpscLinkedArrayQueue<T> extends PaddedSpscLinkedArrayQueuePad2 implements SimpleBulkQueue<T> {
+
+    private static final Object HAS_NEXT = new Object();
+
+    public PaddedSpscLinkedArrayQueue(final int bufferSize) {
+        int p2capacity = Pow2.roundToPowerOfTwo(Math.max(8, bufferSize));
+        int mask = p2capacity - 1;
+        AtomicReferenceArray<Object> buffer = new AtomicReferenceArray<Object>(p2capacity + 1);
+        producerBuffer = buffer;
+        producerMask = mask;
+        producerLookAheadStep = Math.min(p2capacity / 4, MAX_LOOK_AHEAD_STEP);
+        consumerBuffer = buffer;
+        consumerMask = mask;
+        producerLookAhead = mask - 1; // we know it's all empty to start with
+        PRODUCER_INDEX.lazySet(this, 0L);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation is correct for single producer thread use only.
+     */
+    @Override
+    public boolean offer(final T e) {
+        if (null == e) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        // local load of field to avoid repeated loads after volatile reads
+        final AtomicReferenceArray<Object> buffer = producerBuffer;
+        final long index = producerIndex;
+        final int mask = producerMask;
+        final int offset = calcWrappedOffset(index, mask);
+        if (index < producerLookAhead) {
+            return writeToQueue(buffer, e, index, offset);
+        } else {
+            final int lookAheadStep = producerLookAheadStep;
+            // go around the buffer or resize if full (unless we hit max capacity)
+            int lookAheadElementOffset = calcWrappedOffset(index + lookAheadStep, mask);
+            if (null == buffer.get(lookAheadElementOffset)) { // LoadLoad
+                producerLookAhead = index + lookAheadStep - 1; // joy, there's plenty of room
+                return writeToQueue(buffer, e, index, offset);
+            } else if (null == buffer.get(calcWrappedOffset(index + 1, mask))) { // buffer is not full
+                return writeToQueue(buffer, e, index, offset);
+            } else {
+                resize(buffer, index, offset, e, mask); // add a buffer and link old to new
+                return true;
+            }
+        }
+    }
+
+    private boolean writeToQueue(final AtomicReferenceArray<Object> buffer, final T e, final long index, final int offset) {
+        buffer.lazySet(offset, e); // StoreStore
+        PRODUCER_INDEX.lazySet(this, index + 1); // this ensures atomic write of long on 32bit platforms
+        return true;
+    }
+
+    private void resize(final AtomicReferenceArray<Object> oldBuffer, final long currIndex, final int offset, final T e,
+            final long mask) {
+        final int capacity = oldBuffer.length();
+        final AtomicReferenceArray<Object> newBuffer = new AtomicReferenceArray<Object>(capacity);
+        producerBuffer = newBuffer;
+        producerLookAhead = currIndex + mask - 1;
+        newBuffer.lazySet(offset, e); // StoreStore
+        oldBuffer.lazySet(capacity - 1, newBuffer);
+        oldBuffer.lazySet(offset, HAS_NEXT); // new buffer is visible after element is inserted
+        PRODUCER_INDEX.lazySet(this, currIndex + 1); // this ensures correctness on 32bit platforms
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AtomicReferenceArray<Object> lvNextBufferAndUnlink(AtomicReferenceArray<Object> curr, int nextIndex) {
+        AtomicReferenceArray<Object> nextBuffer = (AtomicReferenceArray<Object>)curr.get(nextIndex);
+        curr.lazySet(nextIndex, null); // Avoid GC nepotism
+        return nextBuffer;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation is correct for single consumer thread use only.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    @Override
+    public T poll() {
+        // local load of field to avoid repeated loads after volatile reads
+        final AtomicReferenceArray<Object> buffer = consumerBuffer;
+        final long index = consumerIndex;
+        final int mask = consumerMask;
+        final int offset = calcWrappedOffset(index, mask);
+        final Object e = buffer.get(offset); // LoadLoad
+        boolean isNextBuffer = e == HAS_NEXT;
+        if (null != e && !isNextBuffer) {
+            buffer.lazySet(offset, null); // StoreStore
+            CONSUMER_INDEX.lazySet(this, index + 1); // this ensures correctness on 32bit platforms
+            return (T) e;
+        } else if (isNextBuffer) {
+            return newBufferPoll(lvNextBufferAndUnlink(buffer, mask + 1), index, mask);
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T newBufferPoll(AtomicReferenceArray<Object> nextBuffer, final long index, final int mask) {
+        consumerBuffer = nextBuffer;
+        final int offsetInNew = calcWrappedOffset(index, mask);
+        final T n = (T) nextBuffer.get(offsetInNew); // LoadLoad
+        if (null != n) {
+            nextBuffer.lazySet(offsetInNew, null); // StoreStore
+            CONSUMER_INDEX.lazySet(this, index + 1); // this ensures correctness on 32bit platforms
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation is correct for single consumer thread use only.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public int drain(BulkConsumer<? super T> consumer, int limit) {
+        AtomicReferenceArray<Object> buffer = consumerBuffer;
+        final long index = consumerIndex;
+        final int mask = consumerMask;
+        int n = 0;
+        try {
+            while (n < limit) {
+                final int offset = calcWrappedOffset(index + n, mask);
+                Object e = buffer.get(offset); // LoadLoad
+                if (e == HAS_NEXT) {
+                    buffer = lvNextBufferAndUnlink(buffer, mask + 1);
+                    consumerBuffer = buffer;
+                    e = buffer.get(offset); // LoadLoad
+                }
+                if (null == e) {
+                    break;
+                }
+                buffer.lazySet(offset, null); // StoreStore
+                n++;
+                consumer.accept((T) e);
+            }
+        } finally {
+            if (n != 0) {
+                CONSUMER_INDEX.lazySet(this, index + n); // one ordered store for the whole batch
+            }
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation is correct for single producer thread use only.
+     * The elements are written in batches up to the look-ahead limit, a new array is linked
+     * through {@link #offer(Object)}.
+     */
+    @Override
+    public int fill(BulkSupplier<? extends T> supplier, int limit) {
+        int n = 0;
+        while (n < limit) {
+            final long index = producerIndex;
+            final long room = producerLookAhead - index;
+            if (room > 0L) {
+                final AtomicReferenceArray<Object> buffer = producerBuffer;
+                final int mask = producerMask;
+                final int k = (int)Math.min(room, limit - n);
+                int i = 0;
+                try {
+                    for (; i < k; i++) {
+                        T e = supplier.get();
+                        if (null == e) {
+                            throw new NullPointerException("The supplier returned a null value");
+                        }
+                        buffer.lazySet(calcWrappedOffset(index + i, mask), e); // StoreStore
+                    }
+                } finally {
+                    if (i != 0) {
+                        PRODUCER_INDEX.lazySet(this, index + i); // one ordered store for the whole batch
+                    }
+                }
+                n += k;
+            } else {
+                offer(supplier.get());
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        final AtomicReferenceArray<Object> buffer = consumerBuffer;
+        final long index = consumerIndex;
+        final int mask = consumerMask;
+        final int offset = calcWrappedOffset(index, mask);
+        final Object e = buffer.get(offset); // LoadLoad
+        if (e == HAS_NEXT) {
+            AtomicReferenceArray<Object> nextBuffer = lvNextBufferAndUnlink(buffer, mask + 1);
+            consumerBuffer = nextBuffer;
+            return (T) nextBuffer.get(offset); // LoadLoad
+        }
+
+        return (T) e;
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null || !isEmpty()) { } // NOPMD
+    }
+
+    public int size() {
+        // the consumer index is read BEFORE the producer index so the size is over estimated
+        long after = consumerIndex;
+        while (true) {
+            final long before = after;
+            final long currentProducerIndex = producerIndex;
+            after = consumerIndex;
+            if (before == after) {
+                return (int) (currentProducerIndex - after);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return producerIndex == consumerIndex;
+    }
+
+    private static int calcWrappedOffset(long index, int mask) {
+        return (int)index & mask;
+    }
+
+    /**
+     * Offer two elements at the same time.
+     * <p>Don't use the regular offer() with this at all!
+     * @param first the first value, not null
+     * @param second the second value, not null
+     * @return true if the queue accepted the two new values
+     */
+    @Override
+    public boolean offer(T first, T second) {
+        final AtomicReferenceArray<Object> buffer = producerBuffer;
+        final long p = producerIndex;
+        final int m = producerMask;
+
+        int pi = calcWrappedOffset(p + 2, m);
+
+        if (null == buffer.get(pi)) {
+            pi = calcWrappedOffset(p, m);
+            buffer.lazySet(pi + 1, second);
+            buffer.lazySet(pi, first);
+            PRODUCER_INDEX.lazySet(this, p + 2);
+        } else {
+            final int capacity = buffer.length();
+            final AtomicReferenceArray<Object> newBuffer = new AtomicReferenceArray<Object>(capacity);
+            producerBuffer = newBuffer;
+
+            pi = calcWrappedOffset(p, m);
+            newBuffer.lazySet(pi + 1, second); // StoreStore
+            newBuffer.lazySet(pi, first);
+            buffer.lazySet(capacity - 1, newBuffer);
+
+            buffer.lazySet(pi, HAS_NEXT); // new buffer is visible after element is
+
+            PRODUCER_INDEX.lazySet(this, p + 2); // this ensures correctness on 32bit platforms
+        }
+
+        return true;
+    }
+}
+
+/** Pads away the producer fields from the object header. */
+class PaddedSpscLinkedArrayQueuePad0 {
+    volatile long p1, p2, p3, p4, p5, p6, p7;
+    volatile long p8, p9, p10, p11, p12, p13, p14, p15;
+}
+
+/** The fields accessed by the producer only, except the producerIndex. */
+class PaddedSpscLinkedArrayQueueProducerFields extends PaddedSpscLinkedArrayQueuePad0 {
+    static final int MAX_LOOK_AHEAD_STEP = Integer.getInteger("jctools.spsc.max.lookahead.step", 4096);
+
+    static final AtomicLongFieldUpdater<PaddedSpscLinkedArrayQueueProducerFields> PRODUCER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(PaddedSpscLinkedArrayQueueProducerFields.class, "producerIndex");
+
+    volatile long producerIndex;
+    int producerLookAheadStep;
+    long producerLookAhead;
+    int producerMask;
+    AtomicReferenceArray<Object> producerBuffer;
+}
+
+/** Pads away the producer fields from the consumer fields. */
+class PaddedSpscLinkedArrayQueuePad1 extends PaddedSpscLinkedArrayQueueProducerFields {
+    volatile long p1a, p2a, p3a, p4a, p5a, p6a, p7a;
+    volatile long p8a, p9a, p10a, p11a, p12a, p13a, p14a, p15a;
+}
+
+/** The fields accessed by the consumer only, except the consumerIndex. */
+class PaddedSpscLinkedArrayQueueConsumerFields extends PaddedSpscLinkedArrayQueuePad1 {
+    static final AtomicLongFieldUpdater<PaddedSpscLinkedArrayQueueConsumerFields> CONSUMER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(PaddedSpscLinkedArrayQueueConsumerFields.class, "consumerIndex");
+
+    volatile long consumerIndex;
+    int consumerMask;
+    AtomicReferenceArray<Object> consumerBuffer;
+}
+
+/** Pads away the consumer fields from the next object on the heap. */
+class PaddedSpscLinkedArrayQueuePad2 extends PaddedSpscLinkedArrayQueueConsumerFields {
+    volatile long q1, q2, q3, q4, q5, q6, q7;
+    volatile long q8, q9, q10, q11, q12, q13, q14, q15;
+}
@@ -19,7 +19,7 @@
 package io.reactivex.internal.queue;
 
 import io.reactivex.annotations.Nullable;
-import io.reactivex.internal.fuseable.SimplePlainQueue;
+import io.reactivex.internal.fuseable.SimpleBulkQueue;
 import io.reactivex.internal.util.Pow2;
 
 /**
@@ -36,7 +36,7 @@ import io.reactivex.internal.util.Pow2;
  *
  * @param <E> the element type of the queue
  */
-public final class SpscArrayQueue<E> extends AtomicReferenceArray<E> implements SimplePlainQueue<E> {
+public final class SpscArrayQueue<E> extends AtomicReferenceArray<E> implements SimpleBulkQueue<E> {
     private static final long serialVersionUID = -1296597691183856449L;
     private static final Integer MAX_LOOK_AHEAD_STEP = Integer.getInteger("jctools.spsc.max.lookahead.step", 4096);
     final int mask;
@@ -96,6 +96,62 @@ public final class SpscArrayQueue<E> extends AtomicReferenceArray<E> implements
         return e;
     }
 
+    @Override
+    public int drain(BulkConsumer<? super E> consumer, int limit) {
+        final int mask = this.mask;
+        final long index = consumerIndex.get();
+        int n = 0;
+        try {
+            while (n < limit) {
+                final int offset = calcElementOffset(index + n, mask);
+                final E e = lvElement(offset); // LoadLoad
+                if (null == e) {
+                    break;
+                }
+                soElement(offset, null); // StoreStore
+                n++;
+                consumer.accept(e);
+            }
+        } finally {
+            if (n != 0) {
+                soConsumerIndex(index + n); // one ordered store for the whole batch
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int fill(BulkSupplier<? extends E> supplier, int limit) {
+        final int mask = this.mask;
+        final long index = producerIndex.get();
+        int n = 0;
+        try {
+            while (n < limit) {
+                final long i = index + n;
+                final int offset = calcElementOffset(i, mask);
+                if (i >= producerLookAhead) {
+                    int step = lookAheadStep;
+                    if (null == lvElement(calcElementOffset(i + step, mask))) { // LoadLoad
+                        producerLookAhead = i + step;
+                    } else if (null != lvElement(offset)) {
+                        break;
+                    }
+                }
+                E e = supplier.get();
+                if (null == e) {
+                    throw new NullPointerException("The supplier returned a null value");
+                }
+                soElement(offset, e); // StoreStore
+                n++;
+            }
+        } finally {
+            if (n != 0) {
+                soProducerIndex(index + n); // one ordered store for the whole batch
+            }
+        }
+        return n;
+    }
+
     @Override
     public boolean isEmpty() {
         return producerIndex.get() == consumerIndex.get();
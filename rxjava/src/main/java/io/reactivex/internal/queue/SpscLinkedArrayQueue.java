@@ -19,7 +19,7 @@
 package io.reactivex.internal.queue;
 
 import io.reactivex.annotations.Nullable;
-import io.reactivex.internal.fuseable.SimplePlainQueue;
+import io.reactivex.internal.fuseable.SimpleBulkQueue;
 import io.reactivex.internal.util.Pow2;
 
 /**
@@ -27,7 +27,7 @@ import io.reactivex.internal.util.Pow2;
  * than the producer.
  * @param <T> the contained value type
  */
-public final class SpscLinkedArrayQueue<T> implements SimplePlainQueue<T> {
+public final class SpscLinkedArrayQueue<T> implements SimpleBulkQueue<T> {
     static final int MAX_LOOK_AHEAD_STEP = Integer.getInteger("jctools.spsc.max.lookahead.step", 4096);
     final AtomicLong producerIndex = new AtomicLong();
 
@@ -157,6 +157,82 @@ public final class SpscLinkedArrayQueue<T> implements SimplePlainQueue<T> {
         return n;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation is correct for single consumer thread use only.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public int drain(BulkConsumer<? super T> consumer, int limit) {
+        AtomicReferenceArray<Object> buffer = consumerBuffer;
+        final long index = lpConsumerIndex();
+        final int mask = consumerMask;
+        int n = 0;
+        try {
+            while (n < limit) {
+                final int offset = calcWrappedOffset(index + n, mask);
+                Object e = lvElement(buffer, offset); // LoadLoad
+                if (e == HAS_NEXT) {
+                    buffer = lvNextBufferAndUnlink(buffer, mask + 1);
+                    consumerBuffer = buffer;
+                    e = lvElement(buffer, offset); // LoadLoad
+                }
+                if (null == e) {
+                    break;
+                }
+                soElement(buffer, offset, null); // StoreStore
+                n++;
+                consumer.accept((T) e);
+            }
+        } finally {
+            if (n != 0) {
+                soConsumerIndex(index + n); // one ordered store for the whole batch
+            }
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation is correct for single producer thread use only.
+     * The elements are written in batches up to the look-ahead limit, a new array is linked
+     * through {@link #offer(Object)}.
+     */
+    @Override
+    public int fill(BulkSupplier<? extends T> supplier, int limit) {
+        int n = 0;
+        while (n < limit) {
+            final long index = lpProducerIndex();
+            final long room = producerLookAhead - index;
+            if (room > 0L) {
+                final AtomicReferenceArray<Object> buffer = producerBuffer;
+                final int mask = producerMask;
+                final int k = (int)Math.min(room, limit - n);
+                int i = 0;
+                try {
+                    for (; i < k; i++) {
+                        T e = supplier.get();
+                        if (null == e) {
+                            throw new NullPointerException("The supplier returned a null value");
+                        }
+                        soElement(buffer, calcWrappedOffset(index + i, mask), e); // StoreStore
+                    }
+                } finally {
+                    if (i != 0) {
+                        soProducerIndex(index + i); // one ordered store for the whole batch
+                    }
+                }
+                n += k;
+            } else {
+                offer(supplier.get());
+                n++;
+            }
+        }
+        return n;
+    }
+
     @SuppressWarnings("unchecked")
     public T peek() {
         final AtomicReferenceArray<Object> buffer = consumerBuffer;
@@ -48,6 +48,7 @@ implements Disposable {
         Future<?> f = get();
         if (f != FINISHED && f != DISPOSED) {
             if (compareAndSet(f, DISPOSED)) {
+                SchedulerMetricsRecorder.cancel(runnable);
                 if (f != null) {
                     f.cancel(runner != Thread.currentThread());
                 }
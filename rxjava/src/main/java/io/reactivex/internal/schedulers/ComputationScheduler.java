@@ -15,20 +15,28 @@
  */
 package io.reactivex.internal.schedulers;
 
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.reactivex.Scheduler;
 import io.reactivex.annotations.NonNull;
-import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.DisposableContainer;
 import io.reactivex.internal.disposables.EmptyDisposable;
 import io.reactivex.internal.disposables.ListCompositeDisposable;
+import io.reactivex.internal.disposables.StripedCompositeDisposable;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.MeteredScheduler;
+import io.reactivex.plugins.RxJavaPlugins;
 
 /**
  * Holds a fixed pool of worker threads and assigns them
- * to requested Scheduler.Workers in a round-robin fashion.
+ * to requested Scheduler.Workers via a {@link WorkerSelectionPolicy},
+ * round-robin by default.
  */
-public final class ComputationScheduler extends Scheduler {
+public final class ComputationScheduler extends Scheduler implements MeteredScheduler {
     /** This will indicate no pool is active. */
     static final FixedSchedulerPool NONE;
     /** Manages a fixed number of workers. */
@@ -41,17 +49,44 @@ public final class ComputationScheduler extends Scheduler {
     static final String KEY_MAX_THREADS = "rx2.computation-threads";
     /** The maximum number of computation scheduler threads. */
     static final int MAX_THREADS;
+    /**
+     * Key to switching the standard computation scheduler to work-stealing event loops.
+     */
+    static final String KEY_WORK_STEALING = "rx2.computation-work-stealing";
+    /** Indicates the standard computation scheduler should use work-stealing event loops. */
+    public static final boolean WORK_STEALING;
+    /**
+     * Key to switching the standard computation scheduler to a pool of event loops that grows and shrinks with the load.
+     */
+    static final String KEY_ELASTIC = "rx2.computation-elastic";
+    /** Indicates the standard computation scheduler should use an elastic pool of event loops. */
+    public static final boolean ELASTIC;
+    /**
+     * Key to setting the policy that assigns the event loops to workers and direct tasks.
+     * See {@link WorkerSelectionPolicies} for the accepted names.
+     */
+    static final String KEY_SELECTION_POLICY = "rx2.computation-selection";
+    /** The name of the default worker selection policy. */
+    static final String SELECTION_POLICY;
 
     static final PoolWorker SHUTDOWN_WORKER;
 
     final ThreadFactory threadFactory;
+    final WorkerSelectionPolicy selectionPolicy;
     final AtomicReference<FixedSchedulerPool> pool;
+    final SchedulerMetricsRecorder metrics;
     /** The name of the system property for setting the thread priority for this Scheduler. */
     private static final String KEY_COMPUTATION_PRIORITY = "rx2.computation-priority";
 
     static {
         MAX_THREADS = cap(Runtime.getRuntime().availableProcessors(), Integer.getInteger(KEY_MAX_THREADS, 0));
 
+        WORK_STEALING = Boolean.getBoolean(KEY_WORK_STEALING);
+
+        ELASTIC = Boolean.getBoolean(KEY_ELASTIC);
+
+        SELECTION_POLICY = System.getProperty(KEY_SELECTION_POLICY, WorkerSelectionPolicies.ROUND_ROBIN);
+
         SHUTDOWN_WORKER = new PoolWorker(new RxThreadFactory("RxComputationShutdown"));
         SHUTDOWN_WORKER.dispose();
 
@@ -60,7 +95,7 @@ public final class ComputationScheduler extends Scheduler {
 
         THREAD_FACTORY = new RxThreadFactory(THREAD_NAME_PREFIX, priority, true);
 
-        NONE = new FixedSchedulerPool(0, THREAD_FACTORY);
+        NONE = new FixedSchedulerPool(0, THREAD_FACTORY, WorkerSelectionPolicies.roundRobin(), null);
         NONE.shutdown();
     }
 
@@ -72,14 +107,16 @@ public final class ComputationScheduler extends Scheduler {
         final int cores;
 
         final PoolWorker[] eventLoops;
-        long n;
+        final WorkerSelectionPolicy selectionPolicy;
 
-        FixedSchedulerPool(int maxThreads, ThreadFactory threadFactory) {
+        FixedSchedulerPool(int maxThreads, ThreadFactory threadFactory, WorkerSelectionPolicy selectionPolicy,
+                SchedulerMetricsRecorder metrics) {
             // initialize event loops
             this.cores = maxThreads;
+            this.selectionPolicy = selectionPolicy;
             this.eventLoops = new PoolWorker[maxThreads];
             for (int i = 0; i < maxThreads; i++) {
-                this.eventLoops[i] = new PoolWorker(threadFactory);
+                this.eventLoops[i] = new PoolWorker(threadFactory, metrics);
             }
         }
 
@@ -88,8 +125,7 @@ public final class ComputationScheduler extends Scheduler {
             if (c == 0) {
                 return SHUTDOWN_WORKER;
             }
-            // simple round robin, improvements to come
-            return eventLoops[(int)(n++ % c)];
+            return eventLoops[selectionPolicy.select(eventLoops)];
         }
 
         public void shutdown() {
@@ -115,8 +151,22 @@ public final class ComputationScheduler extends Scheduler {
      *                      system properties for configuring new thread creation. Cannot be null.
      */
     public ComputationScheduler(ThreadFactory threadFactory) {
+        this(threadFactory, WorkerSelectionPolicies.fromName(SELECTION_POLICY));
+    }
+
+    /**
+     * Create a scheduler with pool size equal to the available processor
+     * count and using the given worker selection policy.
+     *
+     * @param threadFactory thread factory to use for creating worker threads. Note that this takes precedence over any
+     *                      system properties for configuring new thread creation. Cannot be null.
+     * @param selectionPolicy the policy picking the event loop for new workers and direct tasks. Cannot be null.
+     */
+    public ComputationScheduler(ThreadFactory threadFactory, WorkerSelectionPolicy selectionPolicy) {
         this.threadFactory = threadFactory;
+        this.selectionPolicy = selectionPolicy;
         this.pool = new AtomicReference<FixedSchedulerPool>(NONE);
+        this.metrics = new SchedulerMetricsRecorder();
         start();
     }
 
@@ -140,9 +190,15 @@ public final class ComputationScheduler extends Scheduler {
         return w.schedulePeriodicallyDirect(run, initialDelay, period, unit);
     }
 
+    @NonNull
+    @Override
+    public SchedulerMetricsRecorder metrics() {
+        return metrics;
+    }
+
     @Override
     public void start() {
-        FixedSchedulerPool update = new FixedSchedulerPool(MAX_THREADS, threadFactory);
+        FixedSchedulerPool update = new FixedSchedulerPool(MAX_THREADS, threadFactory, selectionPolicy, metrics);
         if (!pool.compareAndSet(NONE, update)) {
             update.shutdown();
         }
@@ -164,8 +220,8 @@ public final class ComputationScheduler extends Scheduler {
 
 
     static final class EventLoopWorker extends Scheduler.Worker {
-        private final ListCompositeDisposable serial;
-        private final CompositeDisposable timed;
+        private final QueueTrackingContainer queued;
+        private final StripedCompositeDisposable timed;
         private final ListCompositeDisposable both;
         private final PoolWorker poolWorker;
 
@@ -173,11 +229,12 @@ public final class ComputationScheduler extends Scheduler {
 
         EventLoopWorker(PoolWorker poolWorker) {
             this.poolWorker = poolWorker;
-            this.serial = new ListCompositeDisposable();
-            this.timed = new CompositeDisposable();
+            this.queued = new QueueTrackingContainer(new ListCompositeDisposable(), poolWorker.queued);
+            this.timed = new StripedCompositeDisposable();
             this.both = new ListCompositeDisposable();
-            this.both.add(serial);
+            this.both.add(queued);
             this.both.add(timed);
+            this.both.add(new ActiveWorker(poolWorker.workers));
         }
 
         @Override
@@ -200,7 +257,7 @@ public final class ComputationScheduler extends Scheduler {
                 return EmptyDisposable.INSTANCE;
             }
 
-            return poolWorker.scheduleActual(action, 0, TimeUnit.MILLISECONDS, serial);
+            return poolWorker.scheduleActual(action, 0, TimeUnit.MILLISECONDS, queued);
         }
         @NonNull
         @Override
@@ -213,9 +270,198 @@ public final class ComputationScheduler extends Scheduler {
         }
     }
 
-    static final class PoolWorker extends NewThreadWorker {
+    static final class PoolWorker extends NewThreadWorker implements EventLoopLoad {
+        /** The number of non-delayed tasks not yet completed or cancelled. */
+        final AtomicInteger queued;
+        /** The number of EventLoopWorkers assigned to this event loop. */
+        final AtomicInteger workers;
+
         PoolWorker(ThreadFactory threadFactory) {
-            super(threadFactory);
+            this(threadFactory, null);
+        }
+
+        PoolWorker(ThreadFactory threadFactory, SchedulerMetricsRecorder metrics) {
+            super(SchedulerPoolFactory.createEventLoop(threadFactory), metrics);
+            this.queued = new AtomicInteger();
+            this.workers = new AtomicInteger();
+        }
+
+        @Override
+        public int queueSize() {
+            return queued.get();
+        }
+
+        @Override
+        public int activeWorkers() {
+            return workers.get();
+        }
+
+        @Override
+        public Disposable scheduleDirect(Runnable run, long delayTime, TimeUnit unit) {
+            if (delayTime > 0L) {
+                return super.scheduleDirect(run, delayTime, unit);
+            }
+            Runnable decoratedRun = SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), 0L, null);
+            QueuedDirectTask task = new QueuedDirectTask(decoratedRun, queued);
+            queued.getAndIncrement();
+            try {
+                Future<?> f = executor.submit(task.task);
+                task.task.setFuture(f);
+                return task;
+            } catch (RejectedExecutionException ex) {
+                task.release();
+                RxJavaPlugins.onError(ex);
+                return EmptyDisposable.INSTANCE;
+            }
+        }
+    }
+
+    /**
+     * Counts the tasks of an EventLoopWorker on its event loop while they are
+     * tracked by the worker's container.
+     */
+    static final class QueueTrackingContainer implements Disposable, DisposableContainer {
+        final ListCompositeDisposable actual;
+
+        final AtomicInteger queued;
+
+        /** The number of tasks in this container, guarded by this. */
+        int count;
+
+        boolean disposed;
+
+        QueueTrackingContainer(ListCompositeDisposable actual, AtomicInteger queued) {
+            this.actual = actual;
+            this.queued = queued;
+        }
+
+        @Override
+        public boolean add(Disposable d) {
+            synchronized (this) {
+                if (disposed || !actual.add(d)) {
+                    return false;
+                }
+                count++;
+            }
+            queued.getAndIncrement();
+            return true;
+        }
+
+        @Override
+        public boolean remove(Disposable d) {
+            if (delete(d)) {
+                d.dispose();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean delete(Disposable d) {
+            // only a task still contained counts as queued, see dispose()
+            synchronized (this) {
+                if (disposed || !actual.delete(d)) {
+                    return false;
+                }
+                count--;
+            }
+            queued.decrementAndGet();
+            return true;
+        }
+
+        @Override
+        public void dispose() {
+            int n;
+            synchronized (this) {
+                if (disposed) {
+                    return;
+                }
+                disposed = true;
+                n = count;
+                count = 0;
+            }
+            // the disposed tasks are no longer queued but their delete() calls fail from now on
+            queued.addAndGet(-n);
+            actual.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return actual.isDisposed();
+        }
+    }
+
+    /**
+     * Counts a direct task on its event loop until it completes or gets disposed.
+     */
+    static final class QueuedDirectTask extends AtomicBoolean implements Runnable, Disposable {
+
+        private static final long serialVersionUID = -5398618916298563460L;
+
+        final Runnable actual;
+
+        final AtomicInteger queued;
+
+        final ScheduledDirectTask task;
+
+        QueuedDirectTask(Runnable actual, AtomicInteger queued) {
+            this.actual = actual;
+            this.queued = queued;
+            this.task = new ScheduledDirectTask(this);
+        }
+
+        @Override
+        public void run() {
+            try {
+                actual.run();
+            } finally {
+                release();
+            }
+        }
+
+        void release() {
+            if (compareAndSet(false, true)) {
+                queued.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            release();
+            task.dispose();
+            SchedulerMetricsRecorder.cancel(actual);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return task.isDisposed();
+        }
+    }
+
+    /**
+     * Counts an EventLoopWorker on its event loop until the worker gets disposed.
+     */
+    static final class ActiveWorker extends AtomicBoolean implements Disposable {
+
+        private static final long serialVersionUID = 3587233580544627597L;
+
+        final AtomicInteger workers;
+
+        ActiveWorker(AtomicInteger workers) {
+            this.workers = workers;
+            workers.getAndIncrement();
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(false, true)) {
+                workers.decrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get();
         }
     }
 }
@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.internal.queue.MpscLinkedQueue;
+
+/**
+ * Scheduler that lets at most a given number of its workers use a worker of the underlying
+ * Scheduler at the same time.
+ * <p>
+ * Workers created beyond the limit wait in a queue, in creation order, and buffer their tasks
+ * until an earlier worker is disposed. Once admitted, a worker hands its tasks straight to its
+ * underlying worker. The delay of a buffered task counts from the time it was scheduled.
+ */
+public final class ConcurrencyLimitScheduler extends Scheduler {
+
+    final Scheduler actual;
+
+    final int maxConcurrency;
+
+    /** The number of admitted workers, incremented only by the drain loop. */
+    final AtomicInteger active;
+
+    final MpscLinkedQueue<LimitedWorker> waiting;
+
+    final AtomicInteger wip;
+
+    public ConcurrencyLimitScheduler(Scheduler actual, int maxConcurrency) {
+        this.actual = actual;
+        this.maxConcurrency = maxConcurrency;
+        this.active = new AtomicInteger();
+        this.waiting = new MpscLinkedQueue<LimitedWorker>();
+        this.wip = new AtomicInteger();
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        LimitedWorker w = new LimitedWorker(this);
+        waiting.offer(w);
+        drain();
+        return w;
+    }
+
+    @Override
+    public long now(@NonNull TimeUnit unit) {
+        return actual.now(unit);
+    }
+
+    void release() {
+        active.decrementAndGet();
+        drain();
+    }
+
+    void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        final MpscLinkedQueue<LimitedWorker> q = waiting;
+        for (;;) {
+            while (active.get() < maxConcurrency) {
+                LimitedWorker w = q.poll();
+                if (w == null) {
+                    break;
+                }
+                if (w.state.get() == LimitedWorker.WAITING) {
+                    active.getAndIncrement();
+                    if (!w.activate()) {
+                        active.decrementAndGet();
+                    }
+                }
+            }
+
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    static final class LimitedWorker extends Scheduler.Worker {
+
+        static final int WAITING = 0;
+        static final int ACTIVE = 1;
+        static final int DISPOSED = 2;
+
+        final ConcurrencyLimitScheduler parent;
+
+        final AtomicInteger state;
+
+        /** The tasks scheduled before this worker was admitted or while they were handed over. */
+        final MpscLinkedQueue<PendingTask> queue;
+
+        final AtomicInteger wip;
+
+        volatile Worker actual;
+
+        LimitedWorker(ConcurrencyLimitScheduler parent) {
+            this.parent = parent;
+            this.state = new AtomicInteger();
+            this.queue = new MpscLinkedQueue<PendingTask>();
+            this.wip = new AtomicInteger();
+        }
+
+        boolean activate() {
+            Worker w = parent.actual.createWorker();
+            actual = w;
+            if (state.compareAndSet(WAITING, ACTIVE)) {
+                flush();
+                return true;
+            }
+            w.dispose();
+            return false;
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+            if (state.get() == DISPOSED) {
+                return EmptyDisposable.INSTANCE;
+            }
+            Worker w = actual;
+            // an earlier task still in the queue must be handed over first to keep the order
+            if (w != null && wip.get() == 0 && queue.isEmpty()) {
+                return w.schedule(run, delay, unit);
+            }
+
+            long due = delay > 0L ? parent.now(TimeUnit.NANOSECONDS) + unit.toNanos(delay) : 0L;
+            PendingTask task = new PendingTask(run, due);
+            queue.offer(task);
+            flush();
+            return task;
+        }
+
+        void flush() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            final MpscLinkedQueue<PendingTask> q = queue;
+            for (;;) {
+                if (state.get() == DISPOSED) {
+                    q.clear();
+                } else {
+                    Worker w = actual;
+                    if (w != null) {
+                        for (;;) {
+                            PendingTask t = q.poll();
+                            if (t == null) {
+                                break;
+                            }
+                            t.scheduleOn(w, parent);
+                        }
+                    }
+                }
+
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            int s = state.getAndSet(DISPOSED);
+            if (s != DISPOSED) {
+                if (s == ACTIVE) {
+                    actual.dispose();
+                    parent.release();
+                }
+                flush();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return state.get() == DISPOSED;
+        }
+
+        @Override
+        public long now(@NonNull TimeUnit unit) {
+            return parent.now(unit);
+        }
+    }
+
+    static final class PendingTask extends AtomicReference<Disposable> implements Disposable {
+
+        private static final long serialVersionUID = -6407390404224562153L;
+
+        final Runnable run;
+
+        /** The absolute due time in nanoseconds, 0 for no delay. */
+        final long due;
+
+        PendingTask(Runnable run, long due) {
+            this.run = run;
+            this.due = due;
+        }
+
+        void scheduleOn(Worker w, Scheduler clock) {
+            if (isDisposed()) {
+                return;
+            }
+            Disposable d;
+            if (due != 0L) {
+                d = w.schedule(run, due - clock.now(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            } else {
+                d = w.schedule(run);
+            }
+            DisposableHelper.replace(this, d);
+        }
+
+        @Override
+        public void dispose() {
+            DisposableHelper.dispose(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return DisposableHelper.isDisposed(get());
+        }
+    }
+}
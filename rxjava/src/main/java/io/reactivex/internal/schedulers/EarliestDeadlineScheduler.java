@@ -0,0 +1,508 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.reactivex.annotations.NonNull;
+import io.reactivex.annotations.Nullable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.PriorityScheduler;
+
+/**
+ * PriorityScheduler with a fixed number of event loops, each running its tasks in
+ * earliest-deadline-first order.
+ * <p>
+ * The event loop threads are started when the first task or worker needs them, so creating
+ * an instance is cheap. Workers stick to one event loop, picked round-robin. Disposed tasks, and the
+ * tasks of disposed workers, stay in the queues of their event loop until enough of them have piled
+ * up to be purged.
+ */
+public final class EarliestDeadlineScheduler extends PriorityScheduler {
+
+    private static final String THREAD_NAME_PREFIX = "RxPrioritizedThreadPool";
+
+    /** The maximum number of event loop threads. */
+    static final String KEY_PRIORITIZED_THREADS = "rx2.prioritized-threads";
+
+    /** The slack added per priority level below the maximum, in milliseconds. */
+    static final String KEY_PRIORITIZED_STEP = "rx2.prioritized-step-millis";
+
+    static final int MAX_THREADS;
+
+    static final long STEP_NANOS;
+
+    static {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int threads = Integer.getInteger(KEY_PRIORITIZED_THREADS, 0);
+        MAX_THREADS = threads <= 0 || threads > cpus ? cpus : threads;
+        STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, Long.getLong(KEY_PRIORITIZED_STEP, 10L)));
+    }
+
+    static final EventLoop[] SHUTDOWN = new EventLoop[0];
+
+    final ThreadFactory threadFactory;
+
+    final int parallelism;
+
+    final long stepNanos;
+
+    final AtomicReference<EventLoop[]> loops;
+
+    final AtomicLong index;
+
+    /**
+     * Constructs an EarliestDeadlineScheduler with the default number of threads and slack step.
+     */
+    public EarliestDeadlineScheduler() {
+        this(new RxThreadFactory(THREAD_NAME_PREFIX, Thread.NORM_PRIORITY, true), MAX_THREADS, STEP_NANOS);
+    }
+
+    /**
+     * Constructs an EarliestDeadlineScheduler.
+     * @param threadFactory the factory of the event loop threads
+     * @param parallelism the number of event loops
+     * @param stepNanos the slack added per priority level below {@link #MAX_PRIORITY}
+     */
+    public EarliestDeadlineScheduler(ThreadFactory threadFactory, int parallelism, long stepNanos) {
+        this.threadFactory = threadFactory;
+        this.parallelism = parallelism;
+        this.stepNanos = stepNanos;
+        this.loops = new AtomicReference<EventLoop[]>();
+        this.index = new AtomicLong();
+    }
+
+    long slack(int priority) {
+        if (priority < MIN_PRIORITY || priority > MAX_PRIORITY) {
+            throw new IllegalArgumentException("priority out of range: " + priority);
+        }
+        return (MAX_PRIORITY - priority) * stepNanos;
+    }
+
+    /**
+     * Returns the next event loop, starting the loops if necessary.
+     * @return the event loop or null if this scheduler has been shut down
+     */
+    @Nullable
+    EventLoop nextLoop() {
+        for (;;) {
+            EventLoop[] ls = loops.get();
+            if (ls == SHUTDOWN) {
+                return null;
+            }
+            if (ls != null) {
+                return ls[(int)(index.getAndIncrement() % ls.length)];
+            }
+            EventLoop[] fresh = new EventLoop[parallelism];
+            for (int i = 0; i < fresh.length; i++) {
+                fresh[i] = new EventLoop(threadFactory);
+            }
+            if (loops.compareAndSet(null, fresh)) {
+                for (EventLoop e : fresh) {
+                    e.start();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        loops.compareAndSet(SHUTDOWN, null);
+    }
+
+    @Override
+    public void shutdown() {
+        EventLoop[] ls = loops.getAndSet(SHUTDOWN);
+        if (ls != null) {
+            for (EventLoop e : ls) {
+                e.shutdown();
+            }
+        }
+    }
+
+    @NonNull
+    @Override
+    public PriorityWorker createWorker(int priority) {
+        return new EdfWorker(this, nextLoop(), slack(priority));
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run) {
+        return scheduleDirect(run, NORM_PRIORITY);
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, int priority) {
+        long slack = slack(priority);
+        EventLoop loop = nextLoop();
+        if (loop == null) {
+            return EmptyDisposable.INSTANCE;
+        }
+        long now = System.nanoTime();
+        return loop.offer(new DeadlineTask(RxJavaPlugins.onSchedule(run), loop, null, now, now + slack));
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+        EventLoop loop = nextLoop();
+        if (loop == null) {
+            return EmptyDisposable.INSTANCE;
+        }
+        long due = System.nanoTime() + Math.max(0L, unit.toNanos(delay));
+        return loop.offer(new DeadlineTask(RxJavaPlugins.onSchedule(run), loop, null, due, due + slack(NORM_PRIORITY)));
+    }
+
+    static final class EdfWorker extends PriorityWorker {
+
+        final EarliestDeadlineScheduler parent;
+
+        /** The event loop of this worker, null if the scheduler was shut down. */
+        final EventLoop loop;
+
+        final long slack;
+
+        /** The number of tasks of this worker that have neither started nor been disposed. */
+        final AtomicInteger pending;
+
+        volatile boolean disposed;
+
+        EdfWorker(EarliestDeadlineScheduler parent, EventLoop loop, long slack) {
+            this.parent = parent;
+            this.loop = loop;
+            this.slack = slack;
+            this.pending = new AtomicInteger();
+            this.disposed = loop == null;
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run) {
+            return submit(run, 0L, slack);
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, int priority) {
+            return submit(run, 0L, parent.slack(priority));
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+            return submit(run, Math.max(0L, unit.toNanos(delay)), slack);
+        }
+
+        @NonNull
+        @Override
+        public Disposable scheduleWithDeadline(@NonNull Runnable run, long deadline, @NonNull TimeUnit unit) {
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            long now = System.nanoTime();
+            long relative = unit.toNanos(deadline) - now(TimeUnit.NANOSECONDS);
+            return offer(new DeadlineTask(RxJavaPlugins.onSchedule(run), loop, this, now, now + relative));
+        }
+
+        Disposable submit(Runnable run, long delayNanos, long slackNanos) {
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            long due = System.nanoTime() + delayNanos;
+            return offer(new DeadlineTask(RxJavaPlugins.onSchedule(run), loop, this, due, due + slackNanos));
+        }
+
+        Disposable offer(DeadlineTask task) {
+            pending.getAndIncrement();
+            Disposable d = loop.offer(task);
+            if (d != task) {
+                pending.decrementAndGet();
+            }
+            return d;
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                // the tasks of this worker are dead from now on
+                int n = pending.get();
+                if (n > 0) {
+                    loop.cancelled(n);
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    static final class DeadlineTask extends AtomicBoolean implements Runnable, Disposable {
+
+        private static final long serialVersionUID = 6137893290637004781L;
+
+        final Runnable actual;
+
+        final EventLoop loop;
+
+        /** The worker of the task, null for direct tasks. */
+        final EdfWorker worker;
+
+        /** The System.nanoTime() after which the task may run. */
+        final long due;
+
+        /** The System.nanoTime() the task should have run by. */
+        final long deadline;
+
+        /** The order of submission to the event loop, assigned under its lock. */
+        long seq;
+
+        DeadlineTask(Runnable actual, EventLoop loop, EdfWorker worker, long due, long deadline) {
+            this.actual = actual;
+            this.loop = loop;
+            this.worker = worker;
+            this.due = due;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            // the task is taken out of the queues either by running it or by disposing it
+            if (!compareAndSet(false, true)) {
+                return;
+            }
+            if (worker != null) {
+                worker.pending.decrementAndGet();
+                if (worker.disposed) {
+                    return;
+                }
+            }
+            try {
+                actual.run();
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                RxJavaPlugins.onError(ex);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(false, true)) {
+                if (worker != null) {
+                    worker.pending.decrementAndGet();
+                }
+                loop.cancelled(1);
+            }
+        }
+
+        /**
+         * Returns true if the task won't run and can be dropped from the queues.
+         * @return true if the task won't run
+         */
+        boolean isDead() {
+            return get() || (worker != null && worker.disposed);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get();
+        }
+    }
+
+    static final class DeadlineComparator implements Comparator<DeadlineTask> {
+        @Override
+        public int compare(DeadlineTask a, DeadlineTask b) {
+            long d = a.deadline - b.deadline;
+            if (d == 0L) {
+                d = a.seq - b.seq;
+            }
+            return d < 0L ? -1 : (d > 0L ? 1 : 0);
+        }
+    }
+
+    static final class DueComparator implements Comparator<DeadlineTask> {
+        @Override
+        public int compare(DeadlineTask a, DeadlineTask b) {
+            long d = a.due - b.due;
+            if (d == 0L) {
+                d = a.seq - b.seq;
+            }
+            return d < 0L ? -1 : (d > 0L ? 1 : 0);
+        }
+    }
+
+    static final class EventLoop implements Runnable {
+
+        /** The dead tasks get purged once there are this many and at least half of the queued tasks. */
+        static final int PURGE_THRESHOLD = 64;
+
+        final ReentrantLock lock;
+
+        final Condition available;
+
+        /** The tasks that may run, by deadline. */
+        final PriorityQueue<DeadlineTask> ready;
+
+        /** The tasks whose delay hasn't passed yet, by due time. */
+        final PriorityQueue<DeadlineTask> delayed;
+
+        final Thread thread;
+
+        /** The number of tasks that died in the queues since the last purge, an estimate. */
+        final AtomicInteger cancelled;
+
+        long seq;
+
+        boolean shutdown;
+
+        EventLoop(ThreadFactory threadFactory) {
+            this.lock = new ReentrantLock();
+            this.available = lock.newCondition();
+            this.ready = new PriorityQueue<DeadlineTask>(16, new DeadlineComparator());
+            this.delayed = new PriorityQueue<DeadlineTask>(16, new DueComparator());
+            this.cancelled = new AtomicInteger();
+            this.thread = threadFactory.newThread(this);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        Disposable offer(DeadlineTask task) {
+            lock.lock();
+            try {
+                if (shutdown) {
+                    return EmptyDisposable.INSTANCE;
+                }
+                task.seq = seq++;
+                if (task.due - System.nanoTime() <= 0L) {
+                    ready.offer(task);
+                } else {
+                    delayed.offer(task);
+                }
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            return task;
+        }
+
+        /**
+         * Records tasks that died in the queues and purges them if enough have piled up
+         * and the lock is free, otherwise the event loop purges them.
+         * @param n the number of dead tasks
+         */
+        void cancelled(int n) {
+            if (cancelled.addAndGet(n) >= PURGE_THRESHOLD && lock.tryLock()) {
+                try {
+                    purgeIfNeeded();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * Drops the dead tasks if there are enough of them; call with the lock held.
+         */
+        void purgeIfNeeded() {
+            int c = cancelled.get();
+            if (c >= PURGE_THRESHOLD && c >= (ready.size() + delayed.size()) >> 1) {
+                cancelled.set(0);
+                purge(ready);
+                purge(delayed);
+            }
+        }
+
+        static void purge(PriorityQueue<DeadlineTask> queue) {
+            List<DeadlineTask> alive = new ArrayList<DeadlineTask>(queue.size());
+            for (DeadlineTask t : queue) {
+                if (!t.isDead()) {
+                    alive.add(t);
+                }
+            }
+            if (alive.size() != queue.size()) {
+                queue.clear();
+                queue.addAll(alive);
+            }
+        }
+
+        void shutdown() {
+            lock.lock();
+            try {
+                shutdown = true;
+                ready.clear();
+                delayed.clear();
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            for (;;) {
+                DeadlineTask t;
+                lock.lock();
+                try {
+                    for (;;) {
+                        if (shutdown) {
+                            return;
+                        }
+                        purgeIfNeeded();
+                        long now = System.nanoTime();
+                        DeadlineTask d;
+                        while ((d = delayed.peek()) != null && d.due - now <= 0L) {
+                            ready.offer(delayed.poll());
+                        }
+                        t = ready.poll();
+                        if (t != null) {
+                            break;
+                        }
+                        if (d == null) {
+                            available.await();
+                        } else {
+                            available.awaitNanos(d.due - now);
+                        }
+                    }
+                } catch (InterruptedException ex) {
+                    // only the shutdown flag ends the loop
+                    continue;
+                } finally {
+                    lock.unlock();
+                }
+
+                t.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,683 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.internal.disposables.SequentialDisposable;
+import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.queue.MpscLinkedQueue;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.MeteredScheduler;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.QueueDepthProbe;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Holds a pool of event loop threads that grows and shrinks with the load.
+ * <p>
+ * A timer thread samples the number of queued tasks and the fraction of time the event
+ * loops spent running tasks. When the event loops are busy and have a backlog, their number
+ * doubles, up to the maximum, and the new event loops take over part of the backlog. When they
+ * stay mostly idle with nothing queued, they retire one by one, down to the minimum. Unless given
+ * explicitly, the maximum follows {@link Runtime#availableProcessors()}, so a changing CPU quota
+ * is picked up while running.
+ * <p>
+ * A Scheduler.Worker is submitted to its event loop as a single task whenever it has work pending
+ * and drains its own queue when run. A retiring event loop hands its queued tasks over to the
+ * remaining ones and its workers move to another event loop on their next task, without
+ * their tasks ever overlapping.
+ */
+public final class ElasticComputationScheduler extends Scheduler implements MeteredScheduler, QueueDepthProbe {
+    /** This will indicate no pool is active. */
+    static final ElasticPool NONE;
+
+    /** Key to setting the minimum number of event loops, default is 1. */
+    static final String KEY_MIN_THREADS = "rx2.computation-elastic-min";
+
+    /** Key to setting the maximum number of event loops, zero or less follows the available processors. */
+    static final String KEY_MAX_THREADS = "rx2.computation-elastic-max";
+
+    /** Key to setting the time between two samples of the load, in milliseconds. */
+    static final String KEY_PERIOD = "rx2.computation-elastic-period-millis";
+
+    static final int MIN_THREADS;
+
+    static final int MAX_THREADS;
+
+    static final long PERIOD_NANOS;
+
+    /** The pool grows if the event loops have this many tasks queued on average... */
+    static final int GROW_BACKLOG = 2;
+
+    /** ...and have been busy at least this fraction of the time since the last sample. */
+    static final double GROW_UTILIZATION = 0.5;
+
+    /** The pool shrinks if the event loops have been busy less than this fraction of the time... */
+    static final double SHRINK_UTILIZATION = 0.25;
+
+    /** ...with nothing queued, this many samples in a row. */
+    static final int SHRINK_SAMPLES = 10;
+
+    final ThreadFactory threadFactory;
+
+    final int minThreads;
+
+    final int maxThreads;
+
+    final long periodNanos;
+
+    final AtomicReference<ElasticPool> pool;
+
+    final SchedulerMetricsRecorder metrics;
+
+    static {
+        MIN_THREADS = Math.max(1, Integer.getInteger(KEY_MIN_THREADS, 1));
+        MAX_THREADS = Math.max(0, Integer.getInteger(KEY_MAX_THREADS, 0));
+        PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, Long.getLong(KEY_PERIOD, 100L)));
+
+        NONE = new ElasticPool(0, 0, 0L, ComputationScheduler.THREAD_FACTORY, WorkStealingScheduler.TIMER_THREAD_FACTORY);
+        NONE.shutdown();
+    }
+
+    /**
+     * Create a scheduler configured by the {@code rx2.computation-elastic-*} system properties.
+     */
+    public ElasticComputationScheduler() {
+        this(ComputationScheduler.THREAD_FACTORY);
+    }
+
+    /**
+     * Create a scheduler configured by the {@code rx2.computation-elastic-*} system properties.
+     *
+     * @param threadFactory thread factory to use for creating the event loop threads. Note that this takes precedence over any
+     *                      system properties for configuring new thread creation. Cannot be null.
+     */
+    public ElasticComputationScheduler(ThreadFactory threadFactory) {
+        this(threadFactory, MIN_THREADS, MAX_THREADS, PERIOD_NANOS);
+    }
+
+    /**
+     * Create a scheduler with the given bounds on the number of event loops.
+     *
+     * @param threadFactory thread factory to use for creating the event loop threads. Cannot be null.
+     * @param minThreads the minimum number of event loops, positive
+     * @param maxThreads the maximum number of event loops, zero or less to follow the available processors
+     * @param periodNanos the time between two samples of the load, zero or less to never resize the pool
+     */
+    public ElasticComputationScheduler(ThreadFactory threadFactory, int minThreads, int maxThreads, long periodNanos) {
+        this.threadFactory = threadFactory;
+        this.minThreads = minThreads;
+        this.maxThreads = maxThreads;
+        this.periodNanos = periodNanos;
+        this.pool = new AtomicReference<ElasticPool>(NONE);
+        this.metrics = new SchedulerMetricsRecorder(this);
+        start();
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return new ElasticWorker(pool.get(), metrics);
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, TimeUnit unit) {
+        Runnable decoratedRun = SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), delay, unit);
+        return pool.get().scheduleDirect(decoratedRun, delay, unit);
+    }
+
+    @NonNull
+    @Override
+    public SchedulerMetricsRecorder metrics() {
+        return metrics;
+    }
+
+    @Override
+    public int[] queueDepths() {
+        EventLoop[] loops = pool.get().eventLoops;
+        int[] result = new int[loops.length];
+        for (int i = 0; i < loops.length; i++) {
+            result[i] = loops[i].queue.size();
+        }
+        return result;
+    }
+
+    @Override
+    public void start() {
+        ElasticPool update = new ElasticPool(minThreads, maxThreads, periodNanos, threadFactory, WorkStealingScheduler.TIMER_THREAD_FACTORY);
+        if (!pool.compareAndSet(NONE, update)) {
+            update.shutdown();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (;;) {
+            ElasticPool curr = pool.get();
+            if (curr == NONE) {
+                return;
+            }
+            if (pool.compareAndSet(curr, NONE)) {
+                curr.shutdown();
+                return;
+            }
+        }
+    }
+
+    /**
+     * The current set of event loops, the shared timer and the sizing logic.
+     */
+    static final class ElasticPool implements Executor, Runnable {
+        static final EventLoop[] EMPTY = new EventLoop[0];
+
+        final int minThreads;
+
+        final int maxThreads;
+
+        final ThreadFactory threadFactory;
+
+        final ScheduledExecutorService timer;
+
+        final AtomicInteger index;
+
+        /** The active event loops, replaced as a whole while holding this pool's lock. */
+        volatile EventLoop[] eventLoops;
+
+        volatile boolean terminated;
+
+        /** The time of the last sample, accessed while holding this pool's lock. */
+        long lastSample;
+
+        /** The number of consecutive idle samples, accessed while holding this pool's lock. */
+        int idleSamples;
+
+        ElasticPool(int minThreads, int maxThreads, long periodNanos, ThreadFactory threadFactory, ThreadFactory timerFactory) {
+            this.minThreads = minThreads;
+            this.maxThreads = maxThreads;
+            this.threadFactory = threadFactory;
+            this.index = new AtomicInteger();
+            this.eventLoops = EMPTY;
+            if (minThreads != 0) {
+                this.timer = SchedulerPoolFactory.create(timerFactory);
+                this.lastSample = System.nanoTime();
+                resize(minThreads);
+                if (periodNanos > 0L) {
+                    timer.scheduleAtFixedRate(this, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+                }
+            } else {
+                this.timer = null;
+            }
+        }
+
+        EventLoop next() {
+            EventLoop[] loops = eventLoops;
+            int c = loops.length;
+            if (terminated || c == 0) {
+                throw new RejectedExecutionException("Scheduler has been shut down");
+            }
+            return loops[(index.getAndIncrement() & Integer.MAX_VALUE) % c];
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            next().execute(task);
+        }
+
+        Disposable scheduleDirect(Runnable run, long delay, TimeUnit unit) {
+            WorkStealingScheduler.DirectTask task = new WorkStealingScheduler.DirectTask(run);
+            try {
+                if (delay <= 0L) {
+                    execute(task);
+                } else {
+                    Future<?> f = scheduleTimed(new DelayedExecute(this, task), delay, unit);
+                    task.timed.replace(Disposables.fromFuture(f));
+                }
+            } catch (RejectedExecutionException ex) {
+                RxJavaPlugins.onError(ex);
+                return EmptyDisposable.INSTANCE;
+            }
+            return task;
+        }
+
+        Future<?> scheduleTimed(Callable<?> task, long delay, TimeUnit unit) {
+            if (terminated) {
+                throw new RejectedExecutionException("Scheduler has been shut down");
+            }
+            return HashedWheelTimer.schedule(timer, task, delay, unit);
+        }
+
+        @Override
+        public void run() {
+            adjust(System.nanoTime());
+        }
+
+        int maxThreads() {
+            int max = maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors();
+            return Math.max(minThreads, max);
+        }
+
+        /**
+         * Samples the load of the event loops and grows or shrinks the pool accordingly.
+         * @param now the current System.nanoTime()
+         */
+        synchronized void adjust(long now) {
+            if (terminated) {
+                return;
+            }
+            EventLoop[] loops = eventLoops;
+            int n = loops.length;
+            long elapsed = now - lastSample;
+            lastSample = now;
+
+            long backlog = 0L;
+            long busy = 0L;
+            for (EventLoop e : loops) {
+                backlog += e.queue.size();
+                busy += e.sample(now);
+            }
+            double utilization = elapsed > 0L ? Math.min(1d, (double)busy / ((double)elapsed * n)) : 0d;
+
+            int max = maxThreads();
+            if (n > max) {
+                idleSamples = 0;
+                resize(max);
+            } else if (n < max && backlog >= (long)n * GROW_BACKLOG && utilization >= GROW_UTILIZATION) {
+                idleSamples = 0;
+                resize(Math.min(max, n * 2));
+            } else if (n > minThreads && backlog == 0L && utilization < SHRINK_UTILIZATION) {
+                if (++idleSamples >= SHRINK_SAMPLES) {
+                    idleSamples = 0;
+                    resize(n - 1);
+                }
+            } else {
+                idleSamples = 0;
+            }
+        }
+
+        /**
+         * Starts or retires event loops until there are the given number of them.
+         * <p>
+         * New event loops take over the oldest tasks of the existing ones until no
+         * existing event loop has more than the average queued.
+         * @param target the new number of event loops
+         */
+        synchronized void resize(int target) {
+            if (terminated) {
+                return;
+            }
+            EventLoop[] loops = eventLoops;
+            int n = loops.length;
+            if (target > n) {
+                EventLoop[] update = new EventLoop[target];
+                System.arraycopy(loops, 0, update, 0, n);
+                long queued = 0L;
+                for (int i = n; i < target; i++) {
+                    EventLoop e = new EventLoop(this);
+                    e.start(threadFactory);
+                    update[i] = e;
+                }
+                for (EventLoop e : loops) {
+                    queued += e.queue.size();
+                }
+                eventLoops = update;
+
+                long average = queued / target;
+                int j = n;
+                for (EventLoop e : loops) {
+                    while (e.queue.size() > average) {
+                        Runnable r = e.queue.poll();
+                        if (r == null) {
+                            break;
+                        }
+                        update[j].execute(r);
+                        if (++j == target) {
+                            j = n;
+                        }
+                    }
+                }
+            } else if (target < n) {
+                EventLoop[] update = new EventLoop[target];
+                System.arraycopy(loops, 0, update, 0, target);
+                eventLoops = update;
+                for (int i = target; i < n; i++) {
+                    loops[i].retire();
+                }
+            }
+        }
+
+        synchronized void shutdown() {
+            terminated = true;
+            EventLoop[] loops = eventLoops;
+            eventLoops = EMPTY;
+            for (EventLoop e : loops) {
+                e.retire();
+            }
+            if (timer != null) {
+                timer.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * A single event loop thread with its own task queue.
+     */
+    static final class EventLoop implements Runnable {
+        /** Wakes up the event loop when it has to retire, the queue holds wrapped tasks only. */
+        static final Runnable WAKEUP = Functions.EMPTY_RUNNABLE;
+
+        final ElasticPool pool;
+
+        final LinkedBlockingQueue<Runnable> queue;
+
+        volatile boolean retired;
+
+        /** The total time spent running tasks, written by the event loop thread only. */
+        volatile long busyNanos;
+
+        /** The System.nanoTime() the current task started at, zero if idle. */
+        volatile long runningSince;
+
+        /** The total busy time at the last sample, accessed while holding the pool's lock. */
+        long lastBusy;
+
+        EventLoop(ElasticPool pool) {
+            this.pool = pool;
+            this.queue = new LinkedBlockingQueue<Runnable>();
+        }
+
+        void start(ThreadFactory threadFactory) {
+            threadFactory.newThread(this).start();
+        }
+
+        void execute(Runnable task) {
+            queue.offer(task);
+            if (retired) {
+                forward();
+            }
+        }
+
+        /**
+         * Returns the time spent running tasks since the previous call, including the
+         * task running right now.
+         * @param now the current System.nanoTime()
+         * @return the busy time in nanoseconds
+         */
+        long sample(long now) {
+            long b = busyNanos;
+            long s = runningSince;
+            long total = s != 0L ? b + (now - s) : b;
+            long delta = total - lastBusy;
+            if (delta < 0L) {
+                return 0L;
+            }
+            lastBusy = total;
+            return delta;
+        }
+
+        void retire() {
+            retired = true;
+            queue.offer(WAKEUP);
+        }
+
+        /**
+         * Hands the queued tasks over to the active event loops, or drops them if
+         * the pool has been shut down.
+         */
+        void forward() {
+            Runnable r;
+            while ((r = queue.poll()) != null) {
+                if (r != WAKEUP && !pool.terminated) {
+                    try {
+                        pool.execute(r);
+                    } catch (RejectedExecutionException ex) {
+                        // the pool has been shut down in the meantime
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (;;) {
+                    if (retired) {
+                        break;
+                    }
+                    Runnable r;
+                    try {
+                        r = queue.take();
+                    } catch (InterruptedException ex) {
+                        continue;
+                    }
+                    if (r == WAKEUP) {
+                        continue;
+                    }
+                    long start = System.nanoTime();
+                    runningSince = start;
+                    try {
+                        r.run();
+                    } finally {
+                        runningSince = 0L;
+                        busyNanos += System.nanoTime() - start;
+                    }
+                }
+            } finally {
+                forward();
+            }
+        }
+    }
+
+    /**
+     * Serializes the tasks of a Worker and submits itself to its event loop whenever
+     * it has something to run, moving to another event loop once its own retired.
+     */
+    static final class ElasticWorker extends Scheduler.Worker implements Runnable {
+        final ElasticPool pool;
+
+        final MpscLinkedQueue<Runnable> queue;
+
+        final AtomicInteger wip;
+
+        final CompositeDisposable tasks;
+
+        final SchedulerMetricsRecorder metrics;
+
+        /** The event loop the worker submits itself to, null if the pool has been shut down. */
+        volatile EventLoop home;
+
+        volatile boolean disposed;
+
+        ElasticWorker(ElasticPool pool, SchedulerMetricsRecorder metrics) {
+            this.pool = pool;
+            this.metrics = metrics;
+            this.queue = new MpscLinkedQueue<Runnable>();
+            this.wip = new AtomicInteger();
+            this.tasks = new CompositeDisposable();
+            try {
+                this.home = pool.next();
+            } catch (RejectedExecutionException ex) {
+                this.disposed = true;
+            }
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run) {
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            return scheduleActual(SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), 0L, null));
+        }
+
+        Disposable scheduleActual(Runnable decoratedRun) {
+            WorkStealingScheduler.DirectTask task = new WorkStealingScheduler.DirectTask(decoratedRun);
+
+            queue.offer(task);
+
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    EventLoop h = home;
+                    if (h.retired) {
+                        h = pool.next();
+                        home = h;
+                    }
+                    h.execute(this);
+                } catch (RejectedExecutionException ex) {
+                    disposed = true;
+                    queue.clear();
+                    RxJavaPlugins.onError(ex);
+                    return EmptyDisposable.INSTANCE;
+                }
+            }
+
+            return task;
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+            if (delay <= 0) {
+                return schedule(run);
+            }
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+
+            SequentialDisposable first = new SequentialDisposable();
+
+            final SequentialDisposable mar = new SequentialDisposable(first);
+
+            final Runnable decoratedRun = SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), delay, unit);
+
+            ScheduledRunnable sr = new ScheduledRunnable(new DelayedSchedule(this, mar, decoratedRun), tasks);
+            tasks.add(sr);
+
+            try {
+                sr.setFuture(pool.scheduleTimed((Callable<Object>)sr, delay, unit));
+            } catch (RejectedExecutionException ex) {
+                disposed = true;
+                RxJavaPlugins.onError(ex);
+                return EmptyDisposable.INSTANCE;
+            }
+
+            first.replace(sr);
+
+            return mar;
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                tasks.dispose();
+                if (wip.getAndIncrement() == 0) {
+                    queue.clear();
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            final MpscLinkedQueue<Runnable> q = queue;
+            for (;;) {
+
+                if (disposed) {
+                    q.clear();
+                    return;
+                }
+
+                for (;;) {
+                    Runnable run = q.poll();
+                    if (run == null) {
+                        break;
+                    }
+                    run.run();
+
+                    if (disposed) {
+                        q.clear();
+                        return;
+                    }
+                }
+
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    static final class DelayedExecute implements Callable<Object> {
+        final ElasticPool pool;
+
+        final WorkStealingScheduler.DirectTask task;
+
+        DelayedExecute(ElasticPool pool, WorkStealingScheduler.DirectTask task) {
+            this.pool = pool;
+            this.task = task;
+        }
+
+        @Override
+        public Object call() {
+            try {
+                pool.execute(task);
+            } catch (RejectedExecutionException ex) {
+                RxJavaPlugins.onError(ex);
+            }
+            return null;
+        }
+    }
+
+    static final class DelayedSchedule implements Runnable {
+        final ElasticWorker worker;
+
+        final SequentialDisposable mar;
+
+        final Runnable decoratedRun;
+
+        DelayedSchedule(ElasticWorker worker, SequentialDisposable mar, Runnable decoratedRun) {
+            this.worker = worker;
+            this.mar = mar;
+            this.decoratedRun = decoratedRun;
+        }
+
+        @Override
+        public void run() {
+            if (!worker.disposed) {
+                mar.replace(worker.scheduleActual(decoratedRun));
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+/**
+ * Live load information of an event loop a {@link WorkerSelectionPolicy} can use.
+ */
+public interface EventLoopLoad {
+    /**
+     * Returns the number of non-delayed tasks submitted to the event loop
+     * that haven't completed or been cancelled yet.
+     * @return the current queue depth
+     */
+    int queueSize();
+
+    /**
+     * Returns the number of Scheduler.Workers currently assigned to the event loop.
+     * @return the current number of active workers
+     */
+    int activeWorkers();
+}
@@ -13,6 +13,9 @@
 
 package io.reactivex.internal.schedulers;
 
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 import io.reactivex.Scheduler;
 import io.reactivex.annotations.NonNull;
 import io.reactivex.disposables.CompositeDisposable;
@@ -20,35 +23,100 @@ import io.reactivex.disposables.Disposable;
 import io.reactivex.internal.disposables.DisposableHelper;
 import io.reactivex.internal.disposables.EmptyDisposable;
 import io.reactivex.internal.disposables.SequentialDisposable;
-import io.reactivex.internal.queue.MpscLinkedQueue;
+import io.reactivex.internal.queue.MpscLinkedArrayQueue;
 import io.reactivex.internal.schedulers.ExecutorScheduler.ExecutorWorker.BooleanRunnable;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.MeteredScheduler;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.QueueDepthProbe;
 import io.reactivex.plugins.RxJavaPlugins;
 import io.reactivex.schedulers.Schedulers;
 
 /**
  * Wraps an Executor and provides the Scheduler API over it.
+ * <p>
+ * The workers drain their queued tasks on one thread of the Executor at a time. A drain run
+ * can be limited by a task and a time budget, after which the worker resubmits itself to the
+ * Executor so the other tasks of a shared Executor get their turn.
  */
-public final class ExecutorScheduler extends Scheduler {
+public final class ExecutorScheduler extends Scheduler implements MeteredScheduler, QueueDepthProbe {
+
+    /** The maximum number of tasks a worker runs before yielding its thread, 0 for unlimited. */
+    static final String KEY_TASK_BUDGET = "rx2.executor-task-budget";
+
+    /** The maximum time in microseconds a worker runs tasks before yielding its thread, 0 for unlimited. */
+    static final String KEY_TIME_BUDGET = "rx2.executor-time-budget-micros";
+
+    /** Lets the producers skip the atomic increment while a worker is draining. */
+    static final String KEY_BATCH_DRAIN = "rx2.executor-batch-drain";
+
+    static final int TASK_BUDGET;
+
+    static final long TIME_BUDGET_NANOS;
+
+    static final boolean BATCH_DRAIN;
+
+    static {
+        TASK_BUDGET = Math.max(0, Integer.getInteger(KEY_TASK_BUDGET, 0));
+        TIME_BUDGET_NANOS = TimeUnit.MICROSECONDS.toNanos(Math.max(0L, Long.getLong(KEY_TIME_BUDGET, 0L)));
+        BATCH_DRAIN = Boolean.getBoolean(KEY_BATCH_DRAIN);
+    }
 
     @NonNull
     final Executor executor;
 
+    final SchedulerMetricsRecorder metrics;
+
+    final int taskBudget;
+
+    final long timeBudgetNanos;
+
+    final boolean batchDrain;
+
     static final Scheduler HELPER = Schedulers.single();
 
     public ExecutorScheduler(@NonNull Executor executor) {
+        this(executor, TASK_BUDGET, TIME_BUDGET_NANOS, BATCH_DRAIN);
+    }
+
+    /**
+     * Constructs an ExecutorScheduler with the given drain settings for its workers.
+     * @param executor the executor to wrap
+     * @param taskBudget the maximum number of tasks a worker runs before yielding its thread, 0 for unlimited
+     * @param timeBudgetNanos the maximum time a worker runs tasks before yielding its thread, 0 for unlimited
+     * @param batchDrain if true, the producers of a worker only read its state while it is draining
+     *                   instead of atomically incrementing it
+     */
+    public ExecutorScheduler(@NonNull Executor executor, int taskBudget, long timeBudgetNanos, boolean batchDrain) {
         this.executor = executor;
+        this.metrics = new SchedulerMetricsRecorder(this);
+        this.taskBudget = taskBudget;
+        this.timeBudgetNanos = timeBudgetNanos;
+        this.batchDrain = batchDrain;
     }
 
     @NonNull
     @Override
     public Worker createWorker() {
-        return new ExecutorWorker(executor);
+        return new ExecutorWorker(executor, metrics, taskBudget, timeBudgetNanos, batchDrain);
+    }
+
+    @NonNull
+    @Override
+    public SchedulerMetricsRecorder metrics() {
+        return metrics;
+    }
+
+    @Override
+    public int[] queueDepths() {
+        if (executor instanceof ThreadPoolExecutor) {
+            return new int[] { ((ThreadPoolExecutor)executor).getQueue().size() };
+        }
+        return SchedulerMetricsRecorder.EMPTY;
     }
 
     @NonNull
     @Override
     public Disposable scheduleDirect(@NonNull Runnable run) {
-        Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+        Runnable decoratedRun = SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), 0L, null);
         try {
             if (executor instanceof ExecutorService) {
                 ScheduledDirectTask task = new ScheduledDirectTask(decoratedRun);
@@ -72,7 +140,7 @@ public final class ExecutorScheduler extends Scheduler {
         final Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
         if (executor instanceof ScheduledExecutorService) {
             try {
-                ScheduledDirectTask task = new ScheduledDirectTask(decoratedRun);
+                ScheduledDirectTask task = new ScheduledDirectTask(SchedulerMetricsRecorder.wrap(metrics, decoratedRun, delay, unit));
                 Future<?> f = ((ScheduledExecutorService)executor).schedule(task, delay, unit);
                 task.setFuture(f);
                 return task;
@@ -95,7 +163,7 @@ public final class ExecutorScheduler extends Scheduler {
     @Override
     public Disposable schedulePeriodicallyDirect(@NonNull Runnable run, long initialDelay, long period, TimeUnit unit) {
         if (executor instanceof ScheduledExecutorService) {
-            Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+            Runnable decoratedRun = SchedulerMetricsRecorder.wrapPeriodic(metrics, RxJavaPlugins.onSchedule(run), initialDelay, period, unit);
             try {
                 ScheduledDirectPeriodicTask task = new ScheduledDirectPeriodicTask(decoratedRun);
                 Future<?> f = ((ScheduledExecutorService)executor).scheduleAtFixedRate(task, initialDelay, period, unit);
@@ -110,9 +178,12 @@ public final class ExecutorScheduler extends Scheduler {
     }
     /* public: test support. */
     public static final class ExecutorWorker extends Scheduler.Worker implements Runnable {
+        /** Most workers hold a handful of tasks at a time so their queue starts with a small chunk. */
+        static final int QUEUE_CHUNK_SIZE = 16;
+
         final Executor executor;
 
-        final MpscLinkedQueue<Runnable> queue;
+        final MpscLinkedArrayQueue<Runnable> queue;
 
         volatile boolean disposed;
 
@@ -120,9 +191,29 @@ public final class ExecutorScheduler extends Scheduler {
 
         final CompositeDisposable tasks = new CompositeDisposable();
 
+        final SchedulerMetricsRecorder metrics;
+
+        final int taskBudget;
+
+        final long timeBudgetNanos;
+
+        final boolean batchDrain;
+
         public ExecutorWorker(Executor executor) {
+            this(executor, null);
+        }
+
+        public ExecutorWorker(Executor executor, SchedulerMetricsRecorder metrics) {
+            this(executor, metrics, 0, 0L, false);
+        }
+
+        public ExecutorWorker(Executor executor, SchedulerMetricsRecorder metrics, int taskBudget, long timeBudgetNanos, boolean batchDrain) {
             this.executor = executor;
-            this.queue = new MpscLinkedQueue<Runnable>();
+            this.queue = new MpscLinkedArrayQueue<Runnable>(QUEUE_CHUNK_SIZE);
+            this.metrics = metrics;
+            this.taskBudget = taskBudget;
+            this.timeBudgetNanos = timeBudgetNanos;
+            this.batchDrain = batchDrain;
         }
 
         @NonNull
@@ -132,12 +223,12 @@ public final class ExecutorScheduler extends Scheduler {
                 return EmptyDisposable.INSTANCE;
             }
 
-            Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+            Runnable decoratedRun = SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), 0L, null);
             BooleanRunnable br = new BooleanRunnable(decoratedRun);
 
             queue.offer(br);
 
-            if (wip.getAndIncrement() == 0) {
+            if (enter()) {
                 try {
                     executor.execute(this);
                 } catch (RejectedExecutionException ex) {
@@ -195,7 +286,7 @@ public final class ExecutorScheduler extends Scheduler {
             if (!disposed) {
                 disposed = true;
                 tasks.dispose();
-                if (wip.getAndIncrement() == 0) {
+                if (enter()) {
                     queue.clear();
                 }
             }
@@ -206,10 +297,35 @@ public final class ExecutorScheduler extends Scheduler {
             return disposed;
         }
 
+        /**
+         * Tries to become the drainer of the queue.
+         * <p>
+         * In batch mode, the wip is a 0/1 flag the producers only read while a drain is
+         * in progress; otherwise every call increments it so the drain loop can count the
+         * missed tasks.
+         * @return true if the caller should start draining
+         */
+        boolean enter() {
+            if (batchDrain) {
+                return wip.get() == 0 && wip.compareAndSet(0, 1);
+            }
+            return wip.getAndIncrement() == 0;
+        }
+
         @Override
         public void run() {
+            if (batchDrain) {
+                drainBatched();
+            } else {
+                drainMissed();
+            }
+        }
+
+        void drainMissed() {
             int missed = 1;
-            final MpscLinkedQueue<Runnable> q = queue;
+            final MpscLinkedArrayQueue<Runnable> q = queue;
+            final long start = timeBudgetNanos > 0L ? System.nanoTime() : 0L;
+            int executed = 0;
             for (;;) {
 
                 if (disposed) {
@@ -228,6 +344,12 @@ public final class ExecutorScheduler extends Scheduler {
                         q.clear();
                         return;
                     }
+
+                    if (budgetExhausted(++executed, start)) {
+                        // the wip stays non-zero so the producers won't submit this worker again
+                        resubmit();
+                        return;
+                    }
                 }
 
                 if (disposed) {
@@ -242,6 +364,52 @@ public final class ExecutorScheduler extends Scheduler {
             }
         }
 
+        void drainBatched() {
+            final MpscLinkedArrayQueue<Runnable> q = queue;
+            final long start = timeBudgetNanos > 0L ? System.nanoTime() : 0L;
+            int executed = 0;
+            for (;;) {
+                if (disposed) {
+                    q.clear();
+                    return;
+                }
+
+                Runnable run = q.poll();
+                if (run != null) {
+                    run.run();
+
+                    if (budgetExhausted(++executed, start)) {
+                        resubmit();
+                        return;
+                    }
+                    continue;
+                }
+
+                // a producer either sees the cleared flag or we see its task
+                wip.set(0);
+                if (q.isEmpty() || !wip.compareAndSet(0, 1)) {
+                    return;
+                }
+            }
+        }
+
+        boolean budgetExhausted(int executed, long start) {
+            if (taskBudget > 0 && executed >= taskBudget) {
+                return true;
+            }
+            return timeBudgetNanos > 0L && System.nanoTime() - start >= timeBudgetNanos;
+        }
+
+        void resubmit() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException ex) {
+                disposed = true;
+                queue.clear();
+                RxJavaPlugins.onError(ex);
+            }
+        }
+
         static final class BooleanRunnable extends AtomicBoolean implements Runnable, Disposable {
 
             private static final long serialVersionUID = -2421395018820541164L;
@@ -266,6 +434,7 @@ public final class ExecutorScheduler extends Scheduler {
             @Override
             public void dispose() {
                 lazySet(true);
+                SchedulerMetricsRecorder.cancel(actual);
             }
 
             @Override
@@ -0,0 +1,533 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import io.reactivex.internal.queue.MpscLinkedQueue;
+
+/**
+ * A hashed timing wheel that waits out the delay of tasks on a single shared thread
+ * and then submits them to their target executor without delay.
+ * <p>
+ * Scheduling and cancelling a timeout are O(1); cancelled timeouts are unlinked from
+ * the wheel on the next tick instead of lingering until their due time. Timeouts fire
+ * no earlier than their delay and at most one tick later.
+ * <p>
+ * When the {@code rx2.timer-wheel} system property is true, the built-in schedulers
+ * route their delayed tasks through the {@link #shared()} instance.
+ * <p>
+ * A positive {@code rx2.timer-slack-millis} system property enables the shared instance too and
+ * makes its tick at least that long: the timeouts due within the same tick then fire together from
+ * one wakeup of the timer thread, in the order they were scheduled, at most the slack late.
+ */
+public final class HashedWheelTimer {
+    /** Key to enabling the shared timer wheel for the built-in schedulers. */
+    static final String KEY_ENABLED = "rx2.timer-wheel";
+
+    /** Indicates the built-in schedulers use the shared timer wheel for delayed tasks. */
+    public static final boolean ENABLED;
+
+    /** Key to setting the tick duration of the shared timer wheel in milliseconds. */
+    static final String KEY_TICK_MILLIS = "rx2.timer-wheel-tick-millis";
+
+    /** The tick duration of the shared timer wheel in milliseconds. */
+    static final int TICK_MILLIS;
+
+    /** Key to setting the number of buckets of the shared timer wheel, rounded up to a power of 2. */
+    static final String KEY_WHEEL_SIZE = "rx2.timer-wheel-size";
+
+    /** The number of buckets of the shared timer wheel. */
+    static final int WHEEL_SIZE;
+
+    /** Key to setting the timer slack of the built-in schedulers in milliseconds. */
+    static final String KEY_SLACK_MILLIS = "rx2.timer-slack-millis";
+
+    /** The timer slack of the built-in schedulers in milliseconds, zero for exact timers. */
+    static final int SLACK_MILLIS;
+
+    static {
+        SLACK_MILLIS = Math.max(0, Integer.getInteger(KEY_SLACK_MILLIS, 0));
+        ENABLED = Boolean.getBoolean(KEY_ENABLED) || SLACK_MILLIS > 0;
+        TICK_MILLIS = Math.max(Math.max(1, SLACK_MILLIS), Integer.getInteger(KEY_TICK_MILLIS, 1));
+        WHEEL_SIZE = Math.max(1, Integer.getInteger(KEY_WHEEL_SIZE, 512));
+    }
+
+    static final class SharedHolder {
+        static final HashedWheelTimer SHARED = new HashedWheelTimer(new RxThreadFactory("RxTimerWheel", Thread.NORM_PRIORITY, true),
+                TICK_MILLIS, TimeUnit.MILLISECONDS, WHEEL_SIZE);
+    }
+
+    /**
+     * Returns the timer wheel shared by the built-in schedulers.
+     * @return the shared instance
+     */
+    public static HashedWheelTimer shared() {
+        return SharedHolder.SHARED;
+    }
+
+    /**
+     * Schedules the task on the executor after the given delay, waiting out the
+     * delay on the shared timer wheel if enabled or on the executor itself otherwise.
+     * @param executor the executor to run the task on
+     * @param task the task to run
+     * @param delay the delay amount
+     * @param unit the delay time unit
+     * @return the Future to cancel the task with
+     * @throws RejectedExecutionException if the executor has been shut down
+     */
+    public static Future<?> schedule(ScheduledExecutorService executor, Callable<?> task, long delay, TimeUnit unit) {
+        if (ENABLED) {
+            return shared().schedule(task, executor, delay, unit);
+        }
+        return executor.schedule(task, delay, unit);
+    }
+
+    /**
+     * Stops the thread of the shared timer wheel if it has been used; pending timeouts are cancelled,
+     * including those of scheduler instances not shut down themselves, and their Futures report so.
+     */
+    public static void shutdownShared() {
+        if (ENABLED) {
+            shared().shutdown();
+        }
+    }
+
+    final ThreadFactory threadFactory;
+
+    final long tickNanos;
+
+    final int wheelSize;
+
+    final AtomicReference<Wheel> wheel;
+
+    /**
+     * Constructs a timer wheel whose thread is started on first use.
+     * @param threadFactory the factory for the timer thread
+     * @param tick the tick duration, positive
+     * @param unit the tick duration time unit
+     * @param wheelSize the number of buckets, rounded up to the next power of 2
+     */
+    public HashedWheelTimer(ThreadFactory threadFactory, long tick, TimeUnit unit, int wheelSize) {
+        this.threadFactory = threadFactory;
+        this.tickNanos = Math.max(1L, unit.toNanos(tick));
+        int n = 1;
+        while (n < wheelSize) {
+            n <<= 1;
+        }
+        this.wheelSize = n;
+        this.wheel = new AtomicReference<Wheel>();
+    }
+
+    /**
+     * Submits the task to the target executor after the given delay.
+     * @param task the task to run
+     * @param target the executor to run the task on
+     * @param delay the delay amount
+     * @param unit the delay time unit
+     * @return the Future to cancel the task with
+     * @throws RejectedExecutionException if the target executor has been shut down
+     */
+    public Future<?> schedule(Callable<?> task, ExecutorService target, long delay, TimeUnit unit) {
+        if (target.isShutdown()) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        Wheel w = start();
+        WheelTimeout t = new WheelTimeout(task, target, w, w.deadline(delay, unit));
+        w.add(t);
+        return t;
+    }
+
+    Wheel start() {
+        for (;;) {
+            Wheel w = wheel.get();
+            if (w != null) {
+                return w;
+            }
+            Wheel next = new Wheel(tickNanos, wheelSize);
+            if (wheel.compareAndSet(null, next)) {
+                next.start(threadFactory);
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Stops the timer thread; pending timeouts are cancelled and the
+     * next schedule call starts a new thread.
+     */
+    public void shutdown() {
+        Wheel w = wheel.getAndSet(null);
+        if (w != null) {
+            w.shutdown();
+        }
+    }
+
+    /**
+     * The wheel state, owned by the timer thread except for the incoming queues.
+     */
+    static final class Wheel implements Runnable {
+        final long tickNanos;
+
+        final long startTime;
+
+        final Bucket[] buckets;
+
+        final int mask;
+
+        final MpscLinkedQueue<WheelTimeout> added;
+
+        final MpscLinkedQueue<WheelTimeout> cancelled;
+
+        final AtomicBoolean parked;
+
+        volatile boolean terminated;
+
+        volatile Thread thread;
+
+        /** The current tick; accessed by the timer thread only. */
+        long tick;
+
+        /** The number of timeouts in the buckets; accessed by the timer thread only. */
+        int count;
+
+        Wheel(long tickNanos, int wheelSize) {
+            this.tickNanos = tickNanos;
+            this.startTime = System.nanoTime();
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.mask = wheelSize - 1;
+            this.added = new MpscLinkedQueue<WheelTimeout>();
+            this.cancelled = new MpscLinkedQueue<WheelTimeout>();
+            this.parked = new AtomicBoolean();
+        }
+
+        void start(ThreadFactory threadFactory) {
+            Thread t = threadFactory.newThread(this);
+            thread = t;
+            t.start();
+        }
+
+        long deadline(long delay, TimeUnit unit) {
+            long d = System.nanoTime() - startTime + unit.toNanos(Math.max(0L, delay));
+            // guard against overflow
+            return d < 0L ? Long.MAX_VALUE : d;
+        }
+
+        void add(WheelTimeout t) {
+            added.offer(t);
+            if (terminated) {
+                // the timer thread may have cancelled the pending timeouts already
+                t.cancel(false);
+                return;
+            }
+            if (parked.get() && parked.compareAndSet(true, false)) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        void shutdown() {
+            terminated = true;
+            Thread t = thread;
+            if (t != null) {
+                LockSupport.unpark(t);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (;;) {
+                    if (terminated) {
+                        break;
+                    }
+                    removeCancelled();
+                    transferAdded();
+
+                    if (count == 0) {
+                        parked.set(true);
+                        if (added.isEmpty() && !terminated) {
+                            LockSupport.park(this);
+                        }
+                        parked.set(false);
+                        // nothing was waiting, skip the idle ticks
+                        tick = (System.nanoTime() - startTime) / tickNanos;
+                        continue;
+                    }
+
+                    long due = startTime + (tick + 1) * tickNanos;
+                    long wait = due - System.nanoTime();
+                    if (wait > 0L) {
+                        LockSupport.parkNanos(this, wait);
+                        continue;
+                    }
+
+                    removeCancelled();
+                    transferAdded();
+                    expire(buckets[(int)(tick & mask)]);
+                    tick++;
+                }
+            } finally {
+                for (;;) {
+                    WheelTimeout t = added.poll();
+                    if (t == null) {
+                        break;
+                    }
+                    t.cancel(false);
+                }
+                for (Bucket b : buckets) {
+                    WheelTimeout t = b.head;
+                    while (t != null) {
+                        t.cancel(false);
+                        t = t.next;
+                    }
+                    b.clear();
+                }
+                cancelled.clear();
+                count = 0;
+            }
+        }
+
+        void transferAdded() {
+            for (;;) {
+                WheelTimeout t = added.poll();
+                if (t == null) {
+                    break;
+                }
+                if (t.state.get() != null) {
+                    // cancelled before it got into a bucket
+                    continue;
+                }
+                long calculated = t.deadline / tickNanos;
+                long current = tick;
+                t.remainingRounds = (calculated - current) / buckets.length;
+                buckets[(int)(Math.max(calculated, current) & mask)].add(t);
+                count++;
+            }
+        }
+
+        void removeCancelled() {
+            for (;;) {
+                WheelTimeout t = cancelled.poll();
+                if (t == null) {
+                    break;
+                }
+                Bucket b = t.bucket;
+                if (b != null) {
+                    b.remove(t);
+                    count--;
+                }
+            }
+        }
+
+        void expire(Bucket b) {
+            WheelTimeout t = b.head;
+            while (t != null) {
+                WheelTimeout next = t.next;
+                if (t.remainingRounds <= 0L) {
+                    b.remove(t);
+                    count--;
+                    t.expire();
+                } else {
+                    t.remainingRounds--;
+                }
+                t = next;
+            }
+        }
+    }
+
+    /**
+     * A doubly-linked list of timeouts; accessed by the timer thread only.
+     */
+    static final class Bucket {
+        WheelTimeout head;
+
+        WheelTimeout tail;
+
+        void add(WheelTimeout t) {
+            t.bucket = this;
+            if (tail == null) {
+                head = t;
+                tail = t;
+            } else {
+                tail.next = t;
+                t.prev = tail;
+                tail = t;
+            }
+        }
+
+        void remove(WheelTimeout t) {
+            WheelTimeout p = t.prev;
+            WheelTimeout n = t.next;
+            if (p != null) {
+                p.next = n;
+            } else {
+                head = n;
+            }
+            if (n != null) {
+                n.prev = p;
+            } else {
+                tail = p;
+            }
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+        }
+    }
+
+    /**
+     * A pending task in the wheel; its state is null while waiting, {@link #FIRING}
+     * while being submitted, the target executor's Future after or {@link #CANCELLED}.
+     * The blocking getters wait for the state to settle and then delegate to the target
+     * executor's Future.
+     */
+    static final class WheelTimeout implements Future<Object> {
+
+        static final Object FIRING = new Object();
+
+        static final Object CANCELLED = new Object();
+
+        final Callable<?> task;
+
+        final ExecutorService target;
+
+        final Wheel wheel;
+
+        final long deadline;
+
+        final AtomicReference<Object> state;
+
+        /** Released once the state is the target executor's Future or {@link #CANCELLED}. */
+        final CountDownLatch settled;
+
+        volatile boolean interruptOnCancel;
+
+        long remainingRounds;
+
+        Bucket bucket;
+
+        WheelTimeout prev;
+
+        WheelTimeout next;
+
+        WheelTimeout(Callable<?> task, ExecutorService target, Wheel wheel, long deadline) {
+            this.task = task;
+            this.target = target;
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.state = new AtomicReference<Object>();
+            this.settled = new CountDownLatch(1);
+        }
+
+        void expire() {
+            if (state.compareAndSet(null, FIRING)) {
+                Future<?> f;
+                try {
+                    f = target.submit(task);
+                } catch (RejectedExecutionException ex) {
+                    // the target was shut down in the meantime, drop the task like shutdownNow() does
+                    state.lazySet(CANCELLED);
+                    settled.countDown();
+                    return;
+                }
+                if (!state.compareAndSet(FIRING, f)) {
+                    f.cancel(interruptOnCancel);
+                }
+                settled.countDown();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            interruptOnCancel = mayInterruptIfRunning;
+            for (;;) {
+                Object o = state.get();
+                if (o == CANCELLED) {
+                    return false;
+                }
+                if (state.compareAndSet(o, CANCELLED)) {
+                    settled.countDown();
+                    if (o == null) {
+                        wheel.cancelled.offer(this);
+                        return true;
+                    }
+                    if (o != FIRING) {
+                        return ((Future<?>)o).cancel(mayInterruptIfRunning);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            Object o = state.get();
+            if (o == null || o == FIRING) {
+                return false;
+            }
+            if (o == CANCELLED) {
+                return true;
+            }
+            return ((Future<?>)o).isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            settled.await();
+            return settledFuture().get();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            long end = System.nanoTime() + unit.toNanos(timeout);
+            if (!settled.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            return settledFuture().get(Math.max(0L, end - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+
+        Future<?> settledFuture() {
+            Object o = state.get();
+            if (o == CANCELLED) {
+                throw new CancellationException();
+            }
+            return (Future<?>)o;
+        }
+    }
+}
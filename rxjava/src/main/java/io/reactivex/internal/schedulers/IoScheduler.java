@@ -16,16 +16,29 @@
 
 package io.reactivex.internal.schedulers;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
 import io.reactivex.Scheduler;
 import io.reactivex.annotations.NonNull;
 import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.MeteredScheduler;
 
 /**
  * Scheduler that creates and caches a set of thread pools and reuses them if possible.
+ * <p>
+ * Idle thread pools are reused in a LIFO manner so that the surplus ones stay idle long enough
+ * to expire after {@code KEEP_ALIVE_TIME}.
+ * <p>
+ * When the maximum number of threads is set, workers created while the maximum is reached share
+ * the existing thread with the fewest workers. Expired threads are evicted by the evictor thread
+ * and also when workers are created or released.
  */
-public final class IoScheduler extends Scheduler {
+public final class IoScheduler extends Scheduler implements MeteredScheduler {
     private static final String WORKER_THREAD_NAME_PREFIX = "RxCachedThreadScheduler";
     static final RxThreadFactory WORKER_THREAD_FACTORY;
 
@@ -38,10 +51,18 @@ public final class IoScheduler extends Scheduler {
     static final ThreadWorker SHUTDOWN_THREAD_WORKER;
     final ThreadFactory threadFactory;
     final AtomicReference<CachedWorkerPool> pool;
+    final SchedulerMetricsRecorder metrics;
 
     /** The name of the system property for setting the thread priority for this Scheduler. */
     private static final String KEY_IO_PRIORITY = "rx2.io-priority";
 
+    /** The name of the system property for limiting the number of threads of this Scheduler, 0 means unbounded. */
+    private static final String KEY_MAX_THREADS = "rx2.io-max-threads";
+
+    static final int MAX_THREADS;
+
+    final int maxThreads;
+
     static final CachedWorkerPool NONE;
     static {
         SHUTDOWN_THREAD_WORKER = new ThreadWorker(new RxThreadFactory("RxCachedThreadSchedulerShutdown"));
@@ -54,23 +75,40 @@ public final class IoScheduler extends Scheduler {
 
         EVICTOR_THREAD_FACTORY = new RxThreadFactory(EVICTOR_THREAD_NAME_PREFIX, priority);
 
-        NONE = new CachedWorkerPool(0, null, WORKER_THREAD_FACTORY);
+        MAX_THREADS = Math.max(0, Integer.getInteger(KEY_MAX_THREADS, 0));
+
+        NONE = new CachedWorkerPool(0, null, WORKER_THREAD_FACTORY, 0);
         NONE.shutdown();
     }
 
     static final class CachedWorkerPool implements Runnable {
         private final long keepAliveTime;
-        private final ConcurrentLinkedQueue<ThreadWorker> expiringWorkerQueue;
+        /** The idle workers, the most recently released first. */
+        private final ConcurrentLinkedDeque<ThreadWorker> expiringWorkerQueue;
         final CompositeDisposable allWorkers;
         private final ScheduledExecutorService evictorService;
         private final Future<?> evictorTask;
         private final ThreadFactory threadFactory;
+        /** The maximum number of threads, 0 means unbounded. */
+        final int maxThreads;
+        /** The live workers in bounded mode, guarded by this. */
+        final List<ThreadWorker> liveWorkers;
+        /** The metrics recorder the created workers register with, null if none. */
+        final SchedulerMetricsRecorder metrics;
+
+        CachedWorkerPool(long keepAliveTime, TimeUnit unit, ThreadFactory threadFactory, int maxThreads) {
+            this(keepAliveTime, unit, threadFactory, maxThreads, null);
+        }
 
-        CachedWorkerPool(long keepAliveTime, TimeUnit unit, ThreadFactory threadFactory) {
+        CachedWorkerPool(long keepAliveTime, TimeUnit unit, ThreadFactory threadFactory, int maxThreads,
+                SchedulerMetricsRecorder metrics) {
             this.keepAliveTime = unit != null ? unit.toNanos(keepAliveTime) : 0L;
-            this.expiringWorkerQueue = new ConcurrentLinkedQueue<ThreadWorker>();
+            this.expiringWorkerQueue = new ConcurrentLinkedDeque<ThreadWorker>();
             this.allWorkers = new CompositeDisposable();
             this.threadFactory = threadFactory;
+            this.maxThreads = maxThreads;
+            this.liveWorkers = maxThreads > 0 ? new ArrayList<ThreadWorker>() : null;
+            this.metrics = metrics;
 
             ScheduledExecutorService evictor = null;
             Future<?> task = null;
@@ -84,45 +122,100 @@ public final class IoScheduler extends Scheduler {
 
         @Override
         public void run() {
-            evictExpiredWorkers();
+            if (liveWorkers != null) {
+                synchronized (this) {
+                    evictExpiredWorkers();
+                }
+            } else {
+                evictExpiredWorkers();
+            }
         }
 
         ThreadWorker get() {
             if (allWorkers.isDisposed()) {
                 return SHUTDOWN_THREAD_WORKER;
             }
+            if (maxThreads > 0) {
+                return getBounded();
+            }
             while (!expiringWorkerQueue.isEmpty()) {
-                ThreadWorker threadWorker = expiringWorkerQueue.poll();
+                ThreadWorker threadWorker = expiringWorkerQueue.pollFirst();
                 if (threadWorker != null) {
                     return threadWorker;
                 }
             }
 
             // No cached worker found, so create a new one.
-            ThreadWorker w = new ThreadWorker(threadFactory);
+            ThreadWorker w = new ThreadWorker(threadFactory, metrics);
             allWorkers.add(w);
             return w;
         }
 
+        synchronized ThreadWorker getBounded() {
+            evictExpiredWorkers();
+
+            ThreadWorker w = expiringWorkerQueue.pollFirst();
+            if (w == null) {
+                if (liveWorkers.size() < maxThreads) {
+                    w = new ThreadWorker(threadFactory, metrics);
+                    allWorkers.add(w);
+                    liveWorkers.add(w);
+                } else {
+                    // every thread is in use, share the least shared one
+                    w = liveWorkers.get(0);
+                    for (int i = 1; i < liveWorkers.size(); i++) {
+                        ThreadWorker u = liveWorkers.get(i);
+                        if (u.users < w.users) {
+                            w = u;
+                        }
+                    }
+                }
+            }
+            w.users++;
+            return w;
+        }
+
         void release(ThreadWorker threadWorker) {
+            if (maxThreads > 0) {
+                releaseBounded(threadWorker);
+                return;
+            }
             // Refresh expire time before putting worker back in pool
             threadWorker.setExpirationTime(now() + keepAliveTime);
 
-            expiringWorkerQueue.offer(threadWorker);
+            expiringWorkerQueue.offerFirst(threadWorker);
+        }
+
+        synchronized void releaseBounded(ThreadWorker threadWorker) {
+            if (allWorkers.isDisposed()) {
+                return;
+            }
+            if (--threadWorker.users == 0) {
+                threadWorker.setExpirationTime(now() + keepAliveTime);
+
+                expiringWorkerQueue.offerFirst(threadWorker);
+            }
+
+            evictExpiredWorkers();
         }
 
         void evictExpiredWorkers() {
             if (!expiringWorkerQueue.isEmpty()) {
                 long currentTimestamp = now();
 
-                for (ThreadWorker threadWorker : expiringWorkerQueue) {
+                Iterator<ThreadWorker> it = expiringWorkerQueue.descendingIterator();
+                while (it.hasNext()) {
+                    ThreadWorker threadWorker = it.next();
                     if (threadWorker.getExpirationTime() <= currentTimestamp) {
-                        if (expiringWorkerQueue.remove(threadWorker)) {
+                        if (expiringWorkerQueue.removeLastOccurrence(threadWorker)) {
                             allWorkers.remove(threadWorker);
+                            if (liveWorkers != null) {
+                                liveWorkers.remove(threadWorker);
+                            }
                         }
                     } else {
-                        // Queue is ordered with the worker that will expire first in the beginning, so when we
-                        // find a non-expired worker we can stop evicting.
+                        // Workers are released to the front so the one that will expire first is at the end,
+                        // when we find a non-expired worker we can stop evicting.
                         break;
                     }
                 }
@@ -153,14 +246,25 @@ public final class IoScheduler extends Scheduler {
      *                      system properties for configuring new thread creation. Cannot be null.
      */
     public IoScheduler(ThreadFactory threadFactory) {
+        this(threadFactory, MAX_THREADS);
+    }
+
+    /**
+     * @param threadFactory thread factory to use for creating worker threads. Note that this takes precedence over any
+     *                      system properties for configuring new thread creation. Cannot be null.
+     * @param maxThreads the maximum number of threads, 0 or less means unbounded
+     */
+    public IoScheduler(ThreadFactory threadFactory, int maxThreads) {
         this.threadFactory = threadFactory;
+        this.maxThreads = Math.max(0, maxThreads);
+        this.metrics = new SchedulerMetricsRecorder();
         this.pool = new AtomicReference<CachedWorkerPool>(NONE);
         start();
     }
 
     @Override
     public void start() {
-        CachedWorkerPool update = new CachedWorkerPool(KEEP_ALIVE_TIME, KEEP_ALIVE_UNIT, threadFactory);
+        CachedWorkerPool update = new CachedWorkerPool(KEEP_ALIVE_TIME, KEEP_ALIVE_UNIT, threadFactory, maxThreads, metrics);
         if (!pool.compareAndSet(NONE, update)) {
             update.shutdown();
         }
@@ -189,6 +293,12 @@ public final class IoScheduler extends Scheduler {
         return pool.get().allWorkers.size();
     }
 
+    @NonNull
+    @Override
+    public SchedulerMetricsRecorder metrics() {
+        return metrics;
+    }
+
     static final class EventLoopWorker extends Scheduler.Worker {
         private final CompositeDisposable tasks;
         private final CachedWorkerPool pool;
@@ -232,8 +342,15 @@ public final class IoScheduler extends Scheduler {
     static final class ThreadWorker extends NewThreadWorker {
         private long expirationTime;
 
+        /** The number of EventLoopWorkers using this thread in bounded mode, guarded by the pool. */
+        int users;
+
         ThreadWorker(ThreadFactory threadFactory) {
-            super(threadFactory);
+            this(threadFactory, null);
+        }
+
+        ThreadWorker(ThreadFactory threadFactory, SchedulerMetricsRecorder metrics) {
+            super(threadFactory, metrics);
             this.expirationTime = 0L;
         }
 
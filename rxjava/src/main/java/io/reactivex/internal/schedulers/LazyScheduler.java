@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.util.ExceptionHelper;
+
+/**
+ * Scheduler that creates the actual Scheduler, hence its thread pool, when it is first used.
+ * <p>
+ * Calling {@link #start()}, {@link #shutdown()} or {@link #now(TimeUnit)} doesn't create the actual Scheduler;
+ * a shutdown requested before that is applied once the actual Scheduler has been created and the time
+ * is the wall-clock time of {@link Scheduler#now(TimeUnit)} until then.
+ */
+public final class LazyScheduler extends Scheduler {
+
+    final Callable<? extends Scheduler> supplier;
+
+    volatile Scheduler actual;
+
+    /** Indicates shutdown() was called before the actual Scheduler was created, guarded by this. */
+    boolean shutdownRequested;
+
+    /**
+     * Constructs a LazyScheduler.
+     * @param supplier the supplier of the actual Scheduler, called at most once
+     */
+    public LazyScheduler(Callable<? extends Scheduler> supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Returns the actual Scheduler, creating it if necessary.
+     * @return the actual Scheduler
+     */
+    @NonNull
+    public Scheduler actual() {
+        Scheduler s = actual;
+        if (s == null) {
+            synchronized (this) {
+                s = actual;
+                if (s == null) {
+                    try {
+                        s = ObjectHelper.requireNonNull(supplier.call(), "The supplier returned a null Scheduler");
+                    } catch (Throwable ex) {
+                        throw ExceptionHelper.wrapOrThrow(ex);
+                    }
+                    if (shutdownRequested) {
+                        s.shutdown();
+                    }
+                    actual = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Returns true if the actual Scheduler has been created.
+     * @return true if the actual Scheduler has been created
+     */
+    public boolean isCreated() {
+        return actual != null;
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return actual().createWorker();
+    }
+
+    @Override
+    public long now(@NonNull TimeUnit unit) {
+        Scheduler s = actual;
+        // asking for the time shouldn't start the thread pool
+        return s != null ? s.now(unit) : super.now(unit);
+    }
+
+    @Override
+    public void start() {
+        Scheduler s = actual;
+        if (s == null) {
+            synchronized (this) {
+                s = actual;
+                if (s == null) {
+                    shutdownRequested = false;
+                    return;
+                }
+            }
+        }
+        s.start();
+    }
+
+    @Override
+    public void shutdown() {
+        Scheduler s = actual;
+        if (s == null) {
+            synchronized (this) {
+                s = actual;
+                if (s == null) {
+                    shutdownRequested = true;
+                    return;
+                }
+            }
+        }
+        s.shutdown();
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run) {
+        return actual().scheduleDirect(run);
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+        return actual().scheduleDirect(run, delay, unit);
+    }
+
+    @NonNull
+    @Override
+    public Disposable schedulePeriodicallyDirect(@NonNull Runnable run, long initialDelay, long period, @NonNull TimeUnit unit) {
+        return actual().schedulePeriodicallyDirect(run, initialDelay, period, unit);
+    }
+}
@@ -0,0 +1,653 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.queue.MpscLinkedQueue;
+
+/**
+ * A ScheduledExecutorService backed by a single event loop thread, as a lightweight
+ * replacement of a single-threaded {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+ * <p>
+ * Immediate tasks go through a lock-free multi-producer single-consumer queue: unlike with the
+ * ScheduledThreadPoolExecutor, they don't get wrapped into a ScheduledFutureTask and don't go
+ * through its lock and heap. Delayed tasks are handed over through a second such queue into a
+ * binary heap that only the event loop thread touches, which also purges the cancelled ones
+ * once they pile up. The event loop thread parks when idle and is started on the first task.
+ * <p>
+ * Like the ScheduledThreadPoolExecutor, the Futures capture the failure of their task, a
+ * cancelled periodic task doesn't run again and {@link #shutdown()} keeps running the queued
+ * and delayed, but not the periodic, tasks.
+ */
+public final class MpscEventLoopExecutor extends AbstractExecutorService implements ScheduledExecutorService, Runnable {
+
+    static final int NEW = 0;
+    static final int STARTED = 1;
+    static final int SHUTDOWN = 2;
+    static final int STOP = 3;
+    static final int TERMINATED = 4;
+
+    /** The number of tasks of one kind the event loop runs before checking the other kind. */
+    static final int BATCH_SIZE = 64;
+
+    /** The cancelled delayed tasks get purged once there are this many, a power of 2, and at least half of the delayed tasks. */
+    static final int PURGE_THRESHOLD = 64;
+
+    final ThreadFactory threadFactory;
+
+    final MpscLinkedQueue<LoopTask<?>> queue;
+
+    final MpscLinkedQueue<LoopTask<?>> timedQueue;
+
+    /** The delayed tasks by due time, accessed by the event loop thread only. */
+    final PriorityQueue<LoopTask<?>> timers;
+
+    final AtomicInteger state;
+
+    final AtomicBoolean parked;
+
+    /** The number of delayed tasks cancelled since the last purge. */
+    final AtomicInteger cancelledTimers;
+
+    final CountDownLatch terminated;
+
+    /** The number of tasks accepted so far. */
+    final AtomicLong offered;
+
+    /** The number of tasks run to completion or dropped so far, written by the event loop thread only. */
+    final AtomicLong removed;
+
+    volatile Thread thread;
+
+    /** Orders the delayed tasks with the same due time, accessed by the event loop thread only. */
+    long sequence;
+
+    /** Indicates the periodic tasks have been dropped after a shutdown, accessed by the event loop thread only. */
+    boolean periodicDropped;
+
+    public MpscEventLoopExecutor(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+        this.queue = new MpscLinkedQueue<LoopTask<?>>();
+        this.timedQueue = new MpscLinkedQueue<LoopTask<?>>();
+        this.timers = new PriorityQueue<LoopTask<?>>();
+        this.state = new AtomicInteger();
+        this.parked = new AtomicBoolean();
+        this.cancelledTimers = new AtomicInteger();
+        this.terminated = new CountDownLatch(1);
+        this.offered = new AtomicLong();
+        this.removed = new AtomicLong();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        enqueue(new LoopTask<Object>(this, command, null, null, 0L, 0L, false));
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return enqueue(new LoopTask<Object>(this, task, null, null, 0L, 0L, false));
+    }
+
+    @Override
+    public <T> Future<T> submit(Runnable task, T result) {
+        return enqueue(new LoopTask<T>(this, task, result, null, 0L, 0L, false));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return enqueue(new LoopTask<T>(this, null, null, task, 0L, 0L, false));
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        ObjectHelper.requireNonNull(command, "command is null");
+        if (delay <= 0L) {
+            return enqueue(new LoopTask<Object>(this, command, null, null, 0L, 0L, false));
+        }
+        return enqueue(new LoopTask<Object>(this, command, null, null, dueTime(delay, unit), 0L, true));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        ObjectHelper.requireNonNull(callable, "callable is null");
+        if (delay <= 0L) {
+            return enqueue(new LoopTask<V>(this, null, null, callable, 0L, 0L, false));
+        }
+        return enqueue(new LoopTask<V>(this, null, null, callable, dueTime(delay, unit), 0L, true));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        ObjectHelper.requireNonNull(command, "command is null");
+        if (period <= 0L) {
+            throw new IllegalArgumentException("period <= 0");
+        }
+        return enqueue(new LoopTask<Object>(this, command, null, null, dueTime(initialDelay, unit), unit.toNanos(period), true));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        ObjectHelper.requireNonNull(command, "command is null");
+        if (delay <= 0L) {
+            throw new IllegalArgumentException("delay <= 0");
+        }
+        return enqueue(new LoopTask<Object>(this, command, null, null, dueTime(initialDelay, unit), -unit.toNanos(delay), true));
+    }
+
+    static long dueTime(long delay, TimeUnit unit) {
+        return System.nanoTime() + Math.max(0L, unit.toNanos(delay));
+    }
+
+    <T> LoopTask<T> enqueue(LoopTask<T> task) {
+        int s = state.get();
+        if (s == NEW && state.compareAndSet(NEW, STARTED)) {
+            Thread t = threadFactory.newThread(this);
+            thread = t;
+            t.start();
+            s = STARTED;
+        }
+        if (s >= SHUTDOWN) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        offered.getAndIncrement();
+        if (task.timed) {
+            timedQueue.offer(task);
+        } else {
+            queue.offer(task);
+        }
+        // the event loop may have quit before the task got queued
+        if (state.get() >= SHUTDOWN && task.cancel(false)) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        signal();
+        return task;
+    }
+
+    /**
+     * Returns the number of queued and delayed tasks, including the cancelled ones not yet purged.
+     * @return the number of tasks
+     */
+    public int queueSize() {
+        return (int)Math.max(0L, offered.get() - removed.get());
+    }
+
+    void removed(long n) {
+        removed.lazySet(removed.get() + n);
+    }
+
+    void signal() {
+        if (parked.get() && parked.compareAndSet(true, false)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (;;) {
+            int s = state.get();
+            if (s >= SHUTDOWN) {
+                return;
+            }
+            if (s == NEW) {
+                if (state.compareAndSet(NEW, TERMINATED)) {
+                    terminated.countDown();
+                    return;
+                }
+            } else if (state.compareAndSet(STARTED, SHUTDOWN)) {
+                parked.set(false);
+                LockSupport.unpark(thread);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        for (;;) {
+            int s = state.get();
+            if (s >= STOP) {
+                break;
+            }
+            if (s == NEW) {
+                if (state.compareAndSet(NEW, TERMINATED)) {
+                    terminated.countDown();
+                    break;
+                }
+            } else if (state.compareAndSet(s, STOP)) {
+                Thread t = thread;
+                if (t != null) {
+                    t.interrupt();
+                    LockSupport.unpark(t);
+                }
+                break;
+            }
+        }
+        // the event loop thread cancels the queued tasks on its way out
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return state.get() >= SHUTDOWN;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return state.get() == TERMINATED;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (;;) {
+                int s = state.get();
+                if (s >= STOP) {
+                    break;
+                }
+
+                long wait = runTimers();
+
+                int n = 0;
+                LoopTask<?> t;
+                while (n < BATCH_SIZE && state.get() < STOP && (t = queue.poll()) != null) {
+                    removed(1L);
+                    runTask(t);
+                    n++;
+                }
+                if (n != 0 || wait == 0L) {
+                    continue;
+                }
+
+                if (s == SHUTDOWN && timers.isEmpty() && timedQueue.isEmpty()) {
+                    break;
+                }
+
+                parked.set(true);
+                if (queue.isEmpty() && timedQueue.isEmpty() && state.get() == s) {
+                    if (wait < 0L) {
+                        LockSupport.park(this);
+                    } else {
+                        LockSupport.parkNanos(this, wait);
+                    }
+                }
+                parked.set(false);
+                if (state.get() < STOP) {
+                    // a stale cancellation interrupt would only spin the park
+                    Thread.interrupted();
+                }
+            }
+        } finally {
+            state.set(TERMINATED);
+            cancelAll();
+            terminated.countDown();
+        }
+    }
+
+    void runTask(LoopTask<?> t) {
+        t.run();
+        if (state.get() < STOP) {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Moves the new delayed tasks into the heap and runs the due ones.
+     * @return the nanoseconds until the next delayed task is due, 0 if there are
+     * more due already, -1 if there are none
+     */
+    long runTimers() {
+        final PriorityQueue<LoopTask<?>> heap = timers;
+        LoopTask<?> t;
+        while ((t = timedQueue.poll()) != null) {
+            if (t.isDone()) {
+                removed(1L);
+            } else {
+                t.seq = sequence++;
+                heap.offer(t);
+            }
+        }
+
+        if (!periodicDropped && state.get() >= SHUTDOWN) {
+            periodicDropped = true;
+            dropPeriodic();
+        }
+
+        if (heap.isEmpty()) {
+            return -1L;
+        }
+
+        int c = cancelledTimers.get();
+        if (c >= PURGE_THRESHOLD && c >= heap.size() >> 1) {
+            purge();
+        }
+
+        long now = System.nanoTime();
+        int n = 0;
+        for (;;) {
+            t = heap.peek();
+            if (t == null) {
+                return -1L;
+            }
+            if (t.isDone()) {
+                heap.poll();
+                removed(1L);
+                continue;
+            }
+            long d = t.due - now;
+            if (d > 0L) {
+                return d;
+            }
+            if (n == BATCH_SIZE || state.get() >= STOP) {
+                return 0L;
+            }
+            heap.poll();
+            n++;
+            if (t.period == 0L) {
+                removed(1L);
+                runTask(t);
+                continue;
+            }
+            if (state.get() >= SHUTDOWN) {
+                t.cancel(false);
+                removed(1L);
+                continue;
+            }
+            runTask(t);
+            if (t.isDone()) {
+                removed(1L);
+            } else {
+                t.due = t.period > 0L ? t.due + t.period : System.nanoTime() - t.period;
+                t.seq = sequence++;
+                heap.offer(t);
+            }
+        }
+    }
+
+    void dropPeriodic() {
+        for (LoopTask<?> t : timers) {
+            if (t.period != 0L) {
+                t.cancel(false);
+            }
+        }
+        purge();
+    }
+
+    void purge() {
+        cancelledTimers.set(0);
+        List<LoopTask<?>> alive = new ArrayList<LoopTask<?>>(timers.size());
+        for (LoopTask<?> t : timers) {
+            if (!t.isDone()) {
+                alive.add(t);
+            }
+        }
+        removed(timers.size() - alive.size());
+        timers.clear();
+        timers.addAll(alive);
+    }
+
+    void cancelAll() {
+        long n = 0L;
+        LoopTask<?> t;
+        while ((t = queue.poll()) != null) {
+            t.cancel(false);
+            n++;
+        }
+        while ((t = timedQueue.poll()) != null) {
+            t.cancel(false);
+            n++;
+        }
+        while ((t = timers.poll()) != null) {
+            t.cancel(false);
+            n++;
+        }
+        removed(n);
+    }
+
+    /**
+     * The Future of a task, run by the event loop thread.
+     * <p>
+     * The state lives in a field updater as the Future's get() clashes with AtomicInteger's.
+     * @param <V> the result type
+     */
+    static final class LoopTask<V> implements Runnable, ScheduledFuture<V> {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<LoopTask> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(LoopTask.class, "state");
+
+        static final int READY = 0;
+        static final int RUNNING = 1;
+        static final int DONE = 2;
+        static final int FAILED = 3;
+        static final int CANCELLED = 4;
+        static final int INTERRUPTING = 5;
+
+        final MpscEventLoopExecutor parent;
+
+        final Runnable runnable;
+
+        final V result;
+
+        final Callable<V> callable;
+
+        /** Positive for a fixed rate, negative for a fixed delay, zero if not periodic. */
+        final long period;
+
+        final boolean timed;
+
+        /** The System.nanoTime() the task is due at, changed by the event loop thread only. */
+        long due;
+
+        long seq;
+
+        /** The result or failure of the task. */
+        Object outcome;
+
+        volatile int state;
+
+        volatile boolean waiters;
+
+        LoopTask(MpscEventLoopExecutor parent, Runnable runnable, V result, Callable<V> callable, long due, long period, boolean timed) {
+            this.parent = parent;
+            this.runnable = runnable;
+            this.result = result;
+            this.callable = callable;
+            this.due = due;
+            this.period = period;
+            this.timed = timed;
+        }
+
+        @Override
+        public void run() {
+            if (!STATE.compareAndSet(this, READY, RUNNING)) {
+                return;
+            }
+            try {
+                Object o;
+                if (callable != null) {
+                    o = callable.call();
+                } else {
+                    runnable.run();
+                    o = result;
+                }
+                if (period != 0L) {
+                    if (STATE.compareAndSet(this, RUNNING, READY)) {
+                        return;
+                    }
+                } else {
+                    outcome = o;
+                    if (STATE.compareAndSet(this, RUNNING, DONE)) {
+                        complete();
+                        return;
+                    }
+                }
+            } catch (Throwable ex) {
+                outcome = ex;
+                if (STATE.compareAndSet(this, RUNNING, FAILED)) {
+                    complete();
+                    return;
+                }
+            }
+            // cancelled while running, let the interrupt land before the next task
+            while (state == INTERRUPTING) {
+                Thread.yield();
+            }
+        }
+
+        void complete() {
+            if (waiters) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            for (;;) {
+                int s = state;
+                if (s == READY) {
+                    if (STATE.compareAndSet(this, READY, CANCELLED)) {
+                        break;
+                    }
+                } else if (s == RUNNING) {
+                    if (mayInterruptIfRunning) {
+                        if (STATE.compareAndSet(this, RUNNING, INTERRUPTING)) {
+                            Thread t = parent.thread;
+                            if (t != null) {
+                                t.interrupt();
+                            }
+                            STATE.lazySet(this, CANCELLED);
+                            break;
+                        }
+                    } else if (STATE.compareAndSet(this, RUNNING, CANCELLED)) {
+                        break;
+                    }
+                } else {
+                    return false;
+                }
+            }
+            if (timed && (parent.cancelledTimers.incrementAndGet() & (PURGE_THRESHOLD - 1)) == 0) {
+                // the event loop may be parked until a far away due time
+                parent.signal();
+            }
+            complete();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state >= CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state >= DONE;
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            if (state < DONE) {
+                synchronized (this) {
+                    waiters = true;
+                    while (state < DONE) {
+                        wait();
+                    }
+                }
+            }
+            return report();
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (state < DONE) {
+                long deadline = System.nanoTime() + unit.toNanos(timeout);
+                synchronized (this) {
+                    waiters = true;
+                    while (state < DONE) {
+                        long left = deadline - System.nanoTime();
+                        if (left <= 0L) {
+                            throw new TimeoutException();
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, left);
+                    }
+                }
+            }
+            return report();
+        }
+
+        @SuppressWarnings("unchecked")
+        V report() throws ExecutionException {
+            int s = state;
+            if (s >= CANCELLED) {
+                throw new CancellationException();
+            }
+            if (s == FAILED) {
+                throw new ExecutionException((Throwable)outcome);
+            }
+            return (V)outcome;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return timed ? unit.convert(due - System.nanoTime(), TimeUnit.NANOSECONDS) : 0L;
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            if (o == this) {
+                return 0;
+            }
+            long d;
+            if (o instanceof LoopTask) {
+                LoopTask<?> t = (LoopTask<?>)o;
+                d = due - t.due;
+                if (d == 0L) {
+                    d = seq - t.seq;
+                }
+            } else {
+                d = getDelay(TimeUnit.NANOSECONDS) - o.getDelay(TimeUnit.NANOSECONDS);
+            }
+            return d < 0L ? -1 : (d > 0L ? 1 : 0);
+        }
+    }
+}
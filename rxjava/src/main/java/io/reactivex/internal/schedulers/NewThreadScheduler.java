@@ -20,14 +20,17 @@ import java.util.concurrent.ThreadFactory;
 
 import io.reactivex.Scheduler;
 import io.reactivex.annotations.NonNull;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.MeteredScheduler;
 
 /**
  * Schedules work on a new thread.
  */
-public final class NewThreadScheduler extends Scheduler {
+public final class NewThreadScheduler extends Scheduler implements MeteredScheduler {
 
     final ThreadFactory threadFactory;
 
+    final SchedulerMetricsRecorder metrics;
+
     private static final String THREAD_NAME_PREFIX = "RxNewThreadScheduler";
     private static final RxThreadFactory THREAD_FACTORY;
 
@@ -47,11 +50,18 @@ public final class NewThreadScheduler extends Scheduler {
 
     public NewThreadScheduler(ThreadFactory threadFactory) {
         this.threadFactory = threadFactory;
+        this.metrics = new SchedulerMetricsRecorder();
     }
 
     @NonNull
     @Override
     public Worker createWorker() {
-        return new NewThreadWorker(threadFactory);
+        return new NewThreadWorker(threadFactory, metrics);
+    }
+
+    @NonNull
+    @Override
+    public SchedulerMetricsRecorder metrics() {
+        return metrics;
     }
 }
@@ -27,12 +27,39 @@ import io.reactivex.plugins.RxJavaPlugins;
  *
  */
 public class NewThreadWorker extends Scheduler.Worker implements Disposable {
-    private final ScheduledExecutorService executor;
+    final ScheduledExecutorService executor;
+
+    /** The metrics recorder of the owning scheduler or null. */
+    final SchedulerMetricsRecorder metrics;
 
     volatile boolean disposed;
 
     public NewThreadWorker(ThreadFactory threadFactory) {
-        executor = SchedulerPoolFactory.create(threadFactory);
+        this(threadFactory, null);
+    }
+
+    /**
+     * Creates a NewThreadWorker that registers with and reports its tasks to the
+     * given metrics recorder.
+     * @param threadFactory the factory for the backing thread
+     * @param metrics the metrics recorder of the owning scheduler, null if none
+     */
+    public NewThreadWorker(ThreadFactory threadFactory, SchedulerMetricsRecorder metrics) {
+        this(SchedulerPoolFactory.create(threadFactory), metrics);
+    }
+
+    /**
+     * Creates a NewThreadWorker running on the given single-threaded executor that registers
+     * with and reports its tasks to the given metrics recorder.
+     * @param executor the single-threaded executor, owned by this worker from now on
+     * @param metrics the metrics recorder of the owning scheduler, null if none
+     */
+    protected NewThreadWorker(ScheduledExecutorService executor, SchedulerMetricsRecorder metrics) {
+        this.executor = executor;
+        this.metrics = metrics;
+        if (metrics != null) {
+            metrics.register(this);
+        }
     }
 
     @NonNull
@@ -59,13 +86,14 @@ public class NewThreadWorker extends Scheduler.Worker implements Disposable {
      * @return the ScheduledRunnable instance
      */
     public Disposable scheduleDirect(final Runnable run, long delayTime, TimeUnit unit) {
-        ScheduledDirectTask task = new ScheduledDirectTask(RxJavaPlugins.onSchedule(run));
+        Runnable decoratedRun = SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), delayTime, unit);
+        ScheduledDirectTask task = new ScheduledDirectTask(decoratedRun);
         try {
             Future<?> f;
             if (delayTime <= 0L) {
                 f = executor.submit(task);
             } else {
-                f = executor.schedule(task, delayTime, unit);
+                f = HashedWheelTimer.schedule(executor, task, delayTime, unit);
             }
             task.setFuture(f);
             return task;
@@ -85,7 +113,7 @@ public class NewThreadWorker extends Scheduler.Worker implements Disposable {
      * @return the ScheduledRunnable instance
      */
     public Disposable schedulePeriodicallyDirect(Runnable run, long initialDelay, long period, TimeUnit unit) {
-        final Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+        final Runnable decoratedRun = SchedulerMetricsRecorder.wrapPeriodic(metrics, RxJavaPlugins.onSchedule(run), initialDelay, period, unit);
         if (period <= 0L) {
 
             InstantPeriodicTask periodicWrapper = new InstantPeriodicTask(decoratedRun, executor);
@@ -129,7 +157,7 @@ public class NewThreadWorker extends Scheduler.Worker implements Disposable {
      */
     @NonNull
     public ScheduledRunnable scheduleActual(final Runnable run, long delayTime, @NonNull TimeUnit unit, @Nullable DisposableContainer parent) {
-        Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+        Runnable decoratedRun = SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), delayTime, unit);
 
         ScheduledRunnable sr = new ScheduledRunnable(decoratedRun, parent);
 
@@ -144,7 +172,7 @@ public class NewThreadWorker extends Scheduler.Worker implements Disposable {
             if (delayTime <= 0) {
                 f = executor.submit((Callable<Object>)sr);
             } else {
-                f = executor.schedule((Callable<Object>)sr, delayTime, unit);
+                f = HashedWheelTimer.schedule(executor, (Callable<Object>)sr, delayTime, unit);
             }
             sr.setFuture(f);
         } catch (RejectedExecutionException ex) {
@@ -162,6 +190,9 @@ public class NewThreadWorker extends Scheduler.Worker implements Disposable {
         if (!disposed) {
             disposed = true;
             executor.shutdownNow();
+            if (metrics != null) {
+                metrics.unregister(this);
+            }
         }
     }
 
@@ -172,6 +203,9 @@ public class NewThreadWorker extends Scheduler.Worker implements Disposable {
         if (!disposed) {
             disposed = true;
             executor.shutdown();
+            if (metrics != null) {
+                metrics.unregister(this);
+            }
         }
     }
 
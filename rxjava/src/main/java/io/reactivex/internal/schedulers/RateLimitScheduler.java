@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.internal.disposables.SequentialDisposable;
+import io.reactivex.internal.queue.MpscLinkedQueue;
+
+/**
+ * Scheduler that hands at most a given number of tasks per time period to the workers of the
+ * underlying Scheduler.
+ * <p>
+ * The permits are tracked with the generic cell rate algorithm in a single atomic: a burst of up
+ * to the limit may start at once, after which a new permit frees up every {@code period / limit}.
+ * Tasks without a permit wait in a shared FIFO queue, so each worker's tasks keep their order and
+ * the workers take turns. Delayed tasks ask for a permit once their delay has passed.
+ */
+public final class RateLimitScheduler extends Scheduler {
+
+    final Scheduler actual;
+
+    final long periodNanos;
+
+    final long intervalNanos;
+
+    /** The theoretical arrival time of the next task, in the underlying Scheduler's nanoseconds. */
+    final AtomicLong tat;
+
+    final MpscLinkedQueue<RatedTask> queue;
+
+    final AtomicInteger wip;
+
+    final AtomicBoolean wakeupScheduled;
+
+    final Runnable wakeup;
+
+    /** The task polled from the queue that is still waiting for a permit, written by the drain loop only. */
+    volatile RatedTask head;
+
+    public RateLimitScheduler(Scheduler actual, int maxTasks, long period, TimeUnit unit) {
+        this.actual = actual;
+        this.periodNanos = unit.toNanos(period);
+        this.intervalNanos = Math.max(1L, periodNanos / maxTasks);
+        this.tat = new AtomicLong(Long.MIN_VALUE);
+        this.queue = new MpscLinkedQueue<RatedTask>();
+        this.wip = new AtomicInteger();
+        this.wakeupScheduled = new AtomicBoolean();
+        this.wakeup = new Wakeup();
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return new RatedWorker(this, actual.createWorker());
+    }
+
+    @Override
+    public long now(@NonNull TimeUnit unit) {
+        return actual.now(unit);
+    }
+
+    /**
+     * Tries to take a permit.
+     * @return 0 if a permit was taken, otherwise the nanoseconds until one frees up
+     */
+    long tryAcquire() {
+        for (;;) {
+            long now = actual.now(TimeUnit.NANOSECONDS);
+            long t = tat.get();
+            long next = Math.max(t, now) + intervalNanos;
+            long wait = next - periodNanos - now;
+            if (wait > 0L) {
+                return wait;
+            }
+            if (tat.compareAndSet(t, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    boolean canBypass() {
+        // a parked task, waiting for its wakeup, is the first in line for the next permit
+        return wip.get() == 0 && head == null && !wakeupScheduled.get() && queue.isEmpty() && tryAcquire() == 0L;
+    }
+
+    void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        final MpscLinkedQueue<RatedTask> q = queue;
+        for (;;) {
+            for (;;) {
+                RatedTask t = head;
+                if (t == null) {
+                    t = q.poll();
+                    if (t == null) {
+                        break;
+                    }
+                }
+                if (t.isDisposed() || t.worker.disposed) {
+                    head = null;
+                    continue;
+                }
+                long wait = tryAcquire();
+                if (wait != 0L) {
+                    head = t;
+                    if (wakeupScheduled.compareAndSet(false, true)) {
+                        actual.scheduleDirect(wakeup, wait, TimeUnit.NANOSECONDS);
+                    }
+                    break;
+                }
+                head = null;
+                t.submit();
+            }
+
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    final class Wakeup implements Runnable {
+        @Override
+        public void run() {
+            wakeupScheduled.set(false);
+            drain();
+        }
+    }
+
+    static final class RatedWorker extends Scheduler.Worker {
+
+        final RateLimitScheduler parent;
+
+        final Worker actual;
+
+        volatile boolean disposed;
+
+        RatedWorker(RateLimitScheduler parent, Worker actual) {
+            this.parent = parent;
+            this.actual = actual;
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run) {
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            RateLimitScheduler p = parent;
+            // queued tasks, possibly of this worker, go first
+            if (p.canBypass()) {
+                return actual.schedule(run);
+            }
+            RatedTask t = new RatedTask(this, run);
+            p.queue.offer(t);
+            p.drain();
+            return t;
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+            if (delay <= 0L) {
+                return schedule(run);
+            }
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+
+            SequentialDisposable first = new SequentialDisposable();
+
+            SequentialDisposable mar = new SequentialDisposable(first);
+
+            first.replace(actual.schedule(new DelayedSchedule(this, mar, run), delay, unit));
+
+            return mar;
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                actual.dispose();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        @Override
+        public long now(@NonNull TimeUnit unit) {
+            return parent.now(unit);
+        }
+    }
+
+    /**
+     * Asks for a permit for a delayed task once its delay has passed.
+     */
+    static final class DelayedSchedule implements Runnable {
+        final RatedWorker worker;
+
+        final SequentialDisposable mar;
+
+        final Runnable run;
+
+        DelayedSchedule(RatedWorker worker, SequentialDisposable mar, Runnable run) {
+            this.worker = worker;
+            this.mar = mar;
+            this.run = run;
+        }
+
+        @Override
+        public void run() {
+            mar.replace(worker.schedule(run));
+        }
+    }
+
+    static final class RatedTask extends AtomicReference<Disposable> implements Disposable {
+
+        private static final long serialVersionUID = 2860640307516624435L;
+
+        final RatedWorker worker;
+
+        final Runnable run;
+
+        RatedTask(RatedWorker worker, Runnable run) {
+            this.worker = worker;
+            this.run = run;
+        }
+
+        void submit() {
+            DisposableHelper.replace(this, worker.actual.schedule(run));
+        }
+
+        @Override
+        public void dispose() {
+            DisposableHelper.dispose(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return DisposableHelper.isDisposed(get());
+        }
+    }
+}
@@ -102,6 +102,7 @@ implements Runnable, Callable<Object>, Disposable {
                 break;
             }
             if (compareAndSet(FUTURE_INDEX, o, DISPOSED)) {
+                SchedulerMetricsRecorder.cancel(actual);
                 if (o != null) {
                     ((Future<?>)o).cancel(get(THREAD_INDEX) != Thread.currentThread());
                 }
@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import io.reactivex.annotations.NonNull;
+import io.reactivex.annotations.Nullable;
+import io.reactivex.schedulers.SchedulerMetrics;
+
+/**
+ * Collects the {@link SchedulerMetrics} of a standard scheduler.
+ * <p>
+ * The queue depths are sampled from the registered {@link NewThreadWorker}s or from the
+ * {@link QueueDepthProbe} of the scheduler. The counters and histograms are fed by
+ * {@link MeteredRunnable}s, which the schedulers only create when {@link #ENABLED} is true.
+ */
+public final class SchedulerMetricsRecorder implements SchedulerMetrics {
+
+    /** The name of the system property for enabling the task counters and histograms. */
+    static final String KEY_SCHEDULER_METRICS = "rx2.scheduler-metrics";
+
+    /** Whether the task counters and histograms are collected. */
+    public static final boolean ENABLED;
+
+    static final int[] EMPTY = new int[0];
+
+    static {
+        ENABLED = Boolean.getBoolean(KEY_SCHEDULER_METRICS);
+    }
+
+    /** Provides the queue depths of schedulers not built from NewThreadWorkers. */
+    public interface QueueDepthProbe {
+        /**
+         * Returns the current queue depth of each backing thread.
+         * @return the array of queue depths, not null
+         */
+        int[] queueDepths();
+    }
+
+    /** Implemented by the schedulers that collect metrics. */
+    public interface MeteredScheduler {
+        /**
+         * Returns the metrics recorder of this scheduler.
+         * @return the metrics recorder
+         */
+        @NonNull
+        SchedulerMetricsRecorder metrics();
+    }
+
+    final QueueDepthProbe probe;
+
+    final ConcurrentHashMap<NewThreadWorker, Object> workers;
+
+    final AtomicLong submitted;
+
+    final AtomicLong executed;
+
+    final AtomicLong cancelled;
+
+    final LiveHistogram queueWait;
+
+    final LiveHistogram runTime;
+
+    /**
+     * Constructs a recorder that samples the queue depths of the registered NewThreadWorkers.
+     */
+    public SchedulerMetricsRecorder() {
+        this(null);
+    }
+
+    /**
+     * Constructs a recorder that samples the queue depths via the given probe.
+     * @param probe the probe, null to sample the registered NewThreadWorkers
+     */
+    public SchedulerMetricsRecorder(@Nullable QueueDepthProbe probe) {
+        this.probe = probe;
+        this.workers = probe == null ? new ConcurrentHashMap<NewThreadWorker, Object>() : null;
+        this.submitted = new AtomicLong();
+        this.executed = new AtomicLong();
+        this.cancelled = new AtomicLong();
+        this.queueWait = new LiveHistogram();
+        this.runTime = new LiveHistogram();
+    }
+
+    /**
+     * Wraps the one-shot task into a MeteredRunnable if metrics are enabled.
+     * @param recorder the recorder, null if the scheduler has none
+     * @param run the task to wrap
+     * @param delay the delay
+     * @param unit the time unit of the delay, ignored if the delay is 0 or less
+     * @return the wrapped or the original task
+     */
+    public static Runnable wrap(@Nullable SchedulerMetricsRecorder recorder, Runnable run, long delay, @Nullable TimeUnit unit) {
+        if (!ENABLED || recorder == null) {
+            return run;
+        }
+        long delayNanos = delay > 0L ? unit.toNanos(delay) : 0L;
+        return new MeteredRunnable(run, recorder, delayNanos, 0L, false);
+    }
+
+    /**
+     * Wraps the periodic task into a MeteredRunnable if metrics are enabled.
+     * @param recorder the recorder, null if the scheduler has none
+     * @param run the task to wrap
+     * @param initialDelay the initial delay
+     * @param period the period, 0 or less for back-to-back executions
+     * @param unit the time unit of the initial delay and period
+     * @return the wrapped or the original task
+     */
+    public static Runnable wrapPeriodic(@Nullable SchedulerMetricsRecorder recorder, Runnable run, long initialDelay, long period, @NonNull TimeUnit unit) {
+        if (!ENABLED || recorder == null) {
+            return run;
+        }
+        long delayNanos = initialDelay > 0L ? unit.toNanos(initialDelay) : 0L;
+        long periodNanos = period > 0L ? unit.toNanos(period) : 0L;
+        return new MeteredRunnable(run, recorder, delayNanos, periodNanos, true);
+    }
+
+    /**
+     * Counts the task as cancelled if it is a MeteredRunnable that hasn't started yet.
+     * @param run the task being disposed
+     */
+    public static void cancel(Runnable run) {
+        if (run instanceof MeteredRunnable) {
+            ((MeteredRunnable)run).cancel();
+        }
+    }
+
+    /**
+     * Returns the queue size of the executor if it exposes one.
+     * @param executor the executor to sample
+     * @return the queue size or 0
+     */
+    static int queueSize(ScheduledExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor)executor).getQueue().size();
+        }
+        if (executor instanceof MpscEventLoopExecutor) {
+            return ((MpscEventLoopExecutor)executor).queueSize();
+        }
+        return 0;
+    }
+
+    void register(NewThreadWorker worker) {
+        ConcurrentHashMap<NewThreadWorker, Object> ws = workers;
+        if (ws != null) {
+            ws.put(worker, this);
+        }
+    }
+
+    void unregister(NewThreadWorker worker) {
+        ConcurrentHashMap<NewThreadWorker, Object> ws = workers;
+        if (ws != null) {
+            ws.remove(worker);
+        }
+    }
+
+    @NonNull
+    @Override
+    public int[] queueDepths() {
+        if (probe != null) {
+            return probe.queueDepths();
+        }
+        int[] result = new int[workers.size()];
+        int i = 0;
+        Iterator<NewThreadWorker> it = workers.keySet().iterator();
+        while (it.hasNext() && i < result.length) {
+            result[i++] = queueSize(it.next().executor);
+        }
+        if (i < result.length) {
+            int[] b = new int[i];
+            System.arraycopy(result, 0, b, 0, i);
+            result = b;
+        }
+        return result;
+    }
+
+    @Override
+    public long submittedCount() {
+        return submitted.get();
+    }
+
+    @Override
+    public long executedCount() {
+        return executed.get();
+    }
+
+    @Override
+    public long cancelledCount() {
+        return cancelled.get();
+    }
+
+    @NonNull
+    @Override
+    public Histogram queueWaitTime() {
+        return queueWait.snapshot();
+    }
+
+    @NonNull
+    @Override
+    public Histogram runTime() {
+        return runTime.snapshot();
+    }
+
+    @Override
+    public String toString() {
+        return "SchedulerMetrics[submitted=" + submittedCount() + ", executed=" + executedCount()
+                + ", cancelled=" + cancelledCount() + ", queueWait=" + queueWaitTime()
+                + ", runTime=" + runTime() + "]";
+    }
+
+    static final class LiveHistogram extends AtomicLongArray {
+
+        private static final long serialVersionUID = -3493592632925349421L;
+
+        final AtomicLong sum;
+
+        LiveHistogram() {
+            super(Histogram.BUCKETS);
+            this.sum = new AtomicLong();
+        }
+
+        void record(long nanos) {
+            getAndIncrement(Histogram.bucketOf(nanos));
+            if (nanos > 0L) {
+                sum.getAndAdd(nanos);
+            }
+        }
+
+        Histogram snapshot() {
+            long[] b = new long[Histogram.BUCKETS];
+            for (int i = 0; i < b.length; i++) {
+                b[i] = get(i);
+            }
+            return new Histogram(b, sum.get());
+        }
+    }
+
+    /**
+     * Wraps a task and records its queue wait and run times.
+     */
+    static final class MeteredRunnable extends AtomicInteger implements Runnable {
+
+        private static final long serialVersionUID = 6384627209464298342L;
+
+        static final int READY = 0;
+        static final int RUNNING = 1;
+        static final int DONE = 2;
+        static final int CANCELLED = 3;
+
+        final Runnable actual;
+
+        final SchedulerMetricsRecorder recorder;
+
+        final long period;
+
+        final boolean periodic;
+
+        /** The time the next execution is due, accessed by one runner at a time. */
+        long due;
+
+        MeteredRunnable(Runnable actual, SchedulerMetricsRecorder recorder, long delay, long period, boolean periodic) {
+            this.actual = actual;
+            this.recorder = recorder;
+            this.period = period;
+            this.periodic = periodic;
+            this.due = System.nanoTime() + delay;
+            recorder.submitted.getAndIncrement();
+        }
+
+        @Override
+        public void run() {
+            if (!compareAndSet(READY, RUNNING)) {
+                return;
+            }
+            long start = System.nanoTime();
+            recorder.queueWait.record(start - due);
+            try {
+                actual.run();
+            } finally {
+                long end = System.nanoTime();
+                recorder.runTime.record(end - start);
+                recorder.executed.getAndIncrement();
+                if (periodic) {
+                    // back-to-back executions become due as the previous one ends
+                    due = period > 0L ? due + period : end;
+                    compareAndSet(RUNNING, READY);
+                } else {
+                    compareAndSet(RUNNING, DONE);
+                }
+            }
+        }
+
+        void cancel() {
+            for (;;) {
+                int s = get();
+                if (s == DONE || s == CANCELLED) {
+                    return;
+                }
+                if (compareAndSet(s, CANCELLED)) {
+                    if (s == READY) {
+                        recorder.cancelled.getAndIncrement();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
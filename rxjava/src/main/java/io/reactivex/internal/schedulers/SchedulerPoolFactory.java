@@ -43,9 +43,28 @@ public final class SchedulerPoolFactory {
      */
     public static final int PURGE_PERIOD_SECONDS;
 
+    static final String EVENT_LOOP_KEY = "rx2.mpsc-event-loop";
+
+    /**
+     * Indicates the event loops of the computation and single schedulers run on a
+     * {@link MpscEventLoopExecutor} instead of a ScheduledThreadPoolExecutor.
+     */
+    public static final boolean EVENT_LOOP;
+
+    static final String LAZY_KEY = "rx2.lazy-schedulers";
+
+    /**
+     * Indicates the standard schedulers and the purge thread are created when first used
+     * instead of when the Schedulers class is initialized.
+     */
+    public static final boolean LAZY;
+
     static final AtomicReference<ScheduledExecutorService> PURGE_THREAD =
             new AtomicReference<ScheduledExecutorService>();
 
+    /** Set by {@link #shutdown()} and cleared by {@link #start()}, keeps create() from restarting the purge thread. */
+    static volatile boolean shutdownRequested;
+
     // Upcast to the Map interface here to avoid 8.x compatibility issues.
     // See http://stackoverflow.com/a/32955708/61158
     static final Map<ScheduledThreadPoolExecutor, Object> POOLS =
@@ -55,6 +74,7 @@ public final class SchedulerPoolFactory {
      * Starts the purge thread if not already started.
      */
     public static void start() {
+        shutdownRequested = false;
         if (!PURGE_ENABLED) {
             return;
         }
@@ -79,6 +99,7 @@ public final class SchedulerPoolFactory {
      * Stops the purge thread.
      */
     public static void shutdown() {
+        shutdownRequested = true;
         ScheduledExecutorService exec = PURGE_THREAD.get();
         if (exec != null) {
             exec.shutdownNow();
@@ -103,7 +124,23 @@ public final class SchedulerPoolFactory {
         PURGE_ENABLED = purgeEnable;
         PURGE_PERIOD_SECONDS = purgePeriod;
 
-        start();
+        EVENT_LOOP = Boolean.getBoolean(EVENT_LOOP_KEY);
+
+        LAZY = Boolean.getBoolean(LAZY_KEY);
+
+        if (!LAZY) {
+            start();
+        }
+    }
+
+    /**
+     * Starts the purge thread if it was never started before and not shut down since,
+     * used when the first pool is created in lazy mode.
+     */
+    static void startLazily() {
+        if (!shutdownRequested && PURGE_THREAD.get() == null) {
+            start();
+        }
     }
 
     /**
@@ -112,6 +149,9 @@ public final class SchedulerPoolFactory {
      * @return the ScheduledExecutorService
      */
     public static ScheduledExecutorService create(ThreadFactory factory) {
+        if (LAZY) {
+            startLazily();
+        }
         final ScheduledExecutorService exec = Executors.newScheduledThreadPool(1, factory);
         if (PURGE_ENABLED && exec instanceof ScheduledThreadPoolExecutor) {
             ScheduledThreadPoolExecutor e = (ScheduledThreadPoolExecutor) exec;
@@ -120,6 +160,18 @@ public final class SchedulerPoolFactory {
         return exec;
     }
 
+    /**
+     * Creates the ScheduledExecutorService of a single event loop thread with the given factory.
+     * @param factory the thread factory
+     * @return a MpscEventLoopExecutor if enabled, the ScheduledExecutorService of {@link #create(ThreadFactory)} otherwise
+     */
+    public static ScheduledExecutorService createEventLoop(ThreadFactory factory) {
+        if (EVENT_LOOP) {
+            return new MpscEventLoopExecutor(factory);
+        }
+        return create(factory);
+    }
+
     static final class ScheduledTask implements Runnable {
         @Override
         public void run() {
@@ -0,0 +1,335 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.util.OpenHashSet;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Runs the periodic tasks of the interval operators that have the same Scheduler, period and phase
+ * from one shared periodic task per such group.
+ * <p>
+ * The phase of a task is the time of its first run modulo the period, rounded up to the resolution;
+ * the first run of a task is hence delayed by less than the resolution. Each group is scheduled via
+ * {@link Scheduler#schedulePeriodicallyDirect(Runnable, long, long, TimeUnit)}, so the drift
+ * correction of the Scheduler applies unchanged. The tasks of a group run one after the other on the
+ * thread of the shared periodic task.
+ */
+public final class SharedIntervalTimer {
+    /** Utility class. */
+    private SharedIntervalTimer() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    static final String KEY_SHARED_INTERVAL = "rx2.shared-interval";
+
+    static final String KEY_SHARED_INTERVAL_RESOLUTION = "rx2.shared-interval-resolution-millis";
+
+    /**
+     * Indicates the interval operators share their periodic tasks.
+     */
+    public static final boolean ENABLED;
+
+    static final long RESOLUTION_NANOS;
+
+    static {
+        ENABLED = Boolean.getBoolean(KEY_SHARED_INTERVAL);
+        RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, Long.getLong(KEY_SHARED_INTERVAL_RESOLUTION, 10L)));
+    }
+
+    static final ConcurrentHashMap<GroupKey, IntervalGroup> GROUPS = new ConcurrentHashMap<GroupKey, IntervalGroup>();
+
+    /**
+     * Schedules a periodic task on the shared periodic task of its group if enabled, directly on
+     * the Scheduler otherwise.
+     * @param scheduler the scheduler to run the task on
+     * @param run the task to run periodically
+     * @param initialDelay the initial delay
+     * @param period the period
+     * @param unit the time unit of the initial delay and the period
+     * @return the Disposable to cancel the task
+     */
+    public static Disposable schedulePeriodicallyDirect(Scheduler scheduler, Runnable run, long initialDelay, long period, TimeUnit unit) {
+        if (!ENABLED) {
+            return scheduler.schedulePeriodicallyDirect(run, initialDelay, period, unit);
+        }
+        return schedulePeriodicallyDirect(scheduler, run, initialDelay, period, unit, RESOLUTION_NANOS);
+    }
+
+    static Disposable schedulePeriodicallyDirect(Scheduler scheduler, Runnable run, long initialDelay, long period, TimeUnit unit,
+            long resolution) {
+        long p = unit.toNanos(period);
+        if (p < resolution) {
+            // there would be as many groups as tasks
+            return scheduler.schedulePeriodicallyDirect(run, initialDelay, period, unit);
+        }
+
+        long due = scheduler.now(TimeUnit.NANOSECONDS) + Math.max(0L, unit.toNanos(initialDelay));
+        long m = due % p;
+        if (m < 0L) {
+            m += p;
+        }
+        long phase = Math.min(p, (m + resolution - 1) / resolution * resolution);
+        long first = due - m + phase;
+
+        GroupKey key = new GroupKey(scheduler, p, phase % p);
+        IntervalMember member = new IntervalMember(RxJavaPlugins.onSchedule(run), first);
+
+        for (;;) {
+            IntervalGroup g = GROUPS.get(key);
+            if (g == null) {
+                g = new IntervalGroup(key);
+                IntervalGroup prev = GROUPS.putIfAbsent(key, g);
+                if (prev != null) {
+                    g = prev;
+                }
+            }
+            if (g.add(member)) {
+                return member;
+            }
+            GROUPS.remove(key, g);
+        }
+    }
+
+    /**
+     * Cancels the shared periodic tasks and forgets their groups.
+     */
+    public static void shutdown() {
+        for (IntervalGroup g : GROUPS.values()) {
+            g.terminate();
+        }
+    }
+
+    static final class GroupKey {
+        final Scheduler scheduler;
+
+        final long period;
+
+        final long phase;
+
+        GroupKey(Scheduler scheduler, long period, long phase) {
+            this.scheduler = scheduler;
+            this.period = period;
+            this.phase = phase;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof GroupKey) {
+                GroupKey o = (GroupKey)obj;
+                return scheduler == o.scheduler && period == o.period && phase == o.phase;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = System.identityHashCode(scheduler);
+            h = 31 * h + (int)(period ^ (period >>> 32));
+            return 31 * h + (int)(phase ^ (phase >>> 32));
+        }
+    }
+
+    static final class IntervalGroup {
+
+        final GroupKey key;
+
+        /** The members of the group, guarded by this. */
+        final OpenHashSet<IntervalMember> members;
+
+        /** The current periodic task of the group, guarded by this. */
+        GroupTick tick;
+
+        /** Indicates the group is empty and must not be joined anymore, guarded by this. */
+        boolean terminated;
+
+        IntervalGroup(GroupKey key) {
+            this.key = key;
+            this.members = new OpenHashSet<IntervalMember>();
+        }
+
+        boolean add(IntervalMember member) {
+            GroupTick old;
+            GroupTick next;
+            synchronized (this) {
+                if (terminated) {
+                    return false;
+                }
+                member.group = this;
+                members.add(member);
+                old = tick;
+                if (old != null && old.start - member.first <= 0L) {
+                    return true;
+                }
+                // the member is due before the first run of the current periodic task
+                next = new GroupTick(this, member.first, key.period);
+                tick = next;
+            }
+            if (old != null) {
+                old.dispose();
+            }
+            Scheduler s = key.scheduler;
+            long delay = member.first - s.now(TimeUnit.NANOSECONDS);
+            next.setResource(s.schedulePeriodicallyDirect(next, delay, key.period, TimeUnit.NANOSECONDS));
+            return true;
+        }
+
+        void remove(IntervalMember member) {
+            GroupTick t;
+            synchronized (this) {
+                if (!members.remove(member) || members.size() != 0) {
+                    return;
+                }
+                terminated = true;
+                t = tick;
+            }
+            GROUPS.remove(key, this);
+            if (t != null) {
+                t.dispose();
+            }
+        }
+
+        void terminate() {
+            GroupTick t;
+            synchronized (this) {
+                terminated = true;
+                t = tick;
+            }
+            GROUPS.remove(key, this);
+            if (t != null) {
+                t.dispose();
+            }
+        }
+
+        /**
+         * Returns the members if the given task is the current periodic task of the group.
+         * @param t the periodic task about to run the members
+         * @return the keys of the members' set or null if the task has been replaced
+         */
+        Object[] snapshot(GroupTick t) {
+            synchronized (this) {
+                if (tick != t || terminated) {
+                    return null;
+                }
+                return members.keys().clone();
+            }
+        }
+    }
+
+    static final class GroupTick extends AtomicReference<Disposable> implements Runnable, Disposable {
+
+        private static final long serialVersionUID = -3371546245245938385L;
+
+        final IntervalGroup group;
+
+        /** The time of the first run, in the time of the Scheduler. */
+        final long start;
+
+        final long period;
+
+        /** The number of runs so far, accessed from the periodic task only. */
+        long index;
+
+        GroupTick(IntervalGroup group, long start, long period) {
+            this.group = group;
+            this.start = start;
+            this.period = period;
+        }
+
+        void setResource(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void run() {
+            Object[] a = group.snapshot(this);
+            if (a == null) {
+                return;
+            }
+            long t = start + index++ * period;
+            for (Object o : a) {
+                if (o != null) {
+                    IntervalMember m = (IntervalMember)o;
+                    if (m.first - t <= 0L) {
+                        m.tick();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            DisposableHelper.dispose(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return DisposableHelper.isDisposed(get());
+        }
+    }
+
+    static final class IntervalMember extends AtomicBoolean implements Disposable {
+
+        private static final long serialVersionUID = 2842305213575040153L;
+
+        final Runnable run;
+
+        /** The time of the first run, in the time of the Scheduler. */
+        final long first;
+
+        volatile IntervalGroup group;
+
+        IntervalMember(Runnable run, long first) {
+            this.run = run;
+            this.first = first;
+        }
+
+        void tick() {
+            if (get()) {
+                return;
+            }
+            try {
+                run.run();
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                dispose();
+                RxJavaPlugins.onError(ex);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(false, true)) {
+                IntervalGroup g = group;
+                if (g != null) {
+                    g.remove(this);
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get();
+        }
+    }
+}
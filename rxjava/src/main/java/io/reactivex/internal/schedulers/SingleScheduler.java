@@ -19,16 +19,19 @@ import io.reactivex.annotations.NonNull;
 import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.MeteredScheduler;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.QueueDepthProbe;
 import io.reactivex.plugins.RxJavaPlugins;
 
 /**
  * A scheduler with a shared, single threaded underlying ScheduledExecutorService.
  * @since 2.0
  */
-public final class SingleScheduler extends Scheduler {
+public final class SingleScheduler extends Scheduler implements MeteredScheduler, QueueDepthProbe {
 
     final ThreadFactory threadFactory;
     final AtomicReference<ScheduledExecutorService> executor = new AtomicReference<ScheduledExecutorService>();
+    final SchedulerMetricsRecorder metrics = new SchedulerMetricsRecorder(this);
 
     /** The name of the system property for setting the thread priority for this Scheduler. */
     private static final String KEY_SINGLE_PRIORITY = "rx2.single-priority";
@@ -62,7 +65,7 @@ public final class SingleScheduler extends Scheduler {
     }
 
     static ScheduledExecutorService createExecutor(ThreadFactory threadFactory) {
-        return SchedulerPoolFactory.create(threadFactory);
+        return SchedulerPoolFactory.createEventLoop(threadFactory);
     }
 
     @Override
@@ -100,19 +103,35 @@ public final class SingleScheduler extends Scheduler {
     @NonNull
     @Override
     public Worker createWorker() {
-        return new ScheduledWorker(executor.get());
+        return new ScheduledWorker(executor.get(), metrics);
+    }
+
+    @NonNull
+    @Override
+    public SchedulerMetricsRecorder metrics() {
+        return metrics;
+    }
+
+    @Override
+    public int[] queueDepths() {
+        ScheduledExecutorService exec = executor.get();
+        if (exec == SHUTDOWN) {
+            return SchedulerMetricsRecorder.EMPTY;
+        }
+        return new int[] { SchedulerMetricsRecorder.queueSize(exec) };
     }
 
     @NonNull
     @Override
     public Disposable scheduleDirect(@NonNull Runnable run, long delay, TimeUnit unit) {
-        ScheduledDirectTask task = new ScheduledDirectTask(RxJavaPlugins.onSchedule(run));
+        Runnable decoratedRun = SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), delay, unit);
+        ScheduledDirectTask task = new ScheduledDirectTask(decoratedRun);
         try {
             Future<?> f;
             if (delay <= 0L) {
                 f = executor.get().submit(task);
             } else {
-                f = executor.get().schedule(task, delay, unit);
+                f = HashedWheelTimer.schedule(executor.get(), task, delay, unit);
             }
             task.setFuture(f);
             return task;
@@ -125,7 +144,7 @@ public final class SingleScheduler extends Scheduler {
     @NonNull
     @Override
     public Disposable schedulePeriodicallyDirect(@NonNull Runnable run, long initialDelay, long period, TimeUnit unit) {
-        final Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+        final Runnable decoratedRun = SchedulerMetricsRecorder.wrapPeriodic(metrics, RxJavaPlugins.onSchedule(run), initialDelay, period, unit);
         if (period <= 0L) {
 
             ScheduledExecutorService exec = executor.get();
@@ -163,11 +182,14 @@ public final class SingleScheduler extends Scheduler {
 
         final CompositeDisposable tasks;
 
+        final SchedulerMetricsRecorder metrics;
+
         volatile boolean disposed;
 
-        ScheduledWorker(ScheduledExecutorService executor) {
+        ScheduledWorker(ScheduledExecutorService executor, SchedulerMetricsRecorder metrics) {
             this.executor = executor;
             this.tasks = new CompositeDisposable();
+            this.metrics = metrics;
         }
 
         @NonNull
@@ -177,7 +199,7 @@ public final class SingleScheduler extends Scheduler {
                 return EmptyDisposable.INSTANCE;
             }
 
-            Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+            Runnable decoratedRun = SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), delay, unit);
 
             ScheduledRunnable sr = new ScheduledRunnable(decoratedRun, tasks);
             tasks.add(sr);
@@ -187,7 +209,7 @@ public final class SingleScheduler extends Scheduler {
                 if (delay <= 0L) {
                     f = executor.submit((Callable<Object>)sr);
                 } else {
-                    f = executor.schedule((Callable<Object>)sr, delay, unit);
+                    f = HashedWheelTimer.schedule(executor, (Callable<Object>)sr, delay, unit);
                 }
 
                 sr.setFuture(f);
@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Scheduler that delays the delayed tasks of the underlying Scheduler to the end of their slack
+ * window so that the tasks due within the same window run from the same wakeup.
+ * <p>
+ * The windows are aligned to the {@link Scheduler#now(TimeUnit)} of the underlying Scheduler, hence
+ * shared by all its users with the same slack. The delayed tasks of a worker that end up in the same
+ * window are batched into one delayed task of the underlying worker and run in the order they were
+ * scheduled. Tasks never run earlier than their delay and at most the slack later. Non-delayed and
+ * periodic tasks are handed over unchanged.
+ */
+public final class TimerSlackScheduler extends Scheduler {
+
+    final Scheduler actual;
+
+    final long slackNanos;
+
+    public TimerSlackScheduler(Scheduler actual, long slackNanos) {
+        this.actual = actual;
+        this.slackNanos = slackNanos;
+    }
+
+    /**
+     * Returns the end of the slack window the given time falls into.
+     * @param time the time in nanoseconds
+     * @param slackNanos the length of the slack windows in nanoseconds, positive
+     * @return the smallest multiple of the slack not less than the time
+     */
+    static long windowEnd(long time, long slackNanos) {
+        long r = time % slackNanos;
+        if (r < 0L) {
+            r += slackNanos;
+        }
+        return r == 0L ? time : time + slackNanos - r;
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return new SlackWorker(actual.createWorker(), slackNanos);
+    }
+
+    @Override
+    public long now(@NonNull TimeUnit unit) {
+        return actual.now(unit);
+    }
+
+    @Override
+    public void start() {
+        actual.start();
+    }
+
+    @Override
+    public void shutdown() {
+        actual.shutdown();
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run) {
+        return actual.scheduleDirect(run);
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+        long d = unit.toNanos(delay);
+        if (d <= 0L) {
+            return actual.scheduleDirect(run);
+        }
+        long now = actual.now(TimeUnit.NANOSECONDS);
+        return actual.scheduleDirect(run, windowEnd(now + d, slackNanos) - now, TimeUnit.NANOSECONDS);
+    }
+
+    @NonNull
+    @Override
+    public Disposable schedulePeriodicallyDirect(@NonNull Runnable run, long initialDelay, long period, @NonNull TimeUnit unit) {
+        return actual.schedulePeriodicallyDirect(run, initialDelay, period, unit);
+    }
+
+    static final class SlackWorker extends Worker {
+
+        final Worker actual;
+
+        final long slackNanos;
+
+        /** The batches waiting for the end of their window, by window end, guarded by this. */
+        final HashMap<Long, SlackBatch> batches;
+
+        volatile boolean disposed;
+
+        SlackWorker(Worker actual, long slackNanos) {
+            this.actual = actual;
+            this.slackNanos = slackNanos;
+            this.batches = new HashMap<Long, SlackBatch>();
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run) {
+            return actual.schedule(run);
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+            long d = unit.toNanos(delay);
+            if (d <= 0L) {
+                return actual.schedule(run);
+            }
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+
+            long now = actual.now(TimeUnit.NANOSECONDS);
+            long end = windowEnd(now + d, slackNanos);
+            SlackTask task = new SlackTask(RxJavaPlugins.onSchedule(run));
+
+            SlackBatch batch;
+            boolean fresh = false;
+            synchronized (this) {
+                batch = batches.get(end);
+                if (batch == null) {
+                    batch = new SlackBatch(this, end);
+                    batches.put(end, batch);
+                    fresh = true;
+                }
+                batch.tasks.add(task);
+            }
+            if (fresh) {
+                actual.schedule(batch, end - now, TimeUnit.NANOSECONDS);
+            }
+            return task;
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedulePeriodically(@NonNull Runnable run, long initialDelay, long period, @NonNull TimeUnit unit) {
+            return actual.schedulePeriodically(run, initialDelay, period, unit);
+        }
+
+        @Override
+        public long now(@NonNull TimeUnit unit) {
+            return actual.now(unit);
+        }
+
+        /**
+         * Removes the batch so that no more tasks join it.
+         * @param batch the batch about to run
+         */
+        synchronized void remove(SlackBatch batch) {
+            batches.remove(batch.end);
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            actual.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    static final class SlackBatch implements Runnable {
+
+        final SlackWorker parent;
+
+        final long end;
+
+        /** The tasks of the window in schedule order, guarded by the parent until the batch runs. */
+        final List<SlackTask> tasks;
+
+        SlackBatch(SlackWorker parent, long end) {
+            this.parent = parent;
+            this.end = end;
+            this.tasks = new ArrayList<SlackTask>();
+        }
+
+        @Override
+        public void run() {
+            SlackWorker p = parent;
+            // no task can join once removed
+            p.remove(this);
+            for (SlackTask t : tasks) {
+                if (p.disposed) {
+                    return;
+                }
+                t.run();
+            }
+        }
+    }
+
+    static final class SlackTask extends AtomicBoolean implements Runnable, Disposable {
+
+        private static final long serialVersionUID = 3893471093722542735L;
+
+        final Runnable run;
+
+        SlackTask(Runnable run) {
+            this.run = run;
+        }
+
+        @Override
+        public void run() {
+            if (get()) {
+                return;
+            }
+            try {
+                run.run();
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                RxJavaPlugins.onError(ex);
+            } finally {
+                lazySet(true);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            lazySet(true);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get();
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package io.reactivex.internal.schedulers;
 
+import java.util.ArrayDeque;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.Scheduler;
@@ -29,6 +30,9 @@ import io.reactivex.plugins.RxJavaPlugins;
 /**
  * Schedules work on the current thread but does not execute immediately. Work is put in a queue and executed
  * after the current unit of work is completed.
+ * <p>
+ * Tasks without a delay scheduled by the thread already running the tasks of a worker go into a plain FIFO
+ * queue; only the delayed tasks and the tasks scheduled from other threads are ordered by their due time.
  */
 public final class TrampolineScheduler extends Scheduler {
     private static final TrampolineScheduler INSTANCE = new TrampolineScheduler();
@@ -73,18 +77,51 @@ public final class TrampolineScheduler extends Scheduler {
 
         final AtomicInteger counter = new AtomicInteger();
 
+        /** The number of tasks added to the queue but not yet taken out of it. */
+        final AtomicInteger timed = new AtomicInteger();
+
+        /** The immediate tasks scheduled by the draining thread, accessed only by that thread. */
+        final ArrayDeque<ImmediateRunnable> immediate = new ArrayDeque<ImmediateRunnable>();
+
+        /**
+         * The thread currently draining, written only by that thread. Other threads can't
+         * observe their own Thread here, therefore no ordering is required.
+         */
+        Thread owner;
+
         volatile boolean disposed;
 
         @NonNull
         @Override
         public Disposable schedule(@NonNull Runnable action) {
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            Thread current = Thread.currentThread();
+            if (owner == current) {
+                // called from a task of this worker, no need to lock, allocate a TimedRunnable or touch the wip
+                long execTime = timed.get() == 0 ? Long.MIN_VALUE : now(TimeUnit.MILLISECONDS);
+                ImmediateRunnable ir = new ImmediateRunnable(action, execTime);
+                immediate.offer(ir);
+                return ir;
+            }
+            if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+                owner = current;
+                action.run();
+                drain(1);
+                return EmptyDisposable.INSTANCE;
+            }
             return enqueue(action, now(TimeUnit.MILLISECONDS));
         }
 
         @NonNull
         @Override
         public Disposable schedule(@NonNull Runnable action, long delayTime, @NonNull TimeUnit unit) {
-            long execTime = now(TimeUnit.MILLISECONDS) + unit.toMillis(delayTime);
+            long delayMillis = unit.toMillis(delayTime);
+            if (delayMillis <= 0L) {
+                return schedule(action);
+            }
+            long execTime = now(TimeUnit.MILLISECONDS) + delayMillis;
 
             return enqueue(new SleepingRunnable(action, this, execTime), execTime);
         }
@@ -94,34 +131,64 @@ public final class TrampolineScheduler extends Scheduler {
                 return EmptyDisposable.INSTANCE;
             }
             final TimedRunnable timedRunnable = new TimedRunnable(action, execTime, counter.incrementAndGet());
+            timed.getAndIncrement();
             queue.add(timedRunnable);
 
             if (wip.getAndIncrement() == 0) {
-                int missed = 1;
+                owner = Thread.currentThread();
+                drain(1);
+
+                return EmptyDisposable.INSTANCE;
+            } else {
+                // queue wasn't empty, a parent is already processing so we just add to the end of the queue
+                return Disposables.fromRunnable(new AppendToQueueTask(timedRunnable));
+            }
+        }
+
+        void drain(int missed) {
+            final ArrayDeque<ImmediateRunnable> im = immediate;
+            final PriorityBlockingQueue<TimedRunnable> q = queue;
+            for (;;) {
                 for (;;) {
-                    for (;;) {
-                        if (disposed) {
-                            queue.clear();
-                            return EmptyDisposable.INSTANCE;
+                    if (disposed) {
+                        owner = null;
+                        im.clear();
+                        q.clear();
+                        return;
+                    }
+
+                    ImmediateRunnable ir = im.peek();
+                    if (ir != null) {
+                        // a delayed task that became due before this task was scheduled runs first
+                        TimedRunnable tr = timed.get() == 0 ? null : q.peek();
+                        if (tr == null || tr.execTime > ir.execTime) {
+                            im.poll();
+                            if (!ir.disposed) {
+                                ir.run.run();
+                            }
+                            continue;
                         }
-                        final TimedRunnable polled = queue.poll();
-                        if (polled == null) {
+                    }
+
+                    final TimedRunnable polled = q.poll();
+                    if (polled == null) {
+                        if (im.isEmpty()) {
                             break;
                         }
-                        if (!polled.disposed) {
-                            polled.run.run();
-                        }
+                        // the peeked delayed task has been cancelled and removed meanwhile
+                        continue;
                     }
-                    missed = wip.addAndGet(-missed);
-                    if (missed == 0) {
-                        break;
+                    timed.decrementAndGet();
+                    if (!polled.disposed) {
+                        polled.run.run();
                     }
                 }
-
-                return EmptyDisposable.INSTANCE;
-            } else {
-                // queue wasn't empty, a parent is already processing so we just add to the end of the queue
-                return Disposables.fromRunnable(new AppendToQueueTask(timedRunnable));
+                owner = null;
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+                owner = Thread.currentThread();
             }
         }
 
@@ -145,11 +212,40 @@ public final class TrampolineScheduler extends Scheduler {
             @Override
             public void run() {
                 timedRunnable.disposed = true;
-                queue.remove(timedRunnable);
+                if (queue.remove(timedRunnable)) {
+                    timed.decrementAndGet();
+                }
             }
         }
     }
 
+    /**
+     * A zero-delay task scheduled from within the drain loop; it doubles as its own Disposable.
+     */
+    static final class ImmediateRunnable implements Disposable {
+        final Runnable run;
+
+        /** The time of scheduling or Long.MIN_VALUE if no delayed task was pending at that time. */
+        final long execTime;
+
+        volatile boolean disposed;
+
+        ImmediateRunnable(Runnable run, long execTime) {
+            this.run = run;
+            this.execTime = execTime;
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
     static final class TimedRunnable implements Comparable<TimedRunnable> {
         final Runnable run;
         final long execTime;
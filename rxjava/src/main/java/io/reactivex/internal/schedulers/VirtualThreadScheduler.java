@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.MeteredScheduler;
+
+/**
+ * Scheduler that runs each unit of work on a fresh, short-lived thread obtained from a
+ * {@link ThreadFactory}, by default one that creates virtual threads.
+ * <p>
+ * Workers are {@link ExecutorScheduler.ExecutorWorker}s: tasks of the same worker are
+ * queued and drained in FIFO order by at most one thread at a time, and that thread
+ * exits once the queue is empty. Delayed tasks wait on the {@code single()} scheduler
+ * before they are handed over.
+ * <p>
+ * Virtual threads are looked up reflectively so this class loads on any JVM;
+ * use {@link #isSupported()} to check whether the running JVM provides them.
+ */
+public final class VirtualThreadScheduler extends Scheduler implements MeteredScheduler {
+
+    private static final String THREAD_NAME_PREFIX = "RxVirtualThreadScheduler-";
+
+    /** The system property to turn off virtual threads even if the JVM supports them. */
+    private static final String KEY_VIRTUAL_THREADS = "rx2.virtual-threads";
+
+    /** The factory of virtual threads or null if not available or turned off. */
+    static final ThreadFactory VIRTUAL_THREAD_FACTORY;
+
+    static {
+        boolean enabled = true;
+        String s = System.getProperty(KEY_VIRTUAL_THREADS);
+        if (s != null) {
+            enabled = "true".equals(s);
+        }
+
+        VIRTUAL_THREAD_FACTORY = enabled ? createVirtualThreadFactory(THREAD_NAME_PREFIX) : null;
+    }
+
+    final Executor executor;
+
+    final ExecutorScheduler delegate;
+
+    /**
+     * Constructs a VirtualThreadScheduler on top of the JVM's virtual threads.
+     * @throws IllegalStateException if the JVM doesn't support virtual threads
+     * @see #isSupported()
+     */
+    public VirtualThreadScheduler() {
+        this(requireVirtualThreadFactory());
+    }
+
+    /**
+     * Constructs a VirtualThreadScheduler that starts a new thread from the given factory
+     * for each drain run.
+     * @param threadFactory thread factory to use for creating the per-task threads
+     */
+    public VirtualThreadScheduler(ThreadFactory threadFactory) {
+        this.executor = new ThreadPerTaskExecutor(threadFactory);
+        this.delegate = new ExecutorScheduler(executor);
+    }
+
+    /**
+     * Returns true if the running JVM supports virtual threads and they have not been
+     * turned off via the {@code rx2.virtual-threads} system property.
+     * @return true if virtual threads are available
+     */
+    public static boolean isSupported() {
+        return VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    static ThreadFactory requireVirtualThreadFactory() {
+        ThreadFactory tf = VIRTUAL_THREAD_FACTORY;
+        if (tf == null) {
+            throw new IllegalStateException("Virtual threads are not supported by this JVM");
+        }
+        return tf;
+    }
+
+    /**
+     * Creates a ThreadFactory via {@code Thread.ofVirtual().name(prefix, 0).factory()}.
+     * @param prefix the thread name prefix
+     * @return the ThreadFactory or null if the JVM doesn't have virtual threads
+     */
+    static ThreadFactory createVirtualThreadFactory(String prefix) {
+        try {
+            // the methods must come from the public interface, the builder implementations are not accessible
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+            Method name = builderClass.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, prefix, 0L);
+
+            return (ThreadFactory)builderClass.getMethod("factory").invoke(builder);
+        } catch (Throwable ex) {
+            // virtual threads are either missing or need --enable-preview
+            return null;
+        }
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return delegate.createWorker();
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run) {
+        return delegate.scheduleDirect(run);
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+        return delegate.scheduleDirect(run, delay, unit);
+    }
+
+    @NonNull
+    @Override
+    public SchedulerMetricsRecorder metrics() {
+        return delegate.metrics();
+    }
+
+    static final class ThreadPerTaskExecutor implements Executor {
+        final ThreadFactory threadFactory;
+
+        ThreadPerTaskExecutor(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            Thread t = threadFactory.newThread(command);
+            if (t == null) {
+                throw new RejectedExecutionException("The ThreadFactory returned no Thread");
+            }
+            t.start();
+        }
+    }
+}
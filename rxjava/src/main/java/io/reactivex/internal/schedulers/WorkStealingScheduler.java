@@ -0,0 +1,586 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.internal.disposables.SequentialDisposable;
+import io.reactivex.internal.queue.MpscLinkedQueue;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.MeteredScheduler;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.QueueDepthProbe;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Holds a fixed pool of event loop threads, each owning a task deque, and lets
+ * idle event loops steal whole tasks from the deques of busy ones.
+ * <p>
+ * A Scheduler.Worker is submitted to an event loop as a single task whenever it has
+ * work pending and drains its own queue when run, thus it retains the FIFO,
+ * non-overlapping execution guarantee no matter which thread ends up running it.
+ * Delayed tasks wait on a shared timer thread before they get queued up.
+ */
+public final class WorkStealingScheduler extends Scheduler implements MeteredScheduler, QueueDepthProbe {
+    /** This will indicate no pool is active. */
+    static final WorkStealingPool NONE;
+
+    private static final String TIMER_THREAD_NAME_PREFIX = "RxComputationTimer";
+
+    static final RxThreadFactory TIMER_THREAD_FACTORY;
+
+    final ThreadFactory threadFactory;
+
+    final int parallelism;
+
+    final AtomicReference<WorkStealingPool> pool;
+
+    final SchedulerMetricsRecorder metrics;
+
+    static {
+        TIMER_THREAD_FACTORY = new RxThreadFactory(TIMER_THREAD_NAME_PREFIX, Thread.NORM_PRIORITY, true);
+
+        NONE = new WorkStealingPool(0, ComputationScheduler.THREAD_FACTORY, TIMER_THREAD_FACTORY);
+        NONE.shutdown();
+    }
+
+    /**
+     * Create a scheduler with pool size equal to the available processor
+     * count (capped by the {@code rx2.computation-threads} system property).
+     */
+    public WorkStealingScheduler() {
+        this(ComputationScheduler.THREAD_FACTORY);
+    }
+
+    /**
+     * Create a scheduler with pool size equal to the available processor
+     * count (capped by the {@code rx2.computation-threads} system property).
+     *
+     * @param threadFactory thread factory to use for creating the event loop threads. Note that this takes precedence over any
+     *                      system properties for configuring new thread creation. Cannot be null.
+     */
+    public WorkStealingScheduler(ThreadFactory threadFactory) {
+        this(threadFactory, ComputationScheduler.MAX_THREADS);
+    }
+
+    /**
+     * Create a scheduler with the given number of event loops.
+     *
+     * @param threadFactory thread factory to use for creating the event loop threads. Cannot be null.
+     * @param parallelism the number of event loops, positive
+     */
+    public WorkStealingScheduler(ThreadFactory threadFactory, int parallelism) {
+        this.threadFactory = threadFactory;
+        this.parallelism = parallelism;
+        this.pool = new AtomicReference<WorkStealingPool>(NONE);
+        this.metrics = new SchedulerMetricsRecorder(this);
+        start();
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return new WorkStealingWorker(pool.get(), metrics);
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, TimeUnit unit) {
+        Runnable decoratedRun = SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), delay, unit);
+        return pool.get().scheduleDirect(decoratedRun, delay, unit);
+    }
+
+    @NonNull
+    @Override
+    public SchedulerMetricsRecorder metrics() {
+        return metrics;
+    }
+
+    @Override
+    public int[] queueDepths() {
+        EventLoop[] loops = pool.get().eventLoops;
+        int[] result = new int[loops.length];
+        for (int i = 0; i < loops.length; i++) {
+            result[i] = loops[i].deque.size();
+        }
+        return result;
+    }
+
+    @Override
+    public void start() {
+        WorkStealingPool update = new WorkStealingPool(parallelism, threadFactory, TIMER_THREAD_FACTORY);
+        if (!pool.compareAndSet(NONE, update)) {
+            update.shutdown();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (;;) {
+            WorkStealingPool curr = pool.get();
+            if (curr == NONE) {
+                return;
+            }
+            if (pool.compareAndSet(curr, NONE)) {
+                curr.shutdown();
+                return;
+            }
+        }
+    }
+
+    /**
+     * The set of event loops and the shared timer.
+     */
+    static final class WorkStealingPool implements Executor {
+        final EventLoop[] eventLoops;
+
+        final ScheduledExecutorService timer;
+
+        /** The event loop of the current thread if it belongs to this pool. */
+        final ThreadLocal<EventLoop> current;
+
+        /** The number of event loops that are about to park or are parked. */
+        final AtomicInteger idle;
+
+        long n;
+
+        volatile boolean terminated;
+
+        WorkStealingPool(int parallelism, ThreadFactory threadFactory, ThreadFactory timerFactory) {
+            this.current = new ThreadLocal<EventLoop>();
+            this.idle = new AtomicInteger();
+            this.eventLoops = new EventLoop[parallelism];
+            for (int i = 0; i < parallelism; i++) {
+                eventLoops[i] = new EventLoop(this, i);
+            }
+            if (parallelism != 0) {
+                this.timer = SchedulerPoolFactory.create(timerFactory);
+                for (EventLoop e : eventLoops) {
+                    e.start(threadFactory);
+                }
+            } else {
+                this.timer = null;
+            }
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            EventLoop[] loops = eventLoops;
+            int c = loops.length;
+            if (terminated || c == 0) {
+                throw new RejectedExecutionException("Scheduler has been shut down");
+            }
+            EventLoop target = current.get();
+            if (target == null) {
+                // tasks from outside the pool are spread out, idle loops will rebalance them
+                target = loops[(int)(n++ % c)];
+            }
+            target.deque.offerLast(task);
+
+            if (!target.unpark() && idle.get() != 0) {
+                // the owner is busy, wake up someone who can steal the task
+                int j = target.index;
+                for (int i = 1; i < c; i++) {
+                    if (++j == c) {
+                        j = 0;
+                    }
+                    if (loops[j].unpark()) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        Disposable scheduleDirect(Runnable run, long delay, TimeUnit unit) {
+            DirectTask task = new DirectTask(run);
+            try {
+                if (delay <= 0L) {
+                    execute(task);
+                } else {
+                    if (terminated) {
+                        throw new RejectedExecutionException("Scheduler has been shut down");
+                    }
+                    Future<?> f = HashedWheelTimer.schedule(timer, new DelayedExecute(this, task), delay, unit);
+                    task.timed.replace(Disposables.fromFuture(f));
+                }
+            } catch (RejectedExecutionException ex) {
+                RxJavaPlugins.onError(ex);
+                return EmptyDisposable.INSTANCE;
+            }
+            return task;
+        }
+
+        Future<?> scheduleTimed(Callable<?> task, long delay, TimeUnit unit) {
+            if (terminated) {
+                throw new RejectedExecutionException("Scheduler has been shut down");
+            }
+            return HashedWheelTimer.schedule(timer, task, delay, unit);
+        }
+
+        /**
+         * Takes the oldest task from some other event loop's deque.
+         * @param thief the event loop looking for work
+         * @return the stolen task or null if all other deques are empty
+         */
+        Runnable steal(EventLoop thief) {
+            EventLoop[] loops = eventLoops;
+            int c = loops.length;
+            int j = thief.index;
+            for (int i = 1; i < c; i++) {
+                if (++j == c) {
+                    j = 0;
+                }
+                Runnable r = loops[j].deque.pollFirst();
+                if (r != null) {
+                    return r;
+                }
+            }
+            return null;
+        }
+
+        void shutdown() {
+            terminated = true;
+            for (EventLoop e : eventLoops) {
+                e.shutdown();
+            }
+            if (timer != null) {
+                timer.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * A single event loop thread with its own task deque.
+     */
+    static final class EventLoop implements Runnable {
+        final WorkStealingPool pool;
+
+        final int index;
+
+        final ConcurrentLinkedDeque<Runnable> deque;
+
+        final AtomicBoolean parked;
+
+        volatile Thread thread;
+
+        EventLoop(WorkStealingPool pool, int index) {
+            this.pool = pool;
+            this.index = index;
+            this.deque = new ConcurrentLinkedDeque<Runnable>();
+            this.parked = new AtomicBoolean();
+        }
+
+        void start(ThreadFactory threadFactory) {
+            Thread t = threadFactory.newThread(this);
+            thread = t;
+            t.start();
+        }
+
+        /**
+         * Wakes up this event loop if it is parked.
+         * @return true if this call woke up the event loop
+         */
+        boolean unpark() {
+            if (parked.get() && parked.compareAndSet(true, false)) {
+                pool.idle.decrementAndGet();
+                LockSupport.unpark(thread);
+                return true;
+            }
+            return false;
+        }
+
+        Runnable next() {
+            Runnable r = deque.pollFirst();
+            if (r == null) {
+                r = pool.steal(this);
+            }
+            return r;
+        }
+
+        @Override
+        public void run() {
+            WorkStealingPool p = pool;
+            p.current.set(this);
+            try {
+                for (;;) {
+                    if (p.terminated) {
+                        break;
+                    }
+                    Runnable r = next();
+                    if (r == null) {
+                        p.idle.incrementAndGet();
+                        parked.set(true);
+
+                        r = next();
+                        if (r == null && !p.terminated) {
+                            LockSupport.park(this);
+                        }
+                        if (parked.compareAndSet(true, false)) {
+                            p.idle.decrementAndGet();
+                        }
+                        if (r == null) {
+                            continue;
+                        }
+                    }
+                    r.run();
+                }
+            } finally {
+                p.current.remove();
+                deque.clear();
+            }
+        }
+
+        void shutdown() {
+            Thread t = thread;
+            if (t != null) {
+                LockSupport.unpark(t);
+            }
+        }
+    }
+
+    /**
+     * Serializes the tasks of a Worker and submits itself to the event loops whenever
+     * it has something to run.
+     */
+    static final class WorkStealingWorker extends Scheduler.Worker implements Runnable {
+        final WorkStealingPool pool;
+
+        final MpscLinkedQueue<Runnable> queue;
+
+        final AtomicInteger wip;
+
+        final CompositeDisposable tasks;
+
+        final SchedulerMetricsRecorder metrics;
+
+        volatile boolean disposed;
+
+        WorkStealingWorker(WorkStealingPool pool, SchedulerMetricsRecorder metrics) {
+            this.pool = pool;
+            this.metrics = metrics;
+            this.queue = new MpscLinkedQueue<Runnable>();
+            this.wip = new AtomicInteger();
+            this.tasks = new CompositeDisposable();
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run) {
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            return scheduleActual(SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), 0L, null));
+        }
+
+        Disposable scheduleActual(Runnable decoratedRun) {
+            DirectTask task = new DirectTask(decoratedRun);
+
+            queue.offer(task);
+
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    pool.execute(this);
+                } catch (RejectedExecutionException ex) {
+                    disposed = true;
+                    queue.clear();
+                    RxJavaPlugins.onError(ex);
+                    return EmptyDisposable.INSTANCE;
+                }
+            }
+
+            return task;
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+            if (delay <= 0) {
+                return schedule(run);
+            }
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+
+            SequentialDisposable first = new SequentialDisposable();
+
+            final SequentialDisposable mar = new SequentialDisposable(first);
+
+            final Runnable decoratedRun = SchedulerMetricsRecorder.wrap(metrics, RxJavaPlugins.onSchedule(run), delay, unit);
+
+            ScheduledRunnable sr = new ScheduledRunnable(new DelayedSchedule(this, mar, decoratedRun), tasks);
+            tasks.add(sr);
+
+            try {
+                sr.setFuture(pool.scheduleTimed((Callable<Object>)sr, delay, unit));
+            } catch (RejectedExecutionException ex) {
+                disposed = true;
+                RxJavaPlugins.onError(ex);
+                return EmptyDisposable.INSTANCE;
+            }
+
+            first.replace(sr);
+
+            return mar;
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                tasks.dispose();
+                if (wip.getAndIncrement() == 0) {
+                    queue.clear();
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            final MpscLinkedQueue<Runnable> q = queue;
+            for (;;) {
+
+                if (disposed) {
+                    q.clear();
+                    return;
+                }
+
+                for (;;) {
+                    Runnable run = q.poll();
+                    if (run == null) {
+                        break;
+                    }
+                    run.run();
+
+                    if (disposed) {
+                        q.clear();
+                        return;
+                    }
+                }
+
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the wrapped task once unless disposed and routes its crash to the plugins.
+     */
+    static final class DirectTask extends AtomicBoolean implements Runnable, Disposable {
+
+        private static final long serialVersionUID = 6353938993563218370L;
+
+        final Runnable actual;
+
+        final SequentialDisposable timed;
+
+        DirectTask(Runnable actual) {
+            this.actual = actual;
+            this.timed = new SequentialDisposable();
+        }
+
+        @Override
+        public void run() {
+            if (get()) {
+                return;
+            }
+            try {
+                actual.run();
+            } catch (Throwable ex) {
+                // Exceptions.throwIfFatal(e); nowhere to go
+                RxJavaPlugins.onError(ex);
+            } finally {
+                lazySet(true);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (!getAndSet(true)) {
+                timed.dispose();
+                SchedulerMetricsRecorder.cancel(actual);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get();
+        }
+    }
+
+    static final class DelayedExecute implements Callable<Object> {
+        final WorkStealingPool pool;
+
+        final DirectTask task;
+
+        DelayedExecute(WorkStealingPool pool, DirectTask task) {
+            this.pool = pool;
+            this.task = task;
+        }
+
+        @Override
+        public Object call() {
+            try {
+                pool.execute(task);
+            } catch (RejectedExecutionException ex) {
+                RxJavaPlugins.onError(ex);
+            }
+            return null;
+        }
+    }
+
+    static final class DelayedSchedule implements Runnable {
+        final WorkStealingWorker worker;
+
+        final SequentialDisposable mar;
+
+        final Runnable decoratedRun;
+
+        DelayedSchedule(WorkStealingWorker worker, SequentialDisposable mar, Runnable decoratedRun) {
+            this.worker = worker;
+            this.mar = mar;
+            this.decoratedRun = decoratedRun;
+        }
+
+        @Override
+        public void run() {
+            if (!worker.disposed) {
+                mar.replace(worker.scheduleActual(decoratedRun));
+            }
+        }
+    }
+}
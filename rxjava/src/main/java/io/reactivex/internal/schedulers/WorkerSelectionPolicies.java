@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+/**
+ * The built-in {@link WorkerSelectionPolicy} implementations.
+ */
+public final class WorkerSelectionPolicies {
+    /** Utility class. */
+    private WorkerSelectionPolicies() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    /** The name of the {@link #roundRobin()} policy. */
+    public static final String ROUND_ROBIN = "round-robin";
+
+    /** The name of the {@link #leastQueued()} policy. */
+    public static final String LEAST_QUEUED = "least-queued";
+
+    /** The name of the {@link #powerOfTwoChoices()} policy. */
+    public static final String POWER_OF_TWO = "power-of-two";
+
+    /** The name of the {@link #sticky()} policy. */
+    public static final String STICKY = "sticky";
+
+    /**
+     * Returns a new policy that hands out the event loops one after the other,
+     * ignoring their load.
+     * @return the new policy instance
+     */
+    public static WorkerSelectionPolicy roundRobin() {
+        return new RoundRobin();
+    }
+
+    /**
+     * Returns a new policy that picks the event loop with the fewest queued tasks,
+     * breaking ties by the fewest active workers.
+     * @return the new policy instance
+     */
+    public static WorkerSelectionPolicy leastQueued() {
+        return new LeastQueued();
+    }
+
+    /**
+     * Returns a new policy that samples two event loops randomly and picks the
+     * less loaded one of them.
+     * @return the new policy instance
+     */
+    public static WorkerSelectionPolicy powerOfTwoChoices() {
+        return new PowerOfTwoChoices();
+    }
+
+    /**
+     * Returns the policy that always picks the same event loop for the same caller thread.
+     * @return the policy instance
+     */
+    public static WorkerSelectionPolicy sticky() {
+        return Sticky.INSTANCE;
+    }
+
+    /**
+     * Returns a new policy instance by its name or the {@link #roundRobin()} policy
+     * if the name is null or not recognized.
+     * @param name the policy name, see the constants in this class
+     * @return the policy instance
+     */
+    public static WorkerSelectionPolicy fromName(String name) {
+        if (LEAST_QUEUED.equals(name)) {
+            return leastQueued();
+        }
+        if (POWER_OF_TWO.equals(name)) {
+            return powerOfTwoChoices();
+        }
+        if (STICKY.equals(name)) {
+            return sticky();
+        }
+        return roundRobin();
+    }
+
+    /**
+     * Compares the load of two event loops.
+     * @param a the first event loop
+     * @param b the second event loop
+     * @return negative if a is less loaded, zero if they are equally loaded, positive otherwise
+     */
+    static int compare(EventLoopLoad a, EventLoopLoad b) {
+        int c = a.queueSize() - b.queueSize();
+        if (c != 0) {
+            return c;
+        }
+        return a.activeWorkers() - b.activeWorkers();
+    }
+
+    static final class RoundRobin implements WorkerSelectionPolicy {
+        long n;
+
+        @Override
+        public int select(EventLoopLoad[] eventLoops) {
+            return (int)(n++ % eventLoops.length);
+        }
+    }
+
+    static final class LeastQueued implements WorkerSelectionPolicy {
+        /** Rotates the start of the scan so ties don't always go to the first event loop. */
+        long n;
+
+        @Override
+        public int select(EventLoopLoad[] eventLoops) {
+            int c = eventLoops.length;
+            int j = (int)(n++ % c);
+            int best = j;
+            EventLoopLoad bestLoad = eventLoops[j];
+            for (int i = 1; i < c; i++) {
+                if (++j == c) {
+                    j = 0;
+                }
+                EventLoopLoad e = eventLoops[j];
+                if (compare(e, bestLoad) < 0) {
+                    best = j;
+                    bestLoad = e;
+                }
+            }
+            return best;
+        }
+    }
+
+    static final class PowerOfTwoChoices implements WorkerSelectionPolicy {
+        /** Xorshift state; racy updates still yield usable, non-zero values. */
+        int seed = (int)System.nanoTime() | 1;
+
+        int nextInt(int bound) {
+            int x = seed;
+            x ^= x << 13;
+            x ^= x >>> 17;
+            x ^= x << 5;
+            seed = x;
+            return (x & Integer.MAX_VALUE) % bound;
+        }
+
+        @Override
+        public int select(EventLoopLoad[] eventLoops) {
+            int c = eventLoops.length;
+            if (c == 1) {
+                return 0;
+            }
+            int a = nextInt(c);
+            int b = nextInt(c - 1);
+            if (b >= a) {
+                b++;
+            }
+            return compare(eventLoops[a], eventLoops[b]) <= 0 ? a : b;
+        }
+    }
+
+    static final class Sticky implements WorkerSelectionPolicy {
+        static final Sticky INSTANCE = new Sticky();
+
+        @Override
+        public int select(EventLoopLoad[] eventLoops) {
+            return (int)(Thread.currentThread().getId() % eventLoops.length);
+        }
+    }
+}
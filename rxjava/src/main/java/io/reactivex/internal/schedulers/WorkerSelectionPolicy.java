@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+/**
+ * Picks the event loop of a fixed pool that a new Scheduler.Worker or a direct task
+ * gets assigned to.
+ * <p>
+ * Implementations are called concurrently from any thread and should not block.
+ * See {@link WorkerSelectionPolicies} for the built-in policies.
+ */
+public interface WorkerSelectionPolicy {
+    /**
+     * Selects an event loop.
+     * @param eventLoops the load information of the event loops, non-empty, not to be modified
+     * @return the index of the selected event loop
+     */
+    int select(EventLoopLoad[] eventLoops);
+}
@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.reactivex.annotations.Nullable;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.ObjectHelper;
+
+/**
+ * A single-writer, multi-reader append-only log of values which stores their serialized form in segments
+ * memory-mapped from a temporary file and keeps the most recent values in a small on-heap ring.
+ * <p>
+ * Each value is written as the length of its bytes followed by the bytes; a length of -1 or less than 4
+ * remaining bytes mark the end of a segment. A reader walks the log with its own {@link Cursor}: values still
+ * in the ring are returned as they are, older ones are deserialized from a view of the mapped segment
+ * without copying the bytes.
+ * <p>
+ * Call {@link #close()} once no more values are appended; the segments remain readable and are released when
+ * the log gets garbage collected.
+ *
+ * @param <T> the value type
+ */
+public final class MappedAppendLog<T> {
+
+    /** The default size of a mapped segment, 1 MiB. */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+
+    final Function<? super T, byte[]> serializer;
+
+    final Function<? super ByteBuffer, ? extends T> deserializer;
+
+    final int segmentSize;
+
+    final File directory;
+
+    /** The ring of the most recent values, indexed by the value index. */
+    final AtomicReferenceArray<TailNode<T>> tail;
+
+    final int mask;
+
+    /** The number of values appended; written by the writer after the value is readable. */
+    volatile long size;
+
+    /** The first segment, set by the writer before the first value is published. */
+    volatile Segment head;
+
+    /** The segment being written, accessed by the writer only. */
+    Segment writerSegment;
+
+    /** The temporary file the segments are mapped from, guarded by this. */
+    RandomAccessFile file;
+
+    /** The path of the temporary file if it couldn't be deleted while open, guarded by this. */
+    File path;
+
+    /** The mapped length of the temporary file, guarded by this. */
+    long fileBytes;
+
+    /** Set once the log has been closed, guarded by this. */
+    boolean closed;
+
+    /**
+     * Constructs an empty log; the temporary file is created by the first append.
+     * @param serializer the function turning a value into bytes
+     * @param deserializer the function turning a view of the bytes back into a value; the view is positioned
+     *                     at the bytes of the value and must not be retained
+     * @param segmentSize the size of a mapped segment in bytes, at least 8
+     * @param tailSize the number of recent values kept on the heap, rounded up to a power of two
+     * @param directory the directory of the temporary file, null for the default temporary directory
+     */
+    public MappedAppendLog(Function<? super T, byte[]> serializer,
+            Function<? super ByteBuffer, ? extends T> deserializer,
+            int segmentSize, int tailSize, @Nullable File directory) {
+        this.serializer = serializer;
+        this.deserializer = deserializer;
+        this.segmentSize = Math.max(8, segmentSize);
+        this.directory = directory;
+        this.tail = new AtomicReferenceArray<TailNode<T>>(Pow2.roundToPowerOfTwo(Math.max(1, tailSize)));
+        this.mask = tail.length() - 1;
+    }
+
+    /**
+     * Serializes and appends a value; call from a single writer thread.
+     * @param value the value to append, not null
+     * @throws Exception if the serializer failed or a new segment couldn't be mapped
+     */
+    public void append(T value) throws Exception {
+        byte[] bytes = ObjectHelper.requireNonNull(serializer.apply(value), "The serializer returned a null array");
+        int n = bytes.length;
+        Segment s = writerSegment;
+        if (s == null) {
+            s = new Segment(map(Math.max(n + 4, segmentSize)));
+            writerSegment = s;
+            head = s;
+        } else
+        if (s.writer.remaining() < n + 4) {
+            if (s.writer.remaining() >= 4) {
+                s.writer.putInt(-1);
+            }
+            Segment next = new Segment(map(Math.max(n + 4, segmentSize)));
+            s.next = next;
+            writerSegment = next;
+            s = next;
+        }
+        s.writer.putInt(n);
+        s.writer.put(bytes);
+
+        long index = size;
+        tail.lazySet((int)index & mask, new TailNode<T>(index, value));
+        size = index + 1; // volatile store -> the bytes and the tail node are visible to the readers
+    }
+
+    /**
+     * Returns the number of values appended.
+     * @return the number of values appended
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the most recent value or null if the log is empty.
+     * @return the most recent value or null if the log is empty
+     */
+    @Nullable
+    public T last() {
+        long index = size - 1;
+        if (index < 0L) {
+            return null;
+        }
+        // the newest node is overwritten only by a later append
+        TailNode<T> node = tail.get((int)index & mask);
+        return node != null ? node.value : null;
+    }
+
+    /**
+     * Returns the value at the cursor and moves the cursor to the next value; the caller has to
+     * ensure the cursor's index is less than {@link #size()}.
+     * @param cursor the cursor of the reader
+     * @return the value
+     * @throws Exception if the deserializer failed; the cursor is not moved in this case
+     */
+    public T read(Cursor cursor) throws Exception {
+        Segment s = cursor.segment;
+        ByteBuffer v = cursor.view;
+        int p = cursor.offset;
+        if (s == null) {
+            s = head;
+            v = s.buffer.duplicate();
+            p = 0;
+        }
+        int n;
+        for (;;) {
+            n = s.capacity - p >= 4 ? v.getInt(p) : -1;
+            if (n >= 0) {
+                break;
+            }
+            // the value is published after its segment is linked
+            s = s.next;
+            v = s.buffer.duplicate();
+            p = 0;
+        }
+        long index = cursor.index;
+        T value;
+        TailNode<T> node = tail.get((int)index & mask);
+        if (node != null && node.index == index) {
+            value = node.value;
+        } else {
+            v.limit(p + 4 + n).position(p + 4);
+            try {
+                value = ObjectHelper.requireNonNull(deserializer.apply(v), "The deserializer returned a null value");
+            } finally {
+                v.clear();
+            }
+        }
+        cursor.segment = s;
+        cursor.view = v;
+        cursor.offset = p + 4 + n;
+        cursor.index = index + 1;
+        return value;
+    }
+
+    /**
+     * Closes the temporary file; appends after this fail with an IOException while the values
+     * appended so far remain readable. Can be called from any thread, repeatedly.
+     */
+    public void close() {
+        RandomAccessFile f;
+        File p;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            f = file;
+            p = path;
+            file = null;
+            path = null;
+        }
+        if (f != null) {
+            try {
+                f.close();
+            } catch (IOException ex) {
+                // the mappings stay valid anyway
+            }
+            if (p != null && !p.delete()) {
+                p.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes mapped from the temporary file.
+     * @return the number of bytes mapped from the temporary file
+     */
+    public synchronized long mappedBytes() {
+        return fileBytes;
+    }
+
+    synchronized ByteBuffer map(int size) throws IOException {
+        if (closed) {
+            throw new IOException("The log has been closed");
+        }
+        RandomAccessFile f = file;
+        if (f == null) {
+            File p = File.createTempFile("rx2-replay-", ".log", directory);
+            f = new RandomAccessFile(p, "rw");
+            file = f;
+            // unlinking an open file works on Unix only, delete it in close() elsewhere
+            if (!p.delete()) {
+                path = p;
+            }
+        }
+        long position = fileBytes;
+        fileBytes = position + size;
+        return f.getChannel().map(FileChannel.MapMode.READ_WRITE, position, size);
+    }
+
+    /**
+     * The position of a reader in the log, used by one reader at a time.
+     */
+    public static final class Cursor {
+        /** The index of the next value to read. */
+        long index;
+
+        /** The segment holding the next value, null before the first read. */
+        Segment segment;
+
+        /** The reader's own view of the segment. */
+        ByteBuffer view;
+
+        /** The offset of the next value's length in the segment. */
+        int offset;
+
+        /**
+         * Returns the index of the next value to read.
+         * @return the index of the next value to read
+         */
+        public long index() {
+            return index;
+        }
+    }
+
+    static final class Segment {
+        final int capacity;
+
+        /** The buffer the readers duplicate. */
+        final ByteBuffer buffer;
+
+        /** The view of the writer. */
+        final ByteBuffer writer;
+
+        volatile Segment next;
+
+        Segment(ByteBuffer buffer) {
+            this.capacity = buffer.capacity();
+            this.buffer = buffer;
+            this.writer = buffer.duplicate();
+        }
+    }
+
+    static final class TailNode<T> {
+        final long index;
+
+        final T value;
+
+        TailNode(long index, T value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+}
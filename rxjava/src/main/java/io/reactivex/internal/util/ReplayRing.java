@@ -0,0 +1,313 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.reactivex.annotations.Nullable;
+import io.reactivex.internal.functions.ObjectHelper;
+
+/**
+ * A single-writer, multi-reader ring of the most recent values, and optionally their time stamps,
+ * used by the bounded replay buffers instead of a linked list of nodes.
+ * <p>
+ * Each value gets a sequence number and is stored in the slot selected by it, with its time stamp in a
+ * parallel array of longs; appending allocates nothing once the slots have grown to one more than the
+ * maximum size. Readers walk the ring with their own {@link Cursor} holding a sequence number; a reader
+ * that fell behind the oldest retained value, because its slot has been overwritten or trimmed,
+ * continues with the oldest value still retained.
+ *
+ * @param <T> the value type
+ */
+public final class ReplayRing<T> {
+
+    /** The initial number of slots. */
+    static final int INITIAL_CAPACITY = 16;
+
+    /** The largest array length the slots can grow to. */
+    static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /** The maximum number of values retained. */
+    final int maxSize;
+
+    final boolean timed;
+
+    /** The current slots; replaced by the writer when they have to grow. */
+    volatile Slots slots;
+
+    /** The sequence number of the oldest retained value. */
+    volatile long head;
+
+    /** The number of values appended; written by the writer after the value is readable. */
+    volatile long tail;
+
+    /** The slot of the next value, accessed by the writer only. */
+    int writerOffset;
+
+    /**
+     * Constructs an empty ring.
+     * @param maxSize the maximum number of values retained, positive
+     * @param timed if true, a time stamp is stored along with each value
+     */
+    public ReplayRing(int maxSize, boolean timed) {
+        this.maxSize = Math.min(ObjectHelper.verifyPositive(maxSize, "maxSize"), MAX_CAPACITY - 1);
+        this.timed = timed;
+        this.slots = new Slots(Math.min(INITIAL_CAPACITY, this.maxSize + 1), timed);
+    }
+
+    /**
+     * Appends a value, dropping the oldest retained value if the ring is full; call from a single writer thread.
+     * @param value the value to append, not null
+     * @param time the time stamp of the value, ignored if the ring is not timed
+     */
+    public void append(T value, long time) {
+        long p = tail;
+        long h = head;
+        if (p - h == maxSize) {
+            h++;
+            // readers still behind the new head continue from it, see load()
+            head = h;
+        }
+        Slots s = slots;
+        int offset = writerOffset;
+        // a slot is reused only once its value is at least two behind the head, see load()
+        if (p - h == s.length - 1) {
+            s = grow(s, p);
+            offset = (int)(p % s.length);
+        }
+        if (timed) {
+            s.times.lazySet(offset, time);
+        }
+        s.values.lazySet(offset, value);
+        writerOffset = offset + 1 == s.length ? 0 : offset + 1;
+        tail = p + 1; // volatile store -> the value and its time stamp are visible to the readers
+    }
+
+    /**
+     * Drops the retained values with a time stamp not after the given limit and clears their slots;
+     * call from the writer thread.
+     * @param limit the time limit
+     */
+    public void trim(long limit) {
+        long p = tail;
+        long h0 = head;
+        Slots s = slots;
+        int n = s.length;
+        int offset = (int)(h0 % n);
+        long h = h0;
+        while (h != p && s.times.get(offset) <= limit) {
+            h++;
+            offset = offset + 1 == n ? 0 : offset + 1;
+        }
+        if (h != h0) {
+            // the head moves first so that readers finding a cleared slot know where to continue
+            head = h;
+            offset = (int)(h0 % n);
+            for (long i = h0; i != h; i++) {
+                s.values.lazySet(offset, null);
+                offset = offset + 1 == n ? 0 : offset + 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of values appended so far, the sequence number of the next value.
+     * @return the number of values appended so far
+     */
+    public long tail() {
+        return tail;
+    }
+
+    /**
+     * Returns the number of retained values.
+     * @return the number of retained values
+     */
+    public int size() {
+        long h = head;
+        return (int)Math.min(tail - h, maxSize);
+    }
+
+    /**
+     * Returns the number of retained values with a time stamp after the given limit.
+     * @param limit the time limit
+     * @return the number of retained values with a time stamp after the limit
+     */
+    public int size(long limit) {
+        Cursor c = cursor(limit);
+        return (int)Math.min(tail - c.index, maxSize);
+    }
+
+    /**
+     * Returns the most recent value or null if there is none or its time stamp is before the given limit.
+     * @param limit the time limit, Long.MIN_VALUE if the ring is not timed
+     * @return the most recent value or null
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public T last(long limit) {
+        Cursor c = new Cursor();
+        for (;;) {
+            long p = tail;
+            if (p == 0L) {
+                return null;
+            }
+            c.index = p - 1;
+            c.slots = null;
+            Object v = load(c);
+            if (v == null) {
+                return null;
+            }
+            if (c.index == p - 1) {
+                return c.time < limit ? null : (T)v;
+            }
+        }
+    }
+
+    /**
+     * Returns a cursor positioned at the oldest retained value.
+     * @return the new cursor
+     */
+    public Cursor cursor() {
+        Cursor c = new Cursor();
+        c.index = head;
+        return c;
+    }
+
+    /**
+     * Returns a cursor positioned at the oldest retained value with a time stamp after the given limit.
+     * @param limit the time limit
+     * @return the new cursor
+     */
+    public Cursor cursor(long limit) {
+        Cursor c = cursor();
+        while (load(c) != null && c.time <= limit) {
+            advance(c);
+        }
+        return c;
+    }
+
+    /**
+     * Returns the value at the cursor and moves the cursor to the next value, moving it to the oldest
+     * retained value first if it fell behind; use a cursor from one reader at a time.
+     * @param c the cursor of the reader
+     * @return the value or null if the cursor has reached the end of the ring
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public T poll(Cursor c) {
+        Object v = load(c);
+        if (v != null) {
+            advance(c);
+        }
+        return (T)v;
+    }
+
+    /**
+     * Reads the value and time stamp at the cursor, moving the cursor past the values that are no longer
+     * retained.
+     * @param c the cursor
+     * @return the value or null if the cursor has reached the end of the ring
+     */
+    Object load(Cursor c) {
+        for (;;) {
+            long index = c.index;
+            if (index == tail) {
+                return null;
+            }
+            Slots s = slots;
+            if (s != c.slots) {
+                c.slots = s;
+                c.offset = (int)(index % s.length);
+            }
+            int offset = c.offset;
+            long t = timed ? s.times.get(offset) : 0L;
+            Object v = s.values.get(offset);
+            // the writer reuses the slot only after publishing index + length - 1 values
+            if (v != null && tail - index < s.length) {
+                c.time = t;
+                return v;
+            }
+            if (s == slots) {
+                // the value has been overwritten or trimmed: the head was moved past it before
+                long h = head;
+                c.index = h;
+                c.offset = (int)(h % s.length);
+            }
+            // otherwise the slots have grown meanwhile, retry in the new ones
+        }
+    }
+
+    static void advance(Cursor c) {
+        c.index++;
+        int offset = c.offset + 1;
+        c.offset = offset == c.slots.length ? 0 : offset;
+    }
+
+    Slots grow(Slots a, long p) {
+        int n = a.length;
+        Slots b = new Slots((int)Math.min(2L * n, maxSize + 1L), timed);
+        int m = b.length;
+        for (long i = Math.max(0L, p - n); i != p; i++) {
+            int j = (int)(i % n);
+            int k = (int)(i % m);
+            b.values.lazySet(k, a.values.get(j));
+            if (timed) {
+                b.times.lazySet(k, a.times.get(j));
+            }
+        }
+        slots = b;
+        return b;
+    }
+
+    /**
+     * The position of a reader in the ring, used by one reader at a time.
+     */
+    public static final class Cursor {
+        /** The sequence number of the next value to read. */
+        long index;
+
+        /** The slots the offset refers to, null if it has to be recomputed. */
+        Slots slots;
+
+        /** The slot of the next value. */
+        int offset;
+
+        /** The time stamp of the value last loaded. */
+        long time;
+
+        /**
+         * Returns the sequence number of the next value to read.
+         * @return the sequence number of the next value to read
+         */
+        public long index() {
+            return index;
+        }
+    }
+
+    static final class Slots {
+        final int length;
+
+        final AtomicReferenceArray<Object> values;
+
+        /** The time stamps of the values, null if the ring is not timed. */
+        final AtomicLongArray times;
+
+        Slots(int length, boolean timed) {
+            this.length = length;
+            this.values = new AtomicReferenceArray<Object>(length);
+            this.times = timed ? new AtomicLongArray(length) : null;
+        }
+    }
+}
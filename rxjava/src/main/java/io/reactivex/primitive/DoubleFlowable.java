@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.primitive;
+
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.reactivex.annotations.BackpressureKind;
+import io.reactivex.annotations.BackpressureSupport;
+import io.reactivex.annotations.CheckReturnValue;
+import io.reactivex.annotations.Experimental;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.annotations.SchedulerSupport;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.DoubleBinaryOperator;
+import io.reactivex.functions.DoublePredicate;
+import io.reactivex.functions.DoubleUnaryOperator;
+import io.reactivex.functions.ToDoubleFunction;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.operators.primitive.*;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Abstract base class for sources of primitive double values.
+ * <p>
+ * The values travel as primitive doubles from operator to operator and to the {@link DoubleSubscriber}s,
+ * hence a pipeline of DoubleFlowable operators doesn't allocate per value. The operators honor backpressure
+ * the same way as the {@link Flowable} operators and relay the {@code tryOnNext} of conditional
+ * consumers so that dropped values are not requested one by one.
+ * <p>
+ * Use {@link Flowable#mapToDouble(ToDoubleFunction)} to turn a Flowable into a DoubleFlowable and {@link #boxed()}
+ * to turn it back.
+ */
+@Experimental
+public abstract class DoubleFlowable {
+
+    /**
+     * Subscribes the given DoubleSubscriber to this DoubleFlowable.
+     * @param s the DoubleSubscriber, not null
+     */
+    @BackpressureSupport(BackpressureKind.SPECIAL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final void subscribe(@NonNull DoubleSubscriber s) {
+        ObjectHelper.requireNonNull(s, "s is null");
+        try {
+            subscribeActual(s);
+        } catch (NullPointerException e) { // NOPMD
+            throw e;
+        } catch (Throwable e) {
+            Exceptions.throwIfFatal(e);
+            // can't call onError because no way to know if a Subscription has been set or not
+            // can't call onSubscribe because the call might have set a Subscription already
+            RxJavaPlugins.onError(e);
+
+            NullPointerException npe = new NullPointerException("Actually not, but can't throw other exceptions due to RS");
+            npe.initCause(e);
+            throw npe;
+        }
+    }
+
+    /**
+     * Operator implementations (both source and intermediate) should implement this method that
+     * performs the necessary business logic.
+     * @param s the incoming DoubleSubscriber, never null
+     */
+    protected abstract void subscribeActual(@NonNull DoubleSubscriber s);
+
+    /**
+     * Maps the values of the given Publisher into primitive doubles.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source {@code Publisher}'s backpressure
+     *  behavior.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code fromPublisher} does not operate by default on a particular {@link io.reactivex.Scheduler}.</dd>
+     * </dl>
+     * @param <T> the value type of the source
+     * @param source the source Publisher
+     * @param mapper the function computing the double value of each source value
+     * @return the new DoubleFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public static <T> DoubleFlowable fromPublisher(@NonNull Publisher<? extends T> source, @NonNull ToDoubleFunction<? super T> mapper) {
+        ObjectHelper.requireNonNull(source, "source is null");
+        ObjectHelper.requireNonNull(mapper, "mapper is null");
+        return new DoubleFlowableFromPublisher<T>(source, mapper);
+    }
+
+    /**
+     * Maps each value of this DoubleFlowable into another double value.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @param mapper the function computing the new value
+     * @return the new DoubleFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final DoubleFlowable map(@NonNull DoubleUnaryOperator mapper) {
+        ObjectHelper.requireNonNull(mapper, "mapper is null");
+        return new DoubleFlowableMap(this, mapper);
+    }
+
+    /**
+     * Relays the values of this DoubleFlowable for which the predicate returns true.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @param predicate the function called with each value
+     * @return the new DoubleFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final DoubleFlowable filter(@NonNull DoublePredicate predicate) {
+        ObjectHelper.requireNonNull(predicate, "predicate is null");
+        return new DoubleFlowableFilter(this, predicate);
+    }
+
+    /**
+     * Emits the first value of this DoubleFlowable, then the result of the accumulator applied
+     * to the previous result and the current value for the subsequent values.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @param accumulator the function combining the previous result and the current value
+     * @return the new DoubleFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final DoubleFlowable scan(@NonNull DoubleBinaryOperator accumulator) {
+        ObjectHelper.requireNonNull(accumulator, "accumulator is null");
+        return new DoubleFlowableScan(this, accumulator);
+    }
+
+    /**
+     * Reduces the values of this DoubleFlowable into one value, emitted when this DoubleFlowable completes;
+     * completes without a value if this DoubleFlowable is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this DoubleFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @param reducer the function combining the previous result and the current value
+     * @return the new DoubleFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final DoubleFlowable reduce(@NonNull DoubleBinaryOperator reducer) {
+        ObjectHelper.requireNonNull(reducer, "reducer is null");
+        return new DoubleFlowableReduce(this, false, 0d, reducer);
+    }
+
+    /**
+     * Reduces the values of this DoubleFlowable, starting from the seed, into one value emitted
+     * when this DoubleFlowable completes.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this DoubleFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @param seed the initial value, emitted if this DoubleFlowable is empty
+     * @param reducer the function combining the previous result and the current value
+     * @return the new DoubleFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final DoubleFlowable reduce(double seed, @NonNull DoubleBinaryOperator reducer) {
+        ObjectHelper.requireNonNull(reducer, "reducer is null");
+        return new DoubleFlowableReduce(this, true, seed, reducer);
+    }
+
+    /**
+     * Emits the sum of the values of this DoubleFlowable, or zero if it is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this DoubleFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @return the new DoubleFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final DoubleFlowable sum() {
+        return reduce(0d, DoubleFlowableReduce.Aggregate.SUM);
+    }
+
+    /**
+     * Emits the smallest value of this DoubleFlowable or completes without a value if it is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this DoubleFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @return the new DoubleFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final DoubleFlowable min() {
+        return reduce(DoubleFlowableReduce.Aggregate.MIN);
+    }
+
+    /**
+     * Emits the largest value of this DoubleFlowable or completes without a value if it is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this DoubleFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @return the new DoubleFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final DoubleFlowable max() {
+        return reduce(DoubleFlowableReduce.Aggregate.MAX);
+    }
+
+    /**
+     * Returns a Flowable that emits the values of this DoubleFlowable as Doubles.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @return the new Flowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Flowable<Double> boxed() {
+        return RxJavaPlugins.onAssembly(new DoubleFlowableBoxed(this));
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.primitive;
+
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.reactivex.annotations.BackpressureKind;
+import io.reactivex.annotations.BackpressureSupport;
+import io.reactivex.annotations.CheckReturnValue;
+import io.reactivex.annotations.Experimental;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.annotations.SchedulerSupport;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.IntBinaryOperator;
+import io.reactivex.functions.IntPredicate;
+import io.reactivex.functions.IntUnaryOperator;
+import io.reactivex.functions.ToIntFunction;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.operators.primitive.*;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Abstract base class for sources of primitive int values.
+ * <p>
+ * The values travel as primitive ints from operator to operator and to the {@link IntSubscriber}s,
+ * hence a pipeline of IntFlowable operators doesn't allocate per value. The operators honor backpressure
+ * the same way as the {@link Flowable} operators and relay the {@code tryOnNext} of conditional
+ * consumers so that dropped values are not requested one by one.
+ * <p>
+ * Use {@link Flowable#mapToInt(ToIntFunction)} to turn a Flowable into a IntFlowable and {@link #boxed()}
+ * to turn it back.
+ */
+@Experimental
+public abstract class IntFlowable {
+
+    /**
+     * Subscribes the given IntSubscriber to this IntFlowable.
+     * @param s the IntSubscriber, not null
+     */
+    @BackpressureSupport(BackpressureKind.SPECIAL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final void subscribe(@NonNull IntSubscriber s) {
+        ObjectHelper.requireNonNull(s, "s is null");
+        try {
+            subscribeActual(s);
+        } catch (NullPointerException e) { // NOPMD
+            throw e;
+        } catch (Throwable e) {
+            Exceptions.throwIfFatal(e);
+            // can't call onError because no way to know if a Subscription has been set or not
+            // can't call onSubscribe because the call might have set a Subscription already
+            RxJavaPlugins.onError(e);
+
+            NullPointerException npe = new NullPointerException("Actually not, but can't throw other exceptions due to RS");
+            npe.initCause(e);
+            throw npe;
+        }
+    }
+
+    /**
+     * Operator implementations (both source and intermediate) should implement this method that
+     * performs the necessary business logic.
+     * @param s the incoming IntSubscriber, never null
+     */
+    protected abstract void subscribeActual(@NonNull IntSubscriber s);
+
+    /**
+     * Returns a IntFlowable that emits a sequence of primitive ints within a specified range.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and signals values on-demand (i.e., when requested).</dd>
+     * </dl>
+     * @param start the value of the first int in the sequence
+     * @param count the number of sequential ints to generate
+     * @return the new IntFlowable instance
+     * @throws IllegalArgumentException
+     *             if {@code count} is less than zero, or if {@code start} + {@code count} &minus; 1 exceeds
+     *             {@code Integer.MAX_VALUE}
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public static IntFlowable range(int start, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count >= 0 required but it was " + count);
+        }
+        if (count != 0 && (long)start + (count - 1) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Integer overflow");
+        }
+        return new IntFlowableRange(start, count);
+    }
+
+    /**
+     * Maps the values of the given Publisher into primitive ints.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source {@code Publisher}'s backpressure
+     *  behavior.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code fromPublisher} does not operate by default on a particular {@link io.reactivex.Scheduler}.</dd>
+     * </dl>
+     * @param <T> the value type of the source
+     * @param source the source Publisher
+     * @param mapper the function computing the int value of each source value
+     * @return the new IntFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public static <T> IntFlowable fromPublisher(@NonNull Publisher<? extends T> source, @NonNull ToIntFunction<? super T> mapper) {
+        ObjectHelper.requireNonNull(source, "source is null");
+        ObjectHelper.requireNonNull(mapper, "mapper is null");
+        return new IntFlowableFromPublisher<T>(source, mapper);
+    }
+
+    /**
+     * Maps each value of this IntFlowable into another int value.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @param mapper the function computing the new value
+     * @return the new IntFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final IntFlowable map(@NonNull IntUnaryOperator mapper) {
+        ObjectHelper.requireNonNull(mapper, "mapper is null");
+        return new IntFlowableMap(this, mapper);
+    }
+
+    /**
+     * Relays the values of this IntFlowable for which the predicate returns true.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @param predicate the function called with each value
+     * @return the new IntFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final IntFlowable filter(@NonNull IntPredicate predicate) {
+        ObjectHelper.requireNonNull(predicate, "predicate is null");
+        return new IntFlowableFilter(this, predicate);
+    }
+
+    /**
+     * Emits the first value of this IntFlowable, then the result of the accumulator applied
+     * to the previous result and the current value for the subsequent values.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @param accumulator the function combining the previous result and the current value
+     * @return the new IntFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final IntFlowable scan(@NonNull IntBinaryOperator accumulator) {
+        ObjectHelper.requireNonNull(accumulator, "accumulator is null");
+        return new IntFlowableScan(this, accumulator);
+    }
+
+    /**
+     * Reduces the values of this IntFlowable into one value, emitted when this IntFlowable completes;
+     * completes without a value if this IntFlowable is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this IntFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @param reducer the function combining the previous result and the current value
+     * @return the new IntFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final IntFlowable reduce(@NonNull IntBinaryOperator reducer) {
+        ObjectHelper.requireNonNull(reducer, "reducer is null");
+        return new IntFlowableReduce(this, false, 0, reducer);
+    }
+
+    /**
+     * Reduces the values of this IntFlowable, starting from the seed, into one value emitted
+     * when this IntFlowable completes.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this IntFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @param seed the initial value, emitted if this IntFlowable is empty
+     * @param reducer the function combining the previous result and the current value
+     * @return the new IntFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final IntFlowable reduce(int seed, @NonNull IntBinaryOperator reducer) {
+        ObjectHelper.requireNonNull(reducer, "reducer is null");
+        return new IntFlowableReduce(this, true, seed, reducer);
+    }
+
+    /**
+     * Emits the sum of the values of this IntFlowable (overflowing silently as int addition does), or zero if it is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this IntFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @return the new IntFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final IntFlowable sum() {
+        return reduce(0, IntFlowableReduce.Aggregate.SUM);
+    }
+
+    /**
+     * Emits the smallest value of this IntFlowable or completes without a value if it is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this IntFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @return the new IntFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final IntFlowable min() {
+        return reduce(IntFlowableReduce.Aggregate.MIN);
+    }
+
+    /**
+     * Emits the largest value of this IntFlowable or completes without a value if it is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this IntFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @return the new IntFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final IntFlowable max() {
+        return reduce(IntFlowableReduce.Aggregate.MAX);
+    }
+
+    /**
+     * Returns a Flowable that emits the values of this IntFlowable as Integers.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @return the new Flowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Flowable<Integer> boxed() {
+        return RxJavaPlugins.onAssembly(new IntFlowableBoxed(this));
+    }
+}
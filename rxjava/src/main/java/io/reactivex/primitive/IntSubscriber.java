@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.primitive;
+
+import org.reactivestreams.Subscription;
+
+import io.reactivex.annotations.Experimental;
+import io.reactivex.annotations.NonNull;
+
+/**
+ * The consumer of a {@link IntFlowable}, receiving the values as primitive ints.
+ * <p>
+ * The methods follow the same rules as the methods of the Reactive-Streams {@code Subscriber}:
+ * {@code onSubscribe} is called once, followed by at most as many {@code onNext} calls as
+ * requested through the Subscription, optionally followed by an {@code onError} or {@code onComplete}.
+ */
+@Experimental
+public interface IntSubscriber {
+
+    /**
+     * Provides the Subscription for requesting values and cancelling the sequence.
+     * @param s the Subscription, not null
+     */
+    void onSubscribe(@NonNull Subscription s);
+
+    /**
+     * Called with the next primitive int value.
+     * @param t the value
+     */
+    void onNext(int t);
+
+    /**
+     * Called when the sequence terminated with an error.
+     * @param t the Throwable, not null
+     */
+    void onError(@NonNull Throwable t);
+
+    /**
+     * Called when the sequence completed normally.
+     */
+    void onComplete();
+}
@@ -0,0 +1,296 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.primitive;
+
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.reactivex.annotations.BackpressureKind;
+import io.reactivex.annotations.BackpressureSupport;
+import io.reactivex.annotations.CheckReturnValue;
+import io.reactivex.annotations.Experimental;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.annotations.SchedulerSupport;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.LongBinaryOperator;
+import io.reactivex.functions.LongPredicate;
+import io.reactivex.functions.LongUnaryOperator;
+import io.reactivex.functions.ToLongFunction;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.operators.primitive.*;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Abstract base class for sources of primitive long values.
+ * <p>
+ * The values travel as primitive longs from operator to operator and to the {@link LongSubscriber}s,
+ * hence a pipeline of LongFlowable operators doesn't allocate per value. The operators honor backpressure
+ * the same way as the {@link Flowable} operators and relay the {@code tryOnNext} of conditional
+ * consumers so that dropped values are not requested one by one.
+ * <p>
+ * Use {@link Flowable#mapToLong(ToLongFunction)} to turn a Flowable into a LongFlowable and {@link #boxed()}
+ * to turn it back.
+ */
+@Experimental
+public abstract class LongFlowable {
+
+    /**
+     * Subscribes the given LongSubscriber to this LongFlowable.
+     * @param s the LongSubscriber, not null
+     */
+    @BackpressureSupport(BackpressureKind.SPECIAL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final void subscribe(@NonNull LongSubscriber s) {
+        ObjectHelper.requireNonNull(s, "s is null");
+        try {
+            subscribeActual(s);
+        } catch (NullPointerException e) { // NOPMD
+            throw e;
+        } catch (Throwable e) {
+            Exceptions.throwIfFatal(e);
+            // can't call onError because no way to know if a Subscription has been set or not
+            // can't call onSubscribe because the call might have set a Subscription already
+            RxJavaPlugins.onError(e);
+
+            NullPointerException npe = new NullPointerException("Actually not, but can't throw other exceptions due to RS");
+            npe.initCause(e);
+            throw npe;
+        }
+    }
+
+    /**
+     * Operator implementations (both source and intermediate) should implement this method that
+     * performs the necessary business logic.
+     * @param s the incoming LongSubscriber, never null
+     */
+    protected abstract void subscribeActual(@NonNull LongSubscriber s);
+
+    /**
+     * Returns a LongFlowable that emits a sequence of primitive longs within a specified range.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and signals values on-demand (i.e., when requested).</dd>
+     * </dl>
+     * @param start the value of the first long in the sequence
+     * @param count the number of sequential longs to generate
+     * @return the new LongFlowable instance
+     * @throws IllegalArgumentException
+     *             if {@code count} is less than zero, or if {@code start} + {@code count} &minus; 1 exceeds
+     *             {@code Long.MAX_VALUE}
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public static LongFlowable range(long start, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count >= 0 required but it was " + count);
+        }
+        if (count != 0 && start > 0 && start + (count - 1) < 0) {
+            throw new IllegalArgumentException("Overflow! start + count is bigger than Long.MAX_VALUE");
+        }
+        return new LongFlowableRange(start, count);
+    }
+
+    /**
+     * Maps the values of the given Publisher into primitive longs.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source {@code Publisher}'s backpressure
+     *  behavior.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code fromPublisher} does not operate by default on a particular {@link io.reactivex.Scheduler}.</dd>
+     * </dl>
+     * @param <T> the value type of the source
+     * @param source the source Publisher
+     * @param mapper the function computing the long value of each source value
+     * @return the new LongFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public static <T> LongFlowable fromPublisher(@NonNull Publisher<? extends T> source, @NonNull ToLongFunction<? super T> mapper) {
+        ObjectHelper.requireNonNull(source, "source is null");
+        ObjectHelper.requireNonNull(mapper, "mapper is null");
+        return new LongFlowableFromPublisher<T>(source, mapper);
+    }
+
+    /**
+     * Maps each value of this LongFlowable into another long value.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @param mapper the function computing the new value
+     * @return the new LongFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final LongFlowable map(@NonNull LongUnaryOperator mapper) {
+        ObjectHelper.requireNonNull(mapper, "mapper is null");
+        return new LongFlowableMap(this, mapper);
+    }
+
+    /**
+     * Relays the values of this LongFlowable for which the predicate returns true.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @param predicate the function called with each value
+     * @return the new LongFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final LongFlowable filter(@NonNull LongPredicate predicate) {
+        ObjectHelper.requireNonNull(predicate, "predicate is null");
+        return new LongFlowableFilter(this, predicate);
+    }
+
+    /**
+     * Emits the first value of this LongFlowable, then the result of the accumulator applied
+     * to the previous result and the current value for the subsequent values.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @param accumulator the function combining the previous result and the current value
+     * @return the new LongFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final LongFlowable scan(@NonNull LongBinaryOperator accumulator) {
+        ObjectHelper.requireNonNull(accumulator, "accumulator is null");
+        return new LongFlowableScan(this, accumulator);
+    }
+
+    /**
+     * Reduces the values of this LongFlowable into one value, emitted when this LongFlowable completes;
+     * completes without a value if this LongFlowable is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this LongFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @param reducer the function combining the previous result and the current value
+     * @return the new LongFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final LongFlowable reduce(@NonNull LongBinaryOperator reducer) {
+        ObjectHelper.requireNonNull(reducer, "reducer is null");
+        return new LongFlowableReduce(this, false, 0L, reducer);
+    }
+
+    /**
+     * Reduces the values of this LongFlowable, starting from the seed, into one value emitted
+     * when this LongFlowable completes.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this LongFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @param seed the initial value, emitted if this LongFlowable is empty
+     * @param reducer the function combining the previous result and the current value
+     * @return the new LongFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final LongFlowable reduce(long seed, @NonNull LongBinaryOperator reducer) {
+        ObjectHelper.requireNonNull(reducer, "reducer is null");
+        return new LongFlowableReduce(this, true, seed, reducer);
+    }
+
+    /**
+     * Emits the sum of the values of this LongFlowable (overflowing silently as long addition does), or zero if it is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this LongFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @return the new LongFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final LongFlowable sum() {
+        return reduce(0L, LongFlowableReduce.Aggregate.SUM);
+    }
+
+    /**
+     * Emits the smallest value of this LongFlowable or completes without a value if it is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this LongFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @return the new LongFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final LongFlowable min() {
+        return reduce(LongFlowableReduce.Aggregate.MIN);
+    }
+
+    /**
+     * Emits the largest value of this LongFlowable or completes without a value if it is empty.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure of its downstream and consumes this LongFlowable in an unbounded
+     *  manner.</dd>
+     * </dl>
+     * @return the new LongFlowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final LongFlowable max() {
+        return reduce(LongFlowableReduce.Aggregate.MAX);
+    }
+
+    /**
+     * Returns a Flowable that emits the values of this LongFlowable as Longs.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't interfere with backpressure which is determined by the source's backpressure
+     *  behavior.</dd>
+     * </dl>
+     * @return the new Flowable instance
+     */
+    @CheckReturnValue
+    @NonNull
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Flowable<Long> boxed() {
+        return RxJavaPlugins.onAssembly(new LongFlowableBoxed(this));
+    }
+}
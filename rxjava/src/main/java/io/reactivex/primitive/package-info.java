@@ -0,0 +1,19 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+/**
+ * Reactive sources of primitive values which don't box the values between
+ * the operators, see {@link io.reactivex.primitive.IntFlowable},
+ * {@link io.reactivex.primitive.LongFlowable} and {@link io.reactivex.primitive.DoubleFlowable}.
+ */
+package io.reactivex.primitive;
@@ -17,13 +17,21 @@ import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 
+import io.reactivex.Flowable;
 import io.reactivex.Scheduler;
 import io.reactivex.annotations.CheckReturnValue;
+import io.reactivex.annotations.Experimental;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Function;
 import io.reactivex.internal.functions.ObjectHelper;
 import io.reactivex.internal.subscriptions.SubscriptionHelper;
 import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.internal.util.ExceptionHelper;
+import io.reactivex.internal.util.MappedAppendLog;
+import io.reactivex.internal.util.ReplayRing;
 import io.reactivex.plugins.RxJavaPlugins;
 
 /**
@@ -79,11 +87,9 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
     /**
      * Creates an unbounded ReplayProcessor.
      * <p>
-     * The internal buffer is backed by an {@link ArrayList} and starts with an initial capacity of 16. Once the
-     * number of items reaches this capacity, it will grow as necessary (usually by 50%). However, as the
-     * number of items grows, this causes frequent array reallocation and copying, and may hurt performance
-     * and latency. This can be avoided with the {@link #create(int)} overload which takes an initial capacity
-     * parameter and can be tuned to reduce the array reallocation frequency as needed.
+     * The internal buffer is made of linked arrays of 16 items each; once an array fills up, a new one
+     * is linked to it, so the buffer never copies the items already held. The size of the arrays can be
+     * tuned with the {@link #create(int)} overload which takes a capacity hint parameter.
      *
      * @param <T>
      *          the type of items observed and emitted by the ReplayProcessor
@@ -97,16 +103,15 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
     /**
      * Creates an unbounded ReplayProcessor with the specified initial buffer capacity.
      * <p>
-     * Use this method to avoid excessive array reallocation while the internal buffer grows to accommodate new
-     * items. For example, if you know that the buffer will hold 32k items, you can ask the
-     * {@code ReplayProcessor} to preallocate its internal array with a capacity to hold that many items. Once
-     * the items start to arrive, the internal array won't need to grow, creating less garbage and no overhead
-     * due to frequent array-copying.
+     * The internal buffer is made of linked arrays holding {@code capacityHint} items each. Larger arrays
+     * mean fewer allocations and links to follow while the buffer grows and replays; smaller ones waste less
+     * memory after the last item. For example, if you know that the buffer will hold 32k items, you can ask
+     * the {@code ReplayProcessor} to preallocate its internal array with a capacity to hold that many items.
      *
      * @param <T>
      *          the type of items observed and emitted by the Subject
      * @param capacityHint
-     *          the initial buffer capacity
+     *          the number of items held by each internal array
      * @return the created subject
      */
     @CheckReturnValue
@@ -126,7 +131,9 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
      * If an observer subscribes while the {@code ReplayProcessor} is active, it will observe all items in the
      * buffer at that point in time and each item observed afterwards, even if the buffer evicts items due to
      * the size constraint in the mean time. In other words, once an Observer subscribes, it will receive items
-     * without gaps in the sequence.
+     * without gaps in the sequence as long as it does not fall behind by more than {@code size} items; the
+     * buffer is a fixed ring and a subscriber whose requests lag further behind continues with the oldest item
+     * in the buffer.
      *
      * @param <T>
      *          the type of items observed and emitted by the Subject
@@ -145,7 +152,7 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
      * This variant behaves like the regular unbounded {@code ReplayProcessor} created via {@link #create()} but
      * uses the structures of the bounded-implementation. This is by no means intended for the replacement of
      * the original, array-backed and unbounded {@code ReplayProcessor} due to the additional overhead of the
-     * linked-list based internal buffer. The sole purpose is to allow testing and reasoning about the behavior
+     * growing ring of the bounded buffer. The sole purpose is to allow testing and reasoning about the behavior
      * of the bounded implementations without the interference of the eviction policies.
      *
      * @param <T>
@@ -169,9 +176,10 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
      * <p>
      * If an observer subscribes while the {@code ReplayProcessor} is active, it will observe only those items
      * from within the buffer that have an age less than the specified time, and each item observed thereafter,
-     * even if the buffer evicts items due to the time constraint in the mean time. In other words, once an
-     * observer subscribes, it observes items without gaps in the sequence except for any outdated items at the
-     * beginning of the sequence.
+     * even if the buffer evicts items due to the time constraint in the mean time, as long as it keeps up with
+     * the buffer. In other words, once an observer subscribes, it observes items without gaps in the sequence
+     * except for any outdated items at the beginning of the sequence; a subscriber whose requests lag behind
+     * the evicted items continues with the oldest item in the buffer.
      * <p>
      * Note that terminal notifications ({@code onError} and {@code onComplete}) trigger eviction as well. For
      * example, with a max age of 5, the first item is observed at T=0, then an {@code onComplete} notification
@@ -206,9 +214,10 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
      * <p>
      * If an observer subscribes while the {@code ReplayProcessor} is active, it will observe only those items
      * from within the buffer that have age less than the specified time and each subsequent item, even if the
-     * buffer evicts items due to the time constraint in the mean time. In other words, once an observer
-     * subscribes, it observes items without gaps in the sequence except for the outdated items at the beginning
-     * of the sequence.
+     * buffer evicts items due to the time constraint in the mean time, as long as it keeps up with the buffer.
+     * In other words, once an observer subscribes, it observes items without gaps in the sequence except for the
+     * outdated items at the beginning of the sequence; a subscriber whose requests lag behind the evicted items
+     * continues with the oldest item in the buffer.
      * <p>
      * Note that terminal notifications ({@code onError} and {@code onComplete}) trigger eviction as well. For
      * example, with a max age of 5, the first item is observed at T=0, then an {@code onComplete} notification
@@ -232,6 +241,42 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
         return new ReplayProcessor<T>(new SizeAndTimeBoundReplayBuffer<T>(maxSize, maxAge, unit, scheduler));
     }
 
+    /**
+     * Creates an unbounded ReplayProcessor which stores the items in serialized form in a memory-mapped
+     * temporary file instead of on the Java heap.
+     * <p>
+     * The items are appended to segments of the file through the {@code serializer}; the most recent
+     * {@link Flowable#bufferSize()} items are also kept as they are so that Subscribers keeping up with the
+     * {@code ReplayProcessor} don't deserialize them. Older items are deserialized from a view of the mapped
+     * segment, without copying the bytes, one by one as the Subscribers request them.
+     * <p>
+     * The file is deleted right after its creation (or once the {@code ReplayProcessor} terminates on
+     * systems not supporting that) and its storage is released when the {@code ReplayProcessor} gets
+     * garbage collected.
+     * <p>
+     * If the {@code serializer} fails, the {@code ReplayProcessor} terminates with its exception. If the
+     * {@code deserializer} fails, the exception is signalled to the Subscriber being replayed to.
+     *
+     * @param <T>
+     *          the type of items observed and emitted by the ReplayProcessor
+     * @param serializer
+     *          the function turning an item into bytes, called on the thread of {@code onNext}
+     * @param deserializer
+     *          the function turning the bytes back into an item; it receives a {@link ByteBuffer} positioned at
+     *          the bytes of the item which it must not retain
+     * @return the created ReplayProcessor
+     * @since 2.1 - experimental
+     */
+    @CheckReturnValue
+    @Experimental
+    public static <T> ReplayProcessor<T> createMapped(Function<? super T, byte[]> serializer,
+            Function<? super ByteBuffer, ? extends T> deserializer) {
+        ObjectHelper.requireNonNull(serializer, "serializer is null");
+        ObjectHelper.requireNonNull(deserializer, "deserializer is null");
+        return new ReplayProcessor<T>(new MappedReplayBuffer<T>(new MappedAppendLog<T>(serializer, deserializer,
+                MappedAppendLog.DEFAULT_SEGMENT_SIZE, Flowable.bufferSize(), null)));
+    }
+
     /**
      * Constructs a ReplayProcessor with the given custom ReplayBuffer instance.
      * @param buffer the ReplayBuffer instance, not null (not verified)
@@ -276,7 +321,13 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
         }
 
         ReplayBuffer<T> b = buffer;
-        b.next(t);
+        try {
+            b.next(t);
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            onError(ex);
+            return;
+        }
 
         for (ReplaySubscription<T> rs : subscribers.get()) {
             b.replay(rs);
@@ -458,7 +509,12 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
      */
     interface ReplayBuffer<T> {
 
-        void next(T value);
+        /**
+         * Adds a value to the buffer.
+         * @param value the value to add
+         * @throws Exception if the value couldn't be stored, which terminates the processor
+         */
+        void next(T value) throws Exception;
 
         void error(Throwable ex);
 
@@ -513,10 +569,28 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
         }
     }
 
+    /**
+     * Holds the items in linked chunks of fixed size: each chunk has an extra, last slot pointing to the
+     * next chunk, hence the buffer never copies the items when it grows.
+     *
+     * @param <T> the value type
+     */
     static final class UnboundedReplayBuffer<T>
     implements ReplayBuffer<T> {
 
-        final List<T> buffer;
+        final int chunkSize;
+
+        /** The first chunk, read by the subscribers starting a replay. */
+        final Object[] head;
+
+        /** The chunk being filled, accessed by onNext only. */
+        Object[] tail;
+
+        /** The next free slot in the tail chunk, accessed by onNext only. */
+        int tailOffset;
+
+        /** The most recent item, written before the size. */
+        T last;
 
         Throwable error;
         volatile boolean done;
@@ -524,12 +598,27 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
         volatile int size;
 
         UnboundedReplayBuffer(int capacityHint) {
-            this.buffer = new ArrayList<T>(ObjectHelper.verifyPositive(capacityHint, "capacityHint"));
+            this.chunkSize = ObjectHelper.verifyPositive(capacityHint, "capacityHint");
+            Object[] h = new Object[chunkSize + 1];
+            this.head = h;
+            this.tail = h;
         }
 
         @Override
         public void next(T value) {
-            buffer.add(value);
+            final int n = chunkSize;
+            Object[] t = tail;
+            int offset = tailOffset;
+            if (offset == n) {
+                Object[] u = new Object[n + 1];
+                t[n] = u;
+                tail = u;
+                t = u;
+                offset = 0;
+            }
+            t[offset] = value;
+            tailOffset = offset + 1;
+            last = value;
             size++;
         }
 
@@ -550,7 +639,7 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
             if (s == 0) {
                 return null;
             }
-            return buffer.get(s - 1);
+            return last;
         }
 
         @Override
@@ -563,13 +652,19 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
                 }
                 return array;
             }
-            List<T> b = buffer;
 
             if (array.length < s) {
                 array = (T[])Array.newInstance(array.getClass().getComponentType(), s);
             }
+            final int n = chunkSize;
+            Object[] chunk = head;
+            int offset = 0;
             for (int i = 0; i < s; i++) {
-                array[i] = b.get(i);
+                if (offset == n) {
+                    chunk = (Object[])chunk[n];
+                    offset = 0;
+                }
+                array[i] = (T)chunk[offset++];
             }
             if (array.length > s) {
                 array[s] = null;
@@ -579,23 +674,24 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public void replay(ReplaySubscription<T> rs) {
             if (rs.getAndIncrement() != 0) {
                 return;
             }
 
             int missed = 1;
-            final List<T> b = buffer;
+            final int n = chunkSize;
             final Subscriber<? super T> a = rs.actual;
 
-            Integer indexObject = (Integer)rs.index;
-            int index;
-            if (indexObject != null) {
-                index = indexObject;
-            } else {
-                index = 0;
-                rs.index = 0;
+            ChunkCursor c = (ChunkCursor)rs.index;
+            if (c == null) {
+                c = new ChunkCursor(head);
+                rs.index = c;
             }
+            Object[] chunk = c.chunk;
+            int offset = c.offset;
+            int index = c.index;
             long e = rs.emitted;
 
             for (;;) {
@@ -627,8 +723,14 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
                         break;
                     }
 
-                    a.onNext(b.get(index));
+                    if (offset == n) {
+                        chunk = (Object[])chunk[n];
+                        offset = 0;
+                    }
 
+                    a.onNext((T)chunk[offset]);
+
+                    offset++;
                     index++;
                     e++;
                 }
@@ -655,7 +757,9 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
                     }
                 }
 
-                rs.index = index;
+                c.chunk = chunk;
+                c.offset = offset;
+                c.index = index;
                 rs.emitted = e;
                 missed = rs.addAndGet(-missed);
                 if (missed == 0) {
@@ -680,147 +784,104 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
         }
     }
 
-    static final class Node<T> extends AtomicReference<Node<T>> {
-
-        private static final long serialVersionUID = 6404226426336033100L;
-
-        final T value;
-
-        Node(T value) {
-            this.value = value;
-        }
-    }
-
-    static final class TimedNode<T> extends AtomicReference<TimedNode<T>> {
+    /**
+     * The position of a subscriber in the chunks of an UnboundedReplayBuffer.
+     */
+    static final class ChunkCursor {
+        /** The chunk holding the next item, or the full chunk preceding it. */
+        Object[] chunk;
 
-        private static final long serialVersionUID = 6404226426336033100L;
+        /** The offset of the next item in the chunk, the chunk size if it is in the next chunk. */
+        int offset;
 
-        final T value;
-        final long time;
+        /** The index of the next item in the whole buffer. */
+        int index;
 
-        TimedNode(T value, long time) {
-            this.value = value;
-            this.time = time;
+        ChunkCursor(Object[] chunk) {
+            this.chunk = chunk;
         }
     }
 
-    static final class SizeBoundReplayBuffer<T>
+    static final class MappedReplayBuffer<T>
     implements ReplayBuffer<T> {
 
-        final int maxSize;
-        int size;
-
-        volatile Node<T> head;
-
-        Node<T> tail;
+        final MappedAppendLog<T> log;
 
         Throwable error;
         volatile boolean done;
 
-        SizeBoundReplayBuffer(int maxSize) {
-            this.maxSize = ObjectHelper.verifyPositive(maxSize, "maxSize");
-            Node<T> h = new Node<T>(null);
-            this.tail = h;
-            this.head = h;
-        }
-
-        void trim() {
-            if (size > maxSize) {
-                size--;
-                Node<T> h = head;
-                head = h.get();
-            }
+        MappedReplayBuffer(MappedAppendLog<T> log) {
+            this.log = log;
         }
 
         @Override
-        public void next(T value) {
-            Node<T> n = new Node<T>(value);
-            Node<T> t = tail;
-
-            tail = n;
-            size++;
-            t.set(n); // releases both the tail and size
-
-            trim();
+        public void next(T value) throws Exception {
+            log.append(value);
         }
 
         @Override
         public void error(Throwable ex) {
             error = ex;
             done = true;
+            log.close();
         }
 
         @Override
         public void complete() {
             done = true;
-        }
-
-        @Override
-        public boolean isDone() {
-            return done;
-        }
-
-        @Override
-        public Throwable getError() {
-            return error;
+            log.close();
         }
 
         @Override
         public T getValue() {
-            Node<T> h = head;
-            for (;;) {
-                Node<T> n = h.get();
-                if (n == null) {
-                    return h.value;
-                }
-                h = n;
-            }
+            return log.last();
         }
 
         @Override
         @SuppressWarnings("unchecked")
         public T[] getValues(T[] array) {
-            int s = 0;
-            Node<T> h = head;
-            Node<T> h0 = h;
-            for (;;) {
-                Node<T> next = h0.get();
-                if (next == null) {
-                    break;
+            MappedAppendLog<T> b = log;
+            int s = size();
+            if (s == 0) {
+                if (array.length != 0) {
+                    array[0] = null;
                 }
-                s++;
-                h0 = next;
+                return array;
             }
+
             if (array.length < s) {
                 array = (T[])Array.newInstance(array.getClass().getComponentType(), s);
             }
-
-            for (int j = 0; j < s; j++) {
-                h = h.get();
-                array[j] = h.value;
+            MappedAppendLog.Cursor c = new MappedAppendLog.Cursor();
+            try {
+                for (int i = 0; i < s; i++) {
+                    array[i] = b.read(c);
+                }
+            } catch (Throwable ex) {
+                throw ExceptionHelper.wrapOrThrow(ex);
             }
-
             if (array.length > s) {
                 array[s] = null;
             }
+
             return array;
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public void replay(ReplaySubscription<T> rs) {
             if (rs.getAndIncrement() != 0) {
                 return;
             }
 
             int missed = 1;
+            final MappedAppendLog<T> b = log;
             final Subscriber<? super T> a = rs.actual;
 
-            Node<T> index = (Node<T>)rs.index;
-            if (index == null) {
-                index = head;
+            MappedAppendLog.Cursor c = (MappedAppendLog.Cursor)rs.index;
+            if (c == null) {
+                c = new MappedAppendLog.Cursor();
+                rs.index = c;
             }
-
             long e = rs.emitted;
 
             for (;;) {
@@ -834,12 +895,14 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
                     }
 
                     boolean d = done;
-                    Node<T> next = index.get();
-                    boolean empty = next == null;
+                    long index = c.index();
+                    long s = b.size();
 
-                    if (d && empty) {
+                    if (d && index == s) {
                         rs.index = null;
                         rs.cancelled = true;
+                        // the serializer may have terminated the buffer before the processor
+                        rs.state.remove(rs);
                         Throwable ex = error;
                         if (ex == null) {
                             a.onComplete();
@@ -849,13 +912,25 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
                         return;
                     }
 
-                    if (empty) {
+                    if (index == s) {
                         break;
                     }
 
-                    a.onNext(next.value);
+                    T v;
+
+                    try {
+                        v = b.read(c);
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        rs.index = null;
+                        rs.cancel();
+                        a.onError(ex);
+                        return;
+                    }
+
+                    a.onNext(v);
+
                     e++;
-                    index = next;
                 }
 
                 if (e == r) {
@@ -866,9 +941,10 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
 
                     boolean d = done;
 
-                    if (d && index.get() == null) {
+                    if (d && c.index() == b.size()) {
                         rs.index = null;
                         rs.cancelled = true;
+                        rs.state.remove(rs);
                         Throwable ex = error;
                         if (ex == null) {
                             a.onComplete();
@@ -879,9 +955,7 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
                     }
                 }
 
-                rs.index = index;
                 rs.emitted = e;
-
                 missed = rs.addAndGet(-missed);
                 if (missed == 0) {
                     break;
@@ -891,297 +965,287 @@ public final class ReplayProcessor<T> extends FlowableProcessor<T> {
 
         @Override
         public int size() {
-            int s = 0;
-            Node<T> h = head;
-            while (s != Integer.MAX_VALUE) {
-                Node<T> next = h.get();
-                if (next == null) {
-                    break;
-                }
-                s++;
-                h = next;
-            }
+            return (int)Math.min(log.size(), Integer.MAX_VALUE);
+        }
 
-            return s;
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public Throwable getError() {
+            return error;
         }
     }
 
-    static final class SizeAndTimeBoundReplayBuffer<T>
+    static final class SizeBoundReplayBuffer<T>
     implements ReplayBuffer<T> {
 
-        final int maxSize;
-        final long maxAge;
-        final TimeUnit unit;
-        final Scheduler scheduler;
-        int size;
-
-        volatile TimedNode<T> head;
-
-        TimedNode<T> tail;
+        final ReplayRing<T> ring;
 
         Throwable error;
         volatile boolean done;
 
+        SizeBoundReplayBuffer(int maxSize) {
+            this.ring = new ReplayRing<T>(maxSize, false);
+        }
 
-        SizeAndTimeBoundReplayBuffer(int maxSize, long maxAge, TimeUnit unit, Scheduler scheduler) {
-            this.maxSize = ObjectHelper.verifyPositive(maxSize, "maxSize");
-            this.maxAge = ObjectHelper.verifyPositive(maxAge, "maxAge");
-            this.unit = ObjectHelper.requireNonNull(unit, "unit is null");
-            this.scheduler = ObjectHelper.requireNonNull(scheduler, "scheduler is null");
-            TimedNode<T> h = new TimedNode<T>(null, 0L);
-            this.tail = h;
-            this.head = h;
+        @Override
+        public void next(T value) {
+            ring.append(value, 0L);
         }
 
-        void trim() {
-            if (size > maxSize) {
-                size--;
-                TimedNode<T> h = head;
-                head = h.get();
-            }
-            long limit = scheduler.now(unit) - maxAge;
+        @Override
+        public void error(Throwable ex) {
+            error = ex;
+            done = true;
+        }
 
-            TimedNode<T> h = head;
+        @Override
+        public void complete() {
+            done = true;
+        }
 
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public T getValue() {
+            return ring.last(Long.MIN_VALUE);
+        }
+
+        @Override
+        public T[] getValues(T[] array) {
             for (;;) {
-                TimedNode<T> next = h.get();
-                if (next == null) {
-                    head = h;
-                    break;
+                T[] a = fill(ring, ring.cursor(), array);
+                if (a != null) {
+                    return a;
                 }
+            }
+        }
 
-                if (next.time > limit) {
-                    head = h;
-                    break;
-                }
+        @Override
+        public void replay(ReplaySubscription<T> rs) {
+            if (rs.getAndIncrement() != 0) {
+                return;
+            }
 
-                h = next;
+            ReplayRing.Cursor c = (ReplayRing.Cursor)rs.index;
+            if (c == null) {
+                c = ring.cursor();
+                rs.index = c;
             }
 
+            drain(ring, c, rs, this);
         }
 
-        void trimFinal() {
-            long limit = scheduler.now(unit) - maxAge;
+        @Override
+        public int size() {
+            return ring.size();
+        }
+    }
 
-            TimedNode<T> h = head;
+    static final class SizeAndTimeBoundReplayBuffer<T>
+    implements ReplayBuffer<T> {
 
-            for (;;) {
-                TimedNode<T> next = h.get();
-                if (next == null) {
-                    head = h;
-                    break;
-                }
+        final long maxAge;
+        final TimeUnit unit;
+        final Scheduler scheduler;
 
-                if (next.time > limit) {
-                    head = h;
-                    break;
-                }
+        final ReplayRing<T> ring;
 
-                h = next;
-            }
+        Throwable error;
+        volatile boolean done;
+
+        SizeAndTimeBoundReplayBuffer(int maxSize, long maxAge, TimeUnit unit, Scheduler scheduler) {
+            this.ring = new ReplayRing<T>(maxSize, true);
+            this.maxAge = ObjectHelper.verifyPositive(maxAge, "maxAge");
+            this.unit = ObjectHelper.requireNonNull(unit, "unit is null");
+            this.scheduler = ObjectHelper.requireNonNull(scheduler, "scheduler is null");
         }
 
         @Override
         public void next(T value) {
-            TimedNode<T> n = new TimedNode<T>(value, scheduler.now(unit));
-            TimedNode<T> t = tail;
-
-            tail = n;
-            size++;
-            t.set(n); // releases both the tail and size
-
-            trim();
+            long now = scheduler.now(unit);
+            ring.append(value, now);
+            ring.trim(now - maxAge);
         }
 
         @Override
         public void error(Throwable ex) {
-            trimFinal();
+            ring.trim(scheduler.now(unit) - maxAge);
             error = ex;
             done = true;
         }
 
         @Override
         public void complete() {
-            trimFinal();
+            ring.trim(scheduler.now(unit) - maxAge);
             done = true;
         }
 
         @Override
         public T getValue() {
-            TimedNode<T> h = head;
-
-            for (;;) {
-                TimedNode<T> next = h.get();
-                if (next == null) {
-                    break;
-                }
-                h = next;
-            }
-
-            long limit = scheduler.now(unit) - maxAge;
-            if (h.time < limit) {
-                return null;
-            }
-
-            return h.value;
+            return ring.last(scheduler.now(unit) - maxAge);
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public T[] getValues(T[] array) {
-            TimedNode<T> h = getHead();
-            int s = size(h);
-
-            if (s == 0) {
-                if (array.length != 0) {
-                    array[0] = null;
-                }
-            } else {
-                if (array.length < s) {
-                    array = (T[])Array.newInstance(array.getClass().getComponentType(), s);
-                }
-
-                int i = 0;
-                while (i != s) {
-                    TimedNode<T> next = h.get();
-                    array[i] = next.value;
-                    i++;
-                    h = next;
-                }
-                if (array.length > s) {
-                    array[s] = null;
-                }
-            }
-
-            return array;
-        }
-
-        TimedNode<T> getHead() {
-            TimedNode<T> index = head;
-            // skip old entries
-            long limit = scheduler.now(unit) - maxAge;
-            TimedNode<T> next = index.get();
-            while (next != null) {
-                long ts = next.time;
-                if (ts > limit) {
-                    break;
+            for (;;) {
+                T[] a = fill(ring, ring.cursor(scheduler.now(unit) - maxAge), array);
+                if (a != null) {
+                    return a;
                 }
-                index = next;
-                next = index.get();
             }
-            return index;
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public void replay(ReplaySubscription<T> rs) {
             if (rs.getAndIncrement() != 0) {
                 return;
             }
 
-            int missed = 1;
-            final Subscriber<? super T> a = rs.actual;
-
-            TimedNode<T> index = (TimedNode<T>)rs.index;
-            if (index == null) {
-                index = getHead();
+            ReplayRing.Cursor c = (ReplayRing.Cursor)rs.index;
+            if (c == null) {
+                // skip old entries
+                c = ring.cursor(scheduler.now(unit) - maxAge);
+                rs.index = c;
             }
 
-            long e = rs.emitted;
+            drain(ring, c, rs, this);
+        }
 
-            for (;;) {
+        @Override
+        public int size() {
+            return ring.size(scheduler.now(unit) - maxAge);
+        }
 
-                long r = rs.requested.get();
+        @Override
+        public Throwable getError() {
+            return error;
+        }
 
-                while (e != r) {
-                    if (rs.cancelled) {
-                        rs.index = null;
-                        return;
-                    }
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+    }
 
-                    boolean d = done;
-                    TimedNode<T> next = index.get();
-                    boolean empty = next == null;
+    /**
+     * Copies the values from the cursor of a bounded buffer up to its current end into the array.
+     * @param <T> the value type
+     * @param b the ring of the buffer
+     * @param c the cursor positioned at the first value to copy
+     * @param array the target array, replaced by a new one if too short
+     * @return the array or null if the writer has overwritten values not yet copied
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T[] fill(ReplayRing<T> b, ReplayRing.Cursor c, T[] array) {
+        long first = c.index();
+        int s = (int)Math.min(b.tail() - first, Integer.MAX_VALUE);
+        if (array.length < s) {
+            array = (T[])Array.newInstance(array.getClass().getComponentType(), s);
+        }
 
-                    if (d && empty) {
-                        rs.index = null;
-                        rs.cancelled = true;
-                        Throwable ex = error;
-                        if (ex == null) {
-                            a.onComplete();
-                        } else {
-                            a.onError(ex);
-                        }
-                        return;
-                    }
+        for (int i = 0; i < s; i++) {
+            T v = b.poll(c);
+            if (v == null || c.index() != first + i + 1) {
+                // the cursor skipped ahead, the copy would have a gap
+                return null;
+            }
+            array[i] = v;
+        }
 
-                    if (empty) {
-                        break;
-                    }
+        if (array.length > s) {
+            array[s] = null;
+        }
+        return array;
+    }
 
-                    a.onNext(next.value);
-                    e++;
-                    index = next;
-                }
+    /**
+     * Emits the values of a bounded buffer from the cursor of the subscription; slow subscribers skip
+     * the values no longer retained.
+     * @param <T> the value type
+     * @param b the ring of the buffer
+     * @param c the cursor of the subscription
+     * @param rs the subscription with the work-in-progress counter already incremented
+     * @param buffer the buffer holding the terminal state
+     */
+    static <T> void drain(ReplayRing<T> b, ReplayRing.Cursor c, ReplaySubscription<T> rs, ReplayBuffer<T> buffer) {
+        int missed = 1;
+        final Subscriber<? super T> a = rs.actual;
 
-                if (e == r) {
-                    if (rs.cancelled) {
-                        rs.index = null;
-                        return;
-                    }
+        long e = rs.emitted;
 
-                    boolean d = done;
+        for (;;) {
 
-                    if (d && index.get() == null) {
-                        rs.index = null;
-                        rs.cancelled = true;
-                        Throwable ex = error;
-                        if (ex == null) {
-                            a.onComplete();
-                        } else {
-                            a.onError(ex);
-                        }
-                        return;
-                    }
+            long r = rs.requested.get();
+
+            while (e != r) {
+                if (rs.cancelled) {
+                    rs.index = null;
+                    return;
                 }
 
-                rs.index = index;
-                rs.emitted = e;
+                boolean d = buffer.isDone();
+                T v = b.poll(c);
+                boolean empty = v == null;
+
+                if (d && empty) {
+                    rs.index = null;
+                    rs.cancelled = true;
+                    Throwable ex = buffer.getError();
+                    if (ex == null) {
+                        a.onComplete();
+                    } else {
+                        a.onError(ex);
+                    }
+                    return;
+                }
 
-                missed = rs.addAndGet(-missed);
-                if (missed == 0) {
+                if (empty) {
                     break;
                 }
+
+                a.onNext(v);
+                e++;
             }
-        }
 
-        @Override
-        public int size() {
-            return size(getHead());
-        }
+            if (e == r) {
+                if (rs.cancelled) {
+                    rs.index = null;
+                    return;
+                }
 
-        int size(TimedNode<T> h) {
-            int s = 0;
-            while (s != Integer.MAX_VALUE) {
-                TimedNode<T> next = h.get();
-                if (next == null) {
-                    break;
+                boolean d = buffer.isDone();
+
+                if (d && c.index() == b.tail()) {
+                    rs.index = null;
+                    rs.cancelled = true;
+                    Throwable ex = buffer.getError();
+                    if (ex == null) {
+                        a.onComplete();
+                    } else {
+                        a.onError(ex);
+                    }
+                    return;
                 }
-                s++;
-                h = next;
             }
 
-            return s;
-        }
-
-        @Override
-        public Throwable getError() {
-            return error;
-        }
+            rs.emitted = e;
 
-        @Override
-        public boolean isDone() {
-            return done;
+            missed = rs.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
         }
     }
 }
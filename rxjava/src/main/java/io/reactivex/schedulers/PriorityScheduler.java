@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.Experimental;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * A {@link Scheduler} whose event loops run the tasks earliest-deadline-first, available via
+ * {@link Schedulers#prioritized()}.
+ * <p>
+ * Each task has an absolute deadline: either given explicitly or derived from a priority
+ * as the time the task becomes due plus a slack that grows as the priority decreases. A task of
+ * {@link #MAX_PRIORITY} has no slack. Since the slack is bounded, a low priority task can be
+ * overtaken by more urgent work only for as long as its slack and still makes progress under a
+ * steady stream of higher priority tasks.
+ * @since 2.1 - experimental
+ */
+@Experimental
+public abstract class PriorityScheduler extends Scheduler {
+
+    /** The lowest priority, with the largest slack. */
+    public static final int MIN_PRIORITY = 1;
+
+    /** The default priority of the workers and direct tasks. */
+    public static final int NORM_PRIORITY = 5;
+
+    /** The highest priority, with no slack. */
+    public static final int MAX_PRIORITY = 10;
+
+    /**
+     * Creates a worker whose tasks get the {@link #NORM_PRIORITY} unless specified otherwise.
+     * @return the new worker
+     */
+    @NonNull
+    @Override
+    public PriorityWorker createWorker() {
+        return createWorker(NORM_PRIORITY);
+    }
+
+    /**
+     * Creates a worker whose tasks get the given priority unless specified otherwise.
+     * @param priority the default priority of the worker's tasks,
+     *                 between {@link #MIN_PRIORITY} and {@link #MAX_PRIORITY}
+     * @return the new worker
+     * @throws IllegalArgumentException if the priority is out of range
+     */
+    @NonNull
+    public abstract PriorityWorker createWorker(int priority);
+
+    /**
+     * Schedules a task with the given priority without a worker.
+     * @param run the task to run
+     * @param priority the priority, between {@link #MIN_PRIORITY} and {@link #MAX_PRIORITY}
+     * @return the Disposable to cancel the task
+     * @throws IllegalArgumentException if the priority is out of range
+     */
+    @NonNull
+    public abstract Disposable scheduleDirect(@NonNull Runnable run, int priority);
+
+    /**
+     * A Worker that lets each task override the worker's priority or have an explicit deadline.
+     * <p>
+     * The tasks of the same worker never run concurrently; those with the same priority run
+     * in the order they were scheduled.
+     */
+    public abstract static class PriorityWorker extends Worker {
+
+        /**
+         * Schedules a task with the given priority instead of the worker's.
+         * @param run the task to run
+         * @param priority the priority, between {@link #MIN_PRIORITY} and {@link #MAX_PRIORITY}
+         * @return the Disposable to cancel the task
+         * @throws IllegalArgumentException if the priority is out of range
+         */
+        @NonNull
+        public abstract Disposable schedule(@NonNull Runnable run, int priority);
+
+        /**
+         * Schedules a task to run as soon as possible but ordered by the given absolute deadline.
+         * @param run the task to run
+         * @param deadline the deadline, in the time of {@link #now(TimeUnit)}
+         * @param unit the time unit of the deadline
+         * @return the Disposable to cancel the task
+         */
+        @NonNull
+        public abstract Disposable scheduleWithDeadline(@NonNull Runnable run, long deadline, @NonNull TimeUnit unit);
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.schedulers;
+
+import io.reactivex.annotations.Experimental;
+import io.reactivex.annotations.NonNull;
+
+/**
+ * Runtime statistics of a standard {@link io.reactivex.Scheduler}, available via
+ * {@link Schedulers#metrics(io.reactivex.Scheduler)}.
+ * <p>
+ * The queue depths are sampled from the backing thread pools on demand and are always available.
+ * The task counters and the time histograms are only collected if the {@code rx2.scheduler-metrics}
+ * system property is set to {@code true} before the schedulers are first used; otherwise they stay zero
+ * and the tasks are scheduled without any extra overhead.
+ * @since 2.1 - experimental
+ */
+@Experimental
+public interface SchedulerMetrics {
+
+    /**
+     * Returns the number of tasks waiting in the queue of each backing thread, including
+     * the delayed tasks whose time hasn't come yet.
+     * @return the array of queue depths, one element per live backing thread, may be empty
+     */
+    @NonNull
+    int[] queueDepths();
+
+    /**
+     * Returns the number of tasks submitted to the scheduler or its workers.
+     * @return the number of tasks submitted
+     */
+    long submittedCount();
+
+    /**
+     * Returns the number of task executions that have completed, normally or with an exception;
+     * periodic tasks count once per execution.
+     * @return the number of task executions
+     */
+    long executedCount();
+
+    /**
+     * Returns the number of tasks that were disposed before they could start.
+     * @return the number of tasks cancelled
+     */
+    long cancelledCount();
+
+    /**
+     * Returns a snapshot of the time tasks spent between becoming due and starting to run.
+     * @return the histogram of queue wait times in nanoseconds
+     */
+    @NonNull
+    Histogram queueWaitTime();
+
+    /**
+     * Returns a snapshot of the time tasks spent running.
+     * @return the histogram of run times in nanoseconds
+     */
+    @NonNull
+    Histogram runTime();
+
+    /**
+     * An immutable histogram of nanosecond durations with power-of-2 sized buckets.
+     * <p>
+     * Bucket {@code 0} holds the zero durations and bucket {@code i > 0} holds the durations
+     * in the range [2<sup>i - 1</sup>, 2<sup>i</sup>).
+     */
+    final class Histogram {
+        /** The number of buckets. */
+        public static final int BUCKETS = 64;
+
+        final long[] buckets;
+
+        final long count;
+
+        final long sum;
+
+        /**
+         * Constructs a Histogram from the given bucket counts and sum.
+         * @param buckets the bucket counts, not copied, {@link #BUCKETS} elements
+         * @param sum the sum of all recorded durations
+         */
+        public Histogram(long[] buckets, long sum) {
+            this.buckets = buckets;
+            long c = 0L;
+            for (long b : buckets) {
+                c += b;
+            }
+            this.count = c;
+            this.sum = sum;
+        }
+
+        /**
+         * Returns the bucket index of the given duration.
+         * @param nanos the duration, negative values count as zero
+         * @return the bucket index
+         */
+        public static int bucketOf(long nanos) {
+            if (nanos <= 0L) {
+                return 0;
+            }
+            return 64 - Long.numberOfLeadingZeros(nanos);
+        }
+
+        /**
+         * Returns the largest duration the given bucket holds.
+         * @param bucket the bucket index
+         * @return the largest duration in nanoseconds
+         */
+        public static long bucketUpperBound(int bucket) {
+            if (bucket >= BUCKETS - 1) {
+                return Long.MAX_VALUE;
+            }
+            return (1L << bucket) - 1;
+        }
+
+        /**
+         * Returns the number of durations recorded.
+         * @return the number of durations recorded
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Returns the number of durations in the given bucket.
+         * @param bucket the bucket index
+         * @return the number of durations in the bucket
+         */
+        public long bucketCount(int bucket) {
+            return buckets[bucket];
+        }
+
+        /**
+         * Returns the average duration.
+         * @return the average duration in nanoseconds, zero if nothing was recorded
+         */
+        public long mean() {
+            return count == 0L ? 0L : sum / count;
+        }
+
+        /**
+         * Returns the upper bound of the bucket containing the given percentile.
+         * @param percentile the percentile, between 0 and 100
+         * @return the duration in nanoseconds, zero if nothing was recorded
+         */
+        public long percentile(double percentile) {
+            if (count == 0L) {
+                return 0L;
+            }
+            long rank = (long)Math.ceil(count * Math.max(0d, Math.min(100d, percentile)) / 100d);
+            long seen = 0L;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen != 0L) {
+                    return bucketUpperBound(i);
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return "Histogram[count=" + count + ", mean=" + mean() + ", p50=" + percentile(50)
+                    + ", p99=" + percentile(99) + "]";
+        }
+    }
+}
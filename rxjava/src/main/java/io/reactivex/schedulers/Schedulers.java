@@ -13,15 +13,31 @@
 
 package io.reactivex.schedulers;
 
+import java.util.concurrent.TimeUnit;
+
 import io.reactivex.Scheduler;
+import io.reactivex.annotations.Experimental;
 import io.reactivex.annotations.NonNull;
+import io.reactivex.annotations.Nullable;
+import io.reactivex.internal.functions.ObjectHelper;
 import io.reactivex.internal.schedulers.ComputationScheduler;
+import io.reactivex.internal.schedulers.ConcurrencyLimitScheduler;
+import io.reactivex.internal.schedulers.EarliestDeadlineScheduler;
+import io.reactivex.internal.schedulers.ElasticComputationScheduler;
 import io.reactivex.internal.schedulers.ExecutorScheduler;
+import io.reactivex.internal.schedulers.HashedWheelTimer;
 import io.reactivex.internal.schedulers.IoScheduler;
+import io.reactivex.internal.schedulers.LazyScheduler;
 import io.reactivex.internal.schedulers.NewThreadScheduler;
+import io.reactivex.internal.schedulers.RateLimitScheduler;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder;
 import io.reactivex.internal.schedulers.SchedulerPoolFactory;
+import io.reactivex.internal.schedulers.SharedIntervalTimer;
 import io.reactivex.internal.schedulers.SingleScheduler;
+import io.reactivex.internal.schedulers.TimerSlackScheduler;
 import io.reactivex.internal.schedulers.TrampolineScheduler;
+import io.reactivex.internal.schedulers.VirtualThreadScheduler;
+import io.reactivex.internal.schedulers.WorkStealingScheduler;
 import io.reactivex.plugins.RxJavaPlugins;
 
 /**
@@ -34,12 +50,34 @@ import io.reactivex.plugins.RxJavaPlugins;
  * <strong>Supported system properties ({@code System.getProperty()}):</strong>
  * <ul>
  * <li>{@code rx2.io-priority} (int): sets the thread priority of the {@link #io()} Scheduler, default is {@link Thread#NORM_PRIORITY}</li>
+ * <li>{@code rx2.io-max-threads} (int): limits the number of threads of the {@link #io()} Scheduler, workers created beyond that share the existing threads, default is 0 (unbounded)</li>
  * <li>{@code rx2.computation-threads} (int): sets the number of threads in the {@link #computation()} Scheduler, default is the number of available CPUs</li>
+ * <li>{@code rx2.computation-work-stealing} (boolean): makes the idle threads of the {@link #computation()} Scheduler steal queued work from the busy ones, default is false</li>
+ * <li>{@code rx2.computation-elastic} (boolean): makes the {@link #computation()} Scheduler grow and shrink its number of threads with the load, default is false</li>
+ * <li>{@code rx2.computation-elastic-min} (int): sets the minimum number of threads of the elastic {@link #computation()} Scheduler, default is 1</li>
+ * <li>{@code rx2.computation-elastic-max} (int): sets the maximum number of threads of the elastic {@link #computation()} Scheduler, default follows the number of available CPUs</li>
+ * <li>{@code rx2.computation-elastic-period-millis} (long): sets how often the elastic {@link #computation()} Scheduler samples its load, default is 100</li>
+ * <li>{@code rx2.computation-selection} (String): sets how the {@link #computation()} Scheduler assigns its threads to workers and direct tasks: {@code round-robin}, {@code least-queued}, {@code power-of-two} or {@code sticky}, default is {@code round-robin}</li>
  * <li>{@code rx2.computation-priority} (int): sets the thread priority of the {@link #computation()} Scheduler, default is {@link Thread#NORM_PRIORITY}</li>
  * <li>{@code rx2.newthread-priority} (int): sets the thread priority of the {@link #newThread()} Scheduler, default is {@link Thread#NORM_PRIORITY}</li>
  * <li>{@code rx2.single-priority} (int): sets the thread priority of the {@link #single()} Scheduler, default is {@link Thread#NORM_PRIORITY}</li>
+ * <li>{@code rx2.mpsc-event-loop} (boolean): runs the threads of the {@link #computation()} and {@link #single()} Schedulers on a lightweight event loop with a lock-free task queue instead of a ScheduledThreadPoolExecutor, default is false</li>
+ * <li>{@code rx2.lazy-schedulers} (boolean): creates the thread pools of the {@link #computation()}, {@link #io()} and {@link #single()} Schedulers and the purge thread when they are first used instead of when this class is initialized, default is false</li>
  * <li>{@code rx2.purge-enabled} (boolean): enables periodic purging of all Scheduler's backing thread pools, default is false</li>
  * <li>{@code rx2.purge-period-seconds} (int): specifies the periodic purge interval of all Scheduler's backing thread pools, default is 1 second</li>
+ * <li>{@code rx2.timer-wheel} (boolean): makes the standard Schedulers wait out delayed tasks on a shared hashed timing wheel instead of their thread pools' delay queues, default is false</li>
+ * <li>{@code rx2.timer-wheel-tick-millis} (int): sets the tick duration, hence the timing resolution, of the shared timer wheel, default is 1 millisecond</li>
+ * <li>{@code rx2.timer-slack-millis} (int): lets the standard Schedulers run the delayed tasks due within the same window of this length together, up to this much late, via the shared timer wheel whose tick it sets, see also {@link #timerSlack(Scheduler, long, TimeUnit)}, default is 0 (exact timers)</li>
+ * <li>{@code rx2.timer-wheel-size} (int): sets the number of buckets of the shared timer wheel, rounded up to a power of 2, default is 512</li>
+ * <li>{@code rx2.shared-interval} (boolean): lets the {@code interval} and {@code intervalRange} operators with the same Scheduler, period and phase share one periodic task, default is false</li>
+ * <li>{@code rx2.shared-interval-resolution-millis} (long): sets how much the first emission of a shared {@code interval} may be delayed to align its phase with others, default is 10 milliseconds</li>
+ * <li>{@code rx2.prioritized-threads} (int): sets the number of event loops of the {@link #prioritized()} Scheduler, default is the number of available CPUs</li>
+ * <li>{@code rx2.prioritized-step-millis} (long): sets the slack added per priority level below the maximum by the {@link #prioritized()} Scheduler, default is 10 milliseconds</li>
+ * <li>{@code rx2.virtual-threads} (boolean): allows the {@link #virtual()} Scheduler to use virtual threads if the JVM supports them, default is true</li>
+ * <li>{@code rx2.scheduler-metrics} (boolean): enables the task counters and time histograms of the {@link #metrics(Scheduler)}, default is false</li>
+ * <li>{@code rx2.executor-task-budget} (int): sets how many tasks a worker of {@link #from(Executor)} runs before it yields the Executor's thread, default is 0 (unlimited)</li>
+ * <li>{@code rx2.executor-time-budget-micros} (long): sets how long a worker of {@link #from(Executor)} runs tasks before it yields the Executor's thread, default is 0 (unlimited)</li>
+ * <li>{@code rx2.executor-batch-drain} (boolean): lets the workers of {@link #from(Executor)} accept tasks without an atomic increment while they are draining, default is false</li>
  * </ul>
  */
 public final class Schedulers {
@@ -63,7 +101,8 @@ public final class Schedulers {
     }
 
     static final class ComputationHolder {
-        static final Scheduler DEFAULT = new ComputationScheduler();
+        static final Scheduler DEFAULT = ComputationScheduler.ELASTIC ? new ElasticComputationScheduler()
+                : ComputationScheduler.WORK_STEALING ? new WorkStealingScheduler() : new ComputationScheduler();
     }
 
     static final class IoHolder {
@@ -74,12 +113,21 @@ public final class Schedulers {
         static final Scheduler DEFAULT = new NewThreadScheduler();
     }
 
+    static final class PrioritizedHolder {
+        static final PriorityScheduler DEFAULT = new EarliestDeadlineScheduler();
+    }
+
+    static final class VirtualHolder {
+        static final Scheduler DEFAULT = VirtualThreadScheduler.isSupported()
+                ? new VirtualThreadScheduler() : null;
+    }
+
     static {
-        SINGLE = RxJavaPlugins.initSingleScheduler(new SingleTask());
+        SINGLE = RxJavaPlugins.initSingleScheduler(lazy(new SingleTask()));
 
-        COMPUTATION = RxJavaPlugins.initComputationScheduler(new ComputationTask());
+        COMPUTATION = RxJavaPlugins.initComputationScheduler(lazy(new ComputationTask()));
 
-        IO = RxJavaPlugins.initIoScheduler(new IOTask());
+        IO = RxJavaPlugins.initIoScheduler(lazy(new IOTask()));
 
         TRAMPOLINE = TrampolineScheduler.instance();
 
@@ -115,7 +163,14 @@ public final class Schedulers {
      * <p><strong>Supported system properties ({@code System.getProperty()}):</strong>
      * <ul>
      * <li>{@code rx2.computation-threads} (int): sets the number of threads in the {@link #computation()} Scheduler, default is the number of available CPUs</li>
+     * <li>{@code rx2.computation-work-stealing} (boolean): makes the idle threads of the {@link #computation()} Scheduler steal queued work from the busy ones, default is false</li>
+     * <li>{@code rx2.computation-elastic} (boolean): makes the {@link #computation()} Scheduler grow and shrink its number of threads with the load, default is false</li>
+     * <li>{@code rx2.computation-elastic-min} (int): sets the minimum number of threads of the elastic {@link #computation()} Scheduler, default is 1</li>
+     * <li>{@code rx2.computation-elastic-max} (int): sets the maximum number of threads of the elastic {@link #computation()} Scheduler, default follows the number of available CPUs</li>
+     * <li>{@code rx2.computation-elastic-period-millis} (long): sets how often the elastic {@link #computation()} Scheduler samples its load, default is 100</li>
+     * <li>{@code rx2.computation-selection} (String): sets how the {@link #computation()} Scheduler assigns its threads to workers and direct tasks: {@code round-robin}, {@code least-queued}, {@code power-of-two} or {@code sticky}, default is {@code round-robin}</li>
      * <li>{@code rx2.computation-priority} (int): sets the thread priority of the {@link #computation()} Scheduler, default is {@link Thread#NORM_PRIORITY}</li>
+     * <li>{@code rx2.mpsc-event-loop} (boolean): runs the threads of the {@link #computation()} and {@link #single()} Schedulers on a lightweight event loop with a lock-free task queue instead of a ScheduledThreadPoolExecutor, default is false</li>
      * </ul>
      * <p>
      * The default value of this scheduler can be overridden at initialization time via the
@@ -160,6 +215,7 @@ public final class Schedulers {
      * <p><strong>Supported system properties ({@code System.getProperty()}):</strong>
      * <ul>
      * <li>{@code rx2.io-priority} (int): sets the thread priority of the {@link #io()} Scheduler, default is {@link Thread#NORM_PRIORITY}</li>
+     * <li>{@code rx2.io-max-threads} (int): limits the number of threads of the {@link #io()} Scheduler, workers created beyond that share the existing threads, default is 0 (unbounded)</li>
      * </ul>
      * <p>
      * The default value of this scheduler can be overridden at initialization time via the
@@ -183,6 +239,41 @@ public final class Schedulers {
         return RxJavaPlugins.onIoScheduler(IO);
     }
 
+    /**
+     * Returns a default, shared {@link Scheduler} instance that runs blocking, IO-bound work on virtual threads.
+     * <p>
+     * Each unit of work runs on a new virtual thread which, unlike the pooled platform threads of {@link #io()},
+     * doesn't hold on to an OS thread while it is blocked, thus many concurrent blocking calls can be in flight
+     * with a fraction of the memory and without thread creation storms.
+     * <p>
+     * The {@link io.reactivex.Scheduler.Worker} instances execute their tasks in a FIFO manner, one at a time, on a
+     * virtual thread that is started when the worker has work and ends when it runs out of it.
+     * Disposing a worker or a task prevents queued tasks from running but doesn't interrupt the running one.
+     * Tasks scheduled with a time delay use the {@link #single()} scheduler for the timed waiting.
+     * <p>
+     * If the JVM doesn't support virtual threads or they were turned off, this method returns the {@link #io()}
+     * scheduler instead.
+     * <p>
+     * Starting, stopping and restarting this scheduler is not supported (no-op); virtual threads don't
+     * prevent the JVM from exiting.
+     * <p><strong>Supported system properties ({@code System.getProperty()}):</strong>
+     * <ul>
+     * <li>{@code rx2.virtual-threads} (boolean): allows this Scheduler to use virtual threads if the JVM supports them, default is true</li>
+     * </ul>
+     * @return a {@link Scheduler} meant for blocking, IO-bound work
+     * @see VirtualThreadScheduler#isSupported()
+     * @since 2.1 - experimental
+     */
+    @NonNull
+    @Experimental
+    public static Scheduler virtual() {
+        Scheduler s = VirtualHolder.DEFAULT;
+        if (s == null) {
+            return io();
+        }
+        return s;
+    }
+
     /**
      * Returns a default, shared {@link Scheduler} instance whose {@link io.reactivex.Scheduler.Worker}
      * instances queue work and execute them in a FIFO manner on one of the participating threads.
@@ -267,6 +358,7 @@ public final class Schedulers {
      * <p><strong>Supported system properties ({@code System.getProperty()}):</strong>
      * <ul>
      * <li>{@code rx2.single-priority} (int): sets the thread priority of the {@link #single()} Scheduler, default is {@link Thread#NORM_PRIORITY}</li>
+     * <li>{@code rx2.mpsc-event-loop} (boolean): runs the threads of the {@link #computation()} and {@link #single()} Schedulers on a lightweight event loop with a lock-free task queue instead of a ScheduledThreadPoolExecutor, default is false</li>
      * </ul>
      * <p>
      * The default value of this scheduler can be overridden at initialization time via the
@@ -336,6 +428,19 @@ public final class Schedulers {
      * execute those tasks "unexpectedly".
      * <p>
      * Note that this method returns a new {@link Scheduler} instance, even for the same {@link Executor} instance.
+     * <p>
+     * A worker of this scheduler runs its queued tasks back-to-back on one thread of the executor. On an
+     * executor shared with other work, the budgets below make a busy worker yield the thread periodically
+     * by resubmitting itself to the executor.
+     * <p>
+     * You can control these budgets via system properties that have to be set before the first
+     * Scheduler is created by this method.
+     * <p><strong>Supported system properties ({@code System.getProperty()}):</strong>
+     * <ul>
+     * <li>{@code rx2.executor-task-budget} (int): sets how many tasks a worker runs before it yields the thread, default is 0 (unlimited)</li>
+     * <li>{@code rx2.executor-time-budget-micros} (long): sets how long a worker runs tasks before it yields the thread, default is 0 (unlimited)</li>
+     * <li>{@code rx2.executor-batch-drain} (boolean): lets the workers accept tasks without an atomic increment while they are draining, default is false</li>
+     * </ul>
      * @param executor
      *          the executor to wrap
      * @return the new Scheduler wrapping the Executor
@@ -345,6 +450,137 @@ public final class Schedulers {
         return new ExecutorScheduler(executor);
     }
 
+    /**
+     * Returns a default, shared {@link PriorityScheduler} instance whose event loops run the tasks
+     * earliest-deadline-first.
+     * <p>
+     * The workers of this scheduler accept a priority, per worker or per task, or an absolute deadline
+     * per task. A priority turns into a deadline: the time the task becomes due plus
+     * {@code (PriorityScheduler.MAX_PRIORITY - priority)} times a slack step. Latency-critical tasks thus run
+     * ahead of earlier bulk tasks, while a bulk task waits behind newer urgent work for at most its slack.
+     * <p>
+     * The event loop threads are only started once the scheduler is first used.
+     * <p><strong>Supported system properties ({@code System.getProperty()}):</strong>
+     * <ul>
+     * <li>{@code rx2.prioritized-threads} (int): sets the number of event loops, default is the number of available CPUs</li>
+     * <li>{@code rx2.prioritized-step-millis} (long): sets the slack added per priority level below the maximum, default is 10 milliseconds</li>
+     * </ul>
+     * @return a {@link PriorityScheduler} meant for mixing latency-critical and background work
+     * @since 2.1 - experimental
+     */
+    @NonNull
+    @Experimental
+    public static PriorityScheduler prioritized() {
+        return PrioritizedHolder.DEFAULT;
+    }
+
+    /**
+     * Wraps a Scheduler so that at most the given number of its workers run tasks at the same time.
+     * <p>
+     * Each worker of the returned Scheduler uses a worker of the given Scheduler once it is admitted.
+     * Workers created while the limit is reached are admitted in creation order as earlier workers
+     * get disposed; until then, their tasks are buffered in order and their delays keep elapsing.
+     * Direct tasks use a temporary worker and count against the limit while they are pending.
+     * <p>
+     * Unlike a {@link Scheduler#when(io.reactivex.functions.Function) Scheduler.when()} based limit, an
+     * admitted worker hands its tasks to the underlying worker without extra allocation or queueing.
+     * @param scheduler the scheduler to limit, not null
+     * @param maxConcurrentWorkers the maximum number of workers running tasks at the same time, positive
+     * @return the new Scheduler limiting the given Scheduler
+     * @since 2.1 - experimental
+     */
+    @NonNull
+    @Experimental
+    public static Scheduler limit(@NonNull Scheduler scheduler, int maxConcurrentWorkers) {
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        ObjectHelper.verifyPositive(maxConcurrentWorkers, "maxConcurrentWorkers");
+        return new ConcurrencyLimitScheduler(scheduler, maxConcurrentWorkers);
+    }
+
+    /**
+     * Wraps a Scheduler so that its delayed tasks due within the same slack window run together.
+     * <p>
+     * The delay of each task is extended to the end of the window it falls into; the windows are
+     * aligned to {@link Scheduler#now(TimeUnit)} of the given Scheduler so that timers of independent
+     * operators using the same slack fire at the same time. The delayed tasks of a worker falling into
+     * the same window share one delayed task of the underlying worker and run in the order they were
+     * scheduled. Tasks never run earlier than their delay and at most the slack later. Non-delayed
+     * and periodic tasks are handed over unchanged.
+     * <p>
+     * This is meant for timed operators such as {@code debounce}, {@code sample}, {@code throttleFirst},
+     * {@code timeout} and {@code delay} with many concurrent timers whose exact firing time matters less
+     * than the number of wakeups. The {@code rx2.timer-slack-millis} system property applies a slack to
+     * the delayed tasks of all the standard Schedulers instead.
+     * @param scheduler the scheduler to wrap, not null
+     * @param slack the length of the slack window, positive
+     * @param unit the time unit of the slack, not null
+     * @return the new Scheduler coalescing the delayed tasks of the given Scheduler
+     * @since 2.1 - experimental
+     */
+    @NonNull
+    @Experimental
+    public static Scheduler timerSlack(@NonNull Scheduler scheduler, long slack, @NonNull TimeUnit unit) {
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.verifyPositive(slack, "slack");
+        return new TimerSlackScheduler(scheduler, unit.toNanos(slack));
+    }
+
+    /**
+     * Wraps a Scheduler so that at most the given number of tasks are handed to its workers
+     * within any time period.
+     * <p>
+     * Up to {@code maxTasks} tasks may start at once, after which a new task may start every
+     * {@code period / maxTasks}. The tasks waiting for their turn are queued in FIFO order across
+     * all workers, so the order of the tasks of each worker is kept. Delayed tasks are queued when
+     * their delay has passed. The time is measured by {@link Scheduler#now(TimeUnit)} of the given Scheduler.
+     * @param scheduler the scheduler to limit, not null
+     * @param maxTasks the maximum number of tasks per period, positive
+     * @param period the length of the period, positive
+     * @param unit the time unit of the period, not null
+     * @return the new Scheduler limiting the given Scheduler
+     * @since 2.1 - experimental
+     */
+    @NonNull
+    @Experimental
+    public static Scheduler limitRate(@NonNull Scheduler scheduler, int maxTasks, long period, @NonNull TimeUnit unit) {
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        ObjectHelper.verifyPositive(maxTasks, "maxTasks");
+        ObjectHelper.verifyPositive(period, "period");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        return new RateLimitScheduler(scheduler, maxTasks, period, unit);
+    }
+
+    /**
+     * Returns the runtime statistics of the given standard Scheduler, such as the
+     * {@link #computation()}, {@link #io()}, {@link #single()}, {@link #newThread()}
+     * or {@link #from(Executor)} Schedulers.
+     * <p>
+     * The queue depths are always available. The task counters and the queue wait and run time
+     * histograms are only collected if the {@code rx2.scheduler-metrics} system property was set to
+     * {@code true} before the Schedulers were first used.
+     * <p><strong>Supported system properties ({@code System.getProperty()}):</strong>
+     * <ul>
+     * <li>{@code rx2.scheduler-metrics} (boolean): enables the task counters and time histograms, default is false</li>
+     * </ul>
+     * @param scheduler the scheduler to get the metrics of, not null
+     * @return the metrics of the scheduler or null if the scheduler doesn't collect metrics,
+     * for example, because it was replaced via an {@link RxJavaPlugins} handler
+     * @since 2.1 - experimental
+     */
+    @Nullable
+    @Experimental
+    public static SchedulerMetrics metrics(@NonNull Scheduler scheduler) {
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        if (scheduler instanceof LazyScheduler) {
+            scheduler = ((LazyScheduler)scheduler).actual();
+        }
+        if (scheduler instanceof SchedulerMetricsRecorder.MeteredScheduler) {
+            return ((SchedulerMetricsRecorder.MeteredScheduler)scheduler).metrics();
+        }
+        return null;
+    }
+
     /**
      * Shuts down the standard Schedulers.
      * <p>The operation is idempotent and thread-safe.
@@ -355,7 +591,10 @@ public final class Schedulers {
         newThread().shutdown();
         single().shutdown();
         trampoline().shutdown();
+        prioritized().shutdown();
         SchedulerPoolFactory.shutdown();
+        HashedWheelTimer.shutdownShared();
+        SharedIntervalTimer.shutdown();
     }
 
     /**
@@ -368,9 +607,32 @@ public final class Schedulers {
         newThread().start();
         single().start();
         trampoline().start();
+        prioritized().start();
         SchedulerPoolFactory.start();
     }
 
+    /**
+     * Defers the creation of a standard Scheduler to its first use in lazy mode.
+     * @param task the task returning the standard Scheduler
+     * @return the task returning a LazyScheduler in lazy mode, the task itself otherwise
+     */
+    static Callable<Scheduler> lazy(Callable<Scheduler> task) {
+        return SchedulerPoolFactory.LAZY ? new LazyTask(task) : task;
+    }
+
+    static final class LazyTask implements Callable<Scheduler> {
+        final Callable<Scheduler> task;
+
+        LazyTask(Callable<Scheduler> task) {
+            this.task = task;
+        }
+
+        @Override
+        public Scheduler call() throws Exception {
+            return new LazyScheduler(task);
+        }
+    }
+
     static final class IOTask implements Callable<Scheduler> {
         @Override
         public Scheduler call() throws Exception {
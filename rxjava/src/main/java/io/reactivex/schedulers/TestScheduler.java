@@ -13,12 +13,13 @@
 
 package io.reactivex.schedulers;
 
-import java.util.Queue;
+import java.util.Arrays;
+import java.util.HashMap;
 
 import io.reactivex.Scheduler;
+import io.reactivex.annotations.Experimental;
 import io.reactivex.annotations.NonNull;
 import io.reactivex.disposables.Disposable;
-import io.reactivex.disposables.Disposables;
 import io.reactivex.internal.disposables.EmptyDisposable;
 import io.reactivex.internal.functions.ObjectHelper;
 
@@ -26,22 +27,35 @@ import io.reactivex.internal.functions.ObjectHelper;
  * A special, non thread-safe scheduler for testing operators that require
  * a scheduler without introducing real concurrency and allows manually advancing
  * a virtual time.
+ * <p>
+ * The tasks are grouped by their due time into FIFO slots kept in an indexed binary heap:
+ * scheduling a task for an already occupied instant and cancelling a task take O(1) time,
+ * while a new instant costs O(log n) in the number of distinct pending instants.
  */
 public final class TestScheduler extends Scheduler {
     /** The ordered queue for the runnable tasks. */
-    final Queue<TimedRunnable> queue = new PriorityBlockingQueue<TimedRunnable>(11);
+    final TimeQueue queue = new TimeQueue();
     /** The per-scheduler global order counter. */
     long counter;
     // Storing time in nanoseconds internally.
     volatile long time;
+    /** The number of tasks run so far. */
+    long executed;
 
-    static final class TimedRunnable implements Comparable<TimedRunnable> {
+    static final class TimedRunnable implements Comparable<TimedRunnable>, Disposable {
 
         final long time;
         final Runnable run;
         final TestWorker scheduler;
         final long count; // for differentiating tasks at same time
 
+        /** The slot this task is queued in, null if not queued. */
+        TimeSlot slot;
+        TimedRunnable prev;
+        TimedRunnable next;
+
+        volatile boolean disposed;
+
         TimedRunnable(TestWorker scheduler, long time, Runnable run, long count) {
             this.time = time;
             this.run = run;
@@ -61,6 +75,179 @@ public final class TestScheduler extends Scheduler {
             }
             return ObjectHelper.compare(time, o.time);
         }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                scheduler.remove(this);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    /** The tasks due at the same time, in scheduling order. */
+    static final class TimeSlot {
+        final long time;
+        /** The index of this slot in the heap. */
+        int index;
+        TimedRunnable head;
+        TimedRunnable tail;
+
+        TimeSlot(long time) {
+            this.time = time;
+        }
+    }
+
+    /**
+     * Min-heap of TimeSlots ordered by time, with each slot knowing its heap index so it can be
+     * removed without searching and a map to find the slot of an instant.
+     */
+    static final class TimeQueue {
+        final HashMap<Long, TimeSlot> slots = new HashMap<Long, TimeSlot>();
+
+        TimeSlot[] heap = new TimeSlot[16];
+
+        int size;
+
+        /** The number of tasks queued. */
+        long tasks;
+
+        synchronized void add(TimedRunnable task) {
+            TimeSlot slot = slots.get(task.time);
+            if (slot == null) {
+                slot = new TimeSlot(task.time);
+                slots.put(task.time, slot);
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, size * 2);
+                }
+                slot.index = size;
+                heap[size] = slot;
+                siftUp(size++);
+            }
+            task.slot = slot;
+            TimedRunnable t = slot.tail;
+            if (t == null) {
+                slot.head = task;
+            } else {
+                t.next = task;
+                task.prev = t;
+            }
+            slot.tail = task;
+            tasks++;
+        }
+
+        /**
+         * Removes the first task if it is due at or before the given time.
+         * @param targetTime the time in nanoseconds
+         * @return the task removed or null if there is none due
+         */
+        synchronized TimedRunnable pollDue(long targetTime) {
+            if (size == 0) {
+                return null;
+            }
+            TimeSlot slot = heap[0];
+            if (slot.time > targetTime) {
+                return null;
+            }
+            TimedRunnable task = slot.head;
+            unlink(task);
+            return task;
+        }
+
+        synchronized void remove(TimedRunnable task) {
+            if (task.slot != null) {
+                unlink(task);
+            }
+        }
+
+        synchronized long size() {
+            return tasks;
+        }
+
+        void unlink(TimedRunnable task) {
+            TimeSlot slot = task.slot;
+            TimedRunnable p = task.prev;
+            TimedRunnable n = task.next;
+            if (p == null) {
+                slot.head = n;
+            } else {
+                p.next = n;
+            }
+            if (n == null) {
+                slot.tail = p;
+            } else {
+                n.prev = p;
+            }
+            task.slot = null;
+            task.prev = null;
+            task.next = null;
+            tasks--;
+
+            if (slot.head == null) {
+                slots.remove(slot.time);
+                removeAt(slot.index);
+            }
+        }
+
+        void removeAt(int index) {
+            int last = --size;
+            TimeSlot moved = heap[last];
+            heap[last] = null;
+            if (index != last) {
+                heap[index] = moved;
+                moved.index = index;
+                siftDown(index);
+                if (heap[index] == moved) {
+                    siftUp(index);
+                }
+            }
+        }
+
+        void siftUp(int index) {
+            TimeSlot[] h = heap;
+            TimeSlot slot = h[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                TimeSlot p = h[parent];
+                if (p.time <= slot.time) {
+                    break;
+                }
+                h[index] = p;
+                p.index = index;
+                index = parent;
+            }
+            h[index] = slot;
+            slot.index = index;
+        }
+
+        void siftDown(int index) {
+            TimeSlot[] h = heap;
+            int n = size;
+            TimeSlot slot = h[index];
+            int half = n >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                TimeSlot c = h[child];
+                int right = child + 1;
+                if (right < n && h[right].time < c.time) {
+                    child = right;
+                    c = h[child];
+                }
+                if (slot.time <= c.time) {
+                    break;
+                }
+                h[index] = c;
+                c.index = index;
+                index = child;
+            }
+            h[index] = slot;
+            slot.index = index;
+        }
     }
 
     @Override
@@ -101,18 +288,40 @@ public final class TestScheduler extends Scheduler {
         triggerActions(time);
     }
 
+    /**
+     * Returns the number of tasks that have been run by this Scheduler so far.
+     * @return the number of tasks executed
+     * @since 2.1 - experimental
+     */
+    @Experimental
+    public long executedCount() {
+        return executed;
+    }
+
+    /**
+     * Returns the number of tasks waiting to be run, including those whose time hasn't come yet.
+     * @return the number of tasks pending
+     * @since 2.1 - experimental
+     */
+    @Experimental
+    public long pendingCount() {
+        return queue.size();
+    }
+
     private void triggerActions(long targetTimeInNanoseconds) {
-        while (!queue.isEmpty()) {
-            TimedRunnable current = queue.peek();
-            if (current.time > targetTimeInNanoseconds) {
+        final TimeQueue q = queue;
+        for (;;) {
+            // the tasks of the same instant come from the same slot, in scheduling order, without reordering the heap
+            TimedRunnable current = q.pollDue(targetTimeInNanoseconds);
+            if (current == null) {
                 break;
             }
             // if scheduled time is 0 (immediate) use current virtual time
             time = current.time == 0 ? time : current.time;
-            queue.remove();
 
             // Only execute if not unsubscribed
             if (!current.scheduler.disposed) {
+                executed++;
                 current.run.run();
             }
         }
@@ -148,7 +357,7 @@ public final class TestScheduler extends Scheduler {
             final TimedRunnable timedAction = new TimedRunnable(this, time + unit.toNanos(delayTime), run, counter++);
             queue.add(timedAction);
 
-            return Disposables.fromRunnable(new QueueRemove(timedAction));
+            return timedAction;
         }
 
         @NonNull
@@ -159,7 +368,7 @@ public final class TestScheduler extends Scheduler {
             }
             final TimedRunnable timedAction = new TimedRunnable(this, 0, run, counter++);
             queue.add(timedAction);
-            return Disposables.fromRunnable(new QueueRemove(timedAction));
+            return timedAction;
         }
 
         @Override
@@ -167,17 +376,8 @@ public final class TestScheduler extends Scheduler {
             return TestScheduler.this.now(unit);
         }
 
-        final class QueueRemove implements Runnable {
-            final TimedRunnable timedAction;
-
-            QueueRemove(TimedRunnable timedAction) {
-                this.timedAction = timedAction;
-            }
-
-            @Override
-            public void run() {
-                queue.remove(timedAction);
-            }
+        void remove(TimedRunnable timedAction) {
+            queue.remove(timedAction);
         }
     }
 }
@@ -14,13 +14,20 @@
 package io.reactivex.subjects;
 
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 
+import io.reactivex.Flowable;
 import io.reactivex.Observer;
 import io.reactivex.Scheduler;
 import io.reactivex.annotations.CheckReturnValue;
+import io.reactivex.annotations.Experimental;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Function;
 import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.util.ExceptionHelper;
+import io.reactivex.internal.util.MappedAppendLog;
 import io.reactivex.internal.util.NotificationLite;
 import io.reactivex.plugins.RxJavaPlugins;
 
@@ -216,6 +223,41 @@ public final class ReplaySubject<T> extends Subject<T> {
         return new ReplaySubject<T>(new SizeAndTimeBoundReplayBuffer<T>(maxSize, maxAge, unit, scheduler));
     }
 
+    /**
+     * Creates an unbounded replay subject which stores the items in serialized form in a memory-mapped
+     * temporary file instead of on the Java heap.
+     * <p>
+     * The items are appended to segments of the file through the {@code serializer}; the most recent
+     * {@link Flowable#bufferSize()} items are also kept as they are so that Observers keeping up with the
+     * Subject don't deserialize them. Older items are deserialized from a view of the mapped segment,
+     * without copying the bytes.
+     * <p>
+     * The file is deleted right after its creation (or once the Subject terminates on systems not
+     * supporting that) and its storage is released when the Subject gets garbage collected.
+     * <p>
+     * If the {@code serializer} fails, the Subject terminates with its exception. If the
+     * {@code deserializer} fails, the exception is signalled to the Observer being replayed to.
+     *
+     * @param <T>
+     *          the type of items observed and emitted by the Subject
+     * @param serializer
+     *          the function turning an item into bytes, called on the thread of {@code onNext}
+     * @param deserializer
+     *          the function turning the bytes back into an item; it receives a {@link ByteBuffer} positioned at
+     *          the bytes of the item which it must not retain
+     * @return the created subject
+     * @since 2.1 - experimental
+     */
+    @CheckReturnValue
+    @Experimental
+    public static <T> ReplaySubject<T> createMapped(Function<? super T, byte[]> serializer,
+            Function<? super ByteBuffer, ? extends T> deserializer) {
+        ObjectHelper.requireNonNull(serializer, "serializer is null");
+        ObjectHelper.requireNonNull(deserializer, "deserializer is null");
+        return new ReplaySubject<T>(new MappedReplayBuffer<T>(new MappedAppendLog<T>(serializer, deserializer,
+                MappedAppendLog.DEFAULT_SEGMENT_SIZE, Flowable.bufferSize(), null)));
+    }
+
     /**
      * Constructs a ReplayProcessor with the given custom ReplayBuffer instance.
      * @param buffer the ReplayBuffer instance, not null (not verified)
@@ -260,7 +302,13 @@ public final class ReplaySubject<T> extends Subject<T> {
         }
 
         ReplayBuffer<T> b = buffer;
-        b.add(t);
+        try {
+            b.add(t);
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            onError(ex);
+            return;
+        }
 
         for (ReplayDisposable<T> rs : observers.get()) {
             b.replay(rs);
@@ -456,7 +504,12 @@ public final class ReplaySubject<T> extends Subject<T> {
      */
     interface ReplayBuffer<T> {
 
-        void add(T value);
+        /**
+         * Adds a value to the buffer.
+         * @param value the value to add
+         * @throws Exception if the value couldn't be stored, which terminates the subject
+         */
+        void add(T value) throws Exception;
 
         void addFinal(Object notificationLite);
 
@@ -681,6 +734,140 @@ public final class ReplaySubject<T> extends Subject<T> {
         }
     }
 
+    static final class MappedReplayBuffer<T>
+    extends AtomicReference<Object>
+    implements ReplayBuffer<T> {
+
+        private static final long serialVersionUID = -2493519926856416495L;
+
+        final MappedAppendLog<T> log;
+
+        /** The terminal NotificationLite of the replay, set by addFinal. */
+        volatile Object terminal;
+
+        MappedReplayBuffer(MappedAppendLog<T> log) {
+            this.log = log;
+        }
+
+        @Override
+        public void add(T value) throws Exception {
+            log.append(value);
+        }
+
+        @Override
+        public void addFinal(Object notificationLite) {
+            terminal = notificationLite;
+            log.close();
+        }
+
+        @Override
+        public T getValue() {
+            return log.last();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T[] getValues(T[] array) {
+            MappedAppendLog<T> b = log;
+            int s = size();
+            if (s == 0) {
+                if (array.length != 0) {
+                    array[0] = null;
+                }
+                return array;
+            }
+
+            if (array.length < s) {
+                array = (T[])Array.newInstance(array.getClass().getComponentType(), s);
+            }
+            MappedAppendLog.Cursor c = new MappedAppendLog.Cursor();
+            try {
+                for (int i = 0; i < s; i++) {
+                    array[i] = b.read(c);
+                }
+            } catch (Throwable ex) {
+                throw ExceptionHelper.wrapOrThrow(ex);
+            }
+            if (array.length > s) {
+                array[s] = null;
+            }
+
+            return array;
+        }
+
+        @Override
+        public void replay(ReplayDisposable<T> rs) {
+            if (rs.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            final MappedAppendLog<T> b = log;
+            final Observer<? super T> a = rs.actual;
+
+            MappedAppendLog.Cursor c = (MappedAppendLog.Cursor)rs.index;
+            if (c == null) {
+                c = new MappedAppendLog.Cursor();
+                rs.index = c;
+            }
+
+            for (;;) {
+
+                for (;;) {
+                    if (rs.cancelled) {
+                        rs.index = null;
+                        return;
+                    }
+
+                    Object o = terminal;
+                    long index = c.index();
+                    long s = b.size();
+
+                    if (o != null && index == s) {
+                        rs.index = null;
+                        rs.cancelled = true;
+                        // the serializer may have terminated the buffer before the subject
+                        rs.state.remove(rs);
+                        if (NotificationLite.isComplete(o)) {
+                            a.onComplete();
+                        } else {
+                            a.onError(NotificationLite.getError(o));
+                        }
+                        return;
+                    }
+
+                    if (index == s) {
+                        break;
+                    }
+
+                    T v;
+
+                    try {
+                        v = b.read(c);
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        rs.index = null;
+                        rs.dispose();
+                        a.onError(ex);
+                        return;
+                    }
+
+                    a.onNext(v);
+                }
+
+                missed = rs.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return (int)Math.min(log.size(), Integer.MAX_VALUE);
+        }
+    }
+
     static final class Node<T> extends AtomicReference<Node<T>> {
 
         private static final long serialVersionUID = 6404226426336033100L;
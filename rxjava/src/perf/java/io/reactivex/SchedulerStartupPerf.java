@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Measures the cold start cost of the first use of the Schedulers class, each measurement
+ * in a fresh JVM, with eager and lazy bootstrap of the standard Schedulers.
+ * <p>
+ * Run with {@code -prof gc} to see the allocation difference as well.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SchedulerStartupPerf {
+
+    @Benchmark
+    @Fork(value = 30, jvmArgsAppend = "-Drx2.lazy-schedulers=false")
+    public Object trampolineEager() {
+        return Flowable.just(1).subscribeOn(Schedulers.trampoline()).blockingFirst();
+    }
+
+    @Benchmark
+    @Fork(value = 30, jvmArgsAppend = "-Drx2.lazy-schedulers=true")
+    public Object trampolineLazy() {
+        return Flowable.just(1).subscribeOn(Schedulers.trampoline()).blockingFirst();
+    }
+
+    @Benchmark
+    @Fork(value = 30, jvmArgsAppend = "-Drx2.lazy-schedulers=false")
+    public Object computationEager() {
+        return Flowable.just(1).subscribeOn(Schedulers.computation()).blockingFirst();
+    }
+
+    @Benchmark
+    @Fork(value = 30, jvmArgsAppend = "-Drx2.lazy-schedulers=true")
+    public Object computationLazy() {
+        return Flowable.just(1).subscribeOn(Schedulers.computation()).blockingFirst();
+    }
+}
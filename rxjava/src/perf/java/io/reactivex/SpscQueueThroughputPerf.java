@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.reactivex.internal.fuseable.SimplePlainQueue;
+import io.reactivex.internal.queue.*;
+
+/**
+ * Measures the cross-thread throughput of the SPSC queues with one producer and one consumer thread,
+ * comparing the plain layouts with the padded ones.
+ * <p>
+ * Compare the offer and poll rates of the same queue kind; run with {@code -prof perfnorm} to see
+ * the cache misses caused by the false sharing of the indexes. The producer of the unbounded queues
+ * fails its offers while the queue holds capacity elements so that they don't grow without limit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 3)
+@State(Scope.Group)
+public class SpscQueueThroughputPerf {
+
+    static final Integer VALUE = 777;
+
+    @Param({ "SpscArrayQueue", "PaddedSpscArrayQueue", "SpscLinkedArrayQueue", "PaddedSpscLinkedArrayQueue" })
+    public String queueType;
+
+    @Param({ "128" })
+    public int capacity;
+
+    SimplePlainQueue<Integer> queue;
+
+    SpscLinkedArrayQueue<Integer> linked;
+
+    PaddedSpscLinkedArrayQueue<Integer> paddedLinked;
+
+    @Setup
+    public void setup() {
+        if ("SpscArrayQueue".equals(queueType)) {
+            queue = new SpscArrayQueue<Integer>(capacity);
+        } else
+        if ("PaddedSpscArrayQueue".equals(queueType)) {
+            queue = new PaddedSpscArrayQueue<Integer>(capacity);
+        } else
+        if ("SpscLinkedArrayQueue".equals(queueType)) {
+            linked = new SpscLinkedArrayQueue<Integer>(capacity);
+            queue = linked;
+        } else {
+            paddedLinked = new PaddedSpscLinkedArrayQueue<Integer>(capacity);
+            queue = paddedLinked;
+        }
+    }
+
+    boolean full() {
+        if (linked != null) {
+            return linked.size() >= capacity;
+        }
+        if (paddedLinked != null) {
+            return paddedLinked.size() >= capacity;
+        }
+        return false;
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        queue.clear();
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public boolean offer() {
+        return !full() && queue.offer(VALUE);
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public Object poll() {
+        return queue.poll();
+    }
+}
@@ -36,6 +36,9 @@ import io.reactivex.functions.Function8;
 import io.reactivex.functions.Function9;
 import io.reactivex.functions.LongConsumer;
 import io.reactivex.functions.Predicate;
+import io.reactivex.functions.ToDoubleFunction;
+import io.reactivex.functions.ToIntFunction;
+import io.reactivex.functions.ToLongFunction;
 import io.reactivex.internal.functions.Functions;
 import io.reactivex.parallel.ParallelFailureHandling;
 import io.reactivex.parallel.ParallelFlowable;
@@ -172,6 +175,10 @@ public class ParamValidationCheckerTest {
         // null Action allowed
         addOverride(new ParamOverride(Flowable.class, 1, ParamMode.ANY, "onBackpressureBuffer", Long.TYPE, Action.class, BackpressureOverflowStrategy.class));
 
+        // zero off-heap bytes buffers in the file only
+        addOverride(new ParamOverride(Flowable.class, 2, ParamMode.NON_NEGATIVE, "onBackpressureBuffer", Function.class, Function.class, Long.TYPE));
+        addOverride(new ParamOverride(Flowable.class, 2, ParamMode.NON_NEGATIVE, "onBackpressureBuffer", Function.class, Function.class, Long.TYPE, Boolean.TYPE));
+
         // zero repeat is allowed
         addOverride(new ParamOverride(Flowable.class, 0, ParamMode.NON_NEGATIVE, "repeat", Long.TYPE));
 
@@ -543,6 +550,24 @@ public class ParamValidationCheckerTest {
         defaultValues.put(Runnable.class, Functions.EMPTY_RUNNABLE);
         defaultValues.put(Consumer.class, Functions.emptyConsumer());
         defaultValues.put(LongConsumer.class, Functions.EMPTY_LONG_CONSUMER);
+        defaultValues.put(ToIntFunction.class, new ToIntFunction<Object>() {
+            @Override
+            public int apply(Object t) {
+                return 0;
+            }
+        });
+        defaultValues.put(ToLongFunction.class, new ToLongFunction<Object>() {
+            @Override
+            public long apply(Object t) {
+                return 0L;
+            }
+        });
+        defaultValues.put(ToDoubleFunction.class, new ToDoubleFunction<Object>() {
+            @Override
+            public double apply(Object t) {
+                return 0d;
+            }
+        });
         defaultValues.put(Function.class, Functions.justFunction(1));
         defaultValues.put(Callable.class, Functions.justCallable(1));
         defaultValues.put(Iterable.class, Collections.emptyList());
@@ -0,0 +1,355 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.disposables;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.TestHelper;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.exceptions.CompositeException;
+import io.reactivex.exceptions.TestException;
+import io.reactivex.schedulers.Schedulers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StripedCompositeDisposableTest {
+
+    @Test
+    public void empty() {
+        StripedCompositeDisposable cd = new StripedCompositeDisposable();
+
+        assertFalse(cd.isDisposed());
+        assertEquals(0, cd.size());
+
+        cd.dispose();
+
+        cd.dispose();
+
+        assertTrue(cd.isDisposed());
+        assertEquals(0, cd.size());
+    }
+
+    @Test
+    public void addAndDispose() {
+        StripedCompositeDisposable cd = new StripedCompositeDisposable(8);
+
+        List<Disposable> list = new ArrayList<Disposable>();
+        for (int i = 0; i < 100; i++) {
+            Disposable d = Disposables.empty();
+            list.add(d);
+            assertTrue(cd.add(d));
+        }
+
+        assertEquals(100, cd.size());
+
+        cd.dispose();
+
+        assertTrue(cd.isDisposed());
+        assertEquals(0, cd.size());
+
+        for (Disposable d : list) {
+            assertTrue(d.isDisposed());
+        }
+    }
+
+    @Test
+    public void afterDispose() {
+        StripedCompositeDisposable cd = new StripedCompositeDisposable(8);
+        cd.dispose();
+
+        Disposable d = Disposables.empty();
+        assertFalse(cd.add(d));
+        assertTrue(d.isDisposed());
+
+        assertFalse(cd.delete(d));
+        assertFalse(cd.remove(d));
+    }
+
+    @Test
+    public void remove() {
+        StripedCompositeDisposable cd = new StripedCompositeDisposable(8);
+        Disposable d = Disposables.empty();
+
+        assertFalse(cd.remove(d));
+
+        assertFalse(cd.delete(d));
+
+        cd.add(d);
+
+        assertTrue(cd.delete(d));
+
+        assertFalse(d.isDisposed());
+        assertEquals(0, cd.size());
+
+        cd.add(d);
+
+        assertTrue(cd.remove(d));
+
+        assertTrue(d.isDisposed());
+
+        assertFalse(cd.remove(d));
+
+        assertFalse(cd.delete(d));
+    }
+
+    @Test
+    public void disposeThrows() {
+        Disposable d = new Disposable() {
+
+            @Override
+            public void dispose() {
+                throw new TestException();
+            }
+
+            @Override
+            public boolean isDisposed() {
+                return false;
+            }
+
+        };
+
+        Disposable d2 = new Disposable() {
+
+            @Override
+            public void dispose() {
+                throw new TestException();
+            }
+
+            @Override
+            public boolean isDisposed() {
+                return false;
+            }
+
+        };
+
+        StripedCompositeDisposable cd = new StripedCompositeDisposable(8);
+        cd.add(d);
+        cd.add(d2);
+
+        try {
+            cd.dispose();
+            fail("Should have thrown!");
+        } catch (CompositeException ex) {
+            List<Throwable> list = ex.getExceptions();
+            TestHelper.assertError(list, 0, TestException.class);
+            TestHelper.assertError(list, 1, TestException.class);
+        }
+
+        cd = new StripedCompositeDisposable(8);
+        cd.add(d);
+
+        try {
+            cd.dispose();
+            fail("Should have thrown!");
+        } catch (TestException ex) {
+            // expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroStripes() {
+        new StripedCompositeDisposable(0);
+    }
+
+    @Test
+    public void disposeRace() {
+        for (int i = 0; i < 500; i++) {
+            final StripedCompositeDisposable cd = new StripedCompositeDisposable(8);
+
+            final Disposable d1 = Disposables.empty();
+
+            cd.add(d1);
+
+            Runnable run = new Runnable() {
+                @Override
+                public void run() {
+                    cd.dispose();
+                }
+            };
+
+            TestHelper.race(run, run, Schedulers.io());
+
+            assertTrue(d1.isDisposed());
+        }
+    }
+
+    @Test
+    public void addDisposeRace() {
+        for (int i = 0; i < 500; i++) {
+            final StripedCompositeDisposable cd = new StripedCompositeDisposable(8);
+
+            final Disposable d1 = Disposables.empty();
+
+            Runnable r1 = new Runnable() {
+                @Override
+                public void run() {
+                    cd.add(d1);
+                }
+            };
+
+            Runnable r2 = new Runnable() {
+                @Override
+                public void run() {
+                    cd.dispose();
+                }
+            };
+
+            TestHelper.race(r1, r2, Schedulers.io());
+
+            // either disposed by the sweep or by the add after the sweep
+            assertTrue(d1.isDisposed());
+        }
+    }
+
+    @Test
+    public void addRemoveRace() {
+        for (int i = 0; i < 500; i++) {
+            final StripedCompositeDisposable cd = new StripedCompositeDisposable(8);
+
+            final Disposable d1 = Disposables.empty();
+            final Disposable d2 = Disposables.empty();
+
+            cd.add(d1);
+
+            Runnable r1 = new Runnable() {
+                @Override
+                public void run() {
+                    cd.add(d2);
+                }
+            };
+
+            Runnable r2 = new Runnable() {
+                @Override
+                public void run() {
+                    cd.remove(d1);
+                }
+            };
+
+            TestHelper.race(r1, r2, Schedulers.io());
+
+            assertEquals(1, cd.size());
+            assertTrue(d1.isDisposed());
+            assertFalse(d2.isDisposed());
+        }
+    }
+
+    @Test
+    public void singleStripeWithoutContention() {
+        StripedCompositeDisposable cd = new StripedCompositeDisposable(8);
+
+        for (int i = 0; i < 100; i++) {
+            cd.add(Disposables.empty());
+        }
+
+        assertEquals(1, cd.stripes.length);
+        assertEquals(100, cd.size());
+    }
+
+    @Test
+    public void splitMovesContents() {
+        StripedCompositeDisposable cd = new StripedCompositeDisposable(8);
+
+        List<Disposable> list = new ArrayList<Disposable>();
+        for (int i = 0; i < 100; i++) {
+            Disposable d = Disposables.empty();
+            list.add(d);
+            cd.add(d);
+        }
+
+        StripedCompositeDisposable.Stripe single = cd.stripes[0];
+        cd.split(single);
+        cd.split(single);
+
+        assertEquals(8, cd.stripes.length);
+        assertTrue(single.moved);
+        assertEquals(100, cd.size());
+
+        assertTrue(cd.delete(list.get(0)));
+        assertFalse(cd.delete(list.get(0)));
+        assertTrue(cd.add(list.get(0)));
+        assertEquals(100, cd.size());
+
+        cd.dispose();
+
+        for (Disposable d : list) {
+            assertTrue(d.isDisposed());
+        }
+    }
+
+    @Test
+    public void splitDisposeRace() {
+        for (int i = 0; i < 500; i++) {
+            final StripedCompositeDisposable cd = new StripedCompositeDisposable(8);
+
+            final Disposable d1 = Disposables.empty();
+
+            cd.add(d1);
+
+            Runnable r1 = new Runnable() {
+                @Override
+                public void run() {
+                    cd.split(cd.stripes[0]);
+                }
+            };
+
+            Runnable r2 = new Runnable() {
+                @Override
+                public void run() {
+                    cd.dispose();
+                }
+            };
+
+            TestHelper.race(r1, r2, Schedulers.io());
+
+            assertTrue(d1.isDisposed());
+        }
+    }
+
+    @Test
+    public void concurrentAddRemove() throws Exception {
+        final StripedCompositeDisposable cd = new StripedCompositeDisposable(8);
+        final int n = 4;
+        final int m = 10000;
+        final CountDownLatch done = new CountDownLatch(n);
+
+        for (int k = 0; k < n; k++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < m; i++) {
+                        Disposable d = Disposables.empty();
+                        cd.add(d);
+                        if (i % 2 == 0) {
+                            cd.remove(d);
+                        }
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(n * m / 2, cd.size());
+    }
+}
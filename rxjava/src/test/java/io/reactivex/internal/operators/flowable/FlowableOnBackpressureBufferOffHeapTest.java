@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package io.reactivex.internal.operators.flowable;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+
+import io.reactivex.Flowable;
+import io.reactivex.TestHelper;
+import io.reactivex.exceptions.TestException;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.subscriptions.BooleanSubscription;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subscribers.TestSubscriber;
+
+public class FlowableOnBackpressureBufferOffHeapTest {
+
+    static final Function<Integer, byte[]> SERIALIZER = new Function<Integer, byte[]>() {
+        @Override
+        public byte[] apply(Integer v) throws Exception {
+            return v.toString().getBytes("UTF-8");
+        }
+    };
+
+    static final Function<byte[], Integer> DESERIALIZER = new Function<byte[], Integer>() {
+        @Override
+        public Integer apply(byte[] b) throws Exception {
+            return Integer.valueOf(new String(b, "UTF-8"));
+        }
+    };
+
+    @Test
+    public void unbounded() {
+        Flowable.range(1, 5)
+        .onBackpressureBuffer(SERIALIZER, DESERIALIZER, 1024)
+        .test()
+        .assertResult(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void backpressured() {
+        TestSubscriber<Integer> ts = Flowable.range(1, 5)
+        .onBackpressureBuffer(SERIALIZER, DESERIALIZER, 1024)
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.requestMore(2);
+
+        ts.assertValues(1, 2).assertNotComplete();
+
+        ts.requestMore(3);
+
+        ts.assertResult(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void spillToFile() {
+        TestSubscriber<Integer> ts = Flowable.range(0, 100000)
+        .onBackpressureBuffer(SERIALIZER, DESERIALIZER, 0)
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.requestMore(10);
+
+        ts.assertValueCount(10).assertNotComplete();
+
+        ts.requestMore(Long.MAX_VALUE);
+
+        ts.assertValueCount(100000)
+        .assertNoErrors()
+        .assertComplete();
+
+        List<Integer> values = ts.values();
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i, values.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void relayedWithoutSerializationWhenRequested() {
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp
+        .onBackpressureBuffer(new Function<Integer, byte[]>() {
+            @Override
+            public byte[] apply(Integer v) throws Exception {
+                throw new TestException();
+            }
+        }, DESERIALIZER, 1024)
+        .test(2L);
+
+        pp.onNext(1);
+        pp.onNext(2);
+
+        ts.assertValues(1, 2).assertNoErrors();
+
+        pp.onNext(3);
+
+        ts.assertFailure(TestException.class, 1, 2);
+
+        assertFalse(pp.hasSubscribers());
+    }
+
+    @Test
+    public void errorCutsAhead() {
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp
+        .onBackpressureBuffer(SERIALIZER, DESERIALIZER, 1024)
+        .test(1L);
+
+        pp.onNext(1);
+        pp.onNext(2);
+        pp.onError(new TestException());
+
+        ts.assertFailure(TestException.class, 1);
+    }
+
+    @Test
+    public void errorDelayed() {
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp
+        .onBackpressureBuffer(SERIALIZER, DESERIALIZER, 1024, true)
+        .test(1L);
+
+        pp.onNext(1);
+        pp.onNext(2);
+        pp.onNext(3);
+        pp.onError(new TestException());
+
+        ts.assertValues(1).assertNotTerminated();
+
+        ts.requestMore(2);
+
+        ts.assertFailure(TestException.class, 1, 2, 3);
+    }
+
+    @Test
+    public void deserializerCrash() {
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp
+        .onBackpressureBuffer(SERIALIZER, new Function<byte[], Integer>() {
+            @Override
+            public Integer apply(byte[] b) throws Exception {
+                throw new TestException();
+            }
+        }, 1024)
+        .test(0L);
+
+        pp.onNext(1);
+
+        ts.assertEmpty();
+
+        ts.requestMore(1);
+
+        ts.assertFailure(TestException.class);
+
+        assertFalse(pp.hasSubscribers());
+    }
+
+    @Test
+    public void serializerReturnsNull() {
+        Flowable.just(1)
+        .onBackpressureBuffer(new Function<Integer, byte[]>() {
+            @Override
+            public byte[] apply(Integer v) throws Exception {
+                return null;
+            }
+        }, DESERIALIZER, 1024)
+        .test(0L)
+        .assertFailure(NullPointerException.class);
+    }
+
+    @Test
+    public void cancel() {
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp
+        .onBackpressureBuffer(SERIALIZER, DESERIALIZER, 0)
+        .test(0L);
+
+        pp.onNext(1);
+        pp.onNext(2);
+
+        ts.cancel();
+
+        assertFalse(pp.hasSubscribers());
+
+        ts.assertEmpty();
+    }
+
+    @Test
+    public void async() {
+        Flowable.range(1, 50000)
+        .subscribeOn(Schedulers.computation())
+        .onBackpressureBuffer(SERIALIZER, DESERIALIZER, 4096)
+        .observeOn(Schedulers.single())
+        .test()
+        .awaitDone(10, TimeUnit.SECONDS)
+        .assertValueCount(50000)
+        .assertNoErrors()
+        .assertComplete();
+    }
+
+    @Test
+    public void badRequest() {
+        TestHelper.assertBadRequestReported(Flowable.<Integer>never().onBackpressureBuffer(
+                SERIALIZER, DESERIALIZER, 1024));
+    }
+
+    @Test
+    public void doubleOnSubscribe() {
+        TestHelper.checkDoubleOnSubscribeFlowable(new Function<Flowable<Integer>, Flowable<Integer>>() {
+            @Override
+            public Flowable<Integer> apply(Flowable<Integer> f) throws Exception {
+                return f.onBackpressureBuffer(SERIALIZER, DESERIALIZER, 1024);
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeBudget() {
+        Flowable.just(1).onBackpressureBuffer(SERIALIZER, DESERIALIZER, -1);
+    }
+
+    @Test
+    public void errorAfterSerializerCrashReported() {
+        List<Throwable> errors = TestHelper.trackPluginErrors();
+        try {
+            new Flowable<Integer>() {
+                @Override
+                protected void subscribeActual(Subscriber<? super Integer> s) {
+                    s.onSubscribe(new BooleanSubscription());
+                    s.onNext(1);
+                    s.onNext(2);
+                    s.onError(new TestException("second"));
+                }
+            }
+            .onBackpressureBuffer(new Function<Integer, byte[]>() {
+                @Override
+                public byte[] apply(Integer v) throws Exception {
+                    throw new TestException("first");
+                }
+            }, DESERIALIZER, 1024)
+            .test(0L)
+            .assertFailureAndMessage(TestException.class, "first");
+
+            TestHelper.assertUndeliverable(errors, 0, TestException.class, "second");
+        } finally {
+            RxJavaPlugins.reset();
+        }
+    }
+}
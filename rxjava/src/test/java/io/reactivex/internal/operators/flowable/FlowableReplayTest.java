@@ -20,6 +20,9 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+
 import io.reactivex.Flowable;
 import io.reactivex.Scheduler;
 import io.reactivex.Scheduler.Worker;
@@ -35,7 +38,6 @@ import io.reactivex.functions.LongConsumer;
 import io.reactivex.internal.functions.Functions;
 import io.reactivex.internal.fuseable.HasUpstreamPublisher;
 import io.reactivex.internal.operators.flowable.FlowableReplay.BoundedReplayBuffer;
-import io.reactivex.internal.operators.flowable.FlowableReplay.Node;
 import io.reactivex.internal.operators.flowable.FlowableReplay.SizeAndTimeBoundReplayBuffer;
 import io.reactivex.internal.operators.flowable.FlowableReplay.SizeBoundReplayBuffer;
 import io.reactivex.internal.subscriptions.BooleanSubscription;
@@ -749,32 +751,34 @@ public class FlowableReplayTest {
 
     @Test
     public void testBoundedReplayBuffer() {
-        BoundedReplayBuffer<Integer> buf = new BoundedReplayBuffer<Integer>();
-        buf.addLast(new Node(1, 0));
-        buf.addLast(new Node(2, 1));
-        buf.addLast(new Node(3, 2));
-        buf.addLast(new Node(4, 3));
-        buf.addLast(new Node(5, 4));
+        BoundedReplayBuffer<Integer> buf = new BoundedReplayBuffer<Integer>(5, false);
+        buf.next(1);
+        buf.next(2);
+        buf.next(3);
+        buf.next(4);
+        buf.next(5);
 
         List<Integer> values = new ArrayList<Integer>();
         buf.collect(values);
 
         Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5), values);
 
-        buf.removeSome(2);
-        buf.removeFirst();
-        buf.removeSome(2);
+        buf.next(6);
+        buf.next(7);
 
         values.clear();
         buf.collect(values);
-        Assert.assertTrue(values.isEmpty());
 
-        buf.addLast(new Node(5, 5));
-        buf.addLast(new Node(6, 6));
-        buf.collect(values);
+        Assert.assertEquals(Arrays.asList(3, 4, 5, 6, 7), values);
+        Assert.assertFalse(buf.hasCompleted());
+
+        buf.complete();
 
-        Assert.assertEquals(Arrays.asList(5, 6), values);
+        values.clear();
+        buf.collect(values);
 
+        Assert.assertEquals(Arrays.asList(3, 4, 5, 6, 7), values);
+        Assert.assertTrue(buf.hasCompleted());
     }
 
     @Test
@@ -810,7 +814,7 @@ public class FlowableReplayTest {
         buf.collect(values);
         Assert.assertTrue(values.isEmpty());
 
-        Assert.assertEquals(1, buf.size);
+        Assert.assertEquals(0, buf.ring.size());
         Assert.assertTrue(buf.hasCompleted());
     }
 
@@ -1683,7 +1687,7 @@ public class FlowableReplayTest {
         buf.collect(values);
         Assert.assertTrue(values.isEmpty());
 
-        Assert.assertEquals(1, buf.size);
+        Assert.assertEquals(0, buf.ring.size());
         Assert.assertFalse(buf.hasCompleted());
         Assert.assertTrue(buf.hasError());
     }
@@ -1717,7 +1721,7 @@ public class FlowableReplayTest {
         buf.collect(values);
         Assert.assertEquals(Arrays.asList(4, 5), values);
 
-        Assert.assertEquals(3, buf.size);
+        Assert.assertEquals(2, buf.ring.size());
         Assert.assertTrue(buf.hasCompleted());
         Assert.assertFalse(buf.hasError());
     }
@@ -1772,4 +1776,191 @@ public class FlowableReplayTest {
         .test()
         .assertFailureAndMessage(NullPointerException.class, "The selector returned a null Publisher");
     }
+
+    static final Function<Integer, byte[]> INT_SERIALIZER = new Function<Integer, byte[]>() {
+        @Override
+        public byte[] apply(Integer v) {
+            return ByteBuffer.allocate(4).putInt(v).array();
+        }
+    };
+
+    static final Function<ByteBuffer, Integer> INT_DESERIALIZER = new Function<ByteBuffer, Integer>() {
+        @Override
+        public Integer apply(ByteBuffer b) {
+            return b.getInt();
+        }
+    };
+
+    static final Function<Integer, byte[]> SERIALIZER_FAILS_AT_2 = new Function<Integer, byte[]>() {
+        @Override
+        public byte[] apply(Integer v) {
+            if (v == 2) {
+                throw new TestException("serializer");
+            }
+            return ByteBuffer.allocate(4).putInt(v).array();
+        }
+    };
+
+    static final Function<ByteBuffer, Integer> DESERIALIZER_FAILS = new Function<ByteBuffer, Integer>() {
+        @Override
+        public Integer apply(ByteBuffer b) {
+            throw new TestException("deserializer");
+        }
+    };
+
+    @Test
+    public void mapped() {
+        ConnectableFlowable<Integer> cf = Flowable.range(0, 1000).replay(INT_SERIALIZER, INT_DESERIALIZER);
+
+        TestSubscriber<Integer> ts1 = cf.test(10L);
+
+        cf.connect();
+
+        ts1.assertValueCount(10).assertNotComplete();
+
+        TestSubscriber<Integer> ts2 = cf.test(0L);
+
+        ts2.assertEmpty();
+
+        ts2.requestMore(500);
+
+        ts2.assertValueCount(500).assertNotComplete();
+
+        ts1.requestMore(Long.MAX_VALUE);
+        ts2.requestMore(Long.MAX_VALUE);
+
+        ts1.assertValueCount(1000).assertNoErrors().assertComplete();
+        ts2.assertValueCount(1000).assertNoErrors().assertComplete();
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, ts1.values().get(i).intValue());
+            Assert.assertEquals(i, ts2.values().get(i).intValue());
+        }
+
+        cf.test().assertValueCount(1000).assertNoErrors().assertComplete();
+    }
+
+    @Test
+    public void mappedError() {
+        ConnectableFlowable<Integer> cf = Flowable.range(1, 2).concatWith(Flowable.<Integer>error(new TestException()))
+                .replay(INT_SERIALIZER, INT_DESERIALIZER);
+
+        TestSubscriber<Integer> ts = cf.test();
+
+        cf.connect();
+
+        ts.assertFailure(TestException.class, 1, 2);
+
+        ts = cf.test(0L);
+
+        ts.assertEmpty();
+
+        ts.requestMore(2);
+
+        ts.assertFailure(TestException.class, 1, 2);
+    }
+
+    @Test
+    public void mappedSerializerFails() {
+        List<Throwable> errors = TestHelper.trackPluginErrors();
+        try {
+            PublishProcessor<Integer> pp = PublishProcessor.create();
+
+            ConnectableFlowable<Integer> cf = pp.replay(SERIALIZER_FAILS_AT_2, INT_DESERIALIZER);
+
+            TestSubscriber<Integer> ts = cf.test();
+
+            cf.connect();
+
+            pp.onNext(1);
+            pp.onNext(2);
+
+            assertFalse(pp.hasSubscribers());
+
+            ts.assertFailureAndMessage(TestException.class, "serializer", 1);
+
+            cf.test().assertFailureAndMessage(TestException.class, "serializer", 1);
+
+            assertTrue(errors.toString(), errors.isEmpty());
+        } finally {
+            RxJavaPlugins.reset();
+        }
+    }
+
+    @Test
+    public void mappedDeserializerFails() {
+        ConnectableFlowable<Integer> cf = Flowable.range(0, Flowable.bufferSize() * 2)
+                .replay(INT_SERIALIZER, DESERIALIZER_FAILS);
+
+        // requests bufferSize() * 2 so that the source completes
+        TestSubscriber<Integer> ts1 = cf.test();
+
+        cf.connect();
+
+        ts1.assertValueCount(Flowable.bufferSize() * 2).assertNoErrors().assertComplete();
+
+        // the tail keeps the last bufferSize() items, the older ones are deserialized
+        cf.test().assertFailureAndMessage(TestException.class, "deserializer");
+    }
+
+    @Test
+    public void mappedBadArgs() {
+        try {
+            Flowable.just(1).replay(null, INT_DESERIALIZER);
+            fail("Should have thrown");
+        } catch (NullPointerException ex) {
+            Assert.assertEquals("serializer is null", ex.getMessage());
+        }
+        try {
+            Flowable.just(1).replay(INT_SERIALIZER, null);
+            fail("Should have thrown");
+        } catch (NullPointerException ex) {
+            Assert.assertEquals("deserializer is null", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void boundedSlowSubscriberSkipsAhead() {
+        ConnectableFlowable<Integer> cf = Flowable.range(1, 10).replay(2);
+
+        TestSubscriber<Integer> ts1 = cf.test(1L);
+        TestSubscriber<Integer> ts2 = cf.test();
+
+        cf.connect();
+
+        ts2.assertResult(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        ts1.assertValue(1).assertNotComplete();
+
+        ts1.request(5);
+        ts1.assertResult(1, 9, 10);
+    }
+
+    @Test
+    public void boundedSlowSubscriberSkipDemand() {
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+        ConnectableFlowable<Integer> cf = pp.replay(2);
+
+        TestSubscriber<Integer> ts1 = cf.test(1L);
+        TestSubscriber<Integer> ts2 = cf.test(5L);
+
+        cf.connect();
+
+        for (int i = 1; i <= 5; i++) {
+            pp.onNext(i);
+        }
+
+        ts1.assertValue(1);
+        ts2.assertValues(1, 2, 3, 4, 5);
+
+        ts2.cancel();
+
+        // the slow child skipped to 4 and still wants 2 more values
+        ts1.request(4);
+        ts1.assertValues(1, 4, 5);
+
+        pp.onNext(6);
+        pp.onNext(7);
+
+        ts1.assertValues(1, 4, 5, 6, 7);
+    }
 }
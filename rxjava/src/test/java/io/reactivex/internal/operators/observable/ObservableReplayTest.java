@@ -18,6 +18,8 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.InOrder;
 
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.Observable;
@@ -1578,4 +1580,103 @@ public class ObservableReplayTest {
         .test()
         .assertFailureAndMessage(NullPointerException.class, "The connectableFactory returned a null ConnectableObservable");
     }
+
+    static final Function<Integer, byte[]> INT_SERIALIZER = new Function<Integer, byte[]>() {
+        @Override
+        public byte[] apply(Integer v) {
+            return ByteBuffer.allocate(4).putInt(v).array();
+        }
+    };
+
+    static final Function<ByteBuffer, Integer> INT_DESERIALIZER = new Function<ByteBuffer, Integer>() {
+        @Override
+        public Integer apply(ByteBuffer b) {
+            return b.getInt();
+        }
+    };
+
+    static final Function<Integer, byte[]> SERIALIZER_FAILS_AT_2 = new Function<Integer, byte[]>() {
+        @Override
+        public byte[] apply(Integer v) {
+            if (v == 2) {
+                throw new TestException("serializer");
+            }
+            return ByteBuffer.allocate(4).putInt(v).array();
+        }
+    };
+
+    static final Function<ByteBuffer, Integer> DESERIALIZER_FAILS = new Function<ByteBuffer, Integer>() {
+        @Override
+        public Integer apply(ByteBuffer b) {
+            throw new TestException("deserializer");
+        }
+    };
+
+    @Test
+    public void mapped() {
+        ConnectableObservable<Integer> co = Observable.range(0, 1000).replay(INT_SERIALIZER, INT_DESERIALIZER);
+
+        TestObserver<Integer> to1 = co.test();
+
+        co.connect();
+
+        to1.assertValueCount(1000).assertNoErrors().assertComplete();
+
+        TestObserver<Integer> to2 = co.test();
+
+        to2.assertValueCount(1000).assertNoErrors().assertComplete();
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, to1.values().get(i).intValue());
+            Assert.assertEquals(i, to2.values().get(i).intValue());
+        }
+    }
+
+    @Test
+    public void mappedError() {
+        ConnectableObservable<Integer> co = Observable.range(1, 2).concatWith(Observable.<Integer>error(new TestException()))
+                .replay(INT_SERIALIZER, INT_DESERIALIZER);
+
+        co.connect();
+
+        co.test().assertFailure(TestException.class, 1, 2);
+    }
+
+    @Test
+    public void mappedSerializerFails() {
+        List<Throwable> errors = TestHelper.trackPluginErrors();
+        try {
+            PublishSubject<Integer> ps = PublishSubject.create();
+
+            ConnectableObservable<Integer> co = ps.replay(SERIALIZER_FAILS_AT_2, INT_DESERIALIZER);
+
+            TestObserver<Integer> to = co.test();
+
+            co.connect();
+
+            ps.onNext(1);
+            ps.onNext(2);
+
+            assertFalse(ps.hasObservers());
+
+            to.assertFailureAndMessage(TestException.class, "serializer", 1);
+
+            co.test().assertFailureAndMessage(TestException.class, "serializer", 1);
+
+            assertTrue(errors.toString(), errors.isEmpty());
+        } finally {
+            RxJavaPlugins.reset();
+        }
+    }
+
+    @Test
+    public void mappedDeserializerFails() {
+        ConnectableObservable<Integer> co = Observable.range(0, Observable.bufferSize() * 2)
+                .replay(INT_SERIALIZER, DESERIALIZER_FAILS);
+
+        co.connect();
+
+        // the tail keeps the last bufferSize() items, the older ones are deserialized
+        co.test().assertFailureAndMessage(TestException.class, "deserializer");
+    }
 }
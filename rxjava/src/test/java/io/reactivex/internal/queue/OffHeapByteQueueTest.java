@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package io.reactivex.internal.queue;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class OffHeapByteQueueTest {
+
+    static byte[] bytes(int length, int value) {
+        byte[] b = new byte[length];
+        for (int i = 0; i < length; i++) {
+            b[i] = (byte)(value + i);
+        }
+        return b;
+    }
+
+    static void assertBytes(byte[] b, int length, int value) {
+        assertNotNull(b);
+        assertArrayEquals(bytes(length, value), b);
+    }
+
+    @Test
+    public void offerPoll() throws IOException {
+        OffHeapByteQueue q = new OffHeapByteQueue(64, 1024, null);
+        try {
+            assertTrue(q.isEmpty());
+            assertNull(q.poll());
+
+            q.offer(bytes(10, 1));
+            q.offer(new byte[0]);
+            q.offer(bytes(3, 2));
+
+            assertFalse(q.isEmpty());
+
+            assertBytes(q.poll(), 10, 1);
+            assertBytes(q.poll(), 0, 0);
+            assertBytes(q.poll(), 3, 2);
+
+            assertNull(q.poll());
+            assertTrue(q.isEmpty());
+        } finally {
+            q.dispose();
+        }
+    }
+
+    @Test
+    public void segmentsAreReused() throws IOException {
+        OffHeapByteQueue q = new OffHeapByteQueue(64, 1024, null);
+        try {
+            for (int round = 0; round < 100; round++) {
+                for (int i = 0; i < 20; i++) {
+                    q.offer(bytes(i, round + i));
+                }
+                for (int i = 0; i < 20; i++) {
+                    assertBytes(q.poll(), i, round + i);
+                }
+                assertNull(q.poll());
+            }
+
+            assertTrue(String.valueOf(q.offHeapBytes()), q.offHeapBytes() <= 8 * 64);
+            assertEquals(0L, q.spilledBytes());
+        } finally {
+            q.dispose();
+        }
+    }
+
+    @Test
+    public void oversizedArray() throws IOException {
+        OffHeapByteQueue q = new OffHeapByteQueue(64, 1024, null);
+        try {
+            q.offer(bytes(10, 1));
+            q.offer(bytes(200, 2));
+            q.offer(bytes(10, 3));
+
+            assertBytes(q.poll(), 10, 1);
+            assertBytes(q.poll(), 200, 2);
+            assertBytes(q.poll(), 10, 3);
+            assertNull(q.poll());
+        } finally {
+            q.dispose();
+        }
+    }
+
+    @Test
+    public void spillsBeyondBudget() throws IOException {
+        OffHeapByteQueue q = new OffHeapByteQueue(64, 128, null);
+        try {
+            for (int i = 0; i < 100; i++) {
+                q.offer(bytes(20, i));
+            }
+
+            assertEquals(128L, q.offHeapBytes());
+            assertTrue(String.valueOf(q.spilledBytes()), q.spilledBytes() > 0L);
+
+            for (int i = 0; i < 100; i++) {
+                assertBytes(q.poll(), 20, i);
+            }
+            assertNull(q.poll());
+            assertTrue(q.isEmpty());
+        } finally {
+            q.dispose();
+        }
+    }
+
+    @Test
+    public void fileOnly() throws IOException {
+        OffHeapByteQueue q = new OffHeapByteQueue(64, 0, null);
+        try {
+            q.offer(bytes(5, 1));
+
+            assertEquals(0L, q.offHeapBytes());
+            assertEquals(64L, q.spilledBytes());
+
+            assertBytes(q.poll(), 5, 1);
+        } finally {
+            q.dispose();
+        }
+    }
+
+    @Test
+    public void clear() throws IOException {
+        OffHeapByteQueue q = new OffHeapByteQueue(64, 1024, null);
+        try {
+            for (int i = 0; i < 50; i++) {
+                q.offer(bytes(7, i));
+            }
+
+            q.clear();
+
+            assertTrue(q.isEmpty());
+            assertNull(q.poll());
+        } finally {
+            q.dispose();
+        }
+    }
+
+    @Test
+    public void offerAfterDispose() throws IOException {
+        OffHeapByteQueue q = new OffHeapByteQueue(64, 0, null);
+        q.dispose();
+        q.dispose();
+
+        try {
+            q.offer(bytes(5, 1));
+            fail("Should have thrown");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void crossThread() throws Exception {
+        final OffHeapByteQueue q = new OffHeapByteQueue(256, 1024, null);
+        final int n = 100000;
+        final IOException[] error = { null };
+        try {
+            Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < n; i++) {
+                            q.offer(bytes(i % 13, i));
+                            if (i % 64 == 0) {
+                                Thread.yield();
+                            }
+                        }
+                    } catch (IOException ex) {
+                        error[0] = ex;
+                    }
+                }
+            });
+            t.start();
+
+            int received = 0;
+            while (received < n) {
+                byte[] b = q.poll();
+                if (b == null) {
+                    Thread.yield();
+                } else {
+                    assertBytes(b, received % 13, received);
+                    received++;
+                }
+            }
+
+            t.join();
+
+            assertNull(error[0]);
+            assertTrue(q.isEmpty());
+        } finally {
+            q.dispose();
+        }
+    }
+}
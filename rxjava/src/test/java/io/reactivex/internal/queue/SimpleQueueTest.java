@@ -20,6 +20,9 @@ package io.reactivex.internal.queue;
 
 import org.junit.Test;
 
+import io.reactivex.internal.fuseable.SimpleBulkQueue;
+import io.reactivex.internal.fuseable.SimplePlainQueue;
+
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -175,4 +178,392 @@ public class SimpleQueueTest {
 
         assertNull(ara.get(16));
     }
+
+    @Test(expected = NullPointerException.class)
+    public void mpscLinkedArrayQueueNull() {
+        MpscLinkedArrayQueue<Object> q = new MpscLinkedArrayQueue<Object>(16);
+        q.offer(null);
+    }
+
+    @Test
+    public void mpscLinkedArrayQueueChunks() {
+        MpscLinkedArrayQueue<Integer> q = new MpscLinkedArrayQueue<Integer>(4);
+
+        for (int j = 0; j < 3; j++) {
+            for (int i = 0; i < 21; i++) {
+                q.offer(i);
+            }
+            assertTrue(q.offer(21, 22));
+
+            for (int i = 0; i < 23; i++) {
+                assertFalse(q.isEmpty());
+                assertEquals(i, q.poll().intValue());
+            }
+
+            assertTrue(q.isEmpty());
+            assertNull(q.poll());
+        }
+
+        for (int i = 0; i < 10; i++) {
+            q.offer(i);
+        }
+        q.clear();
+
+        assertTrue(q.isEmpty());
+        assertNull(q.poll());
+    }
+
+    @Test
+    public void mpscLinkedArrayQueueChunkBoundaryEmpty() {
+        MpscLinkedArrayQueue<Integer> q = new MpscLinkedArrayQueue<Integer>(2);
+
+        q.offer(1, 2);
+        assertEquals(1, q.poll().intValue());
+        assertEquals(2, q.poll().intValue());
+
+        assertTrue(q.isEmpty());
+        assertNull(q.poll());
+
+        q.offer(3);
+        assertFalse(q.isEmpty());
+        assertEquals(3, q.poll().intValue());
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void mpscLinkedArrayQueueMultiProducer() throws Exception {
+        multiProducer(new MpscLinkedArrayQueue<Integer>(16));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void paddedSpscArrayQueueNull() {
+        PaddedSpscArrayQueue<Object> q = new PaddedSpscArrayQueue<Object>(16);
+        q.offer(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void paddedSpscLinkedArrayQueueNull() {
+        PaddedSpscLinkedArrayQueue<Object> q = new PaddedSpscLinkedArrayQueue<Object>(16);
+        q.offer(null);
+    }
+
+    @Test
+    public void paddedSpscBiOfferCapacity() {
+        PaddedSpscArrayQueue<Integer> q = new PaddedSpscArrayQueue<Integer>(8);
+        assertTrue(q.offer(1, 2));
+        assertTrue(q.offer(3, 4));
+        assertTrue(q.offer(5, 6));
+        assertTrue(q.offer(7));
+
+        assertFalse(q.offer(8, 9));
+        assertFalse(q.offer(9, 10));
+
+        for (int i = 0; i < 8; i++) {
+            assertFalse(q.isEmpty());
+            assertEquals(i + 1, q.poll().intValue());
+        }
+
+        assertTrue(q.isEmpty());
+        assertNull(q.poll());
+
+        q.offer(1);
+        q.clear();
+
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void paddedSpscLinkedNewBufferPeek() {
+        PaddedSpscLinkedArrayQueue<Integer> q = new PaddedSpscLinkedArrayQueue<Integer>(8);
+        assertTrue(q.offer(1, 2));
+        assertTrue(q.offer(3, 4));
+        assertTrue(q.offer(5, 6));
+        assertTrue(q.offer(7, 8)); // this should trigger a new buffer
+
+        for (int i = 9; i < 20; i++) {
+            assertTrue(q.offer(i)); // and these more buffers
+        }
+
+        assertEquals(19, q.size());
+
+        for (int i = 0; i < 19; i++) {
+            assertEquals(i + 1, q.peek().intValue());
+            assertEquals(i + 1, q.poll().intValue());
+        }
+
+        assertNull(q.peek());
+        assertNull(q.poll());
+        assertTrue(q.isEmpty());
+        assertEquals(0, q.size());
+    }
+
+    @Test
+    public void paddedSpscArrayQueueCrossThread() throws Exception {
+        crossThread(new PaddedSpscArrayQueue<Integer>(16));
+    }
+
+    @Test
+    public void paddedSpscLinkedArrayQueueCrossThread() throws Exception {
+        crossThread(new PaddedSpscLinkedArrayQueue<Integer>(16));
+    }
+
+    @Test
+    public void spscArrayQueueBulk() {
+        bulk(new SpscArrayQueue<Integer>(16), 16);
+    }
+
+    @Test
+    public void spscLinkedArrayQueueBulk() {
+        bulk(new SpscLinkedArrayQueue<Integer>(16), -1);
+    }
+
+    @Test
+    public void paddedSpscArrayQueueBulk() {
+        bulk(new PaddedSpscArrayQueue<Integer>(16), 16);
+    }
+
+    @Test
+    public void paddedSpscLinkedArrayQueueBulk() {
+        bulk(new PaddedSpscLinkedArrayQueue<Integer>(16), -1);
+    }
+
+    @Test
+    public void mpscLinkedArrayQueueBulk() {
+        bulk(new MpscLinkedArrayQueue<Integer>(16), -1);
+    }
+
+    @Test
+    public void bulkMixedWithSingle() {
+        final SpscLinkedArrayQueue<Integer> q = new SpscLinkedArrayQueue<Integer>(8);
+        Counter supplier = new Counter();
+
+        q.offer(supplier.get());
+        assertEquals(20, q.fill(supplier, 20));
+        q.offer(supplier.get());
+
+        assertEquals(0, q.poll().intValue());
+
+        Collector consumer = new Collector(30);
+        assertEquals(21, q.drain(consumer, 30));
+        consumer.assertValues(1, 21);
+
+        assertNull(q.poll());
+        assertTrue(q.isEmpty());
+        assertEquals(0, q.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void bulkFillNull() {
+        new SpscArrayQueue<Integer>(16).fill(new SimpleBulkQueue.BulkSupplier<Integer>() {
+            @Override
+            public Integer get() {
+                return null;
+            }
+        }, 1);
+    }
+
+    @Test
+    public void spscArrayQueueBulkCrossThread() throws Exception {
+        bulkCrossThread(new SpscArrayQueue<Integer>(16));
+    }
+
+    @Test
+    public void paddedSpscLinkedArrayQueueBulkCrossThread() throws Exception {
+        bulkCrossThread(new PaddedSpscLinkedArrayQueue<Integer>(16));
+    }
+
+    @Test
+    public void mpscLinkedArrayQueueBulkCrossThread() throws Exception {
+        bulkCrossThread(new MpscLinkedArrayQueue<Integer>(16));
+    }
+
+    static final class Counter implements SimpleBulkQueue.BulkSupplier<Integer> {
+        int next;
+
+        @Override
+        public Integer get() {
+            return next++;
+        }
+    }
+
+    static final class Collector implements SimpleBulkQueue.BulkConsumer<Integer> {
+        final int[] values;
+        int size;
+
+        Collector(int capacity) {
+            values = new int[capacity];
+        }
+
+        @Override
+        public void accept(Integer t) {
+            values[size++] = t;
+        }
+
+        void assertValues(int start, int count) {
+            assertEquals(count, size);
+            for (int i = 0; i < count; i++) {
+                assertEquals(start + i, values[i]);
+            }
+        }
+    }
+
+    /**
+     * Fills and drains in uneven batches so that the indexes wrap around or new arrays get linked.
+     * @param capacity the capacity of a bounded queue or -1 for an unbounded one
+     */
+    static void bulk(SimpleBulkQueue<Integer> q, int capacity) {
+        Counter supplier = new Counter();
+        Collector consumer = new Collector(200);
+
+        for (int round = 0; round < 10; round++) {
+            assertEquals(10, q.fill(supplier, 10));
+            assertFalse(q.isEmpty());
+
+            assertEquals(4, q.drain(consumer, 4));
+            assertEquals(6, q.drain(consumer, 100));
+            assertEquals(0, q.drain(consumer, 100));
+            assertTrue(q.isEmpty());
+        }
+
+        consumer.assertValues(0, 100);
+
+        if (capacity > 0) {
+            assertEquals(capacity, q.fill(supplier, 100));
+            assertEquals(0, q.fill(supplier, 100));
+            assertFalse(q.offer(-1));
+
+            assertEquals(1, q.drain(consumer, 1));
+            assertEquals(1, q.fill(supplier, 100));
+            assertEquals(capacity, q.drain(consumer, 100));
+        } else {
+            assertEquals(50, q.fill(supplier, 50));
+            assertEquals(50, q.drain(consumer, 100));
+        }
+
+        consumer.assertValues(0, consumer.size);
+        assertNull(q.poll());
+        assertTrue(q.isEmpty());
+    }
+
+    /**
+     * Fills from another thread and drains, checking that the values arrive complete and in order.
+     */
+    static void bulkCrossThread(final SimpleBulkQueue<Integer> q) throws Exception {
+        final int n = 100000;
+
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Counter supplier = new Counter();
+                int batch = 1;
+                while (supplier.next < n) {
+                    if (q.fill(supplier, Math.min(batch, n - supplier.next)) == 0) {
+                        Thread.yield();
+                    }
+                    batch = batch % 7 + 1;
+                }
+            }
+        });
+        t.start();
+
+        final int[] received = { 0 };
+        SimpleBulkQueue.BulkConsumer<Integer> consumer = new SimpleBulkQueue.BulkConsumer<Integer>() {
+            @Override
+            public void accept(Integer v) {
+                assertEquals(received[0]++, v.intValue());
+            }
+        };
+        while (received[0] < n) {
+            if (q.drain(consumer, 5) == 0) {
+                Thread.yield();
+            }
+        }
+
+        t.join();
+
+        assertTrue(q.isEmpty());
+        assertNull(q.poll());
+    }
+
+    /**
+     * Offers from another thread and checks that the values arrive complete and in order.
+     */
+    static void crossThread(final SimplePlainQueue<Integer> q) throws Exception {
+        final int n = 100000;
+
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < n; i++) {
+                    while (!q.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+            }
+        });
+        t.start();
+
+        int received = 0;
+        while (received < n) {
+            Integer v = q.poll();
+            if (v == null) {
+                Thread.yield();
+            } else {
+                assertEquals(received++, v.intValue());
+            }
+        }
+
+        t.join();
+
+        assertTrue(q.isEmpty());
+        assertNull(q.poll());
+    }
+
+    /**
+     * Offers from 4 threads and checks that each producer's values arrive complete and in order.
+     */
+    static void multiProducer(final SimplePlainQueue<Integer> q) throws Exception {
+        final int producers = 4;
+        final int n = 100000;
+        final AtomicInteger c = new AtomicInteger(producers);
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int base = p * n;
+            threads[p] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    c.decrementAndGet();
+                    while (c.get() != 0) { }
+
+                    for (int i = 0; i < n; i++) {
+                        while (!q.offer(base + i)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            threads[p].start();
+        }
+
+        int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * n) {
+            Integer v = q.poll();
+            if (v == null) {
+                Thread.yield();
+                continue;
+            }
+            int p = v / n;
+            assertEquals(next[p]++, v % n);
+            received++;
+        }
+
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertTrue(q.isEmpty());
+        assertNull(q.poll());
+    }
 }
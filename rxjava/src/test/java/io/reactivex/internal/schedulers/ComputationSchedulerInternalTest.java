@@ -15,9 +15,22 @@
  */
 package io.reactivex.internal.schedulers;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
+import io.reactivex.Scheduler.Worker;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.internal.disposables.ListCompositeDisposable;
+import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.schedulers.ComputationScheduler.PoolWorker;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class ComputationSchedulerInternalTest {
 
@@ -30,4 +43,125 @@ public class ComputationSchedulerInternalTest {
         assertEquals(8, ComputationScheduler.cap(8, 9));
         assertEquals(8, ComputationScheduler.cap(8, 16));
     }
+
+    @Test(timeout = 5000)
+    public void eventLoopCountersTrackWorkersAndTasks() throws Exception {
+        PoolWorker pw = new PoolWorker(new RxThreadFactory("RxLoadTest"));
+        try {
+            final CountDownLatch block = new CountDownLatch(1);
+            final CountDownLatch running = new CountDownLatch(1);
+
+            ComputationScheduler.EventLoopWorker w = new ComputationScheduler.EventLoopWorker(pw);
+            assertEquals(1, pw.activeWorkers());
+
+            w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    running.countDown();
+                    try {
+                        block.await();
+                    } catch (InterruptedException ex) {
+                        // ignored
+                    }
+                }
+            });
+            assertTrue(running.await(1, TimeUnit.SECONDS));
+
+            w.schedule(Functions.EMPTY_RUNNABLE);
+            Disposable d = pw.scheduleDirect(Functions.EMPTY_RUNNABLE, 0, TimeUnit.MILLISECONDS);
+            pw.scheduleDirect(Functions.EMPTY_RUNNABLE, 0, TimeUnit.MILLISECONDS);
+
+            assertEquals(4, pw.queueSize());
+
+            d.dispose();
+            d.dispose();
+
+            assertEquals(3, pw.queueSize());
+
+            block.countDown();
+
+            for (int i = 0; i < 100 && pw.queueSize() != 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, pw.queueSize());
+
+            w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException ex) {
+                        // ignored
+                    }
+                }
+            });
+            w.schedule(Functions.EMPTY_RUNNABLE);
+
+            w.dispose();
+            w.dispose();
+
+            assertEquals(0, pw.activeWorkers());
+            assertEquals(0, pw.queueSize());
+        } finally {
+            pw.dispose();
+        }
+    }
+
+    @Test
+    public void queueTrackingCountsContainedTasksOnly() {
+        AtomicInteger queued = new AtomicInteger();
+        ComputationScheduler.QueueTrackingContainer c = new ComputationScheduler.QueueTrackingContainer(
+                new ListCompositeDisposable(), queued);
+
+        Disposable d1 = Disposables.empty();
+        Disposable d2 = Disposables.empty();
+
+        assertTrue(c.add(d1));
+        assertTrue(c.add(d2));
+        assertEquals(2, queued.get());
+
+        assertFalse(c.delete(Disposables.empty()));
+        assertEquals(2, queued.get());
+
+        assertTrue(c.remove(d1));
+        assertTrue(d1.isDisposed());
+        assertFalse(c.delete(d1));
+        assertEquals(1, queued.get());
+
+        c.dispose();
+
+        assertTrue(c.isDisposed());
+        assertTrue(d2.isDisposed());
+        assertEquals(0, queued.get());
+
+        assertFalse(c.delete(d2));
+        assertFalse(c.add(Disposables.empty()));
+        assertEquals(0, queued.get());
+    }
+
+    @Test
+    public void workersFollowSelectionPolicy() {
+        ComputationScheduler s = new ComputationScheduler(ComputationScheduler.THREAD_FACTORY, WorkerSelectionPolicies.leastQueued());
+        try {
+            int n = ComputationScheduler.MAX_THREADS;
+            Worker[] workers = new Worker[n];
+            for (int i = 0; i < n; i++) {
+                workers[i] = s.createWorker();
+            }
+
+            for (PoolWorker pw : s.pool.get().eventLoops) {
+                assertEquals(1, pw.activeWorkers());
+            }
+
+            for (Worker w : workers) {
+                w.dispose();
+            }
+
+            for (PoolWorker pw : s.pool.get().eventLoops) {
+                assertEquals(0, pw.activeWorkers());
+            }
+        } finally {
+            s.shutdown();
+        }
+    }
 }
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.schedulers.EarliestDeadlineScheduler.DeadlineTask;
+import io.reactivex.internal.schedulers.EarliestDeadlineScheduler.EdfWorker;
+import io.reactivex.internal.schedulers.EarliestDeadlineScheduler.EventLoop;
+
+public class EarliestDeadlineSchedulerInternalTest {
+
+    static final RxThreadFactory FACTORY = new RxThreadFactory("RxEdfInternalTest", Thread.NORM_PRIORITY, true);
+
+    static DeadlineTask task(EventLoop loop, EdfWorker worker, long delayNanos) {
+        long due = System.nanoTime() + delayNanos;
+        return new DeadlineTask(Functions.EMPTY_RUNNABLE, loop, worker, due, due);
+    }
+
+    @Test
+    public void disposedTasksArePurged() {
+        // the loop thread is not started, the queues are only touched by this test
+        EventLoop loop = new EventLoop(FACTORY);
+        int n = 2 * EventLoop.PURGE_THRESHOLD;
+
+        Disposable[] ds = new Disposable[n];
+        for (int i = 0; i < n; i++) {
+            ds[i] = loop.offer(task(loop, null, i % 2 == 0 ? 0L : TimeUnit.HOURS.toNanos(1)));
+        }
+        assertEquals(n / 2, loop.ready.size());
+        assertEquals(n / 2, loop.delayed.size());
+
+        for (int i = 0; i < EventLoop.PURGE_THRESHOLD - 1; i++) {
+            ds[i].dispose();
+            ds[i].dispose();
+        }
+        assertEquals(n, loop.ready.size() + loop.delayed.size());
+
+        ds[EventLoop.PURGE_THRESHOLD - 1].dispose();
+        assertEquals(n - EventLoop.PURGE_THRESHOLD, loop.ready.size() + loop.delayed.size());
+        assertEquals(0, loop.cancelled.get());
+
+        for (int i = EventLoop.PURGE_THRESHOLD; i < n; i++) {
+            ds[i].dispose();
+        }
+        assertEquals(0, loop.ready.size());
+        assertEquals(0, loop.delayed.size());
+    }
+
+    @Test
+    public void disposedWorkerTasksArePurged() {
+        EventLoop loop = new EventLoop(FACTORY);
+        EdfWorker w = new EdfWorker(new EarliestDeadlineScheduler(FACTORY, 1, 0L), loop, 0L);
+
+        for (int i = 0; i < EventLoop.PURGE_THRESHOLD; i++) {
+            w.schedule(Functions.EMPTY_RUNNABLE, 1, TimeUnit.HOURS);
+        }
+        for (int i = 0; i < 10; i++) {
+            loop.offer(task(loop, null, TimeUnit.HOURS.toNanos(1)));
+        }
+        assertEquals(EventLoop.PURGE_THRESHOLD, w.pending.get());
+
+        w.dispose();
+
+        assertEquals(10, loop.delayed.size());
+        assertTrue(w.schedule(Functions.EMPTY_RUNNABLE).isDisposed());
+    }
+
+    @Test
+    public void taskRunsOnce() {
+        EventLoop loop = new EventLoop(FACTORY);
+        EdfWorker w = new EdfWorker(new EarliestDeadlineScheduler(FACTORY, 1, 0L), loop, 0L);
+
+        Disposable d = w.schedule(Functions.EMPTY_RUNNABLE);
+        assertEquals(1, w.pending.get());
+
+        loop.ready.poll().run();
+
+        assertTrue(d.isDisposed());
+        assertEquals(0, w.pending.get());
+
+        // disposing a task that already ran doesn't count as dead
+        d.dispose();
+        assertEquals(0, loop.cancelled.get());
+    }
+}
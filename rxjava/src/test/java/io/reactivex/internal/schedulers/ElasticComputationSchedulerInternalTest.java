@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.reactivex.internal.schedulers.ElasticComputationScheduler.ElasticPool;
+import io.reactivex.internal.schedulers.ElasticComputationScheduler.ElasticWorker;
+import io.reactivex.internal.schedulers.ElasticComputationScheduler.EventLoop;
+
+public class ElasticComputationSchedulerInternalTest {
+
+    static ElasticComputationScheduler create(int min, int max) {
+        // no periodic sampling, the tests call adjust() themselves
+        return new ElasticComputationScheduler(new RxThreadFactory("RxElasticInternalTest", Thread.NORM_PRIORITY, true),
+                min, max, 0L);
+    }
+
+    static Runnable await(final CountDownLatch started, final CountDownLatch release) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    // ignored
+                }
+            }
+        };
+    }
+
+    @Test(timeout = 5000)
+    public void growsAndTakesOverBacklog() throws InterruptedException {
+        ElasticComputationScheduler s = create(1, 4);
+        try {
+            ElasticPool pool = s.pool.get();
+            assertEquals(1, pool.eventLoops.length);
+
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            s.scheduleDirect(await(started, release));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            final AtomicInteger count = new AtomicInteger();
+            for (int i = 0; i < 6; i++) {
+                s.scheduleDirect(new Runnable() {
+                    @Override
+                    public void run() {
+                        count.getAndIncrement();
+                    }
+                });
+            }
+
+            Thread.sleep(50);
+
+            pool.adjust(System.nanoTime());
+
+            assertEquals(2, pool.eventLoops.length);
+
+            // the new event loop runs half of the backlog while the first one is blocked
+            while (count.get() != 3) {
+                Thread.sleep(1);
+            }
+
+            release.countDown();
+
+            while (count.get() != 6) {
+                Thread.sleep(1);
+            }
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void noGrowthWithoutBacklog() {
+        ElasticComputationScheduler s = create(1, 4);
+        try {
+            ElasticPool pool = s.pool.get();
+
+            pool.adjust(System.nanoTime());
+
+            assertEquals(1, pool.eventLoops.length);
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void shrinksWhenIdle() {
+        ElasticComputationScheduler s = create(1, 4);
+        try {
+            ElasticPool pool = s.pool.get();
+            pool.resize(3);
+            assertEquals(3, pool.eventLoops.length);
+
+            for (int i = 1; i < ElasticComputationScheduler.SHRINK_SAMPLES; i++) {
+                pool.adjust(System.nanoTime());
+                assertEquals(3, pool.eventLoops.length);
+            }
+            pool.adjust(System.nanoTime());
+            assertEquals(2, pool.eventLoops.length);
+
+            for (int i = 0; i < 10 * ElasticComputationScheduler.SHRINK_SAMPLES; i++) {
+                pool.adjust(System.nanoTime());
+            }
+            assertEquals(1, pool.eventLoops.length);
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void shrinksToMaximum() {
+        ElasticComputationScheduler s = create(1, 2);
+        try {
+            ElasticPool pool = s.pool.get();
+            pool.resize(4);
+
+            pool.adjust(System.nanoTime());
+
+            assertEquals(2, pool.eventLoops.length);
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void maximumFollowsProcessors() {
+        ElasticComputationScheduler s = create(1, 0);
+        try {
+            assertEquals(Runtime.getRuntime().availableProcessors(), s.pool.get().maxThreads());
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void retiredEventLoopRehomesWorker() throws InterruptedException {
+        ElasticComputationScheduler s = create(1, 4);
+        try {
+            ElasticPool pool = s.pool.get();
+            pool.resize(2);
+
+            ElasticWorker w1 = (ElasticWorker)s.createWorker();
+            ElasticWorker w2 = (ElasticWorker)s.createWorker();
+            try {
+                EventLoop first = pool.eventLoops[0];
+                assertNotSame(w1.home, w2.home);
+                ElasticWorker w = w1.home == first ? w2 : w1;
+
+                final AtomicBoolean running = new AtomicBoolean();
+                final AtomicBoolean overlap = new AtomicBoolean();
+                final CountDownLatch started = new CountDownLatch(1);
+                final CountDownLatch release = new CountDownLatch(1);
+                final CountDownLatch done = new CountDownLatch(1);
+
+                w.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        running.set(true);
+                        started.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException ex) {
+                            // ignored
+                        }
+                        running.set(false);
+                    }
+                });
+
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+
+                pool.resize(1);
+
+                w.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        overlap.set(running.get());
+                        done.countDown();
+                    }
+                });
+
+                release.countDown();
+
+                assertTrue(done.await(5, TimeUnit.SECONDS));
+                assertFalse(overlap.get());
+
+                while (w.wip.get() != 0) {
+                    Thread.sleep(1);
+                }
+
+                final CountDownLatch moved = new CountDownLatch(1);
+                w.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        moved.countDown();
+                    }
+                });
+
+                assertSame(first, w.home);
+                assertTrue(moved.await(5, TimeUnit.SECONDS));
+            } finally {
+                w1.dispose();
+                w2.dispose();
+            }
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void restart() throws InterruptedException {
+        ElasticComputationScheduler s = create(1, 4);
+        s.shutdown();
+
+        assertTrue(s.createWorker().isDisposed());
+
+        s.start();
+        try {
+            final CountDownLatch cdl = new CountDownLatch(1);
+            s.createWorker().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    cdl.countDown();
+                }
+            }, 1, TimeUnit.MILLISECONDS);
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+        } finally {
+            s.shutdown();
+        }
+    }
+}
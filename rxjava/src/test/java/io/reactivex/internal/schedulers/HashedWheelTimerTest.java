@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HashedWheelTimerTest {
+
+    HashedWheelTimer timer;
+
+    ExecutorService exec;
+
+    @Before
+    public void before() {
+        timer = new HashedWheelTimer(new RxThreadFactory("RxTimerWheelTest"), 1, TimeUnit.MILLISECONDS, 4);
+        exec = Executors.newSingleThreadExecutor(new RxThreadFactory("RxTimerWheelTestTarget"));
+    }
+
+    @After
+    public void after() {
+        timer.shutdown();
+        exec.shutdownNow();
+    }
+
+    static final class Counter implements Callable<Object> {
+        final AtomicInteger count = new AtomicInteger();
+
+        final CountDownLatch latch;
+
+        String thread;
+
+        Counter(int n) {
+            latch = new CountDownLatch(n);
+        }
+
+        @Override
+        public Object call() throws Exception {
+            thread = Thread.currentThread().getName();
+            count.getAndIncrement();
+            latch.countDown();
+            return null;
+        }
+    }
+
+    @Test
+    public void wheelSizeRoundedUpToPowerOfTwo() {
+        assertEquals(1, new HashedWheelTimer(new RxThreadFactory("X"), 1, TimeUnit.MILLISECONDS, 0).wheelSize);
+        assertEquals(8, new HashedWheelTimer(new RxThreadFactory("X"), 1, TimeUnit.MILLISECONDS, 5).wheelSize);
+        assertEquals(16, new HashedWheelTimer(new RxThreadFactory("X"), 1, TimeUnit.MILLISECONDS, 16).wheelSize);
+    }
+
+    @Test(timeout = 5000)
+    public void firesOnTargetNotEarly() throws Exception {
+        Counter c = new Counter(1);
+
+        long start = System.nanoTime();
+        timer.schedule(c, exec, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(c.latch.await(2, TimeUnit.SECONDS));
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(c.thread, c.thread.startsWith("RxTimerWheelTestTarget"));
+    }
+
+    @Test(timeout = 5000)
+    public void longDelaySpansMultipleRounds() throws Exception {
+        Counter c = new Counter(3);
+
+        long start = System.nanoTime();
+        // the wheel only has 4 one millisecond buckets
+        timer.schedule(c, exec, 30, TimeUnit.MILLISECONDS);
+        timer.schedule(c, exec, 0, TimeUnit.MILLISECONDS);
+        timer.schedule(c, exec, -10, TimeUnit.MILLISECONDS);
+
+        assertTrue(c.latch.await(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+    }
+
+    @Test(timeout = 5000)
+    public void manyTimeouts() throws Exception {
+        int n = 10000;
+        Counter c = new Counter(n);
+
+        for (int i = 0; i < n; i++) {
+            timer.schedule(c, exec, i % 20, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(c.latch.await(4, TimeUnit.SECONDS));
+        assertEquals(n, c.count.get());
+    }
+
+    @Test(timeout = 5000)
+    public void cancelledTimeoutIsRemoved() throws Exception {
+        Counter c = new Counter(1);
+
+        Future<?> f = timer.schedule(c, exec, 1, TimeUnit.HOURS);
+        Future<?> g = timer.schedule(c, exec, 10, TimeUnit.MILLISECONDS);
+
+        assertFalse(f.isDone());
+        assertTrue(f.cancel(false));
+        assertFalse(f.cancel(false));
+        assertTrue(f.isCancelled());
+        assertTrue(f.isDone());
+
+        assertTrue(c.latch.await(2, TimeUnit.SECONDS));
+
+        HashedWheelTimer.Wheel w = timer.wheel.get();
+        for (int i = 0; i < 100 && w.count != 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, w.count);
+
+        assertFalse(g.isCancelled());
+        assertEquals(1, c.count.get());
+    }
+
+    @Test(timeout = 5000)
+    public void cancelAfterFiringCancelsTargetTask() throws Exception {
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        Future<?> f = timer.schedule(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                running.countDown();
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ex) {
+                    interrupted.countDown();
+                }
+                return null;
+            }
+        }, exec, 1, TimeUnit.MILLISECONDS);
+
+        assertTrue(running.await(2, TimeUnit.SECONDS));
+
+        assertTrue(f.cancel(true));
+
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void shutdownTargetRejects() {
+        exec.shutdown();
+        timer.schedule(new Counter(1), exec, 1, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(timeout = 5000)
+    public void restartsAfterShutdown() throws Exception {
+        Counter c = new Counter(1);
+
+        Future<?> f = timer.schedule(c, exec, 1, TimeUnit.HOURS);
+        timer.shutdown();
+        timer.shutdown();
+
+        // the pending timeout is cancelled by the stopping timer thread
+        try {
+            f.get();
+            fail("Should have thrown");
+        } catch (CancellationException expected) {
+            // expected
+        }
+        assertTrue(f.isCancelled());
+
+        timer.schedule(c, exec, 1, TimeUnit.MILLISECONDS);
+
+        assertTrue(c.latch.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test(timeout = 5000)
+    public void sharedFallsBackToExecutor() throws Exception {
+        Counter c = new Counter(1);
+
+        java.util.concurrent.ScheduledExecutorService ses = Executors.newSingleThreadScheduledExecutor();
+        try {
+            HashedWheelTimer.schedule(ses, c, 1, TimeUnit.MILLISECONDS);
+
+            assertTrue(c.latch.await(2, TimeUnit.SECONDS));
+        } finally {
+            ses.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void getWaitsForTheResult() throws Exception {
+        Future<?> f = timer.schedule(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return 42;
+            }
+        }, exec, 10, TimeUnit.MILLISECONDS);
+
+        assertEquals(42, f.get());
+        assertTrue(f.isDone());
+        assertEquals(42, f.get(1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test(timeout = 5000)
+    public void getTimesOut() throws Exception {
+        Future<?> f = timer.schedule(new Counter(1), exec, 1, TimeUnit.HOURS);
+
+        try {
+            f.get(10, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (TimeoutException expected) {
+            // expected
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void getAfterCancel() throws Exception {
+        Future<?> f = timer.schedule(new Counter(1), exec, 1, TimeUnit.HOURS);
+
+        assertTrue(f.cancel(false));
+
+        try {
+            f.get();
+            fail("Should have thrown");
+        } catch (CancellationException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.Scheduler.Worker;
+import io.reactivex.internal.schedulers.IoScheduler.CachedWorkerPool;
+import io.reactivex.internal.schedulers.IoScheduler.ThreadWorker;
+
+public class IoSchedulerInternalTest {
+
+    static final RxThreadFactory THREAD_FACTORY = new RxThreadFactory("RxIoInternalTest", Thread.NORM_PRIORITY, true);
+
+    @Test
+    public void unboundedReusesLastReleased() {
+        CachedWorkerPool pool = new CachedWorkerPool(1, TimeUnit.HOURS, THREAD_FACTORY, 0);
+        try {
+            ThreadWorker a = pool.get();
+            ThreadWorker b = pool.get();
+
+            assertNotSame(a, b);
+
+            pool.release(a);
+            pool.release(b);
+
+            assertSame(b, pool.get());
+            assertSame(a, pool.get());
+            assertEquals(2, pool.allWorkers.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void evictsLeastRecentlyReleasedFirst() {
+        CachedWorkerPool pool = new CachedWorkerPool(1, TimeUnit.HOURS, THREAD_FACTORY, 0);
+        try {
+            ThreadWorker a = pool.get();
+            ThreadWorker b = pool.get();
+
+            pool.release(a);
+            pool.release(b);
+
+            a.setExpirationTime(0L);
+
+            pool.evictExpiredWorkers();
+
+            assertTrue(a.isDisposed());
+            assertFalse(b.isDisposed());
+            assertEquals(1, pool.allWorkers.size());
+
+            assertSame(b, pool.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void boundedSharesThreads() {
+        CachedWorkerPool pool = new CachedWorkerPool(1, TimeUnit.HOURS, THREAD_FACTORY, 2);
+        try {
+            ThreadWorker a = pool.get();
+            ThreadWorker b = pool.get();
+            ThreadWorker c = pool.get();
+            ThreadWorker d = pool.get();
+
+            assertNotSame(a, b);
+            assertTrue(c == a || c == b);
+            assertTrue(d == a || d == b);
+            assertNotSame(c, d);
+
+            assertEquals(2, pool.allWorkers.size());
+            assertEquals(2, a.users);
+            assertEquals(2, b.users);
+
+            pool.release(a);
+
+            // still used by another worker
+            assertEquals(1, a.users);
+            assertSame(a, pool.get());
+            assertEquals(2, a.users);
+
+            pool.release(a);
+            pool.release(a);
+
+            assertEquals(0, a.users);
+
+            // idle thread is preferred over sharing
+            assertSame(a, pool.get());
+            assertEquals(1, a.users);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void boundedEvictsOnGet() {
+        CachedWorkerPool pool = new CachedWorkerPool(1, TimeUnit.HOURS, THREAD_FACTORY, 2);
+        try {
+            ThreadWorker a = pool.get();
+            pool.release(a);
+
+            a.setExpirationTime(0L);
+
+            ThreadWorker b = pool.get();
+
+            assertNotSame(a, b);
+            assertTrue(a.isDisposed());
+            assertEquals(1, pool.allWorkers.size());
+            assertEquals(1, pool.liveWorkers.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void boundedEvictsIdle() throws InterruptedException {
+        CachedWorkerPool pool = new CachedWorkerPool(10, TimeUnit.MILLISECONDS, THREAD_FACTORY, 2);
+        try {
+            ThreadWorker a = pool.get();
+            ThreadWorker b = pool.get();
+            pool.release(a);
+            pool.release(b);
+
+            while (!a.isDisposed() || !b.isDisposed()) {
+                Thread.sleep(10);
+            }
+
+            synchronized (pool) {
+                assertTrue(pool.liveWorkers.isEmpty());
+            }
+            assertEquals(0, pool.allWorkers.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void boundedReleaseAfterShutdown() {
+        CachedWorkerPool pool = new CachedWorkerPool(1, TimeUnit.HOURS, THREAD_FACTORY, 1);
+        ThreadWorker a = pool.get();
+        pool.shutdown();
+
+        pool.release(a);
+
+        assertTrue(a.isDisposed());
+        assertSame(IoScheduler.SHUTDOWN_THREAD_WORKER, pool.get());
+    }
+
+    @Test(timeout = 10000)
+    public void boundedSchedulerLimitsThreads() throws InterruptedException {
+        IoScheduler s = new IoScheduler(THREAD_FACTORY, 2);
+        List<Worker> workers = new ArrayList<Worker>();
+        try {
+            final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+            final CountDownLatch cdl = new CountDownLatch(8);
+
+            for (int i = 0; i < 8; i++) {
+                Worker w = s.createWorker();
+                workers.add(w);
+                w.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        threads.add(Thread.currentThread().getName());
+                        cdl.countDown();
+                    }
+                });
+            }
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+
+            assertEquals(threads.toString(), 2, threads.size());
+            assertEquals(2, s.size());
+        } finally {
+            for (Worker w : workers) {
+                w.dispose();
+            }
+            s.shutdown();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.reactivex.Scheduler;
+import io.reactivex.Scheduler.Worker;
+import io.reactivex.exceptions.TestException;
+import io.reactivex.schedulers.Schedulers;
+
+public class LazySchedulerTest {
+
+    static final class CountingSupplier implements Callable<Scheduler> {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Scheduler call() throws Exception {
+            calls.getAndIncrement();
+            return new SingleScheduler(new RxThreadFactory("RxLazySchedulerTest", Thread.NORM_PRIORITY, true));
+        }
+    }
+
+    @Test
+    public void createdOnFirstUse() throws Exception {
+        CountingSupplier supplier = new CountingSupplier();
+        LazyScheduler scheduler = new LazyScheduler(supplier);
+        try {
+            assertFalse(scheduler.isCreated());
+            assertEquals(0, supplier.calls.get());
+
+            final CountDownLatch cdl = new CountDownLatch(2);
+            scheduler.scheduleDirect(new CountDownRunnable(cdl));
+
+            Worker w = scheduler.createWorker();
+            try {
+                w.schedule(new CountDownRunnable(cdl), 1, TimeUnit.MILLISECONDS);
+
+                assertTrue(cdl.await(5, TimeUnit.SECONDS));
+            } finally {
+                w.dispose();
+            }
+
+            assertTrue(scheduler.isCreated());
+            assertEquals(1, supplier.calls.get());
+            assertTrue(scheduler.actual() instanceof SingleScheduler);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void startShutdownBeforeUse() {
+        CountingSupplier supplier = new CountingSupplier();
+        LazyScheduler scheduler = new LazyScheduler(supplier);
+
+        scheduler.start();
+        scheduler.shutdown();
+
+        assertFalse(scheduler.isCreated());
+        assertEquals(0, supplier.calls.get());
+
+        SingleScheduler actual = (SingleScheduler)scheduler.actual();
+
+        assertSame(SingleScheduler.SHUTDOWN, actual.executor.get());
+
+        scheduler.start();
+
+        assertNotSame(SingleScheduler.SHUTDOWN, actual.executor.get());
+
+        scheduler.shutdown();
+
+        assertSame(SingleScheduler.SHUTDOWN, actual.executor.get());
+    }
+
+    @Test
+    public void startClearsShutdownBeforeUse() {
+        LazyScheduler scheduler = new LazyScheduler(new CountingSupplier());
+
+        scheduler.shutdown();
+        scheduler.start();
+
+        SingleScheduler actual = (SingleScheduler)scheduler.actual();
+        try {
+            assertNotSame(SingleScheduler.SHUTDOWN, actual.executor.get());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void supplierCrash() {
+        LazyScheduler scheduler = new LazyScheduler(new Callable<Scheduler>() {
+            @Override
+            public Scheduler call() throws Exception {
+                throw new TestException();
+            }
+        });
+
+        try {
+            scheduler.createWorker();
+            fail("Should have thrown");
+        } catch (TestException expected) {
+            // expected
+        }
+
+        assertFalse(scheduler.isCreated());
+    }
+
+    @Test
+    public void metricsOfActual() {
+        LazyScheduler scheduler = new LazyScheduler(new CountingSupplier());
+        try {
+            assertNotNull(Schedulers.metrics(scheduler));
+            assertTrue(scheduler.isCreated());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void now() {
+        CountingSupplier supplier = new CountingSupplier();
+        LazyScheduler scheduler = new LazyScheduler(supplier);
+        try {
+            long before = System.currentTimeMillis();
+            long now = scheduler.now(TimeUnit.MILLISECONDS);
+
+            assertTrue(now >= before);
+            assertFalse(scheduler.isCreated());
+            assertEquals(0, supplier.calls.get());
+
+            scheduler.actual();
+
+            assertTrue(scheduler.now(TimeUnit.MILLISECONDS) >= now);
+            assertEquals(1, supplier.calls.get());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    static final class CountDownRunnable implements Runnable {
+        final CountDownLatch cdl;
+
+        CountDownRunnable(CountDownLatch cdl) {
+            this.cdl = cdl;
+        }
+
+        @Override
+        public void run() {
+            cdl.countDown();
+        }
+    }
+}
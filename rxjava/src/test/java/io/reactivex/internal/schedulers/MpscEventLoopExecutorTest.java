@@ -0,0 +1,371 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.reactivex.exceptions.TestException;
+import io.reactivex.internal.functions.Functions;
+
+public class MpscEventLoopExecutorTest {
+
+    MpscEventLoopExecutor exec;
+
+    @Before
+    public void before() {
+        exec = new MpscEventLoopExecutor(new RxThreadFactory("RxMpscEventLoopTest", Thread.NORM_PRIORITY, true));
+    }
+
+    @After
+    public void after() {
+        exec.shutdownNow();
+    }
+
+    @Test
+    public void threadStartsLazily() {
+        assertNull(exec.thread);
+
+        exec.shutdown();
+
+        assertTrue(exec.isTerminated());
+    }
+
+    @Test(timeout = 5000)
+    public void fifoFromManyProducers() throws Exception {
+        final int n = 10000;
+        final List<Integer> list = new ArrayList<Integer>();
+        Future<?> last = null;
+        for (int i = 0; i < n; i++) {
+            final int j = i;
+            last = exec.submit(new Runnable() {
+                @Override
+                public void run() {
+                    list.add(j);
+                }
+            });
+        }
+        last.get();
+
+        assertEquals(n, list.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, list.get(i).intValue());
+        }
+
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch cdl = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < n; i++) {
+                        exec.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                count.getAndIncrement();
+                            }
+                        });
+                    }
+                    cdl.countDown();
+                }
+            }.start();
+        }
+        assertTrue(cdl.await(5, TimeUnit.SECONDS));
+
+        exec.submit(Functions.EMPTY_RUNNABLE).get();
+
+        assertEquals(4 * n, count.get());
+    }
+
+    @Test(timeout = 5000)
+    public void callableResultAndFailure() throws Exception {
+        assertEquals(1, exec.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return 1;
+            }
+        }).get().intValue());
+
+        assertEquals("result", exec.submit(Functions.EMPTY_RUNNABLE, "result").get());
+
+        Future<Object> f = exec.submit(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                throw new TestException();
+            }
+        });
+
+        try {
+            f.get();
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause().toString(), ex.getCause() instanceof TestException);
+        }
+
+        // the event loop survived the failure
+        assertEquals(2, exec.schedule(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return 2;
+            }
+        }, 1, TimeUnit.MILLISECONDS).get().intValue());
+    }
+
+    @Test(timeout = 5000)
+    public void delayedTasksRunInDueOrder() throws Exception {
+        final List<Integer> list = new ArrayList<Integer>();
+        for (final int i : new int[] { 30, 10, 20, 0 }) {
+            exec.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    list.add(i);
+                }
+            }, i, TimeUnit.MILLISECONDS);
+        }
+
+        exec.schedule(Functions.EMPTY_RUNNABLE, 50, TimeUnit.MILLISECONDS).get();
+
+        assertEquals(Arrays.asList(0, 10, 20, 30), list);
+    }
+
+    @Test(timeout = 5000)
+    public void cancelDelayed() throws Exception {
+        final AtomicBoolean run = new AtomicBoolean();
+        List<ScheduledFuture<?>> futures = new ArrayList<ScheduledFuture<?>>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(exec.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    run.set(true);
+                }
+            }, 100 + i % 10, TimeUnit.MILLISECONDS));
+        }
+        for (ScheduledFuture<?> f : futures) {
+            assertTrue(f.cancel(false));
+            assertTrue(f.isCancelled());
+            assertTrue(f.isDone());
+        }
+
+        exec.schedule(Functions.EMPTY_RUNNABLE, 150, TimeUnit.MILLISECONDS).get();
+
+        assertFalse(run.get());
+        assertEquals(0, exec.queueSize());
+
+        try {
+            futures.get(0).get();
+            fail("Should have thrown");
+        } catch (CancellationException expected) {
+            // expected
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void cancelledTasksPurgedWhileParked() throws Exception {
+        List<ScheduledFuture<?>> futures = new ArrayList<ScheduledFuture<?>>();
+        for (int i = 0; i < 2 * MpscEventLoopExecutor.PURGE_THRESHOLD; i++) {
+            futures.add(exec.schedule(Functions.EMPTY_RUNNABLE, 1, TimeUnit.HOURS));
+        }
+
+        assertEquals(2 * MpscEventLoopExecutor.PURGE_THRESHOLD, exec.queueSize());
+
+        for (ScheduledFuture<?> f : futures) {
+            f.cancel(false);
+        }
+
+        while (exec.queueSize() != 0) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void fixedRateUntilCancelled() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch cdl = new CountDownLatch(5);
+        ScheduledFuture<?> f = exec.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                count.getAndIncrement();
+                cdl.countDown();
+            }
+        }, 0, 1, TimeUnit.MILLISECONDS);
+
+        assertTrue(cdl.await(5, TimeUnit.SECONDS));
+
+        f.cancel(false);
+
+        exec.submit(Functions.EMPTY_RUNNABLE).get();
+        int c = count.get();
+
+        Thread.sleep(20);
+
+        assertEquals(c, count.get());
+        assertFalse(f.isDone() && !f.isCancelled());
+    }
+
+    @Test(timeout = 5000)
+    public void fixedDelayStopsOnFailure() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        ScheduledFuture<?> f = exec.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                if (count.incrementAndGet() == 3) {
+                    throw new TestException();
+                }
+            }
+        }, 1, 1, TimeUnit.MILLISECONDS);
+
+        try {
+            f.get();
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof TestException);
+        }
+
+        Thread.sleep(20);
+
+        assertEquals(3, count.get());
+    }
+
+    @Test(timeout = 5000)
+    public void cancelRunningInterruptsOnlyThatTask() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        Future<?> f = exec.submit(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ex) {
+                    interrupted.set(true);
+                }
+            }
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(f.cancel(true));
+
+        assertTrue(exec.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return !Thread.currentThread().isInterrupted();
+            }
+        }).get());
+
+        assertTrue(interrupted.get());
+    }
+
+    @Test(timeout = 5000)
+    public void getWithTimeout() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        Future<?> f = exec.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    // ignored
+                }
+            }
+        });
+
+        try {
+            f.get(10, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (TimeoutException expected) {
+            // expected
+        }
+
+        release.countDown();
+
+        assertNull(f.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test(timeout = 5000)
+    public void shutdownRunsQueuedAndDelayedTasks() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        Runnable r = new Runnable() {
+            @Override
+            public void run() {
+                count.getAndIncrement();
+            }
+        };
+        exec.execute(r);
+        exec.schedule(r, 10, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> periodic = exec.scheduleAtFixedRate(r, 1, 1, TimeUnit.HOURS);
+
+        exec.shutdown();
+
+        assertTrue(exec.isShutdown());
+
+        try {
+            exec.execute(r);
+            fail("Should have thrown");
+        } catch (RejectedExecutionException expected) {
+            // expected
+        }
+
+        assertTrue(exec.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(2, count.get());
+        assertTrue(periodic.isCancelled());
+    }
+
+    @Test(timeout = 5000)
+    public void shutdownNowCancelsQueuedTasks() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        exec.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ex) {
+                    // expected
+                }
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<?> queued = exec.submit(Functions.EMPTY_RUNNABLE);
+        Future<?> delayed = exec.schedule(Functions.EMPTY_RUNNABLE, 1, TimeUnit.HOURS);
+
+        exec.shutdownNow();
+
+        assertTrue(exec.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(exec.isTerminated());
+
+        assertTrue(queued.isCancelled());
+        assertTrue(delayed.isCancelled());
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder.MeteredRunnable;
+import io.reactivex.schedulers.SchedulerMetrics.Histogram;
+
+public class SchedulerMetricsRecorderTest {
+
+    @Test
+    public void bucketOf() {
+        assertEquals(0, Histogram.bucketOf(-1));
+        assertEquals(0, Histogram.bucketOf(0));
+        assertEquals(1, Histogram.bucketOf(1));
+        assertEquals(2, Histogram.bucketOf(2));
+        assertEquals(2, Histogram.bucketOf(3));
+        assertEquals(3, Histogram.bucketOf(4));
+        assertEquals(63, Histogram.bucketOf(Long.MAX_VALUE));
+
+        assertEquals(0, Histogram.bucketUpperBound(0));
+        assertEquals(1, Histogram.bucketUpperBound(1));
+        assertEquals(3, Histogram.bucketUpperBound(2));
+        assertEquals(Long.MAX_VALUE, Histogram.bucketUpperBound(63));
+    }
+
+    @Test
+    public void histogramPercentiles() {
+        SchedulerMetricsRecorder.LiveHistogram h = new SchedulerMetricsRecorder.LiveHistogram();
+
+        assertEquals(0, h.snapshot().percentile(50));
+        assertEquals(0, h.snapshot().mean());
+
+        for (int i = 0; i < 99; i++) {
+            h.record(100);
+        }
+        h.record(10000);
+
+        Histogram s = h.snapshot();
+
+        assertEquals(100, s.count());
+        assertEquals(99, s.bucketCount(Histogram.bucketOf(100)));
+        assertEquals(127, s.percentile(50));
+        assertEquals(127, s.percentile(99));
+        assertEquals(16383, s.percentile(100));
+        assertEquals((99 * 100 + 10000) / 100, s.mean());
+        assertTrue(s.toString(), s.toString().startsWith("Histogram[count=100"));
+    }
+
+    @Test
+    public void meteredRunnableCounts() {
+        SchedulerMetricsRecorder r = new SchedulerMetricsRecorder();
+
+        MeteredRunnable m1 = new MeteredRunnable(Functions.EMPTY_RUNNABLE, r, 0L, 0L, false);
+        MeteredRunnable m2 = new MeteredRunnable(Functions.EMPTY_RUNNABLE, r, 0L, 0L, false);
+
+        assertEquals(2, r.submittedCount());
+
+        m1.run();
+        m1.run();
+
+        SchedulerMetricsRecorder.cancel(m1);
+        SchedulerMetricsRecorder.cancel(m2);
+        SchedulerMetricsRecorder.cancel(m2);
+        SchedulerMetricsRecorder.cancel(Functions.EMPTY_RUNNABLE);
+
+        m2.run();
+
+        assertEquals(1, r.executedCount());
+        assertEquals(1, r.cancelledCount());
+        assertEquals(1, r.queueWaitTime().count());
+        assertEquals(1, r.runTime().count());
+    }
+
+    @Test
+    public void meteredPeriodicRunsUntilCancelled() {
+        SchedulerMetricsRecorder r = new SchedulerMetricsRecorder();
+
+        MeteredRunnable m = new MeteredRunnable(Functions.EMPTY_RUNNABLE, r, 0L, 1000L, true);
+
+        m.run();
+        m.run();
+        m.run();
+
+        SchedulerMetricsRecorder.cancel(m);
+
+        m.run();
+
+        assertEquals(1, r.submittedCount());
+        assertEquals(3, r.executedCount());
+        assertEquals(1, r.cancelledCount());
+    }
+
+    @Test
+    public void meteredBackToBackPeriodic() {
+        SchedulerMetricsRecorder r = new SchedulerMetricsRecorder();
+
+        MeteredRunnable m = new MeteredRunnable(Functions.EMPTY_RUNNABLE, r, 0L, 0L, true);
+
+        m.run();
+        m.run();
+
+        assertEquals(2, r.executedCount());
+        assertEquals(2, r.queueWaitTime().count());
+    }
+
+    @Test
+    public void meteredCrashStillCounts() {
+        SchedulerMetricsRecorder r = new SchedulerMetricsRecorder();
+
+        MeteredRunnable m = new MeteredRunnable(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalArgumentException();
+            }
+        }, r, 0L, 0L, false);
+
+        try {
+            m.run();
+            fail("Should have thrown");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+
+        assertEquals(1, r.executedCount());
+        assertEquals(1, r.runTime().count());
+    }
+
+    @Test
+    public void waitMeasuredFromDueTime() throws InterruptedException {
+        SchedulerMetricsRecorder r = new SchedulerMetricsRecorder();
+
+        MeteredRunnable m = new MeteredRunnable(Functions.EMPTY_RUNNABLE, r, TimeUnit.HOURS.toNanos(1), 0L, false);
+
+        m.run();
+
+        // ran an hour early, the wait is clamped to zero
+        assertEquals(1, r.queueWaitTime().bucketCount(0));
+    }
+
+    @Test
+    public void wrapReturnsOriginalWithoutRecorder() {
+        assertSame(Functions.EMPTY_RUNNABLE, SchedulerMetricsRecorder.wrap(null, Functions.EMPTY_RUNNABLE, 0L, null));
+
+        Runnable r = SchedulerMetricsRecorder.wrap(new SchedulerMetricsRecorder(), Functions.EMPTY_RUNNABLE, 1L, TimeUnit.SECONDS);
+        assertEquals(SchedulerMetricsRecorder.ENABLED, r instanceof MeteredRunnable);
+
+        r = SchedulerMetricsRecorder.wrapPeriodic(new SchedulerMetricsRecorder(), Functions.EMPTY_RUNNABLE, 0L, 0L, TimeUnit.SECONDS);
+        assertEquals(SchedulerMetricsRecorder.ENABLED, r instanceof MeteredRunnable);
+    }
+
+    @Test
+    public void queueDepthsOfRegisteredWorkers() {
+        SchedulerMetricsRecorder r = new SchedulerMetricsRecorder();
+
+        NewThreadWorker w1 = new NewThreadWorker(new RxThreadFactory("RxMetricsTest"), r);
+        NewThreadWorker w2 = new NewThreadWorker(new RxThreadFactory("RxMetricsTest"), r);
+        try {
+            w1.schedule(Functions.EMPTY_RUNNABLE, 1, TimeUnit.HOURS);
+            w1.schedule(Functions.EMPTY_RUNNABLE, 1, TimeUnit.HOURS);
+            w2.schedule(Functions.EMPTY_RUNNABLE, 1, TimeUnit.HOURS);
+
+            int[] depths = r.queueDepths();
+
+            assertEquals(2, depths.length);
+            assertEquals(3, depths[0] + depths[1]);
+
+            w1.dispose();
+
+            assertArrayEquals(new int[] { 1 }, r.queueDepths());
+        } finally {
+            w1.dispose();
+            w2.dispose();
+        }
+
+        assertEquals(0, r.queueDepths().length);
+    }
+}
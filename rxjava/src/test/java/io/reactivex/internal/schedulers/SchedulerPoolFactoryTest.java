@@ -16,6 +16,10 @@
 
 package io.reactivex.internal.schedulers;
 
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ScheduledExecutorService;
+
 import org.junit.Test;
 
 import io.reactivex.TestHelper;
@@ -26,4 +30,59 @@ public class SchedulerPoolFactoryTest {
     public void utilityClass() {
         TestHelper.checkUtilityClass(SchedulerPoolFactory.class);
     }
+
+    @Test
+    public void startLazily() {
+        ScheduledExecutorService before = SchedulerPoolFactory.PURGE_THREAD.getAndSet(null);
+        if (before != null) {
+            before.shutdownNow();
+        }
+        try {
+            SchedulerPoolFactory.startLazily();
+
+            ScheduledExecutorService exec = SchedulerPoolFactory.PURGE_THREAD.get();
+            assertEquals(SchedulerPoolFactory.PURGE_ENABLED, exec != null);
+
+            SchedulerPoolFactory.startLazily();
+
+            assertSame(exec, SchedulerPoolFactory.PURGE_THREAD.get());
+
+            if (exec != null) {
+                SchedulerPoolFactory.shutdown();
+
+                SchedulerPoolFactory.startLazily();
+
+                assertSame(exec, SchedulerPoolFactory.PURGE_THREAD.get());
+                assertTrue(exec.isShutdown());
+            }
+        } finally {
+            SchedulerPoolFactory.start();
+        }
+    }
+
+    @Test
+    public void noLazyStartAfterShutdown() {
+        ScheduledExecutorService before = SchedulerPoolFactory.PURGE_THREAD.getAndSet(null);
+        if (before != null) {
+            before.shutdownNow();
+        }
+        try {
+            SchedulerPoolFactory.shutdown();
+
+            SchedulerPoolFactory.startLazily();
+
+            assertNull(SchedulerPoolFactory.PURGE_THREAD.get());
+
+            SchedulerPoolFactory.start();
+
+            ScheduledExecutorService exec = SchedulerPoolFactory.PURGE_THREAD.get();
+            assertEquals(SchedulerPoolFactory.PURGE_ENABLED, exec != null);
+
+            SchedulerPoolFactory.startLazily();
+
+            assertSame(exec, SchedulerPoolFactory.PURGE_THREAD.get());
+        } finally {
+            SchedulerPoolFactory.start();
+        }
+    }
 }
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.reactivex.Scheduler;
+import io.reactivex.TestHelper;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.TestException;
+import io.reactivex.internal.schedulers.SharedIntervalTimer.GroupKey;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.TestScheduler;
+
+public class SharedIntervalTimerTest {
+
+    static final long RESOLUTION = TimeUnit.MILLISECONDS.toNanos(10);
+
+    static int groups(Scheduler scheduler) {
+        int n = 0;
+        for (GroupKey k : SharedIntervalTimer.GROUPS.keySet()) {
+            if (k.scheduler == scheduler) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    static Disposable schedule(TestScheduler scheduler, Runnable run, long initialDelay, long period) {
+        return SharedIntervalTimer.schedulePeriodicallyDirect(scheduler, run, initialDelay, period, TimeUnit.MILLISECONDS, RESOLUTION);
+    }
+
+    @Test
+    public void utilityClass() {
+        TestHelper.checkUtilityClass(SharedIntervalTimer.class);
+    }
+
+    @Test
+    public void samePhaseSharesGroup() {
+        TestScheduler scheduler = new TestScheduler();
+        CountingRunnable a = new CountingRunnable();
+        CountingRunnable b = new CountingRunnable();
+        CountingRunnable c = new CountingRunnable();
+
+        Disposable da = schedule(scheduler, a, 101, 1000);
+        Disposable db = schedule(scheduler, b, 105, 1000);
+        Disposable dc = schedule(scheduler, c, 1108, 1000);
+
+        assertEquals(1, groups(scheduler));
+
+        scheduler.advanceTimeTo(109, TimeUnit.MILLISECONDS);
+
+        assertEquals(0, a.count.get());
+
+        scheduler.advanceTimeTo(110, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, a.count.get());
+        assertEquals(1, b.count.get());
+        assertEquals(0, c.count.get());
+
+        scheduler.advanceTimeTo(2110, TimeUnit.MILLISECONDS);
+
+        assertEquals(3, a.count.get());
+        assertEquals(3, b.count.get());
+        assertEquals(2, c.count.get());
+
+        da.dispose();
+        db.dispose();
+
+        assertEquals(1, groups(scheduler));
+
+        dc.dispose();
+
+        assertEquals(0, groups(scheduler));
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        assertEquals(3, a.count.get());
+        assertEquals(2, c.count.get());
+    }
+
+    @Test
+    public void differentPhaseOrPeriod() {
+        TestScheduler scheduler = new TestScheduler();
+        CountingRunnable a = new CountingRunnable();
+
+        Disposable d1 = schedule(scheduler, a, 100, 1000);
+        Disposable d2 = schedule(scheduler, a, 200, 1000);
+        Disposable d3 = schedule(scheduler, a, 100, 2000);
+
+        assertEquals(3, groups(scheduler));
+
+        scheduler.advanceTimeTo(2200, TimeUnit.MILLISECONDS);
+
+        assertEquals(3 + 3 + 2, a.count.get());
+
+        d1.dispose();
+        d2.dispose();
+        d3.dispose();
+
+        assertEquals(0, groups(scheduler));
+    }
+
+    @Test
+    public void earlierMemberReschedulesGroup() {
+        TestScheduler scheduler = new TestScheduler();
+        CountingRunnable a = new CountingRunnable();
+        CountingRunnable b = new CountingRunnable();
+
+        Disposable da = schedule(scheduler, a, 5100, 1000);
+        Disposable db = schedule(scheduler, b, 100, 1000);
+
+        assertEquals(1, groups(scheduler));
+
+        scheduler.advanceTimeTo(100, TimeUnit.MILLISECONDS);
+
+        assertEquals(0, a.count.get());
+        assertEquals(1, b.count.get());
+
+        scheduler.advanceTimeTo(5100, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, a.count.get());
+        assertEquals(6, b.count.get());
+
+        da.dispose();
+        db.dispose();
+    }
+
+    @Test
+    public void shortPeriodNotShared() {
+        TestScheduler scheduler = new TestScheduler();
+        CountingRunnable a = new CountingRunnable();
+
+        Disposable d = schedule(scheduler, a, 0, 1);
+
+        assertEquals(0, groups(scheduler));
+
+        scheduler.advanceTimeTo(10, TimeUnit.MILLISECONDS);
+
+        assertEquals(11, a.count.get());
+
+        d.dispose();
+    }
+
+    @Test
+    public void crashingMemberRemoved() {
+        List<Throwable> errors = TestHelper.trackPluginErrors();
+        try {
+            TestScheduler scheduler = new TestScheduler();
+            CountingRunnable a = new CountingRunnable();
+
+            Disposable d1 = schedule(scheduler, new CrashingRunnable(), 100, 1000);
+            Disposable d2 = schedule(scheduler, a, 100, 1000);
+
+            scheduler.advanceTimeTo(2100, TimeUnit.MILLISECONDS);
+
+            assertTrue(d1.isDisposed());
+            assertFalse(d2.isDisposed());
+            assertEquals(3, a.count.get());
+
+            assertEquals(1, errors.size());
+            TestHelper.assertUndeliverable(errors, 0, TestException.class);
+
+            d2.dispose();
+
+            assertEquals(0, groups(scheduler));
+        } finally {
+            RxJavaPlugins.reset();
+        }
+    }
+
+    @Test
+    public void shutdownForgetsGroups() {
+        TestScheduler scheduler = new TestScheduler();
+        CountingRunnable a = new CountingRunnable();
+
+        Disposable d = schedule(scheduler, a, 100, 1000);
+
+        SharedIntervalTimer.shutdown();
+
+        assertEquals(0, groups(scheduler));
+
+        scheduler.advanceTimeTo(2100, TimeUnit.MILLISECONDS);
+
+        assertEquals(0, a.count.get());
+
+        d.dispose();
+
+        Disposable d2 = schedule(scheduler, a, 100, 1000);
+
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, a.count.get());
+
+        d2.dispose();
+    }
+
+    static final class CountingRunnable implements Runnable {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void run() {
+            count.getAndIncrement();
+        }
+    }
+
+    static final class CrashingRunnable implements Runnable {
+        @Override
+        public void run() {
+            throw new TestException();
+        }
+    }
+}
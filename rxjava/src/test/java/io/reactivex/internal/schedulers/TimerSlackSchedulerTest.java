@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.reactivex.Scheduler;
+import io.reactivex.Scheduler.Worker;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.schedulers.TestScheduler;
+
+public class TimerSlackSchedulerTest {
+
+    static final long SLACK = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void windowEnd() {
+        assertEquals(10, TimerSlackScheduler.windowEnd(10, 10));
+        assertEquals(10, TimerSlackScheduler.windowEnd(1, 10));
+        assertEquals(20, TimerSlackScheduler.windowEnd(11, 10));
+        assertEquals(0, TimerSlackScheduler.windowEnd(0, 10));
+        assertEquals(-10, TimerSlackScheduler.windowEnd(-14, 10));
+    }
+
+    @Test
+    public void delayedTasksWithinSlack() {
+        TestScheduler test = new TestScheduler();
+        Scheduler scheduler = Schedulers.timerSlack(test, 10, TimeUnit.MILLISECONDS);
+        CountingRunnable direct = new CountingRunnable();
+        CountingRunnable delayed = new CountingRunnable();
+
+        scheduler.scheduleDirect(direct, 5, TimeUnit.MILLISECONDS);
+
+        Worker w = scheduler.createWorker();
+        w.schedule(delayed, 25, TimeUnit.MILLISECONDS);
+
+        test.advanceTimeBy(4, TimeUnit.MILLISECONDS);
+        assertEquals(0, direct.count.get());
+
+        test.advanceTimeBy(11, TimeUnit.MILLISECONDS);
+        assertEquals(1, direct.count.get());
+
+        test.advanceTimeBy(9, TimeUnit.MILLISECONDS);
+        assertEquals(0, delayed.count.get());
+
+        test.advanceTimeBy(11, TimeUnit.MILLISECONDS);
+        assertEquals(1, delayed.count.get());
+
+        w.dispose();
+        assertTrue(w.isDisposed());
+    }
+
+    @Test
+    public void sameWindowRunsInOrder() {
+        TestScheduler test = new TestScheduler();
+        test.advanceTimeBy(3, TimeUnit.MILLISECONDS);
+        Scheduler scheduler = Schedulers.timerSlack(test, 10, TimeUnit.MILLISECONDS);
+        final List<Integer> list = new ArrayList<Integer>();
+
+        Worker w = scheduler.createWorker();
+        w.schedule(new AddRunnable(list, 1), 6, TimeUnit.MILLISECONDS);
+        w.schedule(new AddRunnable(list, 2), 1, TimeUnit.MILLISECONDS);
+        Disposable d = w.schedule(new AddRunnable(list, 3), 4, TimeUnit.MILLISECONDS);
+        w.schedule(new AddRunnable(list, 4), 7, TimeUnit.MILLISECONDS);
+        w.schedule(new AddRunnable(list, 5), 8, TimeUnit.MILLISECONDS);
+
+        d.dispose();
+
+        test.advanceTimeTo(9, TimeUnit.MILLISECONDS);
+
+        assertTrue(list.isEmpty());
+
+        test.advanceTimeTo(10, TimeUnit.MILLISECONDS);
+
+        assertEquals(Arrays.asList(1, 2, 4), list);
+
+        test.advanceTimeTo(20, TimeUnit.MILLISECONDS);
+
+        assertEquals(Arrays.asList(1, 2, 4, 5), list);
+
+        w.dispose();
+    }
+
+    @Test
+    public void disposedWorker() {
+        TestScheduler test = new TestScheduler();
+        Scheduler scheduler = Schedulers.timerSlack(test, 10, TimeUnit.MILLISECONDS);
+        CountingRunnable run = new CountingRunnable();
+
+        Worker w = scheduler.createWorker();
+        w.schedule(run, 5, TimeUnit.MILLISECONDS);
+        w.dispose();
+
+        assertTrue(w.schedule(run, 5, TimeUnit.MILLISECONDS).isDisposed());
+
+        test.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(0, run.count.get());
+    }
+
+    @Test
+    public void nonDelayedAndPeriodicUnchanged() {
+        TestScheduler test = new TestScheduler();
+        Scheduler scheduler = new TimerSlackScheduler(test, SLACK);
+        CountingRunnable run = new CountingRunnable();
+
+        scheduler.scheduleDirect(run);
+        Disposable d1 = scheduler.schedulePeriodicallyDirect(run, 1, 1, TimeUnit.MILLISECONDS);
+
+        Worker w = scheduler.createWorker();
+        w.schedule(run);
+        Disposable d2 = w.schedulePeriodically(run, 1, 1, TimeUnit.MILLISECONDS);
+
+        test.triggerActions();
+        assertEquals(2, run.count.get());
+
+        test.advanceTimeBy(3, TimeUnit.MILLISECONDS);
+        assertEquals(8, run.count.get());
+
+        d1.dispose();
+        d2.dispose();
+        w.dispose();
+
+        assertEquals(test.now(TimeUnit.MILLISECONDS), scheduler.now(TimeUnit.MILLISECONDS));
+        assertEquals(test.now(TimeUnit.MILLISECONDS), w.now(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void realScheduler() throws InterruptedException {
+        Scheduler scheduler = Schedulers.timerSlack(Schedulers.single(), 5, TimeUnit.MILLISECONDS);
+        final CountDownLatch cdl = new CountDownLatch(2);
+        Runnable r = new Runnable() {
+            @Override
+            public void run() {
+                cdl.countDown();
+            }
+        };
+
+        long start = System.nanoTime();
+        scheduler.scheduleDirect(r, 1, TimeUnit.MILLISECONDS);
+        scheduler.createWorker().schedule(r, 2, TimeUnit.MILLISECONDS);
+
+        assertTrue(cdl.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveSlack() {
+        Schedulers.timerSlack(Schedulers.single(), 0, TimeUnit.MILLISECONDS);
+    }
+
+    static final class AddRunnable implements Runnable {
+        final List<Integer> list;
+
+        final int value;
+
+        AddRunnable(List<Integer> list, int value) {
+            this.list = list;
+            this.value = value;
+        }
+
+        @Override
+        public void run() {
+            list.add(value);
+        }
+    }
+
+    static final class CountingRunnable implements Runnable {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void run() {
+            count.getAndIncrement();
+        }
+    }
+}
@@ -18,11 +18,15 @@ package io.reactivex.internal.schedulers;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import io.reactivex.Scheduler.Worker;
 import io.reactivex.internal.disposables.EmptyDisposable;
 import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.schedulers.TrampolineScheduler.TrampolineWorker;
 import io.reactivex.schedulers.Schedulers;
 
 import static org.junit.Assert.assertEquals;
@@ -163,4 +167,134 @@ public class TrampolineSchedulerInternalTest {
             w.dispose();
         }
     }
+
+    @Test
+    public void nestedImmediateTasksSkipTheTimedQueue() {
+        final TrampolineWorker w = (TrampolineWorker)Schedulers.trampoline().createWorker();
+        try {
+            final List<Integer> list = new ArrayList<Integer>();
+            final Runnable task = new Runnable() {
+                int count;
+                @Override
+                public void run() {
+                    int c = ++count;
+                    list.add(c);
+                    if (c < 5) {
+                        w.schedule(this);
+                        w.schedule(this, 0, TimeUnit.MILLISECONDS);
+
+                        assertTrue(w.queue.isEmpty());
+                    }
+                }
+            };
+
+            assertSame(EmptyDisposable.INSTANCE, w.schedule(task));
+
+            assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), list);
+            assertTrue(w.immediate.isEmpty());
+            assertEquals(0, w.counter.get());
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void immediateTaskBeforeDelayed() {
+        final Worker w = Schedulers.trampoline().createWorker();
+        try {
+            final List<Integer> list = new ArrayList<Integer>();
+            w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    w.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            list.add(2);
+                        }
+                    }, 10, TimeUnit.MILLISECONDS);
+                    w.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            list.add(1);
+                        }
+                    });
+                }
+            });
+
+            assertEquals(Arrays.asList(1, 2), list);
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void dueDelayedTaskBeforeImmediate() throws Exception {
+        final Worker w = Schedulers.trampoline().createWorker();
+        try {
+            final List<Integer> list = new ArrayList<Integer>();
+            w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    w.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            list.add(1);
+                        }
+                    }, 1, TimeUnit.MILLISECONDS);
+
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException ex) {
+                        throw new AssertionError(ex);
+                    }
+
+                    w.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            list.add(2);
+                        }
+                    });
+                }
+            });
+
+            assertEquals(Arrays.asList(1, 2), list);
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void otherThreadSchedulesWhileDraining() throws Exception {
+        final Worker w = Schedulers.trampoline().createWorker();
+        try {
+            final List<String> list = new ArrayList<String>();
+            w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    Thread t = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            w.schedule(new Runnable() {
+                                @Override
+                                public void run() {
+                                    list.add("other");
+                                }
+                            });
+                        }
+                    });
+                    t.start();
+                    try {
+                        t.join();
+                    } catch (InterruptedException ex) {
+                        throw new AssertionError(ex);
+                    }
+                    list.add("first");
+                }
+            });
+
+            assertEquals(Arrays.asList("first", "other"), list);
+        } finally {
+            w.dispose();
+        }
+    }
 }
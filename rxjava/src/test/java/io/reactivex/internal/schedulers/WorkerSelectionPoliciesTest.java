@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.reactivex.TestHelper;
+
+public class WorkerSelectionPoliciesTest {
+
+    static final class Load implements EventLoopLoad {
+        final int queueSize;
+        final int activeWorkers;
+
+        Load(int queueSize, int activeWorkers) {
+            this.queueSize = queueSize;
+            this.activeWorkers = activeWorkers;
+        }
+
+        @Override
+        public int queueSize() {
+            return queueSize;
+        }
+
+        @Override
+        public int activeWorkers() {
+            return activeWorkers;
+        }
+    }
+
+    @Test
+    public void utilityClass() {
+        TestHelper.checkUtilityClass(WorkerSelectionPolicies.class);
+    }
+
+    @Test
+    public void fromName() {
+        assertTrue(WorkerSelectionPolicies.fromName(null) instanceof WorkerSelectionPolicies.RoundRobin);
+        assertTrue(WorkerSelectionPolicies.fromName("unknown") instanceof WorkerSelectionPolicies.RoundRobin);
+        assertTrue(WorkerSelectionPolicies.fromName(WorkerSelectionPolicies.ROUND_ROBIN) instanceof WorkerSelectionPolicies.RoundRobin);
+        assertTrue(WorkerSelectionPolicies.fromName(WorkerSelectionPolicies.LEAST_QUEUED) instanceof WorkerSelectionPolicies.LeastQueued);
+        assertTrue(WorkerSelectionPolicies.fromName(WorkerSelectionPolicies.POWER_OF_TWO) instanceof WorkerSelectionPolicies.PowerOfTwoChoices);
+        assertSame(WorkerSelectionPolicies.sticky(), WorkerSelectionPolicies.fromName(WorkerSelectionPolicies.STICKY));
+    }
+
+    @Test
+    public void roundRobin() {
+        EventLoopLoad[] loops = { new Load(5, 0), new Load(0, 0), new Load(0, 0) };
+        WorkerSelectionPolicy p = WorkerSelectionPolicies.roundRobin();
+
+        assertEquals(0, p.select(loops));
+        assertEquals(1, p.select(loops));
+        assertEquals(2, p.select(loops));
+        assertEquals(0, p.select(loops));
+    }
+
+    @Test
+    public void leastQueued() {
+        WorkerSelectionPolicy p = WorkerSelectionPolicies.leastQueued();
+
+        EventLoopLoad[] loops = { new Load(5, 0), new Load(3, 9), new Load(4, 0) };
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, p.select(loops));
+        }
+
+        loops = new EventLoopLoad[] { new Load(1, 3), new Load(1, 2), new Load(1, 4) };
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, p.select(loops));
+        }
+    }
+
+    @Test
+    public void leastQueuedSpreadsTies() {
+        WorkerSelectionPolicy p = WorkerSelectionPolicies.leastQueued();
+
+        EventLoopLoad[] loops = { new Load(0, 0), new Load(0, 0), new Load(0, 0) };
+        int[] counts = new int[3];
+        for (int i = 0; i < 30; i++) {
+            counts[p.select(loops)]++;
+        }
+        assertArrayEquals(new int[] { 10, 10, 10 }, counts);
+    }
+
+    @Test
+    public void powerOfTwoChoices() {
+        WorkerSelectionPolicy p = WorkerSelectionPolicies.powerOfTwoChoices();
+
+        assertEquals(0, p.select(new EventLoopLoad[] { new Load(1, 1) }));
+
+        EventLoopLoad[] loops = { new Load(100, 0), new Load(0, 0) };
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, p.select(loops));
+        }
+
+        loops = new EventLoopLoad[] { new Load(100, 0), new Load(100, 0), new Load(100, 0), new Load(0, 0) };
+        int[] counts = new int[4];
+        for (int i = 0; i < 1000; i++) {
+            counts[p.select(loops)]++;
+        }
+        // the least loaded one wins whenever it is sampled, which is half of the time
+        assertTrue(counts[3] > 300);
+    }
+
+    @Test
+    public void stickyToCallerThread() throws Exception {
+        final WorkerSelectionPolicy p = WorkerSelectionPolicies.sticky();
+        final EventLoopLoad[] loops = { new Load(0, 0), new Load(0, 0), new Load(0, 0), new Load(0, 0) };
+
+        int first = p.select(loops);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(first, p.select(loops));
+        }
+
+        final AtomicInteger other = new AtomicInteger(-1);
+        final CountDownLatch cdl = new CountDownLatch(1);
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                int v = p.select(loops);
+                if (v == p.select(loops)) {
+                    other.set(v);
+                }
+                cdl.countDown();
+            }
+        });
+        t.start();
+        cdl.await();
+
+        assertTrue(other.get() >= 0 && other.get() < loops.length);
+    }
+}
@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.util;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.reactivex.exceptions.TestException;
+import io.reactivex.functions.Function;
+
+public class MappedAppendLogTest {
+
+    static final Function<Integer, byte[]> SERIALIZER = new Function<Integer, byte[]>() {
+        @Override
+        public byte[] apply(Integer v) {
+            // make the size vary with the value
+            byte[] b = new byte[4 + (v & 7)];
+            ByteBuffer.wrap(b).putInt(v);
+            return b;
+        }
+    };
+
+    static final Function<ByteBuffer, Integer> DESERIALIZER = new Function<ByteBuffer, Integer>() {
+        @Override
+        public Integer apply(ByteBuffer b) {
+            assertEquals(4 + (b.getInt(b.position()) & 7), b.remaining());
+            return b.getInt();
+        }
+    };
+
+    static MappedAppendLog<Integer> log(int segmentSize, int tailSize) {
+        return new MappedAppendLog<Integer>(SERIALIZER, DESERIALIZER, segmentSize, tailSize, null);
+    }
+
+    @Test
+    public void empty() {
+        MappedAppendLog<Integer> log = log(64, 4);
+
+        assertEquals(0L, log.size());
+        assertNull(log.last());
+        assertEquals(0L, log.mappedBytes());
+
+        log.close();
+    }
+
+    @Test
+    public void appendAndRead() throws Exception {
+        MappedAppendLog<Integer> log = log(64, 4);
+
+        for (int i = 0; i < 1000; i++) {
+            log.append(i);
+        }
+
+        assertEquals(1000L, log.size());
+        assertEquals(999, log.last().intValue());
+        assertTrue(log.mappedBytes() > 64);
+
+        // two independent cursors, the older values come from the segments
+        MappedAppendLog.Cursor c1 = new MappedAppendLog.Cursor();
+        MappedAppendLog.Cursor c2 = new MappedAppendLog.Cursor();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, log.read(c1).intValue());
+            assertEquals(i + 1L, c1.index());
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, log.read(c2).intValue());
+        }
+
+        log.close();
+    }
+
+    @Test
+    public void readsFromTailAreNotDeserialized() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        MappedAppendLog<Integer> log = new MappedAppendLog<Integer>(SERIALIZER, new Function<ByteBuffer, Integer>() {
+            @Override
+            public Integer apply(ByteBuffer b) throws Exception {
+                calls.getAndIncrement();
+                return DESERIALIZER.apply(b);
+            }
+        }, 64, 8, null);
+
+        MappedAppendLog.Cursor c = new MappedAppendLog.Cursor();
+        for (int i = 0; i < 100; i++) {
+            log.append(i);
+            assertEquals(i, log.read(c).intValue());
+        }
+
+        assertEquals(0, calls.get());
+
+        MappedAppendLog.Cursor c2 = new MappedAppendLog.Cursor();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, log.read(c2).intValue());
+        }
+
+        assertEquals(92, calls.get());
+
+        log.close();
+    }
+
+    @Test
+    public void oversizedValue() throws Exception {
+        MappedAppendLog<byte[]> log = new MappedAppendLog<byte[]>(new Function<byte[], byte[]>() {
+            @Override
+            public byte[] apply(byte[] v) {
+                return v;
+            }
+        }, new Function<ByteBuffer, byte[]>() {
+            @Override
+            public byte[] apply(ByteBuffer b) {
+                byte[] a = new byte[b.remaining()];
+                b.get(a);
+                return a;
+            }
+        }, 16, 1, null);
+
+        log.append(new byte[] { 1, 2, 3 });
+        log.append(new byte[100]);
+        log.append(new byte[] { 4 });
+        log.append(new byte[0]);
+
+        MappedAppendLog.Cursor c = new MappedAppendLog.Cursor();
+        assertArrayEquals(new byte[] { 1, 2, 3 }, log.read(c));
+        assertArrayEquals(new byte[100], log.read(c));
+        assertArrayEquals(new byte[] { 4 }, log.read(c));
+        assertArrayEquals(new byte[0], log.read(c));
+
+        log.close();
+    }
+
+    @Test
+    public void serializerFails() {
+        MappedAppendLog<Integer> log = new MappedAppendLog<Integer>(new Function<Integer, byte[]>() {
+            @Override
+            public byte[] apply(Integer v) throws Exception {
+                throw new TestException();
+            }
+        }, DESERIALIZER, 64, 4, null);
+
+        try {
+            log.append(1);
+            fail("Should have thrown");
+        } catch (Exception ex) {
+            assertTrue(ex.toString(), ex instanceof TestException);
+        }
+
+        assertEquals(0L, log.size());
+
+        log.close();
+    }
+
+    @Test
+    public void deserializerFailsKeepsCursor() throws Exception {
+        final AtomicInteger fail = new AtomicInteger(1);
+        MappedAppendLog<Integer> log = new MappedAppendLog<Integer>(SERIALIZER, new Function<ByteBuffer, Integer>() {
+            @Override
+            public Integer apply(ByteBuffer b) throws Exception {
+                if (fail.getAndDecrement() > 0) {
+                    throw new TestException();
+                }
+                return DESERIALIZER.apply(b);
+            }
+        }, 64, 1, null);
+
+        log.append(1);
+        log.append(2);
+
+        MappedAppendLog.Cursor c = new MappedAppendLog.Cursor();
+        try {
+            log.read(c);
+            fail("Should have thrown");
+        } catch (TestException expected) {
+            // expected
+        }
+
+        assertEquals(0L, c.index());
+        assertEquals(1, log.read(c).intValue());
+        assertEquals(2, log.read(c).intValue());
+
+        log.close();
+    }
+
+    @Test
+    public void appendAfterClose() throws Exception {
+        MappedAppendLog<Integer> log = log(64, 4);
+
+        log.append(1);
+
+        log.close();
+        log.close();
+
+        // the current segment has room left
+        log.append(2);
+
+        try {
+            for (int i = 0; i < 100; i++) {
+                log.append(i);
+            }
+            fail("Should have thrown");
+        } catch (IOException expected) {
+            // expected
+        }
+
+        MappedAppendLog.Cursor c = new MappedAppendLog.Cursor();
+        assertEquals(1, log.read(c).intValue());
+        assertEquals(2, log.read(c).intValue());
+    }
+
+    @Test
+    public void concurrentReader() throws Exception {
+        final MappedAppendLog<Integer> log = log(256, 16);
+        final int n = 100000;
+        final CountDownLatch cdl = new CountDownLatch(1);
+        final Throwable[] error = { null };
+
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    MappedAppendLog.Cursor c = new MappedAppendLog.Cursor();
+                    for (int i = 0; i < n; i++) {
+                        while (c.index() == log.size()) {
+                            Thread.yield();
+                        }
+                        assertEquals(i, log.read(c).intValue());
+                    }
+                } catch (Throwable ex) {
+                    error[0] = ex;
+                }
+                cdl.countDown();
+            }
+        });
+        t.start();
+
+        for (int i = 0; i < n; i++) {
+            log.append(i);
+        }
+
+        cdl.await();
+
+        if (error[0] != null) {
+            throw new AssertionError(error[0]);
+        }
+
+        log.close();
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.internal.util;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class ReplayRingTest {
+
+    @Test
+    public void empty() {
+        ReplayRing<Integer> ring = new ReplayRing<Integer>(4, false);
+
+        assertEquals(0, ring.size());
+        assertEquals(0L, ring.tail());
+        assertNull(ring.last(Long.MIN_VALUE));
+        assertNull(ring.poll(ring.cursor()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroSize() {
+        new ReplayRing<Integer>(0, false);
+    }
+
+    @Test
+    public void appendAndPoll() {
+        ReplayRing<Integer> ring = new ReplayRing<Integer>(100, false);
+
+        for (int i = 0; i < 50; i++) {
+            ring.append(i, 0L);
+        }
+
+        assertEquals(50, ring.size());
+        assertEquals(49, ring.last(Long.MIN_VALUE).intValue());
+
+        ReplayRing.Cursor c = ring.cursor();
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, ring.poll(c).intValue());
+            assertEquals(i + 1L, c.index());
+        }
+        assertNull(ring.poll(c));
+    }
+
+    @Test
+    public void dropsOldest() {
+        ReplayRing<Integer> ring = new ReplayRing<Integer>(3, false);
+
+        for (int i = 0; i < 10; i++) {
+            ring.append(i, 0L);
+            assertTrue(ring.size() <= 3);
+        }
+
+        ReplayRing.Cursor c = ring.cursor();
+        assertEquals(7L, c.index());
+        assertEquals(7, ring.poll(c).intValue());
+        assertEquals(8, ring.poll(c).intValue());
+        assertEquals(9, ring.poll(c).intValue());
+        assertNull(ring.poll(c));
+    }
+
+    @Test
+    public void growsWhileReading() {
+        ReplayRing<Integer> ring = new ReplayRing<Integer>(1000, false);
+        ReplayRing.Cursor c = ring.cursor();
+
+        int j = 0;
+        for (int i = 0; i < 1000; i++) {
+            ring.append(i, 0L);
+            if (i % 3 == 0) {
+                assertEquals(j++, ring.poll(c).intValue());
+            }
+        }
+
+        Integer v;
+        while ((v = ring.poll(c)) != null) {
+            assertEquals(j++, v.intValue());
+        }
+        assertEquals(1000, j);
+    }
+
+    @Test
+    public void slowReaderSkipsAhead() {
+        ReplayRing<Integer> ring = new ReplayRing<Integer>(4, false);
+        ReplayRing.Cursor c = ring.cursor();
+
+        ring.append(0, 0L);
+        ring.append(1, 0L);
+
+        assertEquals(0, ring.poll(c).intValue());
+
+        for (int i = 2; i < 20; i++) {
+            ring.append(i, 0L);
+        }
+
+        // 1 .. 15 have been dropped meanwhile
+        assertEquals(16, ring.poll(c).intValue());
+        assertEquals(17L, c.index());
+        assertEquals(17, ring.poll(c).intValue());
+    }
+
+    @Test
+    public void trimByTime() {
+        ReplayRing<Integer> ring = new ReplayRing<Integer>(100, true);
+        ReplayRing.Cursor c = ring.cursor();
+
+        for (int i = 0; i < 10; i++) {
+            ring.append(i, i * 10L);
+        }
+
+        assertEquals(10, ring.size());
+        assertEquals(5, ring.size(45L));
+        assertEquals(5, ring.poll(ring.cursor(45L)).intValue());
+
+        assertEquals(9, ring.last(90L).intValue());
+        assertNull(ring.last(91L));
+
+        ring.trim(45L);
+
+        assertEquals(5, ring.size());
+
+        // the trimmed slots were cleared, the reader continues with the oldest retained value
+        assertEquals(5, ring.poll(c).intValue());
+
+        ring.trim(100L);
+
+        assertEquals(0, ring.size());
+        assertNull(ring.poll(c));
+        assertNull(ring.last(Long.MIN_VALUE));
+
+        ring.append(10, 100L);
+
+        assertEquals(10, ring.poll(c).intValue());
+    }
+
+    @Test
+    public void trimKeepsSlotsForReuse() {
+        ReplayRing<Integer> ring = new ReplayRing<Integer>(Integer.MAX_VALUE, true);
+        ReplayRing.Cursor c = ring.cursor();
+
+        for (int i = 0; i < 10000; i++) {
+            ring.append(i, i);
+            ring.trim(i - 4L);
+            assertEquals(i, ring.poll(c).intValue());
+        }
+
+        assertEquals(4, ring.size());
+        // the time window never held more than a handful of values
+        assertEquals(ReplayRing.INITIAL_CAPACITY, ring.slots.length);
+    }
+
+    @Test
+    public void concurrentReader() throws Exception {
+        final ReplayRing<Integer> ring = new ReplayRing<Integer>(64, false);
+        final int n = 1000000;
+        final CountDownLatch cdl = new CountDownLatch(1);
+        final Throwable[] error = { null };
+
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ReplayRing.Cursor c = ring.cursor();
+                    int last = -1;
+                    while (last != n - 1) {
+                        Integer v = ring.poll(c);
+                        if (v == null) {
+                            Thread.yield();
+                            continue;
+                        }
+                        // values may be skipped but never repeated or reordered
+                        assertTrue(v + " after " + last, v > last);
+                        assertEquals(v + 1L, c.index());
+                        last = v;
+                    }
+                } catch (Throwable ex) {
+                    error[0] = ex;
+                }
+                cdl.countDown();
+            }
+        });
+        t.start();
+
+        for (int i = 0; i < n; i++) {
+            ring.append(i, 0L);
+        }
+
+        cdl.await();
+
+        if (error[0] != null) {
+            throw new AssertionError(error[0]);
+        }
+    }
+}
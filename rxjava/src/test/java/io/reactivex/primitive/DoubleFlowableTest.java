@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package io.reactivex.primitive;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.exceptions.TestException;
+import io.reactivex.functions.DoubleBinaryOperator;
+import io.reactivex.functions.DoublePredicate;
+import io.reactivex.functions.DoubleUnaryOperator;
+import io.reactivex.functions.ToDoubleFunction;
+import io.reactivex.subscribers.TestSubscriber;
+
+public class DoubleFlowableTest {
+
+    static final ToDoubleFunction<Integer> HALF = new ToDoubleFunction<Integer>() {
+        @Override
+        public double apply(Integer t) {
+            return t / 2d;
+        }
+    };
+
+    @Test
+    public void mapFilter() {
+        Flowable.range(1, 6)
+        .mapToDouble(HALF)
+        .map(new DoubleUnaryOperator() {
+            @Override
+            public double apply(double t) {
+                return t + 1;
+            }
+        })
+        .filter(new DoublePredicate() {
+            @Override
+            public boolean test(double t) {
+                return t != Math.floor(t);
+            }
+        })
+        .boxed()
+        .test()
+        .assertResult(1.5, 2.5, 3.5);
+    }
+
+    @Test
+    public void mapToDoubleBackpressured() {
+        TestSubscriber<Double> ts = Flowable.range(1, 4)
+        .mapToDouble(HALF)
+        .boxed()
+        .test(1L);
+
+        ts.assertValues(0.5).assertNotComplete();
+
+        ts.requestMore(3);
+
+        ts.assertResult(0.5, 1.0, 1.5, 2.0);
+    }
+
+    @Test
+    public void scanReduce() {
+        Flowable.range(1, 4)
+        .mapToDouble(HALF)
+        .scan(new DoubleBinaryOperator() {
+            @Override
+            public double apply(double t1, double t2) {
+                return t1 + t2;
+            }
+        })
+        .boxed()
+        .test()
+        .assertResult(0.5, 1.5, 3.0, 5.0);
+
+        Flowable.range(1, 4)
+        .mapToDouble(HALF)
+        .reduce(1, new DoubleBinaryOperator() {
+            @Override
+            public double apply(double t1, double t2) {
+                return t1 * t2;
+            }
+        })
+        .boxed()
+        .test()
+        .assertResult(1.5);
+    }
+
+    @Test
+    public void sumMinMax() {
+        Flowable<Integer> source = Flowable.just(3, -7, 5);
+
+        source.mapToDouble(HALF).sum().boxed()
+        .test()
+        .assertResult(0.5);
+
+        source.mapToDouble(HALF).min().boxed()
+        .test()
+        .assertResult(-3.5);
+
+        source.mapToDouble(HALF).max().boxed()
+        .test()
+        .assertResult(2.5);
+    }
+
+    @Test
+    public void sumMinMaxEmpty() {
+        Flowable<Integer> source = Flowable.empty();
+
+        source.mapToDouble(HALF).sum().boxed()
+        .test()
+        .assertResult(0.0);
+
+        source.mapToDouble(HALF).min().boxed()
+        .test()
+        .assertResult();
+    }
+
+    @Test
+    public void filterCrash() {
+        Flowable.range(1, 4)
+        .mapToDouble(HALF)
+        .filter(new DoublePredicate() {
+            @Override
+            public boolean test(double t) throws Exception {
+                throw new TestException();
+            }
+        })
+        .boxed()
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    /**
+     * Hides the conditional path of the source so that the next stage receives the values via onNext.
+     */
+    static DoubleFlowable hide(final DoubleFlowable source) {
+        return new DoubleFlowable() {
+            @Override
+            protected void subscribeActual(final DoubleSubscriber s) {
+                source.subscribe(new DoubleSubscriber() {
+                    @Override
+                    public void onSubscribe(Subscription d) {
+                        s.onSubscribe(d);
+                    }
+
+                    @Override
+                    public void onNext(double t) {
+                        s.onNext(t);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        s.onError(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        s.onComplete();
+                    }
+                });
+            }
+        };
+    }
+
+    @Test
+    public void filterAfterScan() {
+        TestSubscriber<Double> ts = hide(Flowable.range(1, 8).mapToDouble(HALF))
+        .scan(new DoubleBinaryOperator() {
+            @Override
+            public double apply(double t1, double t2) {
+                return t1 + t2;
+            }
+        })
+        .filter(new DoublePredicate() {
+            @Override
+            public boolean test(double t) {
+                return t == Math.floor(t);
+            }
+        })
+        .boxed()
+        .test(2L);
+
+        ts.assertValues(3.0, 5.0).assertNotComplete();
+
+        ts.requestMore(2);
+
+        ts.assertResult(3.0, 5.0, 14.0, 18.0);
+    }
+}
@@ -0,0 +1,478 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.primitive;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.exceptions.TestException;
+import io.reactivex.functions.IntBinaryOperator;
+import io.reactivex.functions.IntPredicate;
+import io.reactivex.functions.IntUnaryOperator;
+import io.reactivex.functions.Predicate;
+import io.reactivex.functions.ToIntFunction;
+import io.reactivex.subscribers.TestSubscriber;
+
+public class IntFlowableTest {
+
+    static final IntUnaryOperator TIMES_TWO = new IntUnaryOperator() {
+        @Override
+        public int apply(int t) {
+            return t * 2;
+        }
+    };
+
+    static final IntPredicate ODD = new IntPredicate() {
+        @Override
+        public boolean test(int t) {
+            return t % 2 != 0;
+        }
+    };
+
+    static final IntBinaryOperator PLUS = new IntBinaryOperator() {
+        @Override
+        public int apply(int t1, int t2) {
+            return t1 + t2;
+        }
+    };
+
+    static final IntUnaryOperator CRASH = new IntUnaryOperator() {
+        @Override
+        public int apply(int t) throws Exception {
+            throw new TestException();
+        }
+    };
+
+    @Test
+    public void range() {
+        IntFlowable.range(1, 5).boxed()
+        .test()
+        .assertResult(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void rangeBackpressured() {
+        TestSubscriber<Integer> ts = IntFlowable.range(1, 5).boxed()
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.requestMore(2);
+
+        ts.assertValues(1, 2).assertNotComplete();
+
+        ts.requestMore(10);
+
+        ts.assertResult(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void rangeEmptyAndMaxValue() {
+        IntFlowable.range(1, 0).boxed()
+        .test()
+        .assertResult();
+
+        IntFlowable.range(Integer.MAX_VALUE - 1, 2).boxed()
+        .test()
+        .assertResult(Integer.MAX_VALUE - 1, Integer.MAX_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeNegativeCount() {
+        IntFlowable.range(1, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeOverflow() {
+        IntFlowable.range(Integer.MAX_VALUE, 2);
+    }
+
+    @Test
+    public void mapFilter() {
+        IntFlowable.range(1, 10)
+        .map(TIMES_TWO)
+        .filter(new IntPredicate() {
+            @Override
+            public boolean test(int t) {
+                return t % 3 == 0;
+            }
+        })
+        .boxed()
+        .test()
+        .assertResult(6, 12, 18);
+    }
+
+    @Test
+    public void filterBackpressured() {
+        TestSubscriber<Integer> ts = IntFlowable.range(1, 10)
+        .filter(ODD)
+        .boxed()
+        .test(2L);
+
+        ts.assertValues(1, 3).assertNotComplete();
+
+        ts.requestMore(10);
+
+        ts.assertResult(1, 3, 5, 7, 9);
+    }
+
+    @Test
+    public void filterConditionalDownstream() {
+        TestSubscriber<Integer> ts = IntFlowable.range(1, 10)
+        .filter(ODD)
+        .map(TIMES_TWO)
+        .boxed()
+        .filter(new Predicate<Integer>() {
+            @Override
+            public boolean test(Integer v) {
+                return v > 5;
+            }
+        })
+        .test(2L);
+
+        ts.assertValues(6, 10).assertNotComplete();
+
+        ts.requestMore(1);
+
+        ts.assertValues(6, 10, 14).assertNotComplete();
+
+        ts.requestMore(10);
+
+        ts.assertResult(6, 10, 14, 18);
+    }
+
+    @Test
+    public void mapCrash() {
+        IntFlowable.range(1, 5)
+        .map(CRASH)
+        .boxed()
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @Test
+    public void mapCrashConditional() {
+        IntFlowable.range(1, 5)
+        .map(CRASH)
+        .filter(ODD)
+        .boxed()
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @Test
+    public void filterCrash() {
+        IntFlowable.range(1, 5)
+        .filter(new IntPredicate() {
+            @Override
+            public boolean test(int t) throws Exception {
+                if (t == 3) {
+                    throw new TestException();
+                }
+                return true;
+            }
+        })
+        .boxed()
+        .test()
+        .assertFailure(TestException.class, 1, 2);
+    }
+
+    @Test
+    public void scan() {
+        IntFlowable.range(1, 5)
+        .scan(PLUS)
+        .boxed()
+        .test()
+        .assertResult(1, 3, 6, 10, 15);
+    }
+
+    @Test
+    public void scanBackpressured() {
+        TestSubscriber<Integer> ts = IntFlowable.range(1, 5)
+        .scan(PLUS)
+        .filter(ODD)
+        .boxed()
+        .test(1L);
+
+        ts.assertValues(1).assertNotComplete();
+
+        ts.requestMore(1);
+
+        ts.assertValues(1, 3).assertNotComplete();
+
+        ts.requestMore(1);
+
+        ts.assertResult(1, 3, 15);
+    }
+
+    @Test
+    public void reduce() {
+        IntFlowable.range(1, 5)
+        .reduce(new IntBinaryOperator() {
+            @Override
+            public int apply(int t1, int t2) {
+                return t1 * t2;
+            }
+        })
+        .boxed()
+        .test()
+        .assertResult(120);
+    }
+
+    @Test
+    public void reduceEmpty() {
+        IntFlowable.range(1, 0)
+        .reduce(PLUS)
+        .boxed()
+        .test()
+        .assertResult();
+
+        IntFlowable.range(1, 0)
+        .reduce(7, PLUS)
+        .boxed()
+        .test()
+        .assertResult(7);
+    }
+
+    @Test
+    public void reduceBackpressured() {
+        TestSubscriber<Integer> ts = IntFlowable.range(1, 5)
+        .reduce(10, PLUS)
+        .boxed()
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.requestMore(1);
+
+        ts.assertResult(25);
+    }
+
+    @Test
+    public void reduceCrash() {
+        IntFlowable.range(1, 5)
+        .reduce(new IntBinaryOperator() {
+            @Override
+            public int apply(int t1, int t2) throws Exception {
+                throw new TestException();
+            }
+        })
+        .boxed()
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @Test
+    public void sumMinMax() {
+        IntFlowable.range(1, 100).sum().boxed()
+        .test()
+        .assertResult(5050);
+
+        Flowable<Integer> source = Flowable.just(5, -3, 9, 2);
+
+        source.mapToInt(Unbox.INSTANCE).min().boxed()
+        .test()
+        .assertResult(-3);
+
+        source.mapToInt(Unbox.INSTANCE).max().boxed()
+        .test()
+        .assertResult(9);
+    }
+
+    @Test
+    public void sumMinMaxEmpty() {
+        IntFlowable.range(1, 0).sum().boxed()
+        .test()
+        .assertResult(0);
+
+        IntFlowable.range(1, 0).min().boxed()
+        .test()
+        .assertResult();
+
+        IntFlowable.range(1, 0).max().boxed()
+        .test()
+        .assertResult();
+    }
+
+    @Test
+    public void mapToInt() {
+        TestSubscriber<Integer> ts = Flowable.just("a", "bb", "ccc")
+        .mapToInt(new ToIntFunction<String>() {
+            @Override
+            public int apply(String t) {
+                return t.length();
+            }
+        })
+        .boxed()
+        .test(1L);
+
+        ts.assertValues(1).assertNotComplete();
+
+        ts.requestMore(2);
+
+        ts.assertResult(1, 2, 3);
+    }
+
+    @Test
+    public void mapToIntConditional() {
+        Flowable.range(1, 10)
+        .mapToInt(Unbox.INSTANCE)
+        .filter(ODD)
+        .boxed()
+        .test()
+        .assertResult(1, 3, 5, 7, 9);
+    }
+
+    @Test
+    public void mapToIntCrash() {
+        Flowable.just(1, 2)
+        .mapToInt(new ToIntFunction<Integer>() {
+            @Override
+            public int apply(Integer t) throws Exception {
+                throw new TestException();
+            }
+        })
+        .boxed()
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @Test
+    public void sourceError() {
+        Flowable.<Integer>error(new TestException())
+        .mapToInt(Unbox.INSTANCE)
+        .map(TIMES_TWO)
+        .filter(ODD)
+        .scan(PLUS)
+        .sum()
+        .boxed()
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @Test
+    public void cancel() {
+        IntFlowable.range(1, 1000)
+        .map(TIMES_TWO)
+        .boxed()
+        .take(3)
+        .test()
+        .assertResult(2, 4, 6);
+    }
+
+    @Test
+    public void primitiveSubscriber() {
+        final List<Object> list = new ArrayList<Object>();
+
+        IntFlowable.range(1, 3).map(TIMES_TWO).subscribe(new IntSubscriber() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(int t) {
+                list.add(t);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                list.add(t);
+            }
+
+            @Override
+            public void onComplete() {
+                list.add("done");
+            }
+        });
+
+        assertEquals(4, list.size());
+        assertEquals(2, list.get(0));
+        assertEquals(4, list.get(1));
+        assertEquals(6, list.get(2));
+        assertEquals("done", list.get(3));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void subscribeNull() {
+        IntFlowable.range(1, 3).subscribe(null);
+    }
+
+    enum Unbox implements ToIntFunction<Integer> {
+        INSTANCE;
+
+        @Override
+        public int apply(Integer t) {
+            return t;
+        }
+    }
+
+    /**
+     * Hides the conditional path of the source so that the next stage receives the values via onNext.
+     */
+    static IntFlowable hide(final IntFlowable source) {
+        return new IntFlowable() {
+            @Override
+            protected void subscribeActual(final IntSubscriber s) {
+                source.subscribe(new IntSubscriber() {
+                    @Override
+                    public void onSubscribe(Subscription d) {
+                        s.onSubscribe(d);
+                    }
+
+                    @Override
+                    public void onNext(int t) {
+                        s.onNext(t);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        s.onError(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        s.onComplete();
+                    }
+                });
+            }
+        };
+    }
+
+    @Test
+    public void filterAfterScan() {
+        TestSubscriber<Integer> ts = hide(IntFlowable.range(1, 8))
+        .scan(PLUS)
+        .filter(new IntPredicate() {
+            @Override
+            public boolean test(int t) {
+                return t % 2 == 0;
+            }
+        })
+        .boxed()
+        .test(2L);
+
+        ts.assertValues(6, 10).assertNotComplete();
+
+        ts.requestMore(2);
+
+        ts.assertResult(6, 10, 28, 36);
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package io.reactivex.primitive;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.exceptions.TestException;
+import io.reactivex.functions.LongBinaryOperator;
+import io.reactivex.functions.LongPredicate;
+import io.reactivex.functions.LongUnaryOperator;
+import io.reactivex.functions.ToLongFunction;
+import io.reactivex.subscribers.TestSubscriber;
+
+public class LongFlowableTest {
+
+    static final LongBinaryOperator PLUS = new LongBinaryOperator() {
+        @Override
+        public long apply(long t1, long t2) {
+            return t1 + t2;
+        }
+    };
+
+    @Test
+    public void range() {
+        LongFlowable.range(Integer.MAX_VALUE, 3).boxed()
+        .test()
+        .assertResult(Integer.MAX_VALUE + 0L, Integer.MAX_VALUE + 1L, Integer.MAX_VALUE + 2L);
+    }
+
+    @Test
+    public void rangeBackpressured() {
+        TestSubscriber<Long> ts = LongFlowable.range(1, 5).boxed()
+        .test(2L);
+
+        ts.assertValues(1L, 2L).assertNotComplete();
+
+        ts.requestMore(10);
+
+        ts.assertResult(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    public void rangeEmptyAndMaxValue() {
+        LongFlowable.range(1, 0).boxed()
+        .test()
+        .assertResult();
+
+        LongFlowable.range(Long.MAX_VALUE - 1, 2).boxed()
+        .test()
+        .assertResult(Long.MAX_VALUE - 1, Long.MAX_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeNegativeCount() {
+        LongFlowable.range(1, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeOverflow() {
+        LongFlowable.range(Long.MAX_VALUE, 2);
+    }
+
+    @Test
+    public void mapFilterScan() {
+        LongFlowable.range(1, 10)
+        .map(new LongUnaryOperator() {
+            @Override
+            public long apply(long t) {
+                return t * 3;
+            }
+        })
+        .filter(new LongPredicate() {
+            @Override
+            public boolean test(long t) {
+                return t % 2 == 0;
+            }
+        })
+        .scan(PLUS)
+        .boxed()
+        .test()
+        .assertResult(6L, 18L, 36L, 60L, 90L);
+    }
+
+    @Test
+    public void reduce() {
+        LongFlowable.range(1, 20)
+        .reduce(new LongBinaryOperator() {
+            @Override
+            public long apply(long t1, long t2) {
+                return t1 * t2;
+            }
+        })
+        .boxed()
+        .test()
+        .assertResult(2432902008176640000L);
+    }
+
+    @Test
+    public void sumMinMax() {
+        LongFlowable.range(1, 100000).sum().boxed()
+        .test()
+        .assertResult(5000050000L);
+
+        LongFlowable.range(-5, 10).min().boxed()
+        .test()
+        .assertResult(-5L);
+
+        LongFlowable.range(-5, 10).max().boxed()
+        .test()
+        .assertResult(4L);
+    }
+
+    @Test
+    public void mapToLong() {
+        Flowable.just(1, 2, 3)
+        .mapToLong(new ToLongFunction<Integer>() {
+            @Override
+            public long apply(Integer t) {
+                return t * 10000000000L;
+            }
+        })
+        .sum()
+        .boxed()
+        .test()
+        .assertResult(60000000000L);
+    }
+
+    @Test
+    public void mapCrash() {
+        LongFlowable.range(1, 5)
+        .map(new LongUnaryOperator() {
+            @Override
+            public long apply(long t) throws Exception {
+                throw new TestException();
+            }
+        })
+        .boxed()
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    /**
+     * Hides the conditional path of the source so that the next stage receives the values via onNext.
+     */
+    static LongFlowable hide(final LongFlowable source) {
+        return new LongFlowable() {
+            @Override
+            protected void subscribeActual(final LongSubscriber s) {
+                source.subscribe(new LongSubscriber() {
+                    @Override
+                    public void onSubscribe(Subscription d) {
+                        s.onSubscribe(d);
+                    }
+
+                    @Override
+                    public void onNext(long t) {
+                        s.onNext(t);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        s.onError(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        s.onComplete();
+                    }
+                });
+            }
+        };
+    }
+
+    @Test
+    public void filterAfterScan() {
+        TestSubscriber<Long> ts = hide(LongFlowable.range(1, 8))
+        .scan(PLUS)
+        .filter(new LongPredicate() {
+            @Override
+            public boolean test(long t) {
+                return t % 2 == 0;
+            }
+        })
+        .boxed()
+        .test(2L);
+
+        ts.assertValues(6L, 10L).assertNotComplete();
+
+        ts.requestMore(2);
+
+        ts.assertResult(6L, 10L, 28L, 36L);
+    }
+}
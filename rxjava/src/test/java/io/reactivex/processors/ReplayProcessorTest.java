@@ -19,7 +19,9 @@ import org.mockito.Mockito;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.reactivex.Flowable;
@@ -28,6 +30,7 @@ import io.reactivex.disposables.Disposable;
 import io.reactivex.exceptions.TestException;
 import io.reactivex.functions.Function;
 import io.reactivex.internal.subscriptions.BooleanSubscription;
+import io.reactivex.plugins.RxJavaPlugins;
 import io.reactivex.schedulers.Schedulers;
 import io.reactivex.schedulers.TestScheduler;
 import io.reactivex.subscribers.DefaultSubscriber;
@@ -36,6 +39,7 @@ import io.reactivex.subscribers.TestSubscriber;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -1071,6 +1075,91 @@ public class ReplayProcessorTest extends FlowableProcessorTest<Object> {
         rp.test().assertResult(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14);
     }
 
+    @Test
+    public void chunkedBackpressuredAcrossChunks() {
+        ReplayProcessor<Integer> rp = ReplayProcessor.create(4);
+
+        TestSubscriber<Integer> ts1 = rp.test(3L);
+
+        for (int i = 0; i < 9; i++) {
+            rp.onNext(i);
+        }
+
+        TestSubscriber<Integer> ts2 = rp.test(4L);
+
+        ts1.assertValues(0, 1, 2).assertNotComplete();
+        ts2.assertValues(0, 1, 2, 3).assertNotComplete();
+
+        ts1.requestMore(1);
+        ts2.requestMore(1);
+
+        ts1.assertValues(0, 1, 2, 3);
+        ts2.assertValues(0, 1, 2, 3, 4);
+
+        rp.onNext(9);
+        rp.onComplete();
+
+        ts1.requestMore(Long.MAX_VALUE);
+        ts2.requestMore(6);
+
+        ts1.assertResult(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        ts2.assertResult(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    public void chunkedGetValues() {
+        ReplayProcessor<Integer> rp = ReplayProcessor.create(4);
+
+        for (int i = 0; i < 4; i++) {
+            rp.onNext(i);
+        }
+
+        assertEquals(3, rp.getValue().intValue());
+        assertEquals(4, rp.size());
+        assertTrue(Arrays.equals(new Object[] { 0, 1, 2, 3 }, rp.getValues()));
+
+        rp.onNext(4);
+
+        assertEquals(4, rp.getValue().intValue());
+        assertTrue(Arrays.equals(new Integer[] { 0, 1, 2, 3, 4 }, rp.getValues(new Integer[0])));
+
+        Integer[] a = { -1, -1, -1, -1, -1, -1, -1 };
+        assertSame(a, rp.getValues(a));
+        assertTrue(Arrays.equals(new Integer[] { 0, 1, 2, 3, 4, null, -1 }, a));
+
+        rp.onComplete();
+
+        assertEquals(4, rp.getValue().intValue());
+    }
+
+    @Test
+    public void chunkedAsyncReplay() {
+        for (int i = 0; i < 10; i++) {
+            final ReplayProcessor<Integer> rp = ReplayProcessor.create(16);
+
+            TestSubscriber<Integer> ts = rp.observeOn(Schedulers.single()).test();
+
+            Flowable.range(0, 10000).subscribeOn(Schedulers.computation()).subscribe(rp);
+
+            TestSubscriber<Integer> ts2 = rp.rebatchRequests(7).observeOn(Schedulers.io()).test();
+
+            ts.awaitDone(5, TimeUnit.SECONDS)
+            .assertValueCount(10000)
+            .assertNoErrors()
+            .assertComplete();
+
+            ts2.awaitDone(5, TimeUnit.SECONDS)
+            .assertValueCount(10000)
+            .assertNoErrors()
+            .assertComplete();
+
+            for (int j = 0; j < 10000; j++) {
+                assertEquals(j, ts.values().get(j).intValue());
+                assertEquals(j, ts2.values().get(j).intValue());
+            }
+        }
+    }
+
     @Test
     public void subscribeCancelRace() {
         for (int i = 0; i < 500; i++) {
@@ -1555,4 +1644,193 @@ public class ReplayProcessorTest extends FlowableProcessorTest<Object> {
         source.subscribeWith(take1AndCancel())
         .assertResult(1);
     }
+
+    static final Function<Integer, byte[]> INT_SERIALIZER = new Function<Integer, byte[]>() {
+        @Override
+        public byte[] apply(Integer v) {
+            return ByteBuffer.allocate(4).putInt(v).array();
+        }
+    };
+
+    static final Function<ByteBuffer, Integer> INT_DESERIALIZER = new Function<ByteBuffer, Integer>() {
+        @Override
+        public Integer apply(ByteBuffer b) {
+            return b.getInt();
+        }
+    };
+
+    static final Function<Integer, byte[]> SERIALIZER_FAILS_AT_2 = new Function<Integer, byte[]>() {
+        @Override
+        public byte[] apply(Integer v) {
+            if (v == 2) {
+                throw new TestException("serializer");
+            }
+            return ByteBuffer.allocate(4).putInt(v).array();
+        }
+    };
+
+    static final Function<ByteBuffer, Integer> DESERIALIZER_FAILS = new Function<ByteBuffer, Integer>() {
+        @Override
+        public Integer apply(ByteBuffer b) {
+            throw new TestException("deserializer");
+        }
+    };
+
+    @Test
+    public void mapped() {
+        ReplayProcessor<Integer> rp = ReplayProcessor.createMapped(INT_SERIALIZER, INT_DESERIALIZER);
+
+        for (int i = 0; i < 1000; i++) {
+            rp.onNext(i);
+        }
+
+        assertEquals(1000, rp.size());
+        assertTrue(rp.hasValue());
+        assertEquals(999, rp.getValue().intValue());
+
+        Object[] values = rp.getValues();
+        assertEquals(1000, values.length);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, values[i]);
+        }
+
+        TestSubscriber<Integer> ts = rp.test(0L);
+
+        ts.assertEmpty();
+
+        ts.requestMore(10);
+
+        ts.assertValueCount(10).assertNotComplete();
+
+        rp.onNext(1000);
+        rp.onComplete();
+
+        ts.assertValueCount(10).assertNotComplete();
+
+        ts.requestMore(Long.MAX_VALUE);
+
+        ts.assertValueCount(1001).assertNoErrors().assertComplete();
+        for (int i = 0; i <= 1000; i++) {
+            assertEquals(i, ts.values().get(i).intValue());
+        }
+
+        rp.test().assertValueCount(1001).assertNoErrors().assertComplete();
+        assertTrue(rp.hasComplete());
+    }
+
+    @Test
+    public void mappedEmpty() {
+        ReplayProcessor<Integer> rp = ReplayProcessor.createMapped(INT_SERIALIZER, INT_DESERIALIZER);
+
+        assertEquals(0, rp.size());
+        assertNull(rp.getValue());
+        assertEquals(0, rp.getValues().length);
+
+        rp.onComplete();
+
+        rp.test().assertResult();
+    }
+
+    @Test
+    public void mappedLive() {
+        ReplayProcessor<Integer> rp = ReplayProcessor.createMapped(INT_SERIALIZER, INT_DESERIALIZER);
+
+        TestSubscriber<Integer> ts = rp.test();
+
+        rp.onNext(1);
+        rp.onNext(2);
+
+        ts.assertValues(1, 2);
+
+        rp.onError(new TestException());
+
+        ts.assertFailure(TestException.class, 1, 2);
+        rp.test().assertFailure(TestException.class, 1, 2);
+    }
+
+    @Test
+    public void mappedSerializerFails() {
+        List<Throwable> errors = TestHelper.trackPluginErrors();
+        try {
+            ReplayProcessor<Integer> rp = ReplayProcessor.createMapped(SERIALIZER_FAILS_AT_2, INT_DESERIALIZER);
+
+            TestSubscriber<Integer> ts = rp.test();
+
+            rp.onNext(1);
+            rp.onNext(2);
+            rp.onNext(3);
+
+            ts.assertFailureAndMessage(TestException.class, "serializer", 1);
+            assertFalse(rp.hasSubscribers());
+            assertTrue(rp.hasThrowable());
+
+            rp.test().assertFailureAndMessage(TestException.class, "serializer", 1);
+
+            rp.onError(new TestException("upstream"));
+
+            TestHelper.assertUndeliverable(errors, 0, TestException.class, "upstream");
+        } finally {
+            RxJavaPlugins.reset();
+        }
+    }
+
+    @Test
+    public void mappedDeserializerFails() {
+        ReplayProcessor<Integer> rp = ReplayProcessor.createMapped(INT_SERIALIZER, DESERIALIZER_FAILS);
+
+        // the tail keeps the last bufferSize() items, the older ones are deserialized
+        for (int i = 0; i < Flowable.bufferSize() * 2; i++) {
+            rp.onNext(i);
+        }
+
+        TestSubscriber<Integer> ts = rp.test();
+
+        ts.assertFailureAndMessage(TestException.class, "deserializer");
+
+        assertFalse(rp.hasSubscribers());
+
+        rp.onNext(1);
+        rp.onComplete();
+
+        ts.assertFailureAndMessage(TestException.class, "deserializer");
+    }
+
+    @Test
+    public void sizeBoundSlowSubscriberSkipsAhead() {
+        ReplayProcessor<Integer> rp = ReplayProcessor.createWithSize(2);
+
+        TestSubscriber<Integer> ts = rp.test(0L);
+
+        rp.onNext(1);
+        rp.onNext(2);
+
+        ts.request(1);
+        ts.assertValue(1);
+
+        for (int i = 3; i <= 10; i++) {
+            rp.onNext(i);
+        }
+        rp.onComplete();
+
+        ts.request(5);
+        ts.assertResult(1, 9, 10);
+    }
+
+    @Test
+    public void timeBoundSlowSubscriberSkipsAhead() {
+        TestScheduler scheduler = new TestScheduler();
+        ReplayProcessor<Integer> rp = ReplayProcessor.createWithTime(1, TimeUnit.SECONDS, scheduler);
+
+        TestSubscriber<Integer> ts = rp.test(0L);
+
+        rp.onNext(1);
+        rp.onNext(2);
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        rp.onNext(3);
+
+        ts.request(5);
+        ts.assertValue(3);
+    }
 }
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.reactivex.Scheduler;
+import io.reactivex.Scheduler.Worker;
+import io.reactivex.disposables.Disposable;
+
+public class ConcurrencyLimitSchedulerTest extends AbstractSchedulerConcurrencyTests {
+
+    @Override
+    protected Scheduler getScheduler() {
+        return Schedulers.limit(Schedulers.computation(), 64);
+    }
+
+    static Runnable addTo(final List<String> list, final String value) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                list.add(value);
+            }
+        };
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullScheduler() {
+        Schedulers.limit(null, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveLimit() {
+        Schedulers.limit(Schedulers.trampoline(), 0);
+    }
+
+    @Test
+    public void workersAdmittedInCreationOrder() {
+        TestScheduler ts = new TestScheduler();
+        Scheduler s = Schedulers.limit(ts, 2);
+        List<String> list = new ArrayList<String>();
+
+        Worker w1 = s.createWorker();
+        Worker w2 = s.createWorker();
+        Worker w3 = s.createWorker();
+        Worker w4 = s.createWorker();
+
+        w1.schedule(addTo(list, "w1"));
+        w2.schedule(addTo(list, "w2"));
+        w3.schedule(addTo(list, "w3a"));
+        w3.schedule(addTo(list, "w3b"));
+        w4.schedule(addTo(list, "w4"));
+
+        ts.triggerActions();
+
+        assertEquals(Arrays.asList("w1", "w2"), list);
+
+        w2.dispose();
+        ts.triggerActions();
+
+        assertEquals(Arrays.asList("w1", "w2", "w3a", "w3b"), list);
+
+        w3.schedule(addTo(list, "w3c"));
+        w1.dispose();
+        ts.triggerActions();
+
+        assertEquals(Arrays.asList("w1", "w2", "w3a", "w3b", "w3c", "w4"), list);
+
+        w3.dispose();
+        w4.dispose();
+    }
+
+    @Test
+    public void waitingWorkerDisposed() {
+        TestScheduler ts = new TestScheduler();
+        Scheduler s = Schedulers.limit(ts, 1);
+        List<String> list = new ArrayList<String>();
+
+        Worker w1 = s.createWorker();
+        Worker w2 = s.createWorker();
+        Worker w3 = s.createWorker();
+
+        w2.schedule(addTo(list, "w2"));
+        w3.schedule(addTo(list, "w3"));
+
+        w2.dispose();
+
+        assertTrue(w2.isDisposed());
+
+        w1.dispose();
+        ts.triggerActions();
+
+        assertEquals(Arrays.asList("w3"), list);
+
+        w3.dispose();
+    }
+
+    @Test
+    public void delayCountsFromScheduling() {
+        TestScheduler ts = new TestScheduler();
+        Scheduler s = Schedulers.limit(ts, 1);
+        List<String> list = new ArrayList<String>();
+
+        Worker w1 = s.createWorker();
+        Worker w2 = s.createWorker();
+
+        w2.schedule(addTo(list, "w2"), 10, TimeUnit.SECONDS);
+
+        ts.advanceTimeBy(4, TimeUnit.SECONDS);
+
+        w1.dispose();
+
+        ts.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        assertTrue(list.isEmpty());
+
+        ts.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("w2"), list);
+
+        assertEquals(ts.now(TimeUnit.SECONDS), s.now(TimeUnit.SECONDS));
+        assertEquals(ts.now(TimeUnit.SECONDS), w2.now(TimeUnit.SECONDS));
+
+        w2.dispose();
+    }
+
+    @Test
+    public void bufferedTaskDisposed() {
+        TestScheduler ts = new TestScheduler();
+        Scheduler s = Schedulers.limit(ts, 1);
+        List<String> list = new ArrayList<String>();
+
+        Worker w1 = s.createWorker();
+        Worker w2 = s.createWorker();
+
+        Disposable d = w2.schedule(addTo(list, "a"));
+        w2.schedule(addTo(list, "b"));
+
+        d.dispose();
+
+        assertTrue(d.isDisposed());
+
+        w1.dispose();
+        ts.triggerActions();
+
+        assertEquals(Arrays.asList("b"), list);
+
+        Disposable d2 = w2.schedule(addTo(list, "c"), 1, TimeUnit.SECONDS);
+        d2.dispose();
+
+        ts.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("b"), list);
+
+        w2.dispose();
+
+        assertTrue(w2.schedule(addTo(list, "d")).isDisposed());
+    }
+
+    @Test(timeout = 10000)
+    public void directTasksStayWithinLimit() throws InterruptedException {
+        Scheduler s = Schedulers.limit(Schedulers.io(), 2);
+
+        final int n = 50;
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch cdl = new CountDownLatch(n);
+
+        for (int i = 0; i < n; i++) {
+            s.scheduleDirect(new Runnable() {
+                @Override
+                public void run() {
+                    int r = running.incrementAndGet();
+                    for (;;) {
+                        int m = maxRunning.get();
+                        if (r <= m || maxRunning.compareAndSet(m, r)) {
+                            break;
+                        }
+                    }
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException ex) {
+                        // ignored
+                    }
+                    running.decrementAndGet();
+                    cdl.countDown();
+                }
+            });
+        }
+
+        assertTrue(cdl.await(5, TimeUnit.SECONDS));
+        assertTrue("" + maxRunning.get(), maxRunning.get() <= 2);
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.schedulers.EarliestDeadlineScheduler;
+import io.reactivex.internal.schedulers.RxThreadFactory;
+import io.reactivex.schedulers.PriorityScheduler.PriorityWorker;
+
+public class EarliestDeadlineSchedulerTest extends AbstractSchedulerConcurrencyTests {
+
+    @Override
+    protected Scheduler getScheduler() {
+        return Schedulers.prioritized();
+    }
+
+    static PriorityScheduler singleLoop() {
+        return new EarliestDeadlineScheduler(new RxThreadFactory("RxEdfTest", Thread.NORM_PRIORITY, true), 1,
+                TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    static Runnable addTo(final List<String> list, final String value, final CountDownLatch cdl) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                list.add(value);
+                cdl.countDown();
+            }
+        };
+    }
+
+    static CountDownLatch block(PriorityScheduler s) {
+        final CountDownLatch release = new CountDownLatch(1);
+        s.scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    // ignored
+                }
+            }
+        }, PriorityScheduler.MAX_PRIORITY);
+        return release;
+    }
+
+    @Test(timeout = 5000)
+    public void earliestDeadlineFirst() throws InterruptedException {
+        PriorityScheduler s = singleLoop();
+        try {
+            List<String> list = new CopyOnWriteArrayList<String>();
+            CountDownLatch cdl = new CountDownLatch(5);
+            PriorityWorker w = s.createWorker(PriorityScheduler.MIN_PRIORITY);
+
+            CountDownLatch release = block(s);
+
+            w.schedule(addTo(list, "low", cdl));
+            w.scheduleWithDeadline(addTo(list, "late", cdl), w.now(TimeUnit.HOURS) + 1, TimeUnit.HOURS);
+            w.schedule(addTo(list, "norm", cdl), PriorityScheduler.NORM_PRIORITY);
+            w.schedule(addTo(list, "high", cdl), PriorityScheduler.MAX_PRIORITY);
+            s.scheduleDirect(addTo(list, "direct", cdl));
+
+            release.countDown();
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+
+            assertEquals(Arrays.asList("high", "norm", "direct", "low", "late"), list);
+
+            w.dispose();
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void lowPriorityMakesProgress() throws InterruptedException {
+        PriorityScheduler s = singleLoop();
+        try {
+            List<String> list = new CopyOnWriteArrayList<String>();
+            CountDownLatch cdl = new CountDownLatch(2);
+
+            CountDownLatch release = block(s);
+
+            s.scheduleDirect(addTo(list, "low", cdl), PriorityScheduler.MIN_PRIORITY);
+
+            // the low priority task's slack of 90 ms runs out
+            Thread.sleep(150);
+
+            s.scheduleDirect(addTo(list, "high", cdl), PriorityScheduler.MAX_PRIORITY);
+
+            release.countDown();
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+
+            assertEquals(Arrays.asList("low", "high"), list);
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void disposedTasksDontRun() throws InterruptedException {
+        PriorityScheduler s = singleLoop();
+        try {
+            List<String> list = new CopyOnWriteArrayList<String>();
+            CountDownLatch cdl = new CountDownLatch(1);
+            PriorityWorker w1 = s.createWorker();
+            PriorityWorker w2 = s.createWorker();
+
+            CountDownLatch release = block(s);
+
+            Disposable d = w1.schedule(addTo(list, "disposed", cdl));
+            w2.schedule(addTo(list, "worker disposed", cdl));
+            w1.schedule(addTo(list, "delayed", cdl), 50, TimeUnit.MILLISECONDS);
+
+            d.dispose();
+            assertTrue(d.isDisposed());
+            w2.dispose();
+
+            release.countDown();
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+
+            assertEquals(Arrays.asList("delayed"), list);
+
+            w1.dispose();
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void priorityTooLow() {
+        Schedulers.prioritized().createWorker(PriorityScheduler.MIN_PRIORITY - 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void priorityTooHigh() {
+        Schedulers.prioritized().scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, PriorityScheduler.MAX_PRIORITY + 1);
+    }
+
+    @Test(timeout = 5000)
+    public void shutdownAndRestart() throws InterruptedException {
+        PriorityScheduler s = singleLoop();
+
+        s.shutdown();
+
+        assertTrue(s.createWorker().isDisposed());
+        assertTrue(s.scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }).isDisposed());
+
+        s.start();
+
+        try {
+            final CountDownLatch cdl = new CountDownLatch(1);
+            s.scheduleDirect(new Runnable() {
+                @Override
+                public void run() {
+                    cdl.countDown();
+                }
+            }, 10, TimeUnit.MILLISECONDS);
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+        } finally {
+            s.shutdown();
+        }
+    }
+}
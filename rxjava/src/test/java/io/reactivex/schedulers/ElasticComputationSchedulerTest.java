@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.reactivex.Scheduler;
+import io.reactivex.internal.schedulers.ElasticComputationScheduler;
+import io.reactivex.internal.schedulers.RxThreadFactory;
+
+public class ElasticComputationSchedulerTest extends AbstractSchedulerConcurrencyTests {
+
+    static Scheduler SCHEDULER;
+
+    @BeforeClass
+    public static void beforeClass() {
+        // sample often so that the pool keeps resizing while the tests run
+        SCHEDULER = new ElasticComputationScheduler(new RxThreadFactory("RxElasticTest", Thread.NORM_PRIORITY, true),
+                1, 4, TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        SCHEDULER.shutdown();
+    }
+
+    @Override
+    protected Scheduler getScheduler() {
+        return SCHEDULER;
+    }
+
+    @Test
+    public final void testHandledErrorIsNotDeliveredToThreadHandler() throws InterruptedException {
+        SchedulerTestHelper.testHandledErrorIsNotDeliveredToThreadHandler(getScheduler());
+    }
+}
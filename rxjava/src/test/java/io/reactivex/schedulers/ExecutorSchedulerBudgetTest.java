@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.schedulers;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import io.reactivex.Scheduler;
+import io.reactivex.internal.schedulers.ExecutorScheduler;
+import io.reactivex.internal.schedulers.RxThreadFactory;
+
+/**
+ * Runs the Scheduler conformance tests with the workers yielding their thread
+ * every few tasks and accepting tasks in batch mode.
+ */
+public class ExecutorSchedulerBudgetTest extends AbstractSchedulerConcurrencyTests {
+
+    static final Executor executor = Executors.newFixedThreadPool(2, new RxThreadFactory("TestBudgetPool"));
+
+    @Override
+    protected Scheduler getScheduler() {
+        return new ExecutorScheduler(executor, 3, 0L, true);
+    }
+}
@@ -26,10 +26,12 @@ import io.reactivex.TestHelper;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.internal.disposables.EmptyDisposable;
 import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.schedulers.ExecutorScheduler;
 import io.reactivex.internal.schedulers.RxThreadFactory;
 import io.reactivex.internal.schedulers.SchedulerPoolFactory;
 import io.reactivex.plugins.RxJavaPlugins;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -566,4 +568,175 @@ public class ExecutorSchedulerTest extends AbstractSchedulerConcurrencyTests {
             executorScheduler.shutdownNow();
         }
     }
+
+    @Test
+    public void taskBudgetYieldsThread() {
+        taskBudgetYieldsThread(false);
+    }
+
+    @Test
+    public void taskBudgetYieldsThreadBatched() {
+        taskBudgetYieldsThread(true);
+    }
+
+    void taskBudgetYieldsThread(boolean batchDrain) {
+        final AtomicInteger calls = new AtomicInteger();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                calls.getAndIncrement();
+            }
+        };
+        TestExecutor exec = new TestExecutor();
+        Worker w = new ExecutorScheduler(exec, 2, 0L, batchDrain).createWorker();
+        try {
+            for (int i = 0; i < 5; i++) {
+                w.schedule(task);
+            }
+
+            assertEquals(1, exec.queue.size());
+
+            exec.executeOne();
+
+            assertEquals(2, calls.get());
+            assertEquals(1, exec.queue.size());
+
+            exec.executeOne();
+
+            assertEquals(4, calls.get());
+            assertEquals(1, exec.queue.size());
+
+            exec.executeOne();
+
+            assertEquals(5, calls.get());
+            assertEquals(0, exec.queue.size());
+
+            w.schedule(task);
+
+            assertEquals(1, exec.queue.size());
+
+            exec.executeAll();
+
+            assertEquals(6, calls.get());
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void timeBudgetYieldsThread() {
+        final AtomicInteger calls = new AtomicInteger();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                calls.getAndIncrement();
+            }
+        };
+        TestExecutor exec = new TestExecutor();
+        Worker w = new ExecutorScheduler(exec, 0, 1L, false).createWorker();
+        try {
+            w.schedule(task);
+            w.schedule(task);
+            w.schedule(task);
+
+            exec.executeOne();
+
+            assertEquals(1, calls.get());
+            assertEquals(1, exec.queue.size());
+
+            exec.executeAll();
+
+            assertEquals(3, calls.get());
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void batchDrainCancelledWorkerDoesntRunTasks() {
+        final AtomicInteger calls = new AtomicInteger();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                calls.getAndIncrement();
+            }
+        };
+        TestExecutor exec = new TestExecutor();
+        Worker w = new ExecutorScheduler(exec, 0, 0L, true).createWorker();
+        try {
+            w.schedule(task);
+            w.schedule(task);
+            w.schedule(task);
+
+            assertEquals(1, exec.queue.size());
+        } finally {
+            w.dispose();
+        }
+        exec.executeAll();
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void batchDrainManyProducers() throws Exception {
+        ExecutorService exec = Executors.newFixedThreadPool(2);
+        try {
+            final Worker w = new ExecutorScheduler(exec, 16, 0L, true).createWorker();
+            final int n = 10000;
+            final CountDownLatch cdl = new CountDownLatch(2 * n);
+            final Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    cdl.countDown();
+                }
+            };
+
+            Runnable producer = new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < n; i++) {
+                        w.schedule(task);
+                    }
+                }
+            };
+
+            TestHelper.race(producer, producer);
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+
+            w.dispose();
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    @Test
+    public void resubmitRejected() {
+        final AtomicInteger calls = new AtomicInteger();
+        final TestExecutor exec = new TestExecutor();
+        Executor rejectSecond = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (calls.getAndIncrement() != 0) {
+                    throw new RejectedExecutionException();
+                }
+                exec.execute(command);
+            }
+        };
+
+        List<Throwable> errors = TestHelper.trackPluginErrors();
+        try {
+            Worker w = new ExecutorScheduler(rejectSecond, 1, 0L, false).createWorker();
+
+            w.schedule(Functions.EMPTY_RUNNABLE);
+            w.schedule(Functions.EMPTY_RUNNABLE);
+
+            exec.executeAll();
+
+            assertTrue(w.isDisposed());
+
+            TestHelper.assertUndeliverable(errors, 0, RejectedExecutionException.class);
+        } finally {
+            RxJavaPlugins.reset();
+        }
+    }
 }
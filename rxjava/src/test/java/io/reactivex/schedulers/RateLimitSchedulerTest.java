@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.Scheduler;
+import io.reactivex.Scheduler.Worker;
+import io.reactivex.disposables.Disposable;
+
+public class RateLimitSchedulerTest extends AbstractSchedulerConcurrencyTests {
+
+    @Override
+    protected Scheduler getScheduler() {
+        return Schedulers.limitRate(Schedulers.computation(), 1000000, 1, TimeUnit.SECONDS);
+    }
+
+    static Runnable addTo(final List<String> list, final String value) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                list.add(value);
+            }
+        };
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullScheduler() {
+        Schedulers.limitRate(null, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullUnit() {
+        Schedulers.limitRate(Schedulers.trampoline(), 1, 1, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveTasks() {
+        Schedulers.limitRate(Schedulers.trampoline(), 0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositivePeriod() {
+        Schedulers.limitRate(Schedulers.trampoline(), 1, 0, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void burstThenSteadyRate() {
+        TestScheduler ts = new TestScheduler();
+        Scheduler s = Schedulers.limitRate(ts, 2, 1, TimeUnit.SECONDS);
+        List<String> list = new ArrayList<String>();
+
+        Worker w1 = s.createWorker();
+        Worker w2 = s.createWorker();
+
+        w1.schedule(addTo(list, "a1"));
+        w1.schedule(addTo(list, "a2"));
+        w2.schedule(addTo(list, "b1"));
+        w1.schedule(addTo(list, "a3"));
+        w2.schedule(addTo(list, "b2"));
+
+        ts.triggerActions();
+
+        assertEquals(Arrays.asList("a1", "a2"), list);
+
+        ts.advanceTimeBy(499, TimeUnit.MILLISECONDS);
+
+        assertEquals(Arrays.asList("a1", "a2"), list);
+
+        ts.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+
+        assertEquals(Arrays.asList("a1", "a2", "b1"), list);
+
+        ts.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("a1", "a2", "b1", "a3", "b2"), list);
+
+        w1.dispose();
+        w2.dispose();
+    }
+
+    @Test
+    public void parkedTaskKeepsItsTurn() {
+        TestScheduler ts = new TestScheduler();
+        Scheduler s = Schedulers.limitRate(ts, 1, 1, TimeUnit.SECONDS);
+        final List<String> list = new ArrayList<String>();
+
+        final Worker w = s.createWorker();
+
+        // runs when the next permit frees up, before the wakeup of the parked task
+        ts.scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                w.schedule(addTo(list, "a3"));
+            }
+        }, 1, TimeUnit.SECONDS);
+
+        w.schedule(addTo(list, "a1"));
+        w.schedule(addTo(list, "a2"));
+
+        ts.triggerActions();
+
+        assertEquals(Arrays.asList("a1"), list);
+
+        ts.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("a1", "a2"), list);
+
+        ts.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("a1", "a2", "a3"), list);
+
+        w.dispose();
+    }
+
+    @Test
+    public void disposedTasksDontUsePermits() {
+        TestScheduler ts = new TestScheduler();
+        Scheduler s = Schedulers.limitRate(ts, 1, 1, TimeUnit.SECONDS);
+        List<String> list = new ArrayList<String>();
+
+        Worker w1 = s.createWorker();
+        Worker w2 = s.createWorker();
+
+        w1.schedule(addTo(list, "a1"));
+        Disposable d = w1.schedule(addTo(list, "a2"));
+        w2.schedule(addTo(list, "b1"));
+        w2.schedule(addTo(list, "b2"));
+        w1.schedule(addTo(list, "a3"));
+
+        d.dispose();
+        w2.dispose();
+
+        ts.triggerActions();
+
+        assertEquals(Arrays.asList("a1"), list);
+
+        ts.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("a1", "a3"), list);
+
+        w1.dispose();
+
+        assertTrue(w1.isDisposed());
+        assertTrue(w1.schedule(addTo(list, "a4")).isDisposed());
+    }
+
+    @Test
+    public void delayedTaskWaitsForPermit() {
+        TestScheduler ts = new TestScheduler();
+        Scheduler s = Schedulers.limitRate(ts, 1, 10, TimeUnit.SECONDS);
+        List<String> list = new ArrayList<String>();
+
+        Worker w = s.createWorker();
+
+        w.schedule(addTo(list, "a"));
+        w.schedule(addTo(list, "b"), 1, TimeUnit.SECONDS);
+        Disposable d = w.schedule(addTo(list, "c"), 2, TimeUnit.SECONDS);
+
+        ts.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("a"), list);
+
+        d.dispose();
+
+        ts.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("a", "b"), list);
+
+        ts.advanceTimeBy(10, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("a", "b"), list);
+
+        assertEquals(ts.now(TimeUnit.SECONDS), w.now(TimeUnit.SECONDS));
+
+        w.dispose();
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import io.reactivex.Scheduler;
+import io.reactivex.Scheduler.Worker;
+import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.schedulers.SchedulerMetricsRecorder;
+import io.reactivex.internal.schedulers.SingleScheduler;
+
+public class SchedulerMetricsTest {
+
+    @Test
+    public void standardSchedulersHaveMetrics() {
+        assertNotNull(Schedulers.metrics(Schedulers.computation()));
+        assertNotNull(Schedulers.metrics(Schedulers.io()));
+        assertNotNull(Schedulers.metrics(Schedulers.single()));
+        assertNotNull(Schedulers.metrics(Schedulers.newThread()));
+        assertNotNull(Schedulers.metrics(Schedulers.from(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        })));
+
+        assertNull(Schedulers.metrics(Schedulers.trampoline()));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void metricsNull() {
+        Schedulers.metrics(null);
+    }
+
+    @Test
+    public void singleQueueDepth() {
+        Scheduler s = new SingleScheduler();
+        try {
+            SchedulerMetrics m = Schedulers.metrics(s);
+
+            assertArrayEquals(new int[] { 0 }, m.queueDepths());
+
+            s.scheduleDirect(Functions.EMPTY_RUNNABLE, 1, TimeUnit.HOURS);
+            s.scheduleDirect(Functions.EMPTY_RUNNABLE, 1, TimeUnit.HOURS);
+
+            assertArrayEquals(new int[] { 2 }, m.queueDepths());
+
+            s.shutdown();
+
+            assertArrayEquals(new int[0], m.queueDepths());
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void computationQueueDepthPerEventLoop() {
+        SchedulerMetrics m = Schedulers.metrics(Schedulers.computation());
+
+        assertTrue(m.queueDepths().length >= 1);
+    }
+
+    @Test
+    public void executorQueueDepth() {
+        ExecutorService exec = Executors.newFixedThreadPool(1);
+        try {
+            assertArrayEquals(new int[] { 0 }, Schedulers.metrics(Schedulers.from(exec)).queueDepths());
+        } finally {
+            exec.shutdownNow();
+        }
+
+        assertArrayEquals(new int[0], Schedulers.metrics(Schedulers.from(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        })).queueDepths());
+    }
+
+    @Test(timeout = 5000)
+    public void countsTasks() throws InterruptedException {
+        Assume.assumeTrue("rx2.scheduler-metrics is not enabled", SchedulerMetricsRecorder.ENABLED);
+
+        Scheduler s = new SingleScheduler();
+        try {
+            SchedulerMetrics m = Schedulers.metrics(s);
+
+            final CountDownLatch cdl = new CountDownLatch(2);
+            Runnable r = new Runnable() {
+                @Override
+                public void run() {
+                    cdl.countDown();
+                }
+            };
+
+            s.scheduleDirect(r);
+            s.scheduleDirect(r, 1, TimeUnit.HOURS).dispose();
+
+            Worker w = s.createWorker();
+            w.schedule(r);
+            w.schedule(r, 1, TimeUnit.HOURS);
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+
+            w.dispose();
+
+            assertEquals(4, m.submittedCount());
+            for (int i = 0; i < 100 && m.executedCount() != 2; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, m.executedCount());
+            assertEquals(2, m.cancelledCount());
+            assertEquals(2, m.queueWaitTime().count());
+            assertEquals(2, m.runTime().count());
+        } finally {
+            s.shutdown();
+        }
+    }
+}
@@ -19,6 +19,12 @@ import org.mockito.Mockito;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -261,5 +267,141 @@ public class TestSchedulerTest {
         assertTrue(w.isDisposed());
     }
 
+    static Runnable addTo(final List<Integer> list, final int value) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                list.add(value);
+            }
+        };
+    }
+
+    @Test
+    public void sameInstantRunsInSchedulingOrder() {
+        TestScheduler scheduler = new TestScheduler();
+        final Worker w = scheduler.createWorker();
+        final List<Integer> list = new ArrayList<Integer>();
+
+        w.schedule(addTo(list, 3), 10, TimeUnit.SECONDS);
+        w.schedule(new Runnable() {
+            @Override
+            public void run() {
+                list.add(1);
+                // immediate tasks run before the remaining tasks of the instant
+                w.schedule(addTo(list, 2));
+            }
+        }, 5, TimeUnit.SECONDS);
+        w.schedule(addTo(list, 4), 10, TimeUnit.SECONDS);
+        w.schedule(addTo(list, 5), 10, TimeUnit.SECONDS);
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(1, 2), list);
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), list);
+    }
+
+    @Test
+    public void cancelWithinInstant() {
+        TestScheduler scheduler = new TestScheduler();
+        Worker w = scheduler.createWorker();
+        List<Integer> list = new ArrayList<Integer>();
+
+        Disposable d1 = w.schedule(addTo(list, 1), 1, TimeUnit.SECONDS);
+        Disposable d2 = w.schedule(addTo(list, 2), 1, TimeUnit.SECONDS);
+        Disposable d3 = w.schedule(addTo(list, 3), 1, TimeUnit.SECONDS);
+        Disposable d4 = w.schedule(addTo(list, 4), 2, TimeUnit.SECONDS);
+
+        assertEquals(4, scheduler.pendingCount());
+
+        d2.dispose();
+        d2.dispose();
+        assertTrue(d2.isDisposed());
+
+        assertEquals(3, scheduler.pendingCount());
+
+        d1.dispose();
+        d3.dispose();
+
+        assertEquals(1, scheduler.pendingCount());
+
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(4), list);
+        assertEquals(0, scheduler.pendingCount());
+        assertEquals(1, scheduler.executedCount());
+
+        d4.dispose();
+
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    public void disposedWorkerTasksAreNotCounted() {
+        TestScheduler scheduler = new TestScheduler();
+        Worker w = scheduler.createWorker();
+        List<Integer> list = new ArrayList<Integer>();
+
+        w.schedule(addTo(list, 1));
+        w.schedule(addTo(list, 2), 1, TimeUnit.SECONDS);
+
+        scheduler.triggerActions();
+
+        w.dispose();
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(1), list);
+        assertEquals(1, scheduler.executedCount());
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    public void randomScheduleAndCancel() {
+        TestScheduler scheduler = new TestScheduler();
+        Worker w = scheduler.createWorker();
+        Random random = new Random(12345);
+
+        final List<Integer> list = new ArrayList<Integer>();
+        List<long[]> expected = new ArrayList<long[]>();
+        List<Disposable> disposables = new ArrayList<Disposable>();
+
+        int n = 10000;
+        for (int i = 0; i < n; i++) {
+            long delay = random.nextInt(100);
+            disposables.add(w.schedule(addTo(list, i), delay, TimeUnit.MILLISECONDS));
+            expected.add(new long[] { delay, i });
+        }
 
+        List<Integer> cancelled = new ArrayList<Integer>();
+        for (int i = 0; i < n; i += 3) {
+            int j = random.nextInt(n);
+            disposables.get(j).dispose();
+            cancelled.add(j);
+        }
+
+        Collections.sort(expected, new Comparator<long[]>() {
+            @Override
+            public int compare(long[] a, long[] b) {
+                return a[0] != b[0] ? (a[0] < b[0] ? -1 : 1) : (a[1] < b[1] ? -1 : (a[1] == b[1] ? 0 : 1));
+            }
+        });
+
+        List<Integer> order = new ArrayList<Integer>();
+        for (long[] e : expected) {
+            if (!cancelled.contains((int)e[1])) {
+                order.add((int)e[1]);
+            }
+        }
+
+        assertEquals(order.size(), scheduler.pendingCount());
+
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+
+        assertEquals(order, list);
+        assertEquals(order.size(), scheduler.executedCount());
+        assertEquals(0, scheduler.pendingCount());
+    }
 }
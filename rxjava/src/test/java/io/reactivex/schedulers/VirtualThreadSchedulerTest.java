@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.reactivex.Scheduler;
+import io.reactivex.Scheduler.Worker;
+import io.reactivex.TestHelper;
+import io.reactivex.internal.schedulers.RxThreadFactory;
+import io.reactivex.internal.schedulers.VirtualThreadScheduler;
+import io.reactivex.plugins.RxJavaPlugins;
+
+public class VirtualThreadSchedulerTest extends AbstractSchedulerConcurrencyTests {
+
+    /** Uses platform threads so the per-task thread semantics are tested on any JVM. */
+    static final Scheduler SCHEDULER = new VirtualThreadScheduler(new RxThreadFactory("RxVirtualTest", Thread.NORM_PRIORITY, true));
+
+    @Override
+    protected Scheduler getScheduler() {
+        return SCHEDULER;
+    }
+
+    @Test
+    public final void testHandledErrorIsNotDeliveredToThreadHandler() throws InterruptedException {
+        SchedulerTestHelper.testHandledErrorIsNotDeliveredToThreadHandler(getScheduler());
+    }
+
+    @Test
+    public void virtualFallsBackToIo() {
+        if (VirtualThreadScheduler.isSupported()) {
+            assertTrue(Schedulers.virtual() instanceof VirtualThreadScheduler);
+        } else {
+            assertSame(Schedulers.io(), Schedulers.virtual());
+
+            try {
+                new VirtualThreadScheduler();
+                fail("Should have thrown");
+            } catch (IllegalStateException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void virtualRunsTasks() throws InterruptedException {
+        final CountDownLatch cdl = new CountDownLatch(1);
+        Schedulers.virtual().scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                cdl.countDown();
+            }
+        });
+
+        assertTrue(cdl.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test(timeout = 5000)
+    public void threadPerDrainRun() throws InterruptedException {
+        final AtomicInteger threads = new AtomicInteger();
+        Scheduler s = new VirtualThreadScheduler(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                threads.getAndIncrement();
+                Thread t = new Thread(r);
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        final CountDownLatch cdl = new CountDownLatch(3);
+        Runnable r = new Runnable() {
+            @Override
+            public void run() {
+                cdl.countDown();
+            }
+        };
+
+        s.scheduleDirect(r);
+        s.scheduleDirect(r);
+        s.scheduleDirect(r);
+
+        assertTrue(cdl.await(5, TimeUnit.SECONDS));
+        assertEquals(3, threads.get());
+    }
+
+    @Test(timeout = 5000)
+    public void workerIsSerialAndOrdered() throws InterruptedException {
+        Worker w = SCHEDULER.createWorker();
+        try {
+            final int n = 10000;
+            final AtomicInteger active = new AtomicInteger();
+            final AtomicInteger failures = new AtomicInteger();
+            final int[] next = { 0 };
+            final CountDownLatch cdl = new CountDownLatch(1);
+
+            for (int i = 0; i < n; i++) {
+                final int j = i;
+                w.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (active.getAndIncrement() != 0 || next[0]++ != j) {
+                            failures.getAndIncrement();
+                        }
+                        active.decrementAndGet();
+                        if (j == n - 1) {
+                            cdl.countDown();
+                        }
+                    }
+                });
+            }
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+            assertEquals(0, failures.get());
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void rejectingThreadFactory() {
+        List<Throwable> errors = TestHelper.trackPluginErrors();
+        try {
+            Scheduler s = new VirtualThreadScheduler(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    return null;
+                }
+            });
+
+            assertTrue(s.scheduleDirect(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).isDisposed());
+
+            TestHelper.assertUndeliverable(errors, 0, RejectedExecutionException.class);
+        } finally {
+            RxJavaPlugins.reset();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.reactivex.Scheduler;
+import io.reactivex.Scheduler.Worker;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.internal.schedulers.RxThreadFactory;
+import io.reactivex.internal.schedulers.WorkStealingScheduler;
+
+public class WorkStealingSchedulerTest extends AbstractSchedulerConcurrencyTests {
+
+    static Scheduler SCHEDULER;
+
+    @BeforeClass
+    public static void beforeClass() {
+        SCHEDULER = new WorkStealingScheduler(new RxThreadFactory("RxWorkStealingTest", Thread.NORM_PRIORITY, true), 4);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        SCHEDULER.shutdown();
+    }
+
+    @Override
+    protected Scheduler getScheduler() {
+        return SCHEDULER;
+    }
+
+    @Test
+    public final void testHandledErrorIsNotDeliveredToThreadHandler() throws InterruptedException {
+        SchedulerTestHelper.testHandledErrorIsNotDeliveredToThreadHandler(getScheduler());
+    }
+
+    @Test(timeout = 10000)
+    public void workerKeepsFifoOrder() throws InterruptedException {
+        Worker w = SCHEDULER.createWorker();
+        try {
+            final int n = 100000;
+            final List<Integer> list = new ArrayList<Integer>();
+            final CountDownLatch cdl = new CountDownLatch(1);
+            for (int i = 0; i < n; i++) {
+                final int j = i;
+                w.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        list.add(j);
+                        if (j == n - 1) {
+                            cdl.countDown();
+                        }
+                    }
+                });
+            }
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+
+            assertEquals(n, list.size());
+            for (int i = 0; i < n; i++) {
+                assertEquals(i, list.get(i).intValue());
+            }
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void workerTasksDontOverlap() throws InterruptedException {
+        final int workers = 16;
+        final int n = 10000;
+        final AtomicInteger failures = new AtomicInteger();
+        final CountDownLatch cdl = new CountDownLatch(workers);
+        List<Worker> list = new ArrayList<Worker>();
+        try {
+            for (int k = 0; k < workers; k++) {
+                Worker w = SCHEDULER.createWorker();
+                list.add(w);
+                final AtomicInteger active = new AtomicInteger();
+                final int[] count = { 0 };
+                for (int i = 0; i < n; i++) {
+                    w.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (active.getAndIncrement() != 0) {
+                                failures.incrementAndGet();
+                            }
+                            if (++count[0] == n) {
+                                cdl.countDown();
+                            }
+                            active.decrementAndGet();
+                        }
+                    });
+                }
+            }
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+            assertEquals(0, failures.get());
+        } finally {
+            for (Worker w : list) {
+                w.dispose();
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void idleLoopsStealFromBusyOne() throws InterruptedException {
+        final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch cdl = new CountDownLatch(8);
+        final Worker submitter = SCHEDULER.createWorker();
+        try {
+            submitter.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    // tasks scheduled from an event loop land in its own deque
+                    for (int i = 0; i < 8; i++) {
+                        SCHEDULER.scheduleDirect(new Runnable() {
+                            @Override
+                            public void run() {
+                                threads.add(Thread.currentThread().getName());
+                                try {
+                                    release.await(100, TimeUnit.MILLISECONDS);
+                                } catch (InterruptedException ex) {
+                                    // ignored
+                                }
+                                cdl.countDown();
+                            }
+                        });
+                    }
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        // ignored
+                    }
+                }
+            });
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+            release.countDown();
+
+            assertTrue(threads.toString(), threads.size() > 1);
+        } finally {
+            release.countDown();
+            submitter.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void delayedDirectCanBeDisposed() throws InterruptedException {
+        final AtomicInteger calls = new AtomicInteger();
+        Runnable r = new Runnable() {
+            @Override
+            public void run() {
+                calls.incrementAndGet();
+            }
+        };
+
+        SCHEDULER.scheduleDirect(r, 50, TimeUnit.MILLISECONDS).dispose();
+
+        Worker w = SCHEDULER.createWorker();
+        try {
+            w.schedule(r, 50, TimeUnit.MILLISECONDS).dispose();
+        } finally {
+            w.dispose();
+        }
+
+        Thread.sleep(200);
+
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void shutdownRejects() {
+        final int[] calls = { 0 };
+
+        Runnable r = new Runnable() {
+            @Override
+            public void run() {
+                calls[0]++;
+            }
+        };
+
+        Scheduler s = new WorkStealingScheduler();
+        s.shutdown();
+        s.shutdown();
+
+        assertEquals(Disposables.disposed(), s.scheduleDirect(r));
+
+        assertEquals(Disposables.disposed(), s.scheduleDirect(r, 1, TimeUnit.SECONDS));
+
+        assertEquals(Disposables.disposed(), s.schedulePeriodicallyDirect(r, 1, 1, TimeUnit.SECONDS));
+
+        Worker w = s.createWorker();
+        w.dispose();
+
+        assertTrue(w.isDisposed());
+
+        assertEquals(Disposables.disposed(), w.schedule(r));
+
+        assertEquals(Disposables.disposed(), w.schedule(r, 1, TimeUnit.SECONDS));
+
+        assertEquals(Disposables.disposed(), w.schedulePeriodically(r, 1, 1, TimeUnit.SECONDS));
+
+        assertEquals(0, calls[0]);
+    }
+}
@@ -17,7 +17,9 @@ import org.junit.Test;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.reactivex.Observable;
@@ -29,6 +31,7 @@ import io.reactivex.exceptions.TestException;
 import io.reactivex.functions.Function;
 import io.reactivex.observers.DefaultObserver;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.plugins.RxJavaPlugins;
 import io.reactivex.schedulers.Schedulers;
 import io.reactivex.schedulers.TestScheduler;
 
@@ -1217,4 +1220,124 @@ public class ReplaySubjectTest {
 
         source.test().assertResult();
     }
+
+    static final Function<Integer, byte[]> INT_SERIALIZER = new Function<Integer, byte[]>() {
+        @Override
+        public byte[] apply(Integer v) {
+            return ByteBuffer.allocate(4).putInt(v).array();
+        }
+    };
+
+    static final Function<ByteBuffer, Integer> INT_DESERIALIZER = new Function<ByteBuffer, Integer>() {
+        @Override
+        public Integer apply(ByteBuffer b) {
+            return b.getInt();
+        }
+    };
+
+    static final Function<Integer, byte[]> SERIALIZER_FAILS_AT_2 = new Function<Integer, byte[]>() {
+        @Override
+        public byte[] apply(Integer v) {
+            if (v == 2) {
+                throw new TestException("serializer");
+            }
+            return ByteBuffer.allocate(4).putInt(v).array();
+        }
+    };
+
+    static final Function<ByteBuffer, Integer> DESERIALIZER_FAILS = new Function<ByteBuffer, Integer>() {
+        @Override
+        public Integer apply(ByteBuffer b) {
+            throw new TestException("deserializer");
+        }
+    };
+
+    @Test
+    public void mapped() {
+        ReplaySubject<Integer> rs = ReplaySubject.createMapped(INT_SERIALIZER, INT_DESERIALIZER);
+
+        for (int i = 0; i < 1000; i++) {
+            rs.onNext(i);
+        }
+
+        assertEquals(1000, rs.size());
+        assertTrue(rs.hasValue());
+        assertEquals(999, rs.getValue().intValue());
+
+        Object[] values = rs.getValues();
+        assertEquals(1000, values.length);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, values[i]);
+        }
+
+        TestObserver<Integer> to = rs.test();
+
+        to.assertValueCount(1000).assertNotComplete();
+
+        rs.onNext(1000);
+        rs.onComplete();
+
+        to.assertValueCount(1001).assertNoErrors().assertComplete();
+        for (int i = 0; i <= 1000; i++) {
+            assertEquals(i, to.values().get(i).intValue());
+        }
+
+        rs.test().assertValueCount(1001).assertNoErrors().assertComplete();
+        assertTrue(rs.hasComplete());
+    }
+
+    @Test
+    public void mappedEmpty() {
+        ReplaySubject<Integer> rs = ReplaySubject.createMapped(INT_SERIALIZER, INT_DESERIALIZER);
+
+        assertEquals(0, rs.size());
+        assertNull(rs.getValue());
+        assertEquals(0, rs.getValues().length);
+
+        rs.onError(new TestException());
+
+        rs.test().assertFailure(TestException.class);
+    }
+
+    @Test
+    public void mappedSerializerFails() {
+        List<Throwable> errors = TestHelper.trackPluginErrors();
+        try {
+            ReplaySubject<Integer> rs = ReplaySubject.createMapped(SERIALIZER_FAILS_AT_2, INT_DESERIALIZER);
+
+            TestObserver<Integer> to = rs.test();
+
+            rs.onNext(1);
+            rs.onNext(2);
+            rs.onNext(3);
+
+            to.assertFailureAndMessage(TestException.class, "serializer", 1);
+            assertFalse(rs.hasObservers());
+            assertTrue(rs.hasThrowable());
+
+            rs.test().assertFailureAndMessage(TestException.class, "serializer", 1);
+
+            rs.onError(new TestException("upstream"));
+
+            TestHelper.assertUndeliverable(errors, 0, TestException.class, "upstream");
+        } finally {
+            RxJavaPlugins.reset();
+        }
+    }
+
+    @Test
+    public void mappedDeserializerFails() {
+        ReplaySubject<Integer> rs = ReplaySubject.createMapped(INT_SERIALIZER, DESERIALIZER_FAILS);
+
+        // the tail keeps the last bufferSize() items, the older ones are deserialized
+        for (int i = 0; i < Observable.bufferSize() * 2; i++) {
+            rs.onNext(i);
+        }
+
+        TestObserver<Integer> to = rs.test();
+
+        to.assertFailureAndMessage(TestException.class, "deserializer");
+
+        assertFalse(rs.hasObservers());
+    }
 }